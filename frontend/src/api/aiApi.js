@@ -1,13 +1,15 @@
 import api from '../utils/api'
 
+const POLL_INTERVAL_MS = 1500
+const POLL_TIMEOUT_MS = 5 * 60 * 1000
+
+const sleep = (ms) => new Promise((resolve) => setTimeout(resolve, ms))
+
 /**
- * AI 추천 플랜 생성 요청
- * @param {string} weekStart - 주간 시작일 (yyyy-MM-dd 형식)
- * @param {string} goal - 목표 (선택사항)
- * @param {string} specialRequests - 특별 요청사항 (선택사항)
- * @returns {Promise<{matchId: number, message: string}>}
+ * AI 추천 플랜 생성 요청 (작업 등록만, 즉시 반환)
+ * @returns {Promise<{jobId: number, status: string, matchId: number}>}
  */
-export const createAiRecommendation = async (weekStart, goal = null, specialRequests = null) => {
+export const submitAiRecommendation = async (weekStart, goal = null, specialRequests = null) => {
   const response = await api.post('/ai/recommendations', {
     weekStart,
     goal,
@@ -16,3 +18,93 @@ export const createAiRecommendation = async (weekStart, goal = null, specialRequ
   return response.data
 }
 
+/**
+ * AI 추천 작업 상태 조회
+ * @returns {Promise<{jobId: number, status: 'PENDING'|'RUNNING'|'SUCCEEDED'|'FAILED', matchId: number, weekId: number, error: string, fallback: boolean}>}
+ */
+export const getAiRecommendationJob = async (jobId) => {
+  const response = await api.get(`/ai/recommendations/jobs/${jobId}`)
+  return response.data
+}
+
+/**
+ * AI 추천 작업 진행 SSE 구독 (fetch 스트림: Authorization 헤더가 필요해 EventSource 대신 사용)
+ * event: day → onDay(DayView), event: done → 최종 작업 상태 반환
+ * @returns {Promise<object|null>} 최종 작업 상태. 스트림을 쓸 수 없으면 null (폴링으로 전환)
+ */
+export const streamAiRecommendationJob = async (jobId, onDay) => {
+  const token = localStorage.getItem('token')
+  const response = await fetch(`${api.defaults.baseURL}/ai/recommendations/jobs/${jobId}/stream`, {
+    headers: {
+      Accept: 'text/event-stream',
+      ...(token ? { Authorization: `Bearer ${token}` } : {}),
+    },
+  })
+  if (!response.ok || !response.body) return null
+
+  const reader = response.body.getReader()
+  const decoder = new TextDecoder()
+  let buffer = ''
+  while (true) {
+    const { value, done } = await reader.read()
+    if (done) return null
+    buffer += decoder.decode(value, { stream: true })
+    let sep
+    while ((sep = buffer.indexOf('\n\n')) >= 0) {
+      const raw = buffer.slice(0, sep)
+      buffer = buffer.slice(sep + 2)
+      let event = 'message'
+      const data = []
+      for (const line of raw.split('\n')) {
+        if (line.startsWith('event:')) event = line.slice(6).trim()
+        else if (line.startsWith('data:')) data.push(line.slice(5).trimStart())
+      }
+      if (event === 'day') onDay?.(JSON.parse(data.join('\n')))
+      else if (event === 'done') {
+        reader.cancel()
+        return JSON.parse(data.join('\n'))
+      } else if (event === 'error') {
+        reader.cancel()
+        return null
+      }
+    }
+  }
+}
+
+/**
+ * AI 추천 플랜 생성 요청 후 완료될 때까지 대기
+ * 진행 중에는 SSE 로 Day 가 완성되는 대로 onDay 를 호출하고, 스트림을 쓸 수 없으면 상태 폴링으로 기다린다.
+ * @param {string} weekStart - 주간 시작일 (yyyy-MM-dd 형식)
+ * @param {string} goal - 목표 (선택사항)
+ * @param {string} specialRequests - 특별 요청사항 (선택사항)
+ * @param {(day: {dayIndex: number, note: string, items: object[]}) => void} onDay - Day 수신 콜백 (선택사항)
+ * @returns {Promise<{matchId: number, fallback: boolean, message: string}>}
+ */
+export const createAiRecommendation = async (weekStart, goal = null, specialRequests = null, onDay = null) => {
+  let job = await submitAiRecommendation(weekStart, goal, specialRequests)
+  if (job.status === 'PENDING' || job.status === 'RUNNING') {
+    try {
+      job = (await streamAiRecommendationJob(job.jobId, onDay)) || job
+    } catch (e) {
+      // 스트림 실패 시 폴링으로 계속
+    }
+  }
+  const deadline = Date.now() + POLL_TIMEOUT_MS
+  while (job.status === 'PENDING' || job.status === 'RUNNING') {
+    if (Date.now() > deadline) {
+      throw new Error('AI 추천 플랜 생성이 지연되고 있습니다. 잠시 후 다시 확인해 주세요.')
+    }
+    await sleep(POLL_INTERVAL_MS)
+    job = await getAiRecommendationJob(job.jobId)
+  }
+  if (job.status === 'FAILED') {
+    throw new Error(`AI 추천 플랜 생성 중 오류가 발생했습니다: ${job.error || '알 수 없는 오류'}`)
+  }
+  return {
+    matchId: job.matchId,
+    fallback: job.fallback,
+    message: job.fallback
+      ? 'AI 응답이 지연되어 기본 플랜을 생성했습니다. 잠시 후 다시 생성하면 맞춤 플랜을 받을 수 있습니다.'
+      : 'AI 추천 플랜이 성공적으로 생성되었습니다.',
+  }
+}
@@ -15,6 +15,7 @@ function AiRecommendation() {
   const [loading, setLoading] = useState(false)
   const [error, setError] = useState('')
   const [success, setSuccess] = useState('')
+  const [daysReady, setDaysReady] = useState(0)
   
   // 오늘 날짜 기준 다음 주 월요일 계산
   const getNextMonday = () => {
@@ -37,12 +38,14 @@ function AiRecommendation() {
     setLoading(true)
     setError('')
     setSuccess('')
+    setDaysReady(0)
 
     try {
       const result = await createAiRecommendation(
         formData.weekStart,
         formData.goal || null,
-        formData.specialRequests || null
+        formData.specialRequests || null,
+        () => setDaysReady((n) => n + 1)
       )
 
       setSuccess(result.message || 'AI 추천 플랜이 성공적으로 생성되었습니다!')
@@ -146,7 +149,11 @@ function AiRecommendation() {
         </div>
 
         <Button type="submit" disabled={loading} className="w-full rounded-2xl bg-gradient-to-r from-blue-500 to-indigo-500 text-white shadow hover:from-blue-600 hover:to-indigo-600 disabled:opacity-70">
-          {loading ? 'AI 플랜 생성 중...' : 'AI 추천 플랜 생성하기'}
+          {loading
+            ? daysReady > 0
+              ? `AI 플랜 생성 중... (${Math.min(daysReady, 7)}/7일 완료)`
+              : 'AI 플랜 생성 중...'
+            : 'AI 추천 플랜 생성하기'}
         </Button>
 
         <div className="rounded-2xl border border-indigo-200 bg-indigo-50 p-4 text-sm text-slate-600">
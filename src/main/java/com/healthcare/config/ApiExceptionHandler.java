@@ -2,6 +2,9 @@ package com.healthcare.config;
 
 import com.healthcare.security.ForbiddenException;
 import com.healthcare.security.NotFoundException;
+import com.healthcare.service.AiBusyException;
+import com.healthcare.service.AiUnavailableException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindException;
@@ -48,6 +51,22 @@ public class ApiExceptionHandler {
                 .body(Map.of("message", ex.getMessage()));
     }
 
+    /** OpenAI 게이트 포화: 429 + Retry-After (초) */
+    @ExceptionHandler(AiBusyException.class)
+    public ResponseEntity<?> handleAiBusy(AiBusyException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(Map.of("message", ex.getMessage(), "retryAfterSeconds", ex.getRetryAfterSeconds()));
+    }
+
+    /** OpenAI 서킷 오픈: 503 + Retry-After (초) */
+    @ExceptionHandler(AiUnavailableException.class)
+    public ResponseEntity<?> handleAiUnavailable(AiUnavailableException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(Map.of("message", ex.getMessage(), "retryAfterSeconds", ex.getRetryAfterSeconds()));
+    }
+
     @ExceptionHandler(IllegalStateException.class)
     public ResponseEntity<?> handleIllegalState(IllegalStateException ex) {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST)
@@ -136,6 +136,8 @@ public class DataSourceConfig {
         config.setConnectionTimeout(30000);
         config.setIdleTimeout(600000);
         config.setMaxLifetime(1800000);
+        // JDBC batchUpdate 를 multi-row insert 로 전송 (게시글 미디어/태그, 좋아요/조회 flush)
+        config.addDataSourceProperty("reWriteBatchedInserts", "true");
         
         return new HikariDataSource(config);
     }
@@ -0,0 +1,8 @@
+package com.healthcare.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling // @Scheduled 배치 작업 활성화
+public class SchedulingConfig { }
@@ -3,6 +3,7 @@ package com.healthcare.config;
 import com.healthcare.security.JwtAuthenticationFilter;
 import com.healthcare.security.JwtUtil;
 import com.healthcare.service.AccountUserDetailsService;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -60,7 +61,11 @@ public class SecurityConfig {
         http.cors(Customizer.withDefaults());
         http.sessionManagement(m -> m.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
         http.authorizeHttpRequests(auth -> auth
+                // long-poll(DeferredResult) 응답 재디스패치: 최초 요청에서 이미 인가됨
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .requestMatchers("/api/auth/**", "/actuator/health", "/error").permitAll()
+                // WebSocket 핸드셰이크는 헤더를 못 싣는 브라우저가 있어 열어 두고, STOMP CONNECT 에서 JWT 검증
+                .requestMatchers("/ws/**").permitAll()
                 .requestMatchers("/api/admin/**").hasRole("ADMIN")
                 .anyRequest().authenticated()
         );
@@ -0,0 +1,64 @@
+package com.healthcare.config;
+
+import com.healthcare.repository.ChatThreadRepository;
+import com.healthcare.security.ActorGuard;
+import com.healthcare.security.JwtUtil;
+import com.healthcare.security.StompAuthChannelInterceptor;
+import com.healthcare.service.AccountUserDetailsService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
+import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
+import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
+import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+
+import java.util.Arrays;
+
+/**
+ * 채팅 실시간 전달용 STOMP over WebSocket.
+ * 클라이언트: ws://host/ws 에 CONNECT(Authorization: Bearer ...) 후 /topic/chat.threads.{threadId} 구독.
+ * 단일 인스턴스 기준 simple broker 사용.
+ */
+@Configuration
+@EnableWebSocketMessageBroker
+public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+
+    @Value("${app.cors.allowed-origins:http://localhost:5173,http://localhost:3000,http://127.0.0.1:5173,http://127.0.0.1:3000}")
+    private String allowedOrigins;
+
+    private final JwtUtil jwtUtil;
+    private final AccountUserDetailsService uds;
+    private final ChatThreadRepository threadRepo;
+    private final ActorGuard guard;
+
+    public WebSocketConfig(JwtUtil jwtUtil,
+                           AccountUserDetailsService uds,
+                           ChatThreadRepository threadRepo,
+                           ActorGuard guard) {
+        this.jwtUtil = jwtUtil;
+        this.uds = uds;
+        this.threadRepo = threadRepo;
+        this.guard = guard;
+    }
+
+    @Override
+    public void registerStompEndpoints(StompEndpointRegistry registry) {
+        String[] origins = Arrays.stream(allowedOrigins.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .toArray(String[]::new);
+        registry.addEndpoint("/ws").setAllowedOrigins(origins);
+    }
+
+    @Override
+    public void configureMessageBroker(MessageBrokerRegistry registry) {
+        registry.enableSimpleBroker("/topic");
+        registry.setApplicationDestinationPrefixes("/app");
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(new StompAuthChannelInterceptor(jwtUtil, uds, threadRepo, guard));
+    }
+}
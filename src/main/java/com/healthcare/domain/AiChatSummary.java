@@ -0,0 +1,35 @@
+package com.healthcare.domain;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.LocalDateTime;
+
+/** 매칭별 AI 대화 누적 요약. covered_turn_id 까지의 턴이 요약에 포함됨 */
+@Entity
+@Table(name = "ai_chat_summary")
+public class AiChatSummary {
+
+    @Id
+    @Column(name="match_id")
+    private Long matchId;
+
+    @Column(name="summary", nullable = false, columnDefinition = "TEXT")
+    private String summary;
+
+    @ColumnDefault("0")
+    @Column(name="covered_turn_id", nullable = false)
+    private long coveredTurnId;
+
+    @Column(name="updated_at", nullable = false)
+    private LocalDateTime updatedAt = LocalDateTime.now();
+
+    public Long getMatchId() { return matchId; }
+    public void setMatchId(Long matchId) { this.matchId = matchId; }
+    public String getSummary() { return summary; }
+    public void setSummary(String summary) { this.summary = summary; }
+    public long getCoveredTurnId() { return coveredTurnId; }
+    public void setCoveredTurnId(long coveredTurnId) { this.coveredTurnId = coveredTurnId; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -0,0 +1,41 @@
+package com.healthcare.domain;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/** AI 트레이너 대화 1턴 (user 또는 assistant). 매칭 단위로 서버에 보관 */
+@Entity
+@Table(name = "ai_chat_turn", indexes = {
+        @Index(name="idx_ai_chat_turn_match", columnList = "match_id, id")
+})
+public class AiChatTurn {
+
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name="match_id", nullable = false)
+    private Long matchId;
+
+    @Column(name="role", nullable = false, length = 16)
+    private String role; // user | assistant
+
+    @Column(name="content", nullable = false, columnDefinition = "TEXT")
+    private String content;
+
+    @Column(name="token_estimate", nullable = false)
+    private int tokenEstimate;
+
+    @Column(name="created_at", nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    public Long getId() { return id; }
+    public Long getMatchId() { return matchId; }
+    public void setMatchId(Long matchId) { this.matchId = matchId; }
+    public String getRole() { return role; }
+    public void setRole(String role) { this.role = role; }
+    public String getContent() { return content; }
+    public void setContent(String content) { this.content = content; }
+    public int getTokenEstimate() { return tokenEstimate; }
+    public void setTokenEstimate(int tokenEstimate) { this.tokenEstimate = tokenEstimate; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+}
@@ -0,0 +1,41 @@
+package com.healthcare.domain;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/** AI 플랜 응답 캐시 1건. 키는 구간화된 프로필 지문(profile_key 의 SHA-256) */
+@Entity
+@Table(name = "ai_plan_cache", indexes = {
+        @Index(name="idx_ai_plan_cache_last_hit", columnList = "last_hit_at")
+})
+public class AiPlanCacheEntry {
+
+    @Id
+    @Column(name="fingerprint", length = 64)
+    private String fingerprint;
+
+    @Column(name="profile_key", nullable = false, length = 300)
+    private String profileKey; // 사람이 읽을 수 있는 원본 키 (디버깅용)
+
+    @Column(name="response", nullable = false, columnDefinition = "TEXT")
+    private String response; // GPT 플랜 JSON
+
+    @Column(name="hit_count", nullable = false)
+    private long hitCount;
+
+    @Column(name="created_at", nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    @Column(name="last_hit_at", nullable = false)
+    private LocalDateTime lastHitAt = LocalDateTime.now();
+
+    public String getFingerprint() { return fingerprint; }
+    public void setFingerprint(String fingerprint) { this.fingerprint = fingerprint; }
+    public String getProfileKey() { return profileKey; }
+    public void setProfileKey(String profileKey) { this.profileKey = profileKey; }
+    public String getResponse() { return response; }
+    public void setResponse(String response) { this.response = response; }
+    public long getHitCount() { return hitCount; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public LocalDateTime getLastHitAt() { return lastHitAt; }
+}
@@ -0,0 +1,99 @@
+package com.healthcare.domain;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/** AI 플랜 생성 작업. 요청 즉시 PENDING 으로 저장하고 백그라운드 실행 결과를 기록 */
+@Entity
+@Table(name = "ai_plan_job", indexes = {
+        @Index(name="idx_ai_plan_job_account", columnList = "account_id, id"),
+        @Index(name="idx_ai_plan_job_status", columnList = "status")
+})
+public class AiPlanJob {
+
+    public enum Status { PENDING, RUNNING, SUCCEEDED, FAILED }
+
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name="account_id", nullable = false)
+    private Long accountId; // 요청자
+
+    @Column(name="match_id", nullable = false)
+    private Long matchId; // AI 트레이너 매칭
+
+    @Column(name="week_start", nullable = false)
+    private LocalDate weekStart;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status = Status.PENDING;
+
+    @Column(name="week_id")
+    private Long weekId; // 성공 시 생성/갱신된 plan_week
+
+    @Column(length = 1000)
+    private String error;
+
+    @Column(nullable = false)
+    private boolean fallback; // GPT 대신(또는 일부) 규칙 기반 기본 플랜으로 채움
+
+    @Column(name="created_at", nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    @Column(name="started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name="finished_at")
+    private LocalDateTime finishedAt;
+
+    /* 상태 전이는 PENDING → RUNNING → SUCCEEDED/FAILED 한 방향. 이미 끝난 작업은 바꾸지 않는다 */
+
+    public void start() {
+        if (status != Status.PENDING) return;
+        this.status = Status.RUNNING;
+        this.startedAt = LocalDateTime.now();
+    }
+
+    public void succeed(Long weekId) {
+        succeed(weekId, false);
+    }
+
+    public void succeed(Long weekId, boolean fallback) {
+        if (isDone()) return;
+        this.status = Status.SUCCEEDED;
+        this.weekId = weekId;
+        this.fallback = fallback;
+        this.finishedAt = LocalDateTime.now();
+    }
+
+    public void fail(String error) {
+        if (isDone()) return;
+        this.status = Status.FAILED;
+        this.error = clipError(error);
+        this.finishedAt = LocalDateTime.now();
+    }
+
+    /** error 컬럼 길이(1000)에 맞춘다 */
+    public static String clipError(String error) {
+        return error != null && error.length() > 1000 ? error.substring(0, 1000) : error;
+    }
+
+    public boolean isDone() { return status == Status.SUCCEEDED || status == Status.FAILED; }
+
+    public Long getId() { return id; }
+    public Long getAccountId() { return accountId; }
+    public void setAccountId(Long accountId) { this.accountId = accountId; }
+    public Long getMatchId() { return matchId; }
+    public void setMatchId(Long matchId) { this.matchId = matchId; }
+    public LocalDate getWeekStart() { return weekStart; }
+    public void setWeekStart(LocalDate weekStart) { this.weekStart = weekStart; }
+    public Status getStatus() { return status; }
+    public Long getWeekId() { return weekId; }
+    public String getError() { return error; }
+    public boolean isFallback() { return fallback; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+}
@@ -0,0 +1,56 @@
+package com.healthcare.domain;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 채팅 참여자별 읽음 위치 + 안 읽은 메시지 수 (비정규화).
+ * unread_count 는 sendMessage/hideMessage/읽음 처리에서 같은 트랜잭션으로 증감한다.
+ */
+@Entity
+@Table(name = "chat_read_state", indexes = {
+        @Index(name="idx_chat_read_state_account", columnList = "account_id, unread_count")
+})
+@IdClass(ChatReadState.PK.class)
+public class ChatReadState {
+
+    @Id @Column(name="thread_id")
+    private Long threadId;
+
+    @Id @Column(name="account_id")
+    private Long accountId;
+
+    @ColumnDefault("0")
+    @Column(name="last_read_message_id", nullable = false)
+    private long lastReadMessageId = 0L;
+
+    @ColumnDefault("0")
+    @Column(name="unread_count", nullable = false)
+    private int unreadCount = 0;
+
+    @Column(name="updated_at", nullable = false)
+    private LocalDateTime updatedAt = LocalDateTime.now();
+
+    public static class PK implements Serializable {
+        public Long threadId; public Long accountId;
+        public PK() {}
+        public PK(Long threadId, Long accountId){ this.threadId=threadId; this.accountId=accountId; }
+        @Override public int hashCode(){ return (threadId+"-"+accountId).hashCode(); }
+        @Override public boolean equals(Object o){
+            if(this==o) return true; if(!(o instanceof PK p)) return false;
+            return threadId.equals(p.threadId) && accountId.equals(p.accountId);
+        }
+    }
+
+    public Long getThreadId() { return threadId; }
+    public void setThreadId(Long threadId) { this.threadId = threadId; }
+    public Long getAccountId() { return accountId; }
+    public void setAccountId(Long accountId) { this.accountId = accountId; }
+    public long getLastReadMessageId() { return lastReadMessageId; }
+    public void setLastReadMessageId(long lastReadMessageId) { this.lastReadMessageId = lastReadMessageId; }
+    public int getUnreadCount() { return unreadCount; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+}
@@ -7,6 +7,8 @@ import java.time.LocalDateTime;
 @Table(name = "chat_thread")
 public class ChatThread {
 
+    public static final int SNIPPET_LENGTH = 100;
+
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
@@ -16,8 +18,32 @@ public class ChatThread {
     @Column(name="created_at", nullable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
 
+    // 마지막(보이는) 메시지 요약: 인박스 미리보기용 비정규화
+    @Column(name="last_message_id")
+    private Long lastMessageId;
+
+    @Column(name="last_sender_acc")
+    private Long lastSenderAcc;
+
+    @Column(name="last_snippet", length = 200)
+    private String lastSnippet;
+
+    @Column(name="last_message_at")
+    private LocalDateTime lastMessageAt;
+
     public Long getId() { return id; }
     public Long getMatchId() { return matchId; }
     public void setMatchId(Long matchId) { this.matchId = matchId; }
     public LocalDateTime getCreatedAt() { return createdAt; }
+    public Long getLastMessageId() { return lastMessageId; }
+    public Long getLastSenderAcc() { return lastSenderAcc; }
+    public String getLastSnippet() { return lastSnippet; }
+    public LocalDateTime getLastMessageAt() { return lastMessageAt; }
+
+    public static String snippet(String content) {
+        if (content == null) return null;
+        String s = content.strip();
+        return s.length() <= SNIPPET_LENGTH ? s : s.substring(0, SNIPPET_LENGTH);
+    }
+
 }
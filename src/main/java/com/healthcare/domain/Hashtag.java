@@ -11,7 +11,13 @@ public class Hashtag {
     @Column(name="tag", nullable = false, unique = true, length = 100)
     private String tag;
 
+    // 정규화 태그 (HashtagDictionary.normalize): 검색/중복 판별은 이 컬럼의 unique 인덱스로 한다
+    @Column(name="tag_norm", unique = true, length = 100)
+    private String tagNorm;
+
     public Long getId() { return id; }
     public String getTag() { return tag; }
     public void setTag(String tag) { this.tag = tag; }
+    public String getTagNorm() { return tagNorm; }
+    public void setTagNorm(String tagNorm) { this.tagNorm = tagNorm; }
 }
@@ -1,10 +1,19 @@
 package com.healthcare.domain;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "post")
+@Table(name = "post", indexes = {
+        @Index(name="idx_post_hidden_likes", columnList = "is_hidden, like_count DESC, created_at DESC"),
+        @Index(name="idx_post_hidden_views", columnList = "is_hidden, view_count DESC, created_at DESC"),
+        @Index(name="idx_post_hidden_created", columnList = "is_hidden, created_at DESC, id DESC"),
+        @Index(name="idx_post_author_created", columnList = "author_acc, created_at DESC"),
+        @Index(name="idx_post_hidden_hot", columnList = "is_hidden, hot_score DESC, created_at DESC"),
+        @Index(name="idx_post_hot_dirty", columnList = "hot_dirty, id")
+})
 public class Post {
 
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -26,6 +35,28 @@ public class Post {
     @Column(name="hidden_reason", length = 500)
     private String hiddenReason;
 
+    // 비정규화 카운터 (post_like / post_view / comment 기준, PostCounterReconciler가 주기적으로 보정)
+    @ColumnDefault("0")
+    @Column(name="like_count", nullable = false)
+    private long likeCount = 0;
+
+    @ColumnDefault("0")
+    @Column(name="view_count", nullable = false)
+    private long viewCount = 0;
+
+    @ColumnDefault("0")
+    @Column(name="comment_count", nullable = false)
+    private long commentCount = 0;
+
+    // hot 정렬 점수 (HotScoreCalculator, 1e6 배 고정소수점). 카운터가 바뀌면 hot_dirty 로 표시 → HotRankingJob 이 갱신
+    @ColumnDefault("0")
+    @Column(name="hot_score", nullable = false)
+    private long hotScore = 0;
+
+    @ColumnDefault("1")
+    @Column(name="hot_dirty", nullable = false)
+    private boolean hotDirty = true;
+
     @Column(name="created_at", nullable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
 
@@ -46,6 +77,11 @@ public class Post {
     public void setHidden(boolean hidden) { this.hidden = hidden; }
     public String getHiddenReason() { return hiddenReason; }
     public void setHiddenReason(String hiddenReason) { this.hiddenReason = hiddenReason; }
+    public long getLikeCount() { return likeCount; }
+    public long getViewCount() { return viewCount; }
+    public long getCommentCount() { return commentCount; }
+    public long getHotScore() { return hotScore; }
+    public void setHotScore(long hotScore) { this.hotScore = hotScore; }
     public LocalDateTime getCreatedAt() { return createdAt; }
     public LocalDateTime getUpdatedAt() { return updatedAt; }
 }
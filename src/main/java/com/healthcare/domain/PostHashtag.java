@@ -4,7 +4,9 @@ import jakarta.persistence.*;
 import java.io.Serializable;
 
 @Entity
-@Table(name="post_hashtag")
+@Table(name="post_hashtag", indexes = {
+        @Index(name="idx_post_hashtag_tag_post", columnList = "hashtag_id, post_id")
+})
 @IdClass(PostHashtag.PK.class)
 public class PostHashtag {
 
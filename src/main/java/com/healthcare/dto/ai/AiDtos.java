@@ -4,6 +4,7 @@ import jakarta.validation.constraints.NotNull;
 import org.springframework.format.annotation.DateTimeFormat;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 /**
  * AI 추천 관련 DTO
@@ -30,16 +31,19 @@ public class AiDtos {
     }
 
     /**
-     * AI 추천 응답
+     * AI 추천 작업 상태 (등록 응답 + 폴링 응답)
+     * status: PENDING | RUNNING | SUCCEEDED | FAILED. SUCCEEDED 면 weekId 와 결과 조회 가능
+     * fallback: OpenAI 장애로 규칙 기반 기본 플랜이 (일부) 사용됨
      */
-    public static class RecommendationResponse {
+    public static class JobView {
+        public Long jobId;
+        public String status;
         public Long matchId;
-        public String message;
-
-        public RecommendationResponse(Long matchId, String message) {
-            this.matchId = matchId;
-            this.message = message;
-        }
+        public LocalDate weekStart;
+        public Long weekId;
+        public String error;
+        public boolean fallback;
+        public LocalDateTime createdAt;
+        public LocalDateTime finishedAt;
     }
 }
-
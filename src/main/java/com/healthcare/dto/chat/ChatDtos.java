@@ -45,10 +45,63 @@ public class ChatDtos {
         }
     }
 
+    // afterId/beforeId keyset 조회 (count 없음)
+    public static class MessageSlice {
+        public List<MessageView> content;
+        public boolean hasMore;
+        public Long lastId;   // 이번에 읽은 마지막 메시지 id (숨김 포함). 다음 afterId 로 사용, 없으면 null
+        public MessageSlice(List<MessageView> content, boolean hasMore, Long lastId) {
+            this.content = content; this.hasMore = hasMore; this.lastId = lastId;
+        }
+    }
+
+    // 읽음 처리 / 안 읽은 수
+    public static class ReadRequest {
+        public Long lastReadMessageId; // 없으면 스레드 마지막 메시지까지
+    }
+    public static class UnreadThread {
+        public Long threadId;
+        public int unreadCount;
+        public UnreadThread(Long threadId, int unreadCount) { this.threadId = threadId; this.unreadCount = unreadCount; }
+    }
+    public static class UnreadResponse {
+        public long total;
+        public List<UnreadThread> threads;
+        public UnreadResponse(long total, List<UnreadThread> threads) { this.total = total; this.threads = threads; }
+    }
+
+    // 인박스 (최근 활동순 스레드 목록)
+    public static class InboxItem {
+        public Long threadId;
+        public Long matchId;
+        public String matchStatus;
+        public Long partnerAccountId;
+        public Long partnerProfileId;
+        public String partnerUsername;
+        public String partnerName;
+        public String partnerImageUrl;
+        public boolean isAiTrainer;
+        public Long lastMessageId;
+        public Long lastSenderAcc;
+        public String lastSnippet;
+        public LocalDateTime lastMessageAt;
+        public int unreadCount;
+    }
+
     public static class HideRequest {
         public boolean hidden;
     }
 
+    // 실시간 푸시 (/topic/chat.threads.{threadId})
+    public static class ThreadEvent {
+        public String type;          // MESSAGE | HIDDEN
+        public Long threadId;
+        public MessageView message;  // 숨김 처리된 메시지는 content 를 비워서 보낸다
+        public ThreadEvent(String type, Long threadId, MessageView message) {
+            this.type = type; this.threadId = threadId; this.message = message;
+        }
+    }
+
     // AI 채팅
     public static class ChatMessage {
         public String role; // "user" or "assistant"
@@ -64,6 +117,7 @@ public class ChatDtos {
 
     public static class AiChatRequest {
         public String message;
+        /** 더 이상 사용하지 않음 (서버가 대화 내역을 보관). 구버전 클라이언트 호환용으로만 남겨 둠 */
         public List<ChatMessage> conversationHistory;
     }
 
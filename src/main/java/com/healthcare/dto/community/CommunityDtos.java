@@ -92,6 +92,15 @@ public class CommunityDtos {
         }
     }
 
+    /** 커서 모드 응답: 전체 개수 없이 다음 커서만 내려준다 (마지막 페이지면 nextCursor = null) */
+    public static class CursorResponse<T> {
+        public List<T> content;
+        public String nextCursor; public boolean hasNext; public int size;
+        public CursorResponse(List<T> content, String nextCursor, boolean hasNext, int size){
+            this.content=content; this.nextCursor=nextCursor; this.hasNext=hasNext; this.size=size;
+        }
+    }
+
     // Comment
     public static class CommentCreateRequest {
         public Long authorAcc;
@@ -128,6 +137,28 @@ public class CommunityDtos {
         }
     }
 
+    // Search
+    public static class SearchHit {
+        public String type;        // post | comment
+        public Long postId;
+        public Long commentId;     // type=comment 일 때만
+        public String title;       // 하이라이트(<em>) 적용, 댓글은 null
+        public String snippet;     // 하이라이트(<em>) 적용 본문 조각
+        public float score;
+        public LocalDateTime createdAt;
+        public SearchHit(String type, Long postId, Long commentId, String title, String snippet, float score, LocalDateTime createdAt){
+            this.type=type; this.postId=postId; this.commentId=commentId; this.title=title; this.snippet=snippet; this.score=score; this.createdAt=createdAt;
+        }
+    }
+    public static class SearchResponse {
+        public String query;
+        public long totalHits; public int page; public int size;
+        public List<SearchHit> hits;
+        public SearchResponse(String query, long totalHits, int page, int size, List<SearchHit> hits){
+            this.query=query; this.totalHits=totalHits; this.page=page; this.size=size; this.hits=hits;
+        }
+    }
+
     // Hide/Report
     public static class HideRequest { public boolean hidden; public String reason; }
 
@@ -0,0 +1,7 @@
+package com.healthcare.repository;
+
+import com.healthcare.domain.AiChatSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface AiChatSummaryRepository extends JpaRepository<AiChatSummary, Long> {
+}
@@ -0,0 +1,15 @@
+package com.healthcare.repository;
+
+import com.healthcare.domain.AiChatTurn;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface AiChatTurnRepository extends JpaRepository<AiChatTurn, Long> {
+    /** 요약 이후(아직 요약되지 않은) 턴 */
+    List<AiChatTurn> findByMatchIdAndIdGreaterThanOrderByIdAsc(Long matchId, Long afterId);
+
+    /** 화면 표시용 최근 턴 (최신순) */
+    List<AiChatTurn> findByMatchIdOrderByIdDesc(Long matchId, Pageable pageable);
+}
@@ -0,0 +1,32 @@
+package com.healthcare.repository;
+
+import com.healthcare.domain.AiPlanCacheEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface AiPlanCacheRepository extends JpaRepository<AiPlanCacheEntry, String> {
+
+    /** 적중 기록 (LRU 기준 시각 갱신) */
+    @Modifying
+    @Query("""
+            update AiPlanCacheEntry e
+            set e.hitCount = e.hitCount + 1, e.lastHitAt = :now
+            where e.fingerprint = :fingerprint
+            """)
+    int touch(@Param("fingerprint") String fingerprint, @Param("now") LocalDateTime now);
+
+    /** TTL 만료분 삭제 */
+    @Modifying
+    @Query("delete from AiPlanCacheEntry e where e.createdAt < :before")
+    int deleteCreatedBefore(@Param("before") LocalDateTime before);
+
+    /** 가장 오래 안 쓰인 순 (idx_ai_plan_cache_last_hit) */
+    @Query("select e.fingerprint from AiPlanCacheEntry e order by e.lastHitAt asc")
+    List<String> findLeastRecentlyUsed(Pageable pageable);
+}
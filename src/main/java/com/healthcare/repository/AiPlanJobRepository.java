@@ -0,0 +1,42 @@
+package com.healthcare.repository;
+
+import com.healthcare.domain.AiPlanJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+
+public interface AiPlanJobRepository extends JpaRepository<AiPlanJob, Long> {
+
+    Optional<AiPlanJob> findByIdAndAccountId(Long id, Long accountId);
+
+    /** 재시작 등으로 실행기가 사라진 미완료 작업 정리 (before 이전에 생성된 것만) */
+    @Modifying
+    @Query("""
+           update AiPlanJob j set j.status = com.healthcare.domain.AiPlanJob.Status.FAILED,
+                  j.error = :error, j.finishedAt = :now
+           where j.status in :statuses and j.createdAt < :before
+           """)
+    int failAll(Collection<AiPlanJob.Status> statuses, String error, LocalDateTime before, LocalDateTime now);
+
+    /** 실행 시작: 아직 PENDING 인 경우만. 정리 배치가 먼저 FAILED 로 바꿨으면 0 */
+    @Modifying
+    @Query("""
+           update AiPlanJob j set j.status = com.healthcare.domain.AiPlanJob.Status.RUNNING, j.startedAt = :now
+           where j.id = :id and j.status = com.healthcare.domain.AiPlanJob.Status.PENDING
+           """)
+    int markRunning(Long id, LocalDateTime now);
+
+    /** 완료 기록: 아직 끝나지 않은(PENDING/RUNNING) 경우만. 이미 SUCCEEDED/FAILED 면 0 (늦게 도착한 결과) */
+    @Modifying
+    @Query("""
+           update AiPlanJob j set j.status = :status, j.weekId = :weekId, j.fallback = :fallback,
+                  j.error = :error, j.finishedAt = :now
+           where j.id = :id and j.status in (com.healthcare.domain.AiPlanJob.Status.PENDING,
+                                             com.healthcare.domain.AiPlanJob.Status.RUNNING)
+           """)
+    int finish(Long id, AiPlanJob.Status status, Long weekId, boolean fallback, String error, LocalDateTime now);
+}
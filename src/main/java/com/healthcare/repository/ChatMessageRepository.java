@@ -4,7 +4,57 @@ import com.healthcare.domain.ChatMessage;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 
 public interface ChatMessageRepository extends JpaRepository<ChatMessage, Long> {
     Page<ChatMessage> findByThreadIdOrderByCreatedAtAsc(Long threadId, Pageable pageable);
+
+    /** 최신 N개 (최근 메시지 창 적재용, count 없음) */
+    List<ChatMessage> findByThreadIdOrderByCreatedAtDescIdDesc(Long threadId, Pageable pageable);
+
+    /** (createdAt, id) 기준 이후 메시지. idx_chat_message_thread_time 범위 스캔, count 없음 */
+    @Query("""
+            select m from ChatMessage m
+            where m.threadId = :threadId
+              and (m.createdAt > :createdAt or (m.createdAt = :createdAt and m.id > :id))
+            order by m.createdAt asc, m.id asc
+            """)
+    List<ChatMessage> findAfter(@Param("threadId") Long threadId,
+                                @Param("createdAt") LocalDateTime createdAt,
+                                @Param("id") Long id,
+                                Pageable pageable);
+
+    /** (createdAt, id) 기준 이전 메시지 (최신순) */
+    @Query("""
+            select m from ChatMessage m
+            where m.threadId = :threadId
+              and (m.createdAt < :createdAt or (m.createdAt = :createdAt and m.id < :id))
+            order by m.createdAt desc, m.id desc
+            """)
+    List<ChatMessage> findBefore(@Param("threadId") Long threadId,
+                                 @Param("createdAt") LocalDateTime createdAt,
+                                 @Param("id") Long id,
+                                 Pageable pageable);
+
+    Optional<ChatMessage> findTopByThreadIdOrderByIdDesc(Long threadId);
+
+    Optional<ChatMessage> findTopByThreadIdAndHiddenFalseOrderByIdDesc(Long threadId);
+
+    /**
+     * 읽음 처리 시 남은 unread 재계산: afterId 이후 상대가 보낸 보이는 메시지 수.
+     * 읽음 상태 행을 잠근 뒤 별도 문장으로 실행한다 (ChatService.advanceRead 참고).
+     */
+    @Query(value = """
+            select count(*) from chat_message
+            where thread_id = :threadId and id > :afterId
+              and is_hidden = false and sender_acc <> :accountId
+            """, nativeQuery = true)
+    long countUnreadAfter(@Param("threadId") Long threadId,
+                          @Param("accountId") Long accountId,
+                          @Param("afterId") long afterId);
 }
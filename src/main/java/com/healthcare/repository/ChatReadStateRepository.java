@@ -0,0 +1,70 @@
+package com.healthcare.repository;
+
+import com.healthcare.domain.ChatReadState;
+import com.healthcare.domain.ChatReadState.PK;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface ChatReadStateRepository extends JpaRepository<ChatReadState, PK> {
+
+    /** 배지용: 안 읽은 메시지가 있는 스레드만 (idx_chat_read_state_account) */
+    List<ChatReadState> findByAccountIdAndUnreadCountGreaterThan(Long accountId, int unreadCount);
+
+    /**
+     * 새 메시지: 보낸 사람을 제외한 참여자의 unread +1.
+     * 보낸 사람 행도 함께 갱신해서 스레드의 읽음 상태 행을 PK 순서로 한 번에 잠근다
+     * (동시에 보내는 두 참여자가 서로의 행을 엇갈려 잠그지 않도록).
+     */
+    @Modifying
+    @Query(value = """
+            update chat_read_state
+            set unread_count = unread_count + case when account_id <> :senderAcc then 1 else 0 end,
+                updated_at = :now
+            where thread_id = :threadId
+            """, nativeQuery = true)
+    int incrementUnread(@Param("threadId") Long threadId,
+                        @Param("senderAcc") Long senderAcc,
+                        @Param("now") LocalDateTime now);
+
+    /** 읽음 위치 전진 전에 행 잠금 (없으면 empty). 현재 읽음 위치를 돌려준다 */
+    @Query(value = """
+            select last_read_message_id from chat_read_state
+            where thread_id = :threadId and account_id = :accountId
+            for update
+            """, nativeQuery = true)
+    Optional<Long> lockReadCursor(@Param("threadId") Long threadId,
+                                  @Param("accountId") Long accountId);
+
+    /** 읽음 위치 전진 (뒤로 가지 않음). unread 는 lockReadCursor 로 잠근 뒤 센 값 */
+    @Modifying
+    @Query(value = """
+            update chat_read_state
+            set last_read_message_id = :messageId, unread_count = :unread, updated_at = :now
+            where thread_id = :threadId and account_id = :accountId and last_read_message_id < :messageId
+            """, nativeQuery = true)
+    int advanceRead(@Param("threadId") Long threadId,
+                    @Param("accountId") Long accountId,
+                    @Param("messageId") long messageId,
+                    @Param("unread") long unread,
+                    @Param("now") LocalDateTime now);
+
+    /** 아직 안 읽은 메시지가 숨김/해제되면 해당 참여자의 unread 를 delta 만큼 조정 */
+    @Modifying
+    @Query("""
+            update ChatReadState r
+            set r.unreadCount = r.unreadCount + :delta, r.updatedAt = :now
+            where r.threadId = :threadId and r.accountId <> :senderAcc
+              and r.lastReadMessageId < :messageId and r.unreadCount + :delta >= 0
+            """)
+    int adjustUnreadFor(@Param("threadId") Long threadId,
+                        @Param("senderAcc") Long senderAcc,
+                        @Param("messageId") long messageId,
+                        @Param("delta") int delta,
+                        @Param("now") LocalDateTime now);
+}
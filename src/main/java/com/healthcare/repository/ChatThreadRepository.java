@@ -2,9 +2,62 @@ package com.healthcare.repository;
 
 import com.healthcare.domain.ChatThread;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 public interface ChatThreadRepository extends JpaRepository<ChatThread, Long> {
     Optional<ChatThread> findByMatchId(Long matchId);
+
+    /** 마지막 메시지 요약 갱신. 동시 전송 시 더 새 메시지만 반영 */
+    @Modifying
+    @Query("""
+            update ChatThread t
+            set t.lastMessageId = :messageId, t.lastSenderAcc = :senderAcc,
+                t.lastSnippet = :snippet, t.lastMessageAt = :createdAt
+            where t.id = :threadId and (t.lastMessageId is null or t.lastMessageId < :messageId)
+            """)
+    int updateLastMessage(@Param("threadId") Long threadId,
+                          @Param("messageId") Long messageId,
+                          @Param("senderAcc") Long senderAcc,
+                          @Param("snippet") String snippet,
+                          @Param("createdAt") LocalDateTime createdAt);
+
+    /**
+     * 요약이 가리키던 메시지가 숨겨졌을 때 직전 보이는 메시지로 교체 (없으면 모두 null).
+     * 요약이 아직 hiddenId 일 때만 바꾸므로 그 사이 반영된 더 새 메시지를 덮어쓰지 않는다.
+     */
+    @Modifying
+    @Query("""
+            update ChatThread t
+            set t.lastMessageId = :messageId, t.lastSenderAcc = :senderAcc,
+                t.lastSnippet = :snippet, t.lastMessageAt = :createdAt
+            where t.id = :threadId and t.lastMessageId = :hiddenId
+            """)
+    int replaceHiddenLastMessage(@Param("threadId") Long threadId,
+                                 @Param("hiddenId") Long hiddenId,
+                                 @Param("messageId") Long messageId,
+                                 @Param("senderAcc") Long senderAcc,
+                                 @Param("snippet") String snippet,
+                                 @Param("createdAt") LocalDateTime createdAt);
+
+    /** 인박스: 유저 프로필의 스레드 + 매칭, 최근 활동순. [ChatThread, Match] */
+    @Query("""
+            select t, m from ChatThread t, Match m
+            where m.id = t.matchId and m.userId = :profileId
+            order by coalesce(t.lastMessageAt, t.createdAt) desc, t.id desc
+            """)
+    List<Object[]> findInboxByUserProfile(@Param("profileId") Long profileId);
+
+    /** 인박스: 트레이너 프로필의 스레드 + 매칭, 최근 활동순. [ChatThread, Match] */
+    @Query("""
+            select t, m from ChatThread t, Match m
+            where m.id = t.matchId and m.trainerId = :profileId
+            order by coalesce(t.lastMessageAt, t.createdAt) desc, t.id desc
+            """)
+    List<Object[]> findInboxByTrainerProfile(@Param("profileId") Long profileId);
 }
@@ -4,7 +4,32 @@ import com.healthcare.domain.Comment;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
     Page<Comment> findByPostIdAndHiddenFalseOrderByCreatedAtAsc(Long postId, Pageable pageable);
+
+    List<Comment> findByPostIdAndHiddenFalse(Long postId);
+
+    /** 검색 색인 재구성용 keyset chunk */
+    List<Comment> findByIdGreaterThanAndHiddenFalseOrderByIdAsc(Long id, Pageable pageable);
+
+    /** 검색 색인 보정용: since 이후 변경된 댓글 (숨김 포함) keyset chunk */
+    List<Comment> findByUpdatedAtGreaterThanEqualAndIdGreaterThanOrderByIdAsc(LocalDateTime since, Long id, Pageable pageable);
+
+    /** Keyset(커서) 목록: (createdAt, id) 오름차순, count 쿼리 없음 */
+    @Query("""
+           select c from Comment c
+           where c.postId = :postId and c.hidden = false
+             and (c.createdAt > :createdAt or (c.createdAt = :createdAt and c.id > :id))
+           order by c.createdAt asc, c.id asc
+           """)
+    List<Comment> findVisibleAfter(@Param("postId") Long postId,
+                                   @Param("createdAt") LocalDateTime createdAt,
+                                   @Param("id") Long id,
+                                   Pageable pageable);
 }
@@ -0,0 +1,160 @@
+package com.healthcare.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * 좋아요/조회 write-behind 버퍼의 JDBC 배치 반영.
+ * 존재 여부는 IN 쿼리로 한 번에 확인하고, insert/delete/카운터 증감은 batchUpdate로 보낸다.
+ */
+@Repository
+public class EngagementJdbcRepository {
+
+    private static final int IN_CHUNK = 500;
+
+    private final JdbcTemplate jdbc;
+    private final NamedParameterJdbcTemplate named;
+
+    public EngagementJdbcRepository(JdbcTemplate jdbc, NamedParameterJdbcTemplate named) {
+        this.jdbc = jdbc;
+        this.named = named;
+    }
+
+    public record ViewRow(Long postId, Long accountId, LocalDate viewDate) { }
+
+    /** liked = 최종 상태 (true: 좋아요, false: 취소) */
+    public record LikeRow(Long postId, Long accountId, boolean liked) { }
+
+    public record FlushResult(int viewsInserted, int likesInserted, int likesDeleted) { }
+
+    private record Pair(Long postId, Long accountId) { }
+
+    @Transactional
+    public FlushResult flush(List<ViewRow> views, List<LikeRow> likes) {
+        // 존재하지 않는 게시글 이벤트는 버린다 (FK 위반으로 배치 전체가 롤백되지 않도록)
+        var postIds = new HashSet<Long>();
+        views.forEach(v -> postIds.add(v.postId()));
+        likes.forEach(l -> postIds.add(l.postId()));
+        var livePosts = existingPostIds(postIds);
+
+        Map<Long, Long> viewDeltas = new HashMap<>();
+        int viewsInserted = insertViews(
+                views.stream().filter(v -> livePosts.contains(v.postId())).toList(), viewDeltas);
+
+        Map<Long, Long> likeDeltas = new HashMap<>();
+        int[] likeResult = applyLikes(
+                likes.stream().filter(l -> livePosts.contains(l.postId())).toList(), likeDeltas);
+
+        addToCounter("view_count", viewDeltas);
+        addToCounter("like_count", likeDeltas);
+        return new FlushResult(viewsInserted, likeResult[0], likeResult[1]);
+    }
+
+    private Set<Long> existingPostIds(Collection<Long> postIds) {
+        var result = new HashSet<Long>();
+        for (var chunk : chunks(new ArrayList<>(postIds))) {
+            result.addAll(named.queryForList("select id from post where id in (:ids)",
+                    new MapSqlParameterSource("ids", chunk), Long.class));
+        }
+        return result;
+    }
+
+    private int insertViews(List<ViewRow> views, Map<Long, Long> deltas) {
+        if (views.isEmpty()) return 0;
+        var batch = new ArrayList<Object[]>();
+        var byDate = views.stream().collect(Collectors.groupingBy(ViewRow::viewDate));
+        for (var entry : byDate.entrySet()) {
+            var date = Date.valueOf(entry.getKey());
+            for (var chunk : chunks(entry.getValue())) {
+                var existing = new HashSet<Pair>();
+                var params = new MapSqlParameterSource()
+                        .addValue("viewDate", date)
+                        .addValue("postIds", chunk.stream().map(ViewRow::postId).distinct().toList())
+                        .addValue("accountIds", chunk.stream().map(ViewRow::accountId).distinct().toList());
+                named.query("""
+                        select post_id, account_id from post_view
+                        where view_date = :viewDate and post_id in (:postIds) and account_id in (:accountIds)
+                        """, params, rs -> {
+                    existing.add(new Pair(rs.getLong(1), rs.getLong(2)));
+                });
+                for (var v : chunk) {
+                    if (existing.add(new Pair(v.postId(), v.accountId()))) {
+                        batch.add(new Object[]{v.postId(), v.accountId(), date});
+                        deltas.merge(v.postId(), 1L, Long::sum);
+                    }
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbc.batchUpdate("insert into post_view (post_id, account_id, view_date, cnt) values (?, ?, ?, 1)", batch);
+        }
+        return batch.size();
+    }
+
+    /** @return [inserted, deleted] */
+    private int[] applyLikes(List<LikeRow> likes, Map<Long, Long> deltas) {
+        if (likes.isEmpty()) return new int[]{0, 0};
+        var inserts = new ArrayList<Object[]>();
+        var deletes = new ArrayList<Object[]>();
+        var now = Timestamp.valueOf(LocalDateTime.now());
+        for (var chunk : chunks(likes)) {
+            var existing = new HashSet<Pair>();
+            var params = new MapSqlParameterSource()
+                    .addValue("postIds", chunk.stream().map(LikeRow::postId).distinct().toList())
+                    .addValue("accountIds", chunk.stream().map(LikeRow::accountId).distinct().toList());
+            named.query("""
+                    select post_id, account_id from post_like
+                    where post_id in (:postIds) and account_id in (:accountIds)
+                    """, params, rs -> {
+                existing.add(new Pair(rs.getLong(1), rs.getLong(2)));
+            });
+            for (var l : chunk) {
+                boolean exists = existing.contains(new Pair(l.postId(), l.accountId()));
+                if (l.liked() && !exists) {
+                    inserts.add(new Object[]{l.postId(), l.accountId(), now});
+                    deltas.merge(l.postId(), 1L, Long::sum);
+                } else if (!l.liked() && exists) {
+                    deletes.add(new Object[]{l.postId(), l.accountId()});
+                    deltas.merge(l.postId(), -1L, Long::sum);
+                }
+            }
+        }
+        if (!inserts.isEmpty()) {
+            jdbc.batchUpdate("insert into post_like (post_id, account_id, created_at) values (?, ?, ?)", inserts);
+        }
+        if (!deletes.isEmpty()) {
+            jdbc.batchUpdate("delete from post_like where post_id = ? and account_id = ?", deletes);
+        }
+        return new int[]{inserts.size(), deletes.size()};
+    }
+
+    /** column 은 내부 상수만 전달 (like_count / view_count) */
+    private void addToCounter(String column, Map<Long, Long> deltas) {
+        var batch = deltas.entrySet().stream()
+                .filter(e -> e.getValue() != 0)
+                .map(e -> new Object[]{e.getValue(), e.getKey()})
+                .toList();
+        if (batch.isEmpty()) return;
+        // updated_at = updated_at: MySQL ON UPDATE CURRENT_TIMESTAMP 로 수정일이 바뀌지 않도록 유지
+        // hot_dirty = true: HotRankingJob 이 hot_score 를 다시 계산하도록 표시
+        jdbc.batchUpdate("update post set " + column + " = " + column + " + ?, hot_dirty = true, updated_at = updated_at where id = ?", batch);
+    }
+
+    private static <T> List<List<T>> chunks(List<T> list) {
+        var result = new ArrayList<List<T>>();
+        for (int i = 0; i < list.size(); i += IN_CHUNK) {
+            result.add(list.subList(i, Math.min(list.size(), i + IN_CHUNK)));
+        }
+        return result;
+    }
+}
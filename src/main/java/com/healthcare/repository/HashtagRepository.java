@@ -3,8 +3,12 @@ package com.healthcare.repository;
 import com.healthcare.domain.Hashtag;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface HashtagRepository extends JpaRepository<Hashtag, Long> {
-    Optional<Hashtag> findByTagIgnoreCase(String tag);
+    Optional<Hashtag> findByTagNorm(String tagNorm);
+
+    List<Hashtag> findByTagNormIn(Collection<String> tagNorms);
 }
@@ -4,6 +4,7 @@ import com.healthcare.domain.PlanItem;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,6 +12,9 @@ public interface PlanItemRepository extends JpaRepository<PlanItem, Long> {
 
     List<PlanItem> findByDayIdOrderByCreatedAtAsc(Long dayId);
 
+    /** 주간 화면용: 여러 day 의 아이템을 한 번에 (day 별 N+1 조회 방지) */
+    List<PlanItem> findByDayIdInOrderByDayIdAscCreatedAtAscIdAsc(Collection<Long> dayIds);
+
     @Query("""
            select d.id from PlanDay d 
            join PlanItem i on i.dayId = d.id
@@ -0,0 +1,170 @@
+package com.healthcare.repository;
+
+import com.healthcare.domain.PlanItem;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * 주간 플랜(주/일/아이템) 일괄 저장 (AI 플랜 생성용).
+ * 새 주차 기준 문장 수: 주차 조회 1 + 주차 insert 1 + 일 batch insert 1 + 일 id 조회 1 + 아이템 batch insert 1.
+ * 기존 주차를 교체 저장하면 주차 insert 대신 주차 update 1 + 아이템 batch delete 1.
+ * 아이템 수와 무관 (MySQL 은 rewriteBatchedStatements 로 batch 가 multi-row insert 한 번으로 나간다).
+ */
+@Repository
+public class PlanJdbcRepository {
+
+    public static final int DAYS_PER_WEEK = 7;
+
+    private final JdbcTemplate jdbc;
+
+    public PlanJdbcRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public record ItemRow(PlanItem.ItemType itemType, String title, String description,
+                          Integer targetKcal, Integer targetMin) { }
+
+    /** note 가 null 이면 기존 메모 유지 */
+    public record DayRow(int dayIndex, String note, List<ItemRow> items) { }
+
+    /**
+     * 주차가 없으면 만들고(Day 0~6 포함), 있으면 그대로 두고 Day 메모/아이템만 추가한다.
+     * replaceItems 면 같은 작성자(createdBy)의 기존 주차의 제목/메모를 새 값으로 바꾸고, days 에 든 Day 의
+     * 잠기지 않은 아이템을 먼저 지운다 (같은 주 재생성/실패 후 재시도가 아이템을 한 벌 더 쌓지 않도록).
+     * 잠긴 아이템과 다른 Day 는 그대로.
+     * @return plan_week id
+     */
+    @Transactional
+    public Long saveWeek(Long matchId, LocalDate weekStart, String title, String note, Long createdBy,
+                         List<DayRow> days, boolean replaceItems) {
+        var now = Timestamp.valueOf(LocalDateTime.now());
+        var byIndex = new HashMap<Integer, DayRow>();
+        for (var d : days) byIndex.put(d.dayIndex(), d);
+
+        var week = findWeek(matchId, weekStart);
+        Long weekId;
+        Map<Integer, Long> dayIds = new HashMap<>();
+        if (week == null) {
+            weekId = insertWeek(matchId, weekStart, title, note, createdBy, now);
+        } else {
+            weekId = week.id();
+            dayIds = findDayIds(weekId);
+            if (replaceItems && week.createdBy().equals(createdBy)) {
+                jdbc.update("update plan_week set title = ?, note = ?, updated_at = ? where id = ?",
+                        title, note, now, weekId);
+                var clear = new ArrayList<Object[]>();
+                for (var d : days) {
+                    Long dayId = dayIds.get(d.dayIndex());
+                    if (dayId != null) clear.add(new Object[]{dayId});
+                }
+                if (!clear.isEmpty()) {
+                    jdbc.batchUpdate("delete from plan_item where day_id = ? and locked = false", clear);
+                }
+            }
+        }
+
+        // 없는 Day 는 메모와 함께 insert, 이미 있던 Day 는 메모만 update
+        var inserts = new ArrayList<Object[]>();
+        var noteUpdates = new ArrayList<Object[]>();
+        for (int i = 0; i < DAYS_PER_WEEK; i++) {
+            var row = byIndex.get(i);
+            String dayNote = row != null ? row.note() : null;
+            Long dayId = dayIds.get(i);
+            if (dayId == null) inserts.add(new Object[]{weekId, i, dayNote});
+            else if (dayNote != null) noteUpdates.add(new Object[]{dayNote, dayId});
+        }
+        if (!inserts.isEmpty()) {
+            jdbc.batchUpdate("insert into plan_day (week_id, day_index, note) values (?, ?, ?)", inserts,
+                    new int[]{Types.BIGINT, Types.INTEGER, Types.VARCHAR});
+            dayIds = findDayIds(weekId);
+        }
+        if (!noteUpdates.isEmpty()) {
+            jdbc.batchUpdate("update plan_day set note = ? where id = ?", noteUpdates);
+        }
+
+        var items = new ArrayList<Object[]>();
+        for (var d : days) {
+            Long dayId = dayIds.get(d.dayIndex());
+            if (dayId == null) continue;
+            for (var it : d.items()) {
+                items.add(new Object[]{dayId, it.itemType().name(), it.title(), it.description(),
+                        it.targetKcal(), it.targetMin(), now, now});
+            }
+        }
+        if (!items.isEmpty()) {
+            jdbc.batchUpdate("""
+                    insert into plan_item (day_id, item_type, title, description, target_kcal, target_min,
+                                           status_mark, locked, created_at, updated_at)
+                    values (?, ?, ?, ?, ?, ?, 'X', false, ?, ?)
+                    """, items,
+                    new int[]{Types.BIGINT, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR,
+                            Types.INTEGER, Types.INTEGER, Types.TIMESTAMP, Types.TIMESTAMP});
+        }
+        return weekId;
+    }
+
+    /**
+     * 재생성 마무리: 같은 작성자(createdBy)의 주차에서 keepDayIndexes 밖 Day 의 잠기지 않은 아이템을 지운다
+     * (새 플랜에 없는 Day 에 이전 생성분이 섞여 남지 않도록).
+     * @return 지운 아이템 수
+     */
+    @Transactional
+    public int clearItemsExcept(Long weekId, Long createdBy, Set<Integer> keepDayIndexes) {
+        var owners = jdbc.queryForList("select created_by from plan_week where id = ?", Long.class, weekId);
+        if (owners.isEmpty() || !owners.get(0).equals(createdBy)) return 0;
+        var clear = new ArrayList<Object[]>();
+        for (var e : findDayIds(weekId).entrySet()) {
+            if (!keepDayIndexes.contains(e.getKey())) clear.add(new Object[]{e.getValue()});
+        }
+        if (clear.isEmpty()) return 0;
+        int deleted = 0;
+        for (int n : jdbc.batchUpdate("delete from plan_item where day_id = ? and locked = false", clear)) {
+            if (n > 0) deleted += n;
+        }
+        return deleted;
+    }
+
+    private record WeekRef(Long id, Long createdBy) { }
+
+    private WeekRef findWeek(Long matchId, LocalDate weekStart) {
+        var weeks = jdbc.query("select id, created_by from plan_week where match_id = ? and week_start = ?",
+                (rs, i) -> new WeekRef(rs.getLong(1), rs.getLong(2)), matchId, Date.valueOf(weekStart));
+        return weeks.isEmpty() ? null : weeks.get(0);
+    }
+
+    private Long insertWeek(Long matchId, LocalDate weekStart, String title, String note, Long createdBy,
+                            Timestamp now) {
+        var keys = new GeneratedKeyHolder();
+        jdbc.update(con -> {
+            var ps = con.prepareStatement("""
+                    insert into plan_week (match_id, week_start, title, note, created_by, created_at, updated_at)
+                    values (?, ?, ?, ?, ?, ?, ?)
+                    """, new String[]{"id"});
+            ps.setLong(1, matchId);
+            ps.setDate(2, Date.valueOf(weekStart));
+            ps.setString(3, title);
+            ps.setString(4, note);
+            ps.setLong(5, createdBy);
+            ps.setTimestamp(6, now);
+            ps.setTimestamp(7, now);
+            return ps;
+        }, keys);
+        return Objects.requireNonNull(keys.getKey()).longValue();
+    }
+
+    private Map<Integer, Long> findDayIds(Long weekId) {
+        var result = new HashMap<Integer, Long>();
+        jdbc.query("select id, day_index from plan_day where week_id = ?",
+                rs -> { result.put(rs.getInt(2), rs.getLong(1)); }, weekId);
+        return result;
+    }
+}
@@ -0,0 +1,76 @@
+package com.healthcare.repository;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 게시글 미디어/해시태그 연결 JDBC 배치 insert.
+ * JPA save 는 IDENTITY 키 때문에 행마다 insert 를 보내므로, 게시글 작성/수정 시 자식 행은 여기서 한 번에 보낸다.
+ * (MySQL rewriteBatchedStatements / PostgreSQL reWriteBatchedInserts 로 multi-row insert 로 전송)
+ * 호출 측 트랜잭션의 커넥션을 그대로 사용한다.
+ */
+@Repository
+public class PostContentJdbcRepository {
+
+    private final JdbcTemplate jdbc;
+
+    public PostContentJdbcRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /** mediaType = IMAGE | VIDEO (검증된 enum 이름) */
+    public record MediaRow(String mediaType, String publicId, String url, Integer width, Integer height, Long bytes) { }
+
+    public int insertMedia(Long postId, List<MediaRow> rows) {
+        if (rows.isEmpty()) return 0;
+        var now = Timestamp.valueOf(LocalDateTime.now());
+        jdbc.batchUpdate("""
+                insert into post_media (post_id, media_type, public_id, url, width, height, bytes, created_at)
+                values (?, ?, ?, ?, ?, ?, ?, ?)
+                """, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                var m = rows.get(i);
+                ps.setLong(1, postId);
+                ps.setString(2, m.mediaType());
+                ps.setString(3, m.publicId());
+                ps.setString(4, m.url());
+                setNullable(ps, 5, m.width(), Types.INTEGER);
+                setNullable(ps, 6, m.height(), Types.INTEGER);
+                setNullable(ps, 7, m.bytes(), Types.BIGINT);
+                ps.setTimestamp(8, now);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        });
+        return rows.size();
+    }
+
+    public int insertHashtagLinks(Long postId, Collection<Long> hashtagIds) {
+        if (hashtagIds.isEmpty()) return 0;
+        var batch = new ArrayList<Object[]>(hashtagIds.size());
+        for (Long hashtagId : hashtagIds) {
+            batch.add(new Object[]{postId, hashtagId});
+        }
+        jdbc.batchUpdate("insert into post_hashtag (post_id, hashtag_id) values (?, ?)", batch);
+        return batch.size();
+    }
+
+    private static void setNullable(PreparedStatement ps, int idx, Number value, int sqlType) throws SQLException {
+        if (value == null) ps.setNull(idx, sqlType);
+        else ps.setObject(idx, value, sqlType);
+    }
+}
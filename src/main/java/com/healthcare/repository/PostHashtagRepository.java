@@ -2,9 +2,21 @@ package com.healthcare.repository;
 
 import com.healthcare.domain.PostHashtag;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface PostHashtagRepository extends JpaRepository<PostHashtag, Long> {
     List<PostHashtag> findByPostId(Long postId);
+
+    /** 여러 게시글의 (postId, hashtagId) 를 한 번에 조회. 태그명은 HashtagDictionary 로 해석 */
+    List<PostHashtag> findByPostIdInOrderByPostIdAscHashtagIdAsc(Collection<Long> postIds);
+
+    /** 게시글에서 지정 태그 연결만 일괄 삭제 (단일 DELETE 문) */
+    @Modifying
+    @Query("delete from PostHashtag ph where ph.postId = :postId and ph.hashtagId in :hashtagIds")
+    int bulkDeleteLinks(@Param("postId") Long postId, @Param("hashtagIds") Collection<Long> hashtagIds);
 }
@@ -0,0 +1,62 @@
+package com.healthcare.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * hot_score 갱신용 JDBC 접근.
+ * 카운터가 바뀐 게시글은 hot_dirty = true 로 표시되고, HotRankingJob 이 id 순 chunk 로 읽어 갱신한다.
+ */
+@Repository
+public class PostHotScoreRepository {
+
+    private final JdbcTemplate jdbc;
+
+    public PostHotScoreRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public record DirtyRow(long id, long likeCount, long viewCount, long commentCount, LocalDateTime createdAt) { }
+
+    public record ScoreUpdate(long id, long hotScore, long likeCount, long viewCount, long commentCount) { }
+
+    /** afterId 이후 dirty 게시글 chunk (id 오름차순, idx_post_hot_dirty) */
+    public List<DirtyRow> findDirtyAfter(long afterId, int limit) {
+        return jdbc.query("""
+                select id, like_count, view_count, comment_count, created_at
+                from post
+                where hot_dirty = true and id > ?
+                order by id
+                limit ?
+                """,
+                (rs, i) -> new DirtyRow(
+                        rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getLong(4),
+                        rs.getTimestamp(5).toLocalDateTime()),
+                afterId, limit);
+    }
+
+    /**
+     * 점수 반영 + dirty 해제. 읽은 뒤 카운터가 또 바뀐 행은 조건이 맞지 않아 dirty 로 남고 다음 실행에서 다시 계산된다.
+     * @return 실제 갱신된 행 수
+     */
+    public int applyScores(List<ScoreUpdate> updates) {
+        if (updates.isEmpty()) return 0;
+        var batch = updates.stream()
+                .map(u -> new Object[]{u.hotScore(), u.id(), u.likeCount(), u.viewCount(), u.commentCount()})
+                .toList();
+        int[] counts = jdbc.batchUpdate("""
+                update post set hot_score = ?, hot_dirty = false, updated_at = updated_at
+                where id = ? and like_count = ? and view_count = ? and comment_count = ?
+                """, batch);
+        int updated = 0;
+        for (int c : counts) {
+            // 드라이버가 배치 건수를 모를 때(SUCCESS_NO_INFO = -2)는 성공으로 본다
+            updated += c > 0 ? c : (c == Statement.SUCCESS_NO_INFO ? 1 : 0);
+        }
+        return updated;
+    }
+}
@@ -3,8 +3,17 @@ package com.healthcare.repository;
 import com.healthcare.domain.PostLike;
 import com.healthcare.domain.PostLike.PK;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface PostLikeRepository extends JpaRepository<PostLike, PK> {
     boolean existsByPostIdAndAccountId(Long postId, Long accountId);
     long countByPostId(Long postId);
+
+    /** 게시글별 좋아요 수: [postId, count] */
+    @Query("select pl.postId, count(pl) from PostLike pl where pl.postId in :postIds group by pl.postId")
+    List<Object[]> countByPostIds(@Param("postIds") Collection<Long> postIds);
 }
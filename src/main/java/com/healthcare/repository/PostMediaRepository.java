@@ -2,9 +2,19 @@ package com.healthcare.repository;
 
 import com.healthcare.domain.PostMedia;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface PostMediaRepository extends JpaRepository<PostMedia, Long> {
     List<PostMedia> findByPostId(Long postId);
+    List<PostMedia> findByPostIdInOrderByPostIdAscIdAsc(Collection<Long> postIds);
+
+    /** 게시글 미디어 일괄 삭제 (단일 DELETE 문) */
+    @Modifying
+    @Query("delete from PostMedia m where m.postId = :postId")
+    int bulkDeleteByPostId(@Param("postId") Long postId);
 }
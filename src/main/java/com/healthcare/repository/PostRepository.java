@@ -5,6 +5,11 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
 public interface PostRepository extends JpaRepository<Post, Long> {
 
@@ -14,26 +19,39 @@ public interface PostRepository extends JpaRepository<Post, Long> {
     /** 작성자 필터 (hidden 제외) */
     Page<Post> findByAuthorAccAndHiddenFalse(Long authorAcc, Pageable pageable);
 
-    /** 해시태그 필터 + 최신순 */
+    /** 검색 색인 재구성용 keyset chunk */
+    List<Post> findByIdGreaterThanAndHiddenFalseOrderByIdAsc(Long id, Pageable pageable);
+
+    /** 검색 색인 보정용: since 이후 변경된 글 (숨김 포함) keyset chunk */
+    List<Post> findByUpdatedAtGreaterThanEqualAndIdGreaterThanOrderByIdAsc(LocalDateTime since, Long id, Pageable pageable);
+
+    @Query("select p.id from Post p where p.hidden = true")
+    List<Long> findHiddenIds();
+
+    /*
+     * 해시태그 필터: hashtagIds 중 minMatches 개 이상을 가진 글
+     * (any = 1, all = 태그 수). 인메모리 HashtagPostIndex 가 준비되지 않았을 때의 대체 경로이기도 하다.
+     */
+
+    /** 해시태그 필터 + 최신순 (id 내림차순: HashtagPostIndex 경로와 같은 순서) */
     @Query("""
            select p from Post p
            where p.hidden = false
              and p.id in (
                select ph.postId from PostHashtag ph
-               join Hashtag h on h.id = ph.hashtagId
-               where lower(h.tag) = lower(:tag)
+               where ph.hashtagId in :hashtagIds
+               group by ph.postId
+               having count(ph.postId) >= :minMatches
              )
-           order by p.createdAt desc
+           order by p.id desc
            """)
-    Page<Post> findByHashtag(@Param("tag") String tag, Pageable pageable);
+    Page<Post> findByHashtag(@Param("hashtagIds") Collection<Long> hashtagIds, @Param("minMatches") long minMatches, Pageable pageable);
 
     /** 전체 인기글(좋아요수 내림차순 → 최신순 tie-break) */
     @Query("""
            select p from Post p
            where p.hidden = false
-           order by
-             (select count(pl) from PostLike pl where pl.postId = p.id) desc,
-             p.createdAt desc
+           order by p.likeCount desc, p.createdAt desc
            """)
     Page<Post> findPopularByLikes(Pageable pageable);
 
@@ -41,9 +59,7 @@ public interface PostRepository extends JpaRepository<Post, Long> {
     @Query("""
            select p from Post p
            where p.hidden = false
-           order by
-             (select coalesce(sum(pv.cnt), 0) from PostView pv where pv.postId = p.id) desc,
-             p.createdAt desc
+           order by p.viewCount desc, p.createdAt desc
            """)
     Page<Post> findPopularByViews(Pageable pageable);
 
@@ -53,14 +69,13 @@ public interface PostRepository extends JpaRepository<Post, Long> {
            where p.hidden = false
              and p.id in (
                select ph.postId from PostHashtag ph
-               join Hashtag h on h.id = ph.hashtagId
-               where lower(h.tag) = lower(:tag)
+               where ph.hashtagId in :hashtagIds
+               group by ph.postId
+               having count(ph.postId) >= :minMatches
              )
-           order by
-             (select count(pl) from PostLike pl where pl.postId = p.id) desc,
-             p.createdAt desc
+           order by p.likeCount desc, p.createdAt desc
            """)
-    Page<Post> findByHashtagPopularByLikes(@Param("tag") String tag, Pageable pageable);
+    Page<Post> findByHashtagPopularByLikes(@Param("hashtagIds") Collection<Long> hashtagIds, @Param("minMatches") long minMatches, Pageable pageable);
 
     /** 해시태그 인기글(조회수) */
     @Query("""
@@ -68,12 +83,184 @@ public interface PostRepository extends JpaRepository<Post, Long> {
            where p.hidden = false
              and p.id in (
                select ph.postId from PostHashtag ph
-               join Hashtag h on h.id = ph.hashtagId
-               where lower(h.tag) = lower(:tag)
+               where ph.hashtagId in :hashtagIds
+               group by ph.postId
+               having count(ph.postId) >= :minMatches
              )
-           order by
-             (select coalesce(sum(pv.cnt), 0) from PostView pv where pv.postId = p.id) desc,
-             p.createdAt desc
+           order by p.viewCount desc, p.createdAt desc
+           """)
+    Page<Post> findByHashtagPopularByViews(@Param("hashtagIds") Collection<Long> hashtagIds, @Param("minMatches") long minMatches, Pageable pageable);
+
+    /** 전체 hot 정렬 (hot_score 내림차순 → 최신순 tie-break) */
+    @Query("""
+           select p from Post p
+           where p.hidden = false
+           order by p.hotScore desc, p.createdAt desc
+           """)
+    Page<Post> findHot(Pageable pageable);
+
+    /** 해시태그 hot 정렬 */
+    @Query("""
+           select p from Post p
+           where p.hidden = false
+             and p.id in (
+               select ph.postId from PostHashtag ph
+               where ph.hashtagId in :hashtagIds
+               group by ph.postId
+               having count(ph.postId) >= :minMatches
+             )
+           order by p.hotScore desc, p.createdAt desc
+           """)
+    Page<Post> findByHashtagHot(@Param("hashtagIds") Collection<Long> hashtagIds, @Param("minMatches") long minMatches, Pageable pageable);
+
+    /* ---------- Keyset(커서) 목록: count 쿼리 없이 size+1 개 조회 ---------- */
+
+    /** 최신순 */
+    @Query("""
+           select p from Post p
+           where p.hidden = false
+             and (p.createdAt < :createdAt or (p.createdAt = :createdAt and p.id < :id))
+           order by p.createdAt desc, p.id desc
+           """)
+    List<Post> findLatestAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+
+    /** 작성자 필터 + 최신순 */
+    @Query("""
+           select p from Post p
+           where p.hidden = false and p.authorAcc = :authorAcc
+             and (p.createdAt < :createdAt or (p.createdAt = :createdAt and p.id < :id))
+           order by p.createdAt desc, p.id desc
+           """)
+    List<Post> findByAuthorAfter(@Param("authorAcc") Long authorAcc, @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+
+    /** 좋아요순 */
+    @Query("""
+           select p from Post p
+           where p.hidden = false
+             and (p.likeCount < :sortKey
+                  or (p.likeCount = :sortKey and p.createdAt < :createdAt)
+                  or (p.likeCount = :sortKey and p.createdAt = :createdAt and p.id < :id))
+           order by p.likeCount desc, p.createdAt desc, p.id desc
+           """)
+    List<Post> findPopularByLikesAfter(@Param("sortKey") long sortKey, @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+
+    /** 조회수순 */
+    @Query("""
+           select p from Post p
+           where p.hidden = false
+             and (p.viewCount < :sortKey
+                  or (p.viewCount = :sortKey and p.createdAt < :createdAt)
+                  or (p.viewCount = :sortKey and p.createdAt = :createdAt and p.id < :id))
+           order by p.viewCount desc, p.createdAt desc, p.id desc
+           """)
+    List<Post> findPopularByViewsAfter(@Param("sortKey") long sortKey, @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+
+    /** 해시태그 + 최신순 (id 내림차순: HashtagPostIndex 경로와 같은 순서라 페이지 사이에 경로가 바뀌어도 이어진다) */
+    @Query("""
+           select p from Post p
+           where p.hidden = false
+             and p.id in (
+               select ph.postId from PostHashtag ph
+               where ph.hashtagId in :hashtagIds
+               group by ph.postId
+               having count(ph.postId) >= :minMatches
+             )
+             and p.id < :id
+           order by p.id desc
+           """)
+    List<Post> findByHashtagAfter(@Param("hashtagIds") Collection<Long> hashtagIds, @Param("minMatches") long minMatches, @Param("id") Long id, Pageable pageable);
+
+    /** 해시태그 + 좋아요순 */
+    @Query("""
+           select p from Post p
+           where p.hidden = false
+             and p.id in (
+               select ph.postId from PostHashtag ph
+               where ph.hashtagId in :hashtagIds
+               group by ph.postId
+               having count(ph.postId) >= :minMatches
+             )
+             and (p.likeCount < :sortKey
+                  or (p.likeCount = :sortKey and p.createdAt < :createdAt)
+                  or (p.likeCount = :sortKey and p.createdAt = :createdAt and p.id < :id))
+           order by p.likeCount desc, p.createdAt desc, p.id desc
+           """)
+    List<Post> findByHashtagPopularByLikesAfter(@Param("hashtagIds") Collection<Long> hashtagIds, @Param("minMatches") long minMatches, @Param("sortKey") long sortKey, @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+
+    /** 해시태그 + 조회수순 */
+    @Query("""
+           select p from Post p
+           where p.hidden = false
+             and p.id in (
+               select ph.postId from PostHashtag ph
+               where ph.hashtagId in :hashtagIds
+               group by ph.postId
+               having count(ph.postId) >= :minMatches
+             )
+             and (p.viewCount < :sortKey
+                  or (p.viewCount = :sortKey and p.createdAt < :createdAt)
+                  or (p.viewCount = :sortKey and p.createdAt = :createdAt and p.id < :id))
+           order by p.viewCount desc, p.createdAt desc, p.id desc
+           """)
+    List<Post> findByHashtagPopularByViewsAfter(@Param("hashtagIds") Collection<Long> hashtagIds, @Param("minMatches") long minMatches, @Param("sortKey") long sortKey, @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+
+    /** hot 정렬 */
+    @Query("""
+           select p from Post p
+           where p.hidden = false
+             and (p.hotScore < :sortKey
+                  or (p.hotScore = :sortKey and p.createdAt < :createdAt)
+                  or (p.hotScore = :sortKey and p.createdAt = :createdAt and p.id < :id))
+           order by p.hotScore desc, p.createdAt desc, p.id desc
+           """)
+    List<Post> findHotAfter(@Param("sortKey") long sortKey, @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+
+    /** 해시태그 + hot 정렬 */
+    @Query("""
+           select p from Post p
+           where p.hidden = false
+             and p.id in (
+               select ph.postId from PostHashtag ph
+               where ph.hashtagId in :hashtagIds
+               group by ph.postId
+               having count(ph.postId) >= :minMatches
+             )
+             and (p.hotScore < :sortKey
+                  or (p.hotScore = :sortKey and p.createdAt < :createdAt)
+                  or (p.hotScore = :sortKey and p.createdAt = :createdAt and p.id < :id))
+           order by p.hotScore desc, p.createdAt desc, p.id desc
+           """)
+    List<Post> findByHashtagHotAfter(@Param("hashtagIds") Collection<Long> hashtagIds, @Param("minMatches") long minMatches, @Param("sortKey") long sortKey, @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+
+    /* ---------- 비정규화 카운터 ---------- */
+    // updatedAt = updatedAt: MySQL ON UPDATE CURRENT_TIMESTAMP 로 수정일이 바뀌지 않도록 유지
+    // hotDirty = true: HotRankingJob 이 hot_score 를 다시 계산하도록 표시
+
+    @Modifying
+    @Query("update Post p set p.likeCount = p.likeCount + :delta, p.hotDirty = true, p.updatedAt = p.updatedAt where p.id = :postId")
+    int addLikeCount(@Param("postId") Long postId, @Param("delta") long delta);
+
+    @Modifying
+    @Query("update Post p set p.viewCount = p.viewCount + :delta, p.hotDirty = true, p.updatedAt = p.updatedAt where p.id = :postId")
+    int addViewCount(@Param("postId") Long postId, @Param("delta") long delta);
+
+    @Modifying
+    @Query("update Post p set p.commentCount = p.commentCount + :delta, p.hotDirty = true, p.updatedAt = p.updatedAt where p.id = :postId")
+    int addCommentCount(@Param("postId") Long postId, @Param("delta") long delta);
+
+    @Query("select coalesce(max(p.id), 0) from Post p")
+    long findMaxId();
+
+    /** id 구간 단위로 원본 테이블에서 카운터 재계산 (드리프트 보정) */
+    @Transactional
+    @Modifying
+    @Query("""
+           update Post p set
+             p.likeCount = (select count(pl) from PostLike pl where pl.postId = p.id),
+             p.viewCount = (select coalesce(sum(pv.cnt), 0) from PostView pv where pv.postId = p.id),
+             p.commentCount = (select count(c) from Comment c where c.postId = p.id and c.hidden = false),
+             p.updatedAt = p.updatedAt
+           where p.id between :fromId and :toId
            """)
-    Page<Post> findByHashtagPopularByViews(@Param("tag") String tag, Pageable pageable);
+    int reconcileCounters(@Param("fromId") Long fromId, @Param("toId") Long toId);
 }
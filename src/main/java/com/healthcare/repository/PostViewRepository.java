@@ -2,10 +2,18 @@ package com.healthcare.repository;
 
 import com.healthcare.domain.PostView;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 
 public interface PostViewRepository extends JpaRepository<PostView, Long> {
     long countByPostId(Long postId);
     boolean existsByPostIdAndAccountIdAndViewDate(Long postId, Long accountId, LocalDate viewDate);
+
+    /** 게시글별 조회수 합계: [postId, sum(cnt)] */
+    @Query("select pv.postId, coalesce(sum(pv.cnt), 0) from PostView pv where pv.postId in :postIds group by pv.postId")
+    List<Object[]> sumByPostIds(@Param("postIds") Collection<Long> postIds);
 }
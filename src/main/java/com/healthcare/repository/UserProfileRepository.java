@@ -3,10 +3,14 @@ package com.healthcare.repository;
 import com.healthcare.domain.UserProfile;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserProfileRepository extends JpaRepository<UserProfile, Long> {
 
     // 엔티티에 Long accountId 필드가 있는 경우
     Optional<UserProfile> findByAccountId(Long accountId);
+
+    List<UserProfile> findByAccountIdIn(Collection<Long> accountIds);
 }
@@ -0,0 +1,100 @@
+package com.healthcare.security;
+
+import com.healthcare.repository.ChatThreadRepository;
+import com.healthcare.service.AccountUserDetailsService;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * STOMP 인바운드 인증/인가.
+ * CONNECT: Authorization 헤더(Bearer JWT)를 연결당 1회 검증해서 세션 사용자로 고정.
+ * SUBSCRIBE: /topic/chat.threads.{threadId} 만 허용하고, 구독 시점에 매칭 접근 권한을 1회 확인.
+ * SEND: 메시지 전송은 REST(POST /api/chat/threads/{id}/messages)로만 받는다.
+ */
+public class StompAuthChannelInterceptor implements ChannelInterceptor {
+
+    public static final String THREAD_TOPIC_PREFIX = "/topic/chat.threads.";
+
+    private final JwtUtil jwtUtil;
+    private final AccountUserDetailsService uds;
+    private final ChatThreadRepository threadRepo;
+    private final ActorGuard guard;
+
+    public StompAuthChannelInterceptor(JwtUtil jwtUtil,
+                                       AccountUserDetailsService uds,
+                                       ChatThreadRepository threadRepo,
+                                       ActorGuard guard) {
+        this.jwtUtil = jwtUtil;
+        this.uds = uds;
+        this.threadRepo = threadRepo;
+        this.guard = guard;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        var accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) return message;
+
+        StompCommand command = accessor.getCommand();
+        if (command == StompCommand.CONNECT) {
+            accessor.setUser(authenticate(accessor.getFirstNativeHeader("Authorization")));
+        } else if (command == StompCommand.SUBSCRIBE) {
+            authorizeSubscribe(accessor);
+        } else if (command == StompCommand.SEND) {
+            throw new MessageDeliveryException("메시지 전송은 REST API를 사용하세요.");
+        }
+        return message;
+    }
+
+    private Authentication authenticate(String header) {
+        if (header == null || !header.startsWith("Bearer ")) {
+            throw new MessageDeliveryException("unauthenticated");
+        }
+        try {
+            String username = jwtUtil.parse(header.substring(7).trim()).getBody().getSubject();
+            var user = uds.loadUserByUsername(username);
+            return new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+        } catch (Exception e) {
+            throw new MessageDeliveryException("invalid token");
+        }
+    }
+
+    private void authorizeSubscribe(StompHeaderAccessor accessor) {
+        if (!(accessor.getUser() instanceof Authentication auth)) {
+            throw new MessageDeliveryException("unauthenticated");
+        }
+        String destination = accessor.getDestination();
+        if (destination == null || !destination.startsWith(THREAD_TOPIC_PREFIX)) {
+            throw new MessageDeliveryException("구독할 수 없는 destination 입니다.");
+        }
+        Long threadId;
+        try {
+            threadId = Long.parseLong(destination.substring(THREAD_TOPIC_PREFIX.length()));
+        } catch (NumberFormatException e) {
+            throw new MessageDeliveryException("잘못된 채팅 스레드입니다.");
+        }
+        var thread = threadRepo.findById(threadId)
+                .orElseThrow(() -> new MessageDeliveryException("채팅 스레드를 찾을 수 없습니다."));
+
+        // ActorGuard 는 SecurityContext 기준이라 검사 동안만 세션 사용자로 채운다
+        var previous = SecurityContextHolder.getContext();
+        var context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(auth);
+        SecurityContextHolder.setContext(context);
+        try {
+            guard.requireAccessToMatch(thread.getMatchId());
+        } catch (ForbiddenException | NotFoundException e) {
+            throw new MessageDeliveryException(e.getMessage());
+        } finally {
+            SecurityContextHolder.setContext(previous);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.healthcare.service;
+
+/** OpenAI 호출 게이트 포화 (대기열 가득/대기 시간 초과/속도 제한). 429 + Retry-After 로 응답 */
+public class AiBusyException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public AiBusyException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = Math.max(1, retryAfterSeconds);
+    }
+
+    public long getRetryAfterSeconds() { return retryAfterSeconds; }
+}
@@ -0,0 +1,140 @@
+package com.healthcare.service;
+
+import com.healthcare.domain.AiChatSummary;
+import com.healthcare.domain.AiChatTurn;
+import com.healthcare.repository.AiChatSummaryRepository;
+import com.healthcare.repository.AiChatTurnRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * AI 트레이너 대화 메모리 (매칭 단위 서버 보관).
+ * 프롬프트 = 누적 요약 + 요약 이후 턴 원문. 요약되지 않은 턴이 토큰 예산을 넘으면
+ * 오래된 턴부터 예산의 절반 아래로 내려갈 때까지 요약에 접어 넣는다 (요약 호출은 몇 턴에 한 번).
+ * 클라이언트는 새 메시지만 보내면 된다.
+ */
+@Service
+public class AiConversationService {
+
+    /** 프롬프트 재료: 요약(없으면 null) + 최근 턴 (role, content) */
+    public record Prompt(String summary, List<Map<String, String>> history) { }
+
+    private final AiChatTurnRepository turnRepo;
+    private final AiChatSummaryRepository summaryRepo;
+    private final GptApiService gpt;
+    private final int tokenBudget;
+    private final int summaryMaxTokens;
+
+    public AiConversationService(AiChatTurnRepository turnRepo,
+                                 AiChatSummaryRepository summaryRepo,
+                                 GptApiService gpt,
+                                 @Value("${app.ai.memory.token-budget:2000}") int tokenBudget,
+                                 @Value("${app.ai.memory.summary-max-tokens:400}") int summaryMaxTokens) {
+        this.turnRepo = turnRepo;
+        this.summaryRepo = summaryRepo;
+        this.gpt = gpt;
+        this.tokenBudget = tokenBudget;
+        this.summaryMaxTokens = summaryMaxTokens;
+    }
+
+    /** 새 메시지에 대한 답 (블로킹). 질문/답 턴을 함께 저장 */
+    public String reply(Long matchId, String message) {
+        var prompt = preparePrompt(matchId);
+        String answer = gpt.chatWithGpt(prompt.summary(), prompt.history(), message);
+        saveExchange(matchId, message, answer);
+        return answer;
+    }
+
+    /**
+     * 스트리밍 답. 프롬프트 준비(DB/요약 호출)와 저장은 boundedElastic 에서 실행해 이벤트 루프를 막지 않는다.
+     * 스트림이 끝까지 완료된 경우에만 턴을 저장한다.
+     */
+    public Flux<String> streamReply(Long matchId, String message) {
+        return Mono.fromCallable(() -> preparePrompt(matchId))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMapMany(prompt -> {
+                    var answer = new StringBuilder();
+                    return gpt.streamChat(prompt.summary(), prompt.history(), message)
+                            .doOnNext(answer::append)
+                            .concatWith(Mono.<String>fromRunnable(() -> saveExchange(matchId, message, answer.toString()))
+                                    .subscribeOn(Schedulers.boundedElastic()));
+                });
+    }
+
+    /** 화면 표시용 최근 턴 (작성 순) */
+    public List<AiChatTurn> recentTurns(Long matchId, int size) {
+        var turns = new ArrayList<>(turnRepo.findByMatchIdOrderByIdDesc(matchId, PageRequest.of(0, Math.max(1, Math.min(size, 200)))));
+        Collections.reverse(turns);
+        return turns;
+    }
+
+    /** 요약 + 예산 안의 최근 턴. 필요하면 이 시점에 요약을 갱신한다 */
+    Prompt preparePrompt(Long matchId) {
+        var summary = summaryRepo.findById(matchId).orElse(null);
+        long covered = summary != null ? summary.getCoveredTurnId() : 0L;
+        var turns = turnRepo.findByMatchIdAndIdGreaterThanOrderByIdAsc(matchId, covered);
+
+        int remaining = turns.stream().mapToInt(AiChatTurn::getTokenEstimate).sum();
+        if (remaining <= tokenBudget) {
+            return new Prompt(summary != null ? summary.getSummary() : null, toMessages(turns));
+        }
+
+        // 오래된 턴부터 접기 (질문/답 쌍은 함께)
+        int fold = 0;
+        while (fold < turns.size() && remaining > tokenBudget / 2) {
+            remaining -= turns.get(fold++).getTokenEstimate();
+        }
+        while (fold < turns.size() && "assistant".equals(turns.get(fold).getRole())) {
+            remaining -= turns.get(fold++).getTokenEstimate();
+        }
+        var folded = turns.subList(0, fold);
+        var kept = turns.subList(fold, turns.size());
+
+        try {
+            String text = gpt.summarizeConversation(summary != null ? summary.getSummary() : null,
+                    toMessages(folded), summaryMaxTokens);
+            if (summary == null) {
+                summary = new AiChatSummary();
+                summary.setMatchId(matchId);
+            }
+            summary.setSummary(text);
+            summary.setCoveredTurnId(folded.get(folded.size() - 1).getId());
+            summary.setUpdatedAt(LocalDateTime.now());
+            summaryRepo.save(summary);
+            return new Prompt(text, toMessages(kept));
+        } catch (RuntimeException e) {
+            // 요약 실패: 기존 요약 + 예산 안의 최근 턴만으로 진행 (다음 턴에 다시 시도)
+            System.err.println("[AI Memory] summary failed match=" + matchId + ": " + e.getMessage());
+            return new Prompt(summary != null ? summary.getSummary() : null, toMessages(kept));
+        }
+    }
+
+    private void saveExchange(Long matchId, String message, String answer) {
+        turnRepo.saveAll(List.of(turn(matchId, "user", message), turn(matchId, "assistant", answer)));
+    }
+
+    private static AiChatTurn turn(Long matchId, String role, String content) {
+        var t = new AiChatTurn();
+        t.setMatchId(matchId);
+        t.setRole(role);
+        t.setContent(content);
+        t.setTokenEstimate(OpenAiGate.estimateTokens(content));
+        return t;
+    }
+
+    private static List<Map<String, String>> toMessages(List<AiChatTurn> turns) {
+        return turns.stream()
+                .map(t -> Map.of("role", t.getRole(), "content", t.getContent()))
+                .toList();
+    }
+}
@@ -0,0 +1,168 @@
+package com.healthcare.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.healthcare.domain.AiPlanCacheEntry;
+import com.healthcare.repository.AiPlanCacheRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * AI 플랜 응답 캐시 (DB 보관, 재시작 후에도 유지).
+ * 키: 성별 | 나이 5세 구간 | 키 5cm 구간 | 몸무게 5kg 구간 | 활동량 | 정규화한 목표.
+ * 특별 요청사항이 있으면 개인화된 요청이므로 캐시를 쓰지 않는다 (bypass).
+ * 정리: created_at 기준 TTL + 개수 상한 초과분은 last_hit_at 이 오래된 순 (LRU).
+ */
+@Component
+public class AiPlanCache {
+
+    private static final int AGE_BAND = 5;
+    private static final int HEIGHT_BAND_CM = 5;
+    private static final int WEIGHT_BAND_KG = 5;
+
+    private final AiPlanCacheRepository cacheRepo;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Duration ttl;
+    private final int maxEntries;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter bypasses;
+
+    public AiPlanCache(AiPlanCacheRepository cacheRepo,
+                       MeterRegistry meterRegistry,
+                       @Value("${app.ai.plan-cache.ttl-days:14}") long ttlDays,
+                       @Value("${app.ai.plan-cache.max-entries:5000}") int maxEntries) {
+        this.cacheRepo = cacheRepo;
+        this.ttl = Duration.ofDays(ttlDays);
+        this.maxEntries = maxEntries;
+        this.hits = Counter.builder("ai.plan.cache.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("ai.plan.cache.requests").tag("result", "miss").register(meterRegistry);
+        this.bypasses = Counter.builder("ai.plan.cache.requests").tag("result", "bypass").register(meterRegistry);
+        Gauge.builder("ai.plan.cache.hit.ratio", this, AiPlanCache::hitRatio)
+                .description("AI 플랜 캐시 적중률 (bypass 제외)")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 구간화한 프로필 키. 특별 요청사항이 있으면 null (캐시 미사용)
+     * @param userInfo generatePlan 입력 (gender, age, heightCm, weightKg, activityLevel, goal, specialRequests)
+     */
+    public String keyOf(Map<String, Object> userInfo) {
+        Object special = userInfo.get("specialRequests");
+        if (special != null && !special.toString().isBlank()) {
+            bypasses.increment();
+            return null;
+        }
+        return "g=" + text(userInfo.get("gender"))
+                + "|a=" + band(userInfo.get("age"), AGE_BAND)
+                + "|h=" + band(userInfo.get("heightCm"), HEIGHT_BAND_CM)
+                + "|w=" + band(userInfo.get("weightKg"), WEIGHT_BAND_KG)
+                + "|act=" + text(userInfo.get("activityLevel"))
+                + "|goal=" + normalizeGoal(userInfo.get("goal"));
+    }
+
+    /** 캐시된 플랜 JSON. 적중 시 LRU 시각 갱신 */
+    @Transactional
+    public Optional<String> get(String profileKey) {
+        if (profileKey == null) return Optional.empty();
+        var entry = cacheRepo.findById(fingerprint(profileKey))
+                .filter(e -> e.getCreatedAt().isAfter(LocalDateTime.now().minus(ttl)));
+        if (entry.isEmpty()) {
+            misses.increment();
+            return Optional.empty();
+        }
+        cacheRepo.touch(entry.get().getFingerprint(), LocalDateTime.now());
+        hits.increment();
+        return Optional.of(entry.get().getResponse());
+    }
+
+    /** 플랜 저장. days 배열이 있는 JSON 만 (파싱 불가 응답이 캐시를 오염시키지 않도록) */
+    @Transactional
+    public void put(String profileKey, String response) {
+        if (profileKey == null || !isPlanJson(response)) return;
+        var entry = new AiPlanCacheEntry();
+        entry.setFingerprint(fingerprint(profileKey));
+        entry.setProfileKey(profileKey.length() > 300 ? profileKey.substring(0, 300) : profileKey);
+        entry.setResponse(response);
+        cacheRepo.save(entry);
+    }
+
+    /** TTL 만료분 + 상한 초과분(LRU) 정리, 적중률 기록 */
+    @Scheduled(fixedDelayString = "${app.ai.plan-cache.evict-interval-ms:3600000}")
+    @Transactional
+    public void evict() {
+        int expired = cacheRepo.deleteCreatedBefore(LocalDateTime.now().minus(ttl));
+        long overflow = cacheRepo.count() - maxEntries;
+        int trimmed = 0;
+        if (overflow > 0) {
+            var victims = cacheRepo.findLeastRecentlyUsed(PageRequest.of(0, (int) Math.min(overflow, 1000)));
+            cacheRepo.deleteAllByIdInBatch(victims);
+            trimmed = victims.size();
+        }
+        if (expired > 0 || trimmed > 0 || hits.count() + misses.count() > 0) {
+            System.out.printf("[AI Plan Cache] expired=%d trimmed=%d hitRatio=%.2f (hit=%d miss=%d bypass=%d)%n",
+                    expired, trimmed, hitRatio(),
+                    (long) hits.count(), (long) misses.count(), (long) bypasses.count());
+        }
+    }
+
+    public double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0.0 : hits.count() / total;
+    }
+
+    private boolean isPlanJson(String response) {
+        try {
+            var node = objectMapper.readTree(response);
+            return node != null && node.has("days") && node.get("days").isArray();
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static String text(Object value) {
+        return value == null ? "-" : value.toString().trim().toUpperCase(Locale.ROOT);
+    }
+
+    /** 31 → "30-34", 70.5 → "70-74" */
+    private static String band(Object value, int width) {
+        if (!(value instanceof Number n)) return "-";
+        long low = (long) Math.floor(n.doubleValue() / width) * width;
+        return low + "-" + (low + width - 1);
+    }
+
+    /** 전각/반각, 대소문자, 공백/문장부호 차이를 없앤다 ("체중 감량!" == "체중감량") */
+    static String normalizeGoal(Object goal) {
+        if (goal == null) return "-";
+        String s = Normalizer.normalize(goal.toString(), Normalizer.Form.NFKC)
+                .toLowerCase(Locale.ROOT)
+                .replaceAll("[^\\p{L}\\p{N}]", "");
+        return s.isEmpty() ? "-" : s;
+    }
+
+    private static String fingerprint(String profileKey) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256").digest(profileKey.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package com.healthcare.service;
+
+import com.healthcare.domain.AiPlanJob;
+import com.healthcare.repository.AiPlanJobRepository;
+import com.healthcare.repository.PlanJdbcRepository;
+import com.healthcare.security.NotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * AI 플랜 생성 작업 실행기.
+ * 요청 스레드는 매칭 확인 + 작업 저장(짧은 트랜잭션)만 하고 작업 id 를 바로 돌려준다.
+ * 실행은 크기 제한 풀(동시 실행 수 + 대기열 상한)에서: GPT 호출은 트랜잭션 밖, 결과 저장과 작업 완료 표시는 한 트랜잭션.
+ * 대기열이 가득 차면 작업을 FAILED 로 남기고 요청을 거절한다 (AiBusyException → 429 + Retry-After).
+ * 플랜 캐시 적중 시에는 실행기를 거치지 않고 등록 트랜잭션 안에서 바로 저장/완료한다.
+ * 중복 클릭/재시도는 single-flight: 진행 중인 같은 요청이 있으면 그 작업에 합류한다 (인스턴스 단위).
+ * GPT 응답은 스트림으로 받아 완성된 Day 부터 저장하고, 진행 중 작업의 Day 를 progress() 로 흘려준다 (SSE 구독용).
+ * 지연 지표는 작업 등록 → 첫 Day 저장까지 (ai.plan.first-day).
+ * OpenAI 장애로 규칙 기반 플랜이 섞인 작업은 fallback 으로 표시하고 캐시에 남기지 않는다.
+ */
+@Service
+public class AiPlanJobService {
+
+    /** 대기열 초과 시 Retry-After: 작업 하나가 대략 끝나는 시간 */
+    private static final long QUEUE_FULL_RETRY_AFTER_SECONDS = 30;
+
+    private final AiRecommendationService recommendation;
+    private final AiPlanJobRepository jobRepo;
+    private final TransactionTemplate tx;
+    private final ExecutorService executor;
+    private final long staleMinutes;
+    private final Timer jobTimer;
+    private final Counter coalesced;
+    private final Timer firstDayTimer;
+    /** 진행 중(등록~완료) 작업. 값은 등록이 끝나면 작업 id 로 완료된다 */
+    private final ConcurrentHashMap<FlightKey, CompletableFuture<Long>> inFlight = new ConcurrentHashMap<>();
+    /** 실행 중 작업이 저장한 Day (작업 id 별, 늦게 온 구독자도 처음부터 받도록 replay). 작업이 끝나면 제거 */
+    private final ConcurrentHashMap<Long, Sinks.Many<PlanJdbcRepository.DayRow>> progress = new ConcurrentHashMap<>();
+
+    public AiPlanJobService(AiRecommendationService recommendation,
+                            AiPlanJobRepository jobRepo,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.ai.plan.max-concurrent:4}") int maxConcurrent,
+                            @Value("${app.ai.plan.max-queued:50}") int maxQueued,
+                            @Value("${app.ai.plan.stale-minutes:30}") long staleMinutes) {
+        this.recommendation = recommendation;
+        this.jobRepo = jobRepo;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.staleMinutes = staleMinutes;
+        var pool = new ThreadPoolExecutor(maxConcurrent, maxConcurrent, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(maxQueued),
+                Thread.ofPlatform().name("ai-plan-", 0).daemon(true).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry, pool, "ai-plan");
+        this.jobTimer = Timer.builder("ai.plan.job")
+                .description("AI 플랜 작업 실행 시간 (대기 제외)")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("ai.plan.job.coalesced")
+                .description("진행 중인 같은 요청에 합류한 중복 요청 수")
+                .register(meterRegistry);
+        this.firstDayTimer = Timer.builder("ai.plan.first-day")
+                .description("AI 플랜 작업 등록부터 첫 Day 저장까지 (대기 포함)")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 작업 등록 (요청 스레드에서 호출).
+     * 같은 (계정, weekStart, goal, specialRequests) 작업이 진행 중이면 새로 만들지 않고 그 작업을 돌려준다.
+     */
+    public AiPlanJob submit(Long accountId, LocalDate weekStart, String goal, String specialRequests) {
+        var key = new FlightKey(accountId, weekStart, normalize(goal), normalize(specialRequests));
+        var mine = new CompletableFuture<Long>();
+        var running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            coalesced.increment();
+            return attach(running);
+        }
+
+        try {
+            var job = start(key, accountId, weekStart, goal, specialRequests);
+            mine.complete(job.getId());
+            return job;
+        } catch (RuntimeException e) {
+            inFlight.remove(key, mine);
+            mine.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /** 본인 작업 조회 */
+    public AiPlanJob get(Long jobId, Long accountId) {
+        return jobRepo.findByIdAndAccountId(jobId, accountId)
+                .orElseThrow(() -> new NotFoundException("작업을 찾을 수 없습니다."));
+    }
+
+    /**
+     * 실행 중 작업이 지금까지/앞으로 저장하는 Day (작업이 끝나면 complete).
+     * 이 인스턴스에서 실행 중이 아니면(이미 끝남, 캐시 적중, 다른 인스턴스) empty → 호출 측은 저장된 주차를 읽는다.
+     */
+    public Optional<Flux<PlanJdbcRepository.DayRow>> progress(Long jobId) {
+        return Optional.ofNullable(progress.get(jobId)).map(Sinks.Many::asFlux);
+    }
+
+    /** 실행기 밖에서 끊긴 작업(재시작 등)을 일정 시간 뒤 FAILED 로 정리 */
+    @Scheduled(fixedDelayString = "${app.ai.plan.cleanup-interval-ms:300000}")
+    public void failStaleJobs() {
+        Integer failed = tx.execute(s -> jobRepo.failAll(
+                List.of(AiPlanJob.Status.PENDING, AiPlanJob.Status.RUNNING),
+                "작업이 중단되었습니다.",
+                LocalDateTime.now().minusMinutes(staleMinutes),
+                LocalDateTime.now()));
+        if (failed != null && failed > 0) {
+            System.out.println("[AI Plan] marked " + failed + " stale jobs as failed");
+        }
+    }
+
+    /** 진행 중(합류 가능한) 요청 수 */
+    int inFlightCount() {
+        return inFlight.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /** 등록 트랜잭션 + 실행기 투입. 캐시 적중이면 바로 완료 */
+    private AiPlanJob start(FlightKey key, Long accountId, LocalDate weekStart, String goal, String specialRequests) {
+        var submitted = tx.execute(s -> {
+            var request = recommendation.prepare(accountId, weekStart, goal, specialRequests);
+            var job = new AiPlanJob();
+            job.setAccountId(request.accountId());
+            job.setMatchId(request.matchId());
+            job.setWeekStart(request.weekStart());
+
+            var cached = recommendation.cachedPlan(request);
+            if (cached.isPresent()) {
+                job.start();
+                job.succeed(recommendation.persistPlan(request.matchId(), request.weekStart(), cached.get()));
+            }
+            return new Submitted(jobRepo.save(job), request);
+        });
+        if (submitted.job().isDone()) {
+            inFlight.remove(key);
+            return submitted.job();
+        }
+
+        Long jobId = submitted.job().getId();
+        long submittedAt = System.nanoTime();
+        progress.put(jobId, Sinks.many().replay().all());
+        try {
+            executor.execute(() -> run(key, jobId, submitted.request(), submittedAt));
+        } catch (RejectedExecutionException e) {
+            progress.remove(jobId);
+            var job = submitted.job();
+            job.fail("대기열 초과");
+            jobRepo.save(job);
+            throw new AiBusyException("AI 플랜 생성 요청이 많습니다. 잠시 후 다시 시도해 주세요.",
+                    QUEUE_FULL_RETRY_AFTER_SECONDS);
+        }
+        return submitted.job();
+    }
+
+    /** 진행 중인 같은 요청에 합류: 선행 요청의 등록이 끝나길 기다렸다가 그 작업의 현재 상태를 돌려준다 */
+    private AiPlanJob attach(CompletableFuture<Long> running) {
+        Long jobId;
+        try {
+            jobId = running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw e;
+        }
+        return jobRepo.findById(jobId)
+                .orElseThrow(() -> new NotFoundException("작업을 찾을 수 없습니다."));
+    }
+
+    private void run(FlightKey key, Long jobId, AiRecommendationService.PlanRequest request, long submittedAt) {
+        long start = System.nanoTime();
+        var sink = progress.get(jobId);
+        try {
+            Integer started = tx.execute(s -> jobRepo.markRunning(jobId, LocalDateTime.now()));
+            if (started == null || started == 0) {
+                // 대기열에 있는 동안 정리 배치가 FAILED 로 바꿈: 실행하지 않는다
+                System.out.println("[AI Plan] job " + jobId + " already finished before start, skipping");
+                return;
+            }
+
+            // GPT 스트림: 트랜잭션 밖 (DB 커넥션 미점유). 완성된 Day 만 각자 짧은 트랜잭션으로 저장
+            var firstDay = new AtomicBoolean(true);
+            var generated = recommendation.generateProgressively(request, day -> {
+                if (firstDay.compareAndSet(true, false)) {
+                    firstDayTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                }
+                sink.tryEmitNext(day);
+            });
+
+            finish(jobId, AiPlanJob.Status.SUCCEEDED, generated.weekId(), generated.fallback(), null);
+            if (!generated.fallback()) {
+                rememberQuietly(request, generated.response());
+            }
+        } catch (Exception e) {
+            // 이미 저장된 Day 는 남는다 (주차 화면에서 보임). 재시도하면 Day 별로 교체된다
+            System.err.println("[AI Plan] job " + jobId + " failed: " + e.getMessage());
+            try {
+                finish(jobId, AiPlanJob.Status.FAILED, null, false, e.getMessage());
+            } catch (Exception ignored) {
+                // 정리 배치가 나중에 FAILED 처리
+            }
+        } finally {
+            // 작업 상태 저장 후 종료 신호: 구독자는 complete 뒤 최종 상태를 읽는다
+            sink.tryEmitComplete();
+            progress.remove(jobId);
+            inFlight.remove(key);
+            jobTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /** 캐시 저장 실패는 작업 결과에 영향을 주지 않는다 */
+    private void rememberQuietly(AiRecommendationService.PlanRequest request, String gptResponse) {
+        try {
+            recommendation.remember(request, gptResponse);
+        } catch (Exception e) {
+            System.err.println("[AI Plan] cache store failed: " + e.getMessage());
+        }
+    }
+
+    /** PENDING/RUNNING 일 때만 완료 기록 (조건부 UPDATE). 정리 배치가 먼저 FAILED 로 바꾼 작업의 늦은 결과는 버린다 */
+    private void finish(Long jobId, AiPlanJob.Status status, Long weekId, boolean fallback, String error) {
+        Integer updated = tx.execute(s -> jobRepo.finish(jobId, status, weekId, fallback,
+                AiPlanJob.clipError(error), LocalDateTime.now()));
+        if (updated == null || updated == 0) {
+            System.out.println("[AI Plan] job " + jobId + " already finished, ignoring late " + status);
+        }
+    }
+
+    private static String normalize(String value) {
+        return value == null || value.isBlank() ? null : value.strip();
+    }
+
+    /** 중복 판단 키: 같은 사용자가 같은 주/같은 입력으로 다시 누른 요청 */
+    private record FlightKey(Long accountId, LocalDate weekStart, String goal, String specialRequests) { }
+
+    private record Submitted(AiPlanJob job, AiRecommendationService.PlanRequest request) { }
+}
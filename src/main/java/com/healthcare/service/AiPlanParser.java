@@ -0,0 +1,317 @@
+package com.healthcare.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.healthcare.domain.PlanItem;
+import com.healthcare.repository.PlanJdbcRepository;
+import com.healthcare.repository.PlanJdbcRepository.DayRow;
+import com.healthcare.repository.PlanJdbcRepository.ItemRow;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeMap;
+
+/**
+ * GPT 플랜 응답 스트리밍 파서 (JsonParser 토큰 단위, 트리 생성 없음).
+ * 첫 '{' 부터 읽으므로 ```json 코드 펜스나 앞뒤 설명 문장은 무시된다.
+ * 잘못된 항목(범위 밖 dayIndex, 모르는 itemType, 객체가 아닌 원소)은 건너뛰고 개수만 센다.
+ * 응답이 중간에 잘리면(max_tokens) 그 전까지 완성된 Day 만 사용한다.
+ * 스트리밍 응답은 incremental() 로 조각 단위로 읽어 Day 가 완성되는 대로 받는다.
+ */
+@Component
+public class AiPlanParser {
+
+    /** title/note 는 없으면 null. skipped: 버린 Day/아이템 수, truncated: JSON 이 중간에 끝남 */
+    public record Plan(String title, String note, List<DayRow> days, int skipped, boolean truncated) { }
+
+    private static final int TITLE_MAX = 200;
+    private static final int TEXT_MAX = 1000;
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    public Plan parse(String text) {
+        int start = text == null ? -1 : text.indexOf('{');
+        if (start < 0) throw new IllegalArgumentException("GPT 응답에 플랜 JSON 이 없습니다.");
+
+        var state = new State();
+        try (var reader = new StringReader(text); JsonParser p = jsonFactory.createParser(reader)) {
+            reader.skip(start);
+            p.nextToken(); // START_OBJECT
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.currentName();
+                p.nextToken();
+                switch (field) {
+                    case "title" -> state.title = text(p, TITLE_MAX);
+                    case "note" -> state.note = text(p, TEXT_MAX);
+                    case "days" -> readDays(p, state);
+                    default -> p.skipChildren();
+                }
+            }
+        } catch (JsonProcessingException e) {
+            if (state.days.isEmpty()) {
+                throw new IllegalArgumentException("GPT 응답 파싱 실패: " + e.getOriginalMessage(), e);
+            }
+            state.truncated = true;
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // StringReader 는 IO 오류가 나지 않는다
+        }
+        return new Plan(state.title, state.note, List.copyOf(state.days.values()), state.skipped, state.truncated);
+    }
+
+    /** 스트리밍 응답용 파서 (조각 단위 입력) */
+    public Incremental incremental() {
+        return new Incremental();
+    }
+
+    /**
+     * 조각을 넣을 때마다 그 사이 완성된 Day 를 돌려준다 (Jackson non-blocking 파서, 응답 전체를 기다리지 않음).
+     * days[i] 객체의 토큰을 모았다가 닫히는 순간 parse 와 같은 규칙으로 읽는다. 같은 dayIndex 가 다시 오면 다시 돌려준다.
+     * 단일 스레드 전용.
+     */
+    public final class Incremental {
+
+        private final JsonParser p;
+        private final ByteArrayFeeder feeder;
+        private final State state = new State();
+        private final List<DayRow> emitted = new ArrayList<>();
+        private boolean started;   // 첫 '{' 이후
+        private boolean closed;    // 최상위 객체가 닫힘
+        private boolean failed;    // 잘못된 JSON: 이후 입력 무시
+        private int depth;
+        private String field;      // 최상위 필드명
+        private boolean inDays;
+        private TokenBuffer day;   // 모으는 중인 Day 토큰
+
+        private Incremental() {
+            try {
+                this.p = jsonFactory.createNonBlockingByteArrayParser();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            this.feeder = (ByteArrayFeeder) p.getNonBlockingInputFeeder();
+        }
+
+        public List<DayRow> feed(String chunk) {
+            if (chunk == null || closed || failed) return List.of();
+            if (!started) {
+                int start = chunk.indexOf('{');
+                if (start < 0) return List.of();
+                chunk = chunk.substring(start);
+                started = true;
+            }
+            var out = new ArrayList<DayRow>();
+            try {
+                byte[] bytes = chunk.getBytes(StandardCharsets.UTF_8);
+                feeder.feedInput(bytes, 0, bytes.length);
+                JsonToken t;
+                while (!closed && (t = p.nextToken()) != null && t != JsonToken.NOT_AVAILABLE) {
+                    handle(t, out);
+                }
+            } catch (IOException e) {
+                failed = true;
+            }
+            emitted.addAll(out);
+            return out;
+        }
+
+        /** 최상위 title (days 보다 먼저 온 경우에만 첫 Day 전에 알 수 있다) */
+        public String title() {
+            return state.title;
+        }
+
+        public String note() {
+            return state.note;
+        }
+
+        /** 입력 종료. 지금까지 돌려준 Day 와 통계 */
+        public Plan finish() {
+            return new Plan(state.title, state.note, List.copyOf(emitted), state.skipped, started && !closed);
+        }
+
+        private void handle(JsonToken t, List<DayRow> out) throws IOException {
+            if (day != null) {
+                day.copyCurrentEvent(p);
+                if (t.isStructStart()) {
+                    depth++;
+                } else if (t.isStructEnd() && --depth == 2) {
+                    try (JsonParser dp = day.asParser()) {
+                        dp.nextToken(); // START_OBJECT
+                        var row = readDay(dp, state);
+                        if (row != null) out.add(row);
+                    }
+                    day = null;
+                }
+                return;
+            }
+            if (t.isStructStart()) {
+                depth++;
+                if (depth == 2) {
+                    inDays = "days".equals(field) && t == JsonToken.START_ARRAY;
+                } else if (depth == 3 && inDays) {
+                    if (t == JsonToken.START_OBJECT) {
+                        day = new TokenBuffer(p);
+                        day.copyCurrentEvent(p);
+                    } else {
+                        state.skipped++;
+                    }
+                }
+                return;
+            }
+            if (t.isStructEnd()) {
+                depth--;
+                if (depth == 1) inDays = false;
+                if (depth == 0) closed = true;
+                return;
+            }
+            if (depth == 1) {
+                if (t == JsonToken.FIELD_NAME) field = p.currentName();
+                else if ("title".equals(field)) state.title = text(p, TITLE_MAX);
+                else if ("note".equals(field)) state.note = text(p, TEXT_MAX);
+            } else if (depth == 2 && inDays) {
+                state.skipped++; // days 안의 객체가 아닌 원소
+            }
+        }
+    }
+
+    private static final class State {
+        String title;
+        String note;
+        final TreeMap<Integer, DayRow> days = new TreeMap<>();
+        int skipped;
+        boolean truncated;
+    }
+
+    private void readDays(JsonParser p, State state) throws IOException {
+        if (p.currentToken() != JsonToken.START_ARRAY) {
+            p.skipChildren();
+            return;
+        }
+        while (p.nextToken() != JsonToken.END_ARRAY) {
+            if (p.currentToken() != JsonToken.START_OBJECT) {
+                state.skipped++;
+                p.skipChildren();
+                continue;
+            }
+            var day = readDay(p, state);
+            if (day == null) continue;
+            // 같은 dayIndex 가 여러 번 오면 아이템을 합친다
+            var prev = state.days.get(day.dayIndex());
+            if (prev != null) {
+                var merged = new ArrayList<>(prev.items());
+                merged.addAll(day.items());
+                day = new DayRow(day.dayIndex(), day.note() != null ? day.note() : prev.note(), merged);
+            }
+            state.days.put(day.dayIndex(), day);
+        }
+    }
+
+    /** START_OBJECT 위치의 Day 하나. dayIndex 가 범위 밖이면 null (skipped 에 반영) */
+    private DayRow readDay(JsonParser p, State state) throws IOException {
+        int dayIndex = -1;
+        String note = null;
+        var items = new ArrayList<ItemRow>();
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            p.nextToken();
+            switch (field) {
+                case "dayIndex" -> {
+                    Integer n = number(p);
+                    dayIndex = n != null ? n : -1;
+                }
+                case "note" -> note = text(p, TEXT_MAX);
+                case "items" -> readItems(p, items, state);
+                default -> p.skipChildren();
+            }
+        }
+        if (dayIndex < 0 || dayIndex >= PlanJdbcRepository.DAYS_PER_WEEK) {
+            state.skipped++;
+            return null;
+        }
+        return new DayRow(dayIndex, note != null && !note.isBlank() ? note : null, items);
+    }
+
+    private void readItems(JsonParser p, List<ItemRow> items, State state) throws IOException {
+        if (p.currentToken() != JsonToken.START_ARRAY) {
+            p.skipChildren();
+            return;
+        }
+        while (p.nextToken() != JsonToken.END_ARRAY) {
+            if (p.currentToken() != JsonToken.START_OBJECT) {
+                state.skipped++;
+                p.skipChildren();
+                continue;
+            }
+            String type = "NOTE";
+            String title = null;
+            String description = null;
+            Integer kcal = null;
+            Integer min = null;
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.currentName();
+                p.nextToken();
+                switch (field) {
+                    case "itemType" -> {
+                        // 객체/배열 값은 text 가 건너뛰고 null → 모르는 타입으로 처리
+                        String t = text(p, TITLE_MAX);
+                        type = t != null ? t.toUpperCase(Locale.ROOT) : "";
+                    }
+                    case "title" -> title = text(p, TITLE_MAX);
+                    case "description" -> description = text(p, TEXT_MAX);
+                    case "targetKcal" -> kcal = number(p);
+                    case "targetMin" -> min = number(p);
+                    default -> p.skipChildren();
+                }
+            }
+            PlanItem.ItemType itemType;
+            switch (type) {
+                case "WORKOUT" -> itemType = PlanItem.ItemType.WORKOUT;
+                case "DIET" -> itemType = PlanItem.ItemType.DIET;
+                case "NOTE" -> itemType = PlanItem.ItemType.NOTE;
+                default -> {
+                    state.skipped++;
+                    continue;
+                }
+            }
+            items.add(new ItemRow(
+                    itemType,
+                    title != null ? title : "제목 없음",
+                    description != null ? description : "",
+                    itemType == PlanItem.ItemType.DIET ? kcal : null,
+                    itemType == PlanItem.ItemType.WORKOUT ? min : null));
+        }
+    }
+
+    /** 문자열/숫자 값 (객체/배열이면 건너뛰고 null), 컬럼 길이로 자른다 */
+    private static String text(JsonParser p, int max) throws IOException {
+        if (p.currentToken().isStructStart()) {
+            p.skipChildren();
+            return null;
+        }
+        String s = p.getValueAsString();
+        return s != null && s.length() > max ? s.substring(0, max) : s;
+    }
+
+    /** 숫자 또는 숫자 문자열 ("30") → int. 그 외 null */
+    private static Integer number(JsonParser p) throws IOException {
+        if (p.currentToken().isNumeric()) return p.getValueAsInt();
+        if (p.currentToken().isStructStart()) {
+            p.skipChildren();
+            return null;
+        }
+        try {
+            String s = p.getValueAsString();
+            return s != null ? Integer.valueOf(s.trim()) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -1,70 +1,75 @@
 package com.healthcare.service;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.healthcare.domain.*;
-import com.healthcare.dto.plan.PlanDtos;
 import com.healthcare.repository.*;
-import com.healthcare.security.SecurityUtil;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * AI 추천 서비스: 사용자 정보를 기반으로 GPT를 통해 플랜을 생성하고 매칭을 설정
+ * 단계별로 나뉘어 있어 GPT 호출(최대 60초)은 트랜잭션 밖에서 실행된다 (AiPlanJobService 가 조율)
+ *   prepare(짧은 트랜잭션) → generateProgressively(트랜잭션 없음, 완성된 Day 마다 짧은 트랜잭션으로 저장)
+ * 비슷한 프로필의 플랜은 AiPlanCache 에서 재사용한다 (cachedPlan / remember)
+ * OpenAI 장애 시에는 규칙 기반 기본 플랜으로 대체한다 (RuleBasedPlanGenerator)
  */
 @Service
 public class AiRecommendationService {
 
+    /** GPT 호출에 필요한 입력 (prepare 결과). cacheKey 가 null 이면 캐시 미사용 */
+    public record PlanRequest(Long accountId, Long matchId, LocalDate weekStart,
+                              Map<String, Object> userInfo, String cacheKey) { }
+
+    /** generateProgressively 결과: GPT 응답 원문 + 저장된 plan_week id. fallback 이면 규칙 기반 Day 가 섞여 있어 캐시하지 않는다 */
+    public record Generated(String response, Long weekId, boolean fallback) { }
+
     private final GptApiService gptApiService;
     private final AiTrainerInitService aiTrainerInitService;
-    private final PlanService planService;
     private final UserProfileRepository userProfileRepository;
     private final MatchRepository matchRepository;
-    private final PlanWeekRepository planWeekRepository;
-    private final PlanDayRepository planDayRepository;
-    private final PlanItemRepository planItemRepository;
-    private final SecurityUtil securityUtil;
-    private final ObjectMapper objectMapper;
+    private final PlanJdbcRepository planJdbcRepository;
+    private final AiPlanParser planParser;
+    private final AiPlanCache planCache;
+    private final RuleBasedPlanGenerator ruleBasedPlanGenerator;
 
     public AiRecommendationService(GptApiService gptApiService,
                                   AiTrainerInitService aiTrainerInitService,
-                                  PlanService planService,
                                   UserProfileRepository userProfileRepository,
                                   MatchRepository matchRepository,
-                                  PlanWeekRepository planWeekRepository,
-                                  PlanDayRepository planDayRepository,
-                                  PlanItemRepository planItemRepository,
-                                  SecurityUtil securityUtil) {
+                                  PlanJdbcRepository planJdbcRepository,
+                                  AiPlanParser planParser,
+                                  AiPlanCache planCache,
+                                  RuleBasedPlanGenerator ruleBasedPlanGenerator) {
         this.gptApiService = gptApiService;
         this.aiTrainerInitService = aiTrainerInitService;
-        this.planService = planService;
         this.userProfileRepository = userProfileRepository;
         this.matchRepository = matchRepository;
-        this.planWeekRepository = planWeekRepository;
-        this.planDayRepository = planDayRepository;
-        this.planItemRepository = planItemRepository;
-        this.securityUtil = securityUtil;
-        this.objectMapper = new ObjectMapper();
+        this.planJdbcRepository = planJdbcRepository;
+        this.planParser = planParser;
+        this.planCache = planCache;
+        this.ruleBasedPlanGenerator = ruleBasedPlanGenerator;
     }
 
     /**
-     * AI 추천 플랜 생성 및 매칭 설정
+     * 1단계: AI 트레이너 매칭 조회/생성, GPT 입력 구성 (요청 스레드)
      * 
+     * @param accountId 요청한 사용자 계정 ID
      * @param weekStart 주간 시작일
      * @param goal 목표 (선택사항)
      * @param specialRequests 특별 요청사항 (선택사항)
-     * @return 생성된 매칭 ID
      */
     @Transactional
-    public Long createAiRecommendation(LocalDate weekStart, String goal, String specialRequests) {
-        // 현재 로그인한 사용자의 계정 ID
-        Long accountId = securityUtil.currentAccountId();
-        
+    public PlanRequest prepare(Long accountId, LocalDate weekStart, String goal, String specialRequests) {
         // 사용자 프로필 조회
         UserProfile userProfile = userProfileRepository.findByAccountId(accountId)
                 .orElseThrow(() -> new IllegalStateException("사용자 프로필을 찾을 수 없습니다."));
@@ -115,118 +120,139 @@ public class AiRecommendationService {
             userInfo.put("specialRequests", specialRequests);
         }
 
-        // GPT API 호출하여 플랜 생성
-        String gptResponse = gptApiService.generatePlan(userInfo, weekStart.toString());
+        return new PlanRequest(accountId, match.getId(), weekStart, userInfo, planCache.keyOf(userInfo));
+    }
 
-        // GPT 응답을 파싱하여 플랜 생성
-        try {
-            JsonNode planJson = objectMapper.readTree(gptResponse);
-            
-            // JSON에서 플랜 정보 추출
-            String title = planJson.has("title") ? planJson.get("title").asText() : "AI 추천 플랜";
-            String note = planJson.has("note") ? planJson.get("note").asText() : null;
-            
-            // AI 트레이너 계정 ID
-            Long aiTrainerAccountId = aiTrainerInitService.getAiTrainerAccountId();
-            
-            // 주간 플랜 생성 (권한 검사 없이 직접 생성)
-            var existingWeek = planWeekRepository.findByMatchIdAndWeekStart(match.getId(), weekStart);
-            PlanWeek week;
-            if (existingWeek.isPresent()) {
-                week = existingWeek.get();
-            } else {
-                week = new PlanWeek();
-                week.setMatchId(match.getId());
-                week.setWeekStart(weekStart);
-                week.setTitle(title);
-                week.setNote(note != null && !note.isBlank() ? note : null);
-                week.setCreatedBy(aiTrainerAccountId);
-                week = planWeekRepository.save(week);
-                
-                // Day 0~6 자동 생성
-                for (int i = 0; i < 7; i++) {
-                    var day = new PlanDay();
-                    day.setWeekId(week.getId());
-                    day.setDayIndex(i);
-                    day.setNote(null);
-                    planDayRepository.save(day);
+    /** 캐시된 플랜 (비슷한 프로필 + 같은 목표). 있으면 GPT 호출 없이 바로 persistPlan */
+    public Optional<String> cachedPlan(PlanRequest request) {
+        return planCache.get(request.cacheKey());
+    }
+
+    /**
+     * 2단계: GPT 호출 + 점진 저장 (트랜잭션 없이 호출, 작업 스레드에서 블로킹).
+     * 응답을 스트림으로 받아 Day 가 완성될 때마다 바로 저장하고(Day 마다 짧은 트랜잭션) onDay 로 알린다.
+     * GPT 호출 실패(서킷 오픈 포함), 응답 잘림, 읽을 수 있는 Day 없음이면
+     * 아직 저장되지 않은 Day 를 규칙 기반 기본 플랜(RuleBasedPlanGenerator)으로 채우고 fallback 으로 표시한다.
+     * Day 를 이번 실행에서 처음 저장할 때 그 Day 의 기존 아이템(이전 생성, 실패한 시도)을 교체하므로
+     * 같은 주를 다시 생성하거나 실패 후 재시도해도 아이템은 한 벌만 남는다. 끝나면 이번에 저장하지 않은 Day 의 이전 생성분도 지운다.
+     *
+     * @return 응답 원문(캐시용) + plan_week id + fallback 여부
+     */
+    public Generated generateProgressively(PlanRequest request, Consumer<PlanJdbcRepository.DayRow> onDay) {
+        var parser = planParser.incremental();
+        var response = new StringBuilder();
+        var week = new ProgressiveWeek(request, onDay);
+        RuntimeException gptFailure = null;
+
+        // toStream: 조각 소비(저장 포함)는 이 스레드에서. 중간에 실패하면 close 로 upstream 취소
+        try (Stream<String> chunks = gptApiService.streamPlan(request.userInfo(), request.weekStart().toString())
+                .toStream()) {
+            var it = chunks.iterator();
+            while (true) {
+                String chunk;
+                try {
+                    if (!it.hasNext()) break;
+                    chunk = it.next();
+                } catch (RuntimeException e) {
+                    gptFailure = e; // GPT 쪽 실패만 대체. 저장 오류는 그대로 전파
+                    break;
                 }
-            }
-            
-            // 주간 플랜 조회 (days 포함) - 사용자는 매칭에 접근 가능하므로 getWeekView 사용 가능
-            PlanDtos.WeekView weekView = planService.getWeekView(match.getId(), weekStart);
-            
-            // 각 날짜별 아이템 생성
-            if (planJson.has("days") && planJson.get("days").isArray()) {
-                JsonNode days = planJson.get("days");
-                
-                for (JsonNode dayJson : days) {
-                    int dayIndex = dayJson.has("dayIndex") ? dayJson.get("dayIndex").asInt() : -1;
-                    if (dayIndex < 0 || dayIndex >= weekView.days.size()) {
-                        continue; // 유효하지 않은 dayIndex는 건너뛰기
-                    }
-                    
-                    PlanDtos.DayView dayView = weekView.days.get(dayIndex);
-                    String dayNote = dayJson.has("note") ? dayJson.get("note").asText() : null;
-                    
-                    // Day 메모 업데이트 (권한 검사 없이 직접 업데이트)
-                    if (dayNote != null && !dayNote.isBlank()) {
-                        var day = planDayRepository.findById(dayView.id)
-                                .orElseThrow(() -> new IllegalStateException("Day not found"));
-                        day.setNote(dayNote);
-                        planDayRepository.save(day);
-                    }
-                    
-                    // 아이템 생성 (권한 검사 없이 직접 생성)
-                    if (dayJson.has("items") && dayJson.get("items").isArray()) {
-                        JsonNode items = dayJson.get("items");
-                        
-                        for (JsonNode itemJson : items) {
-                            String itemTypeStr = itemJson.has("itemType") ? 
-                                    itemJson.get("itemType").asText().toUpperCase() : "NOTE";
-                            
-                            if (!itemTypeStr.equals("WORKOUT") && !itemTypeStr.equals("DIET") && !itemTypeStr.equals("NOTE")) {
-                                continue; // 유효하지 않은 타입은 건너뛰기
-                            }
-                            
-                            PlanItem.ItemType itemType = PlanItem.ItemType.valueOf(itemTypeStr);
-                            var item = new PlanItem();
-                            item.setDayId(dayView.id);
-                            item.setItemType(itemType);
-                            item.setTitle(itemJson.has("title") ? 
-                                    itemJson.get("title").asText() : "제목 없음");
-                            item.setDescription(itemJson.has("description") ? 
-                                    itemJson.get("description").asText() : "");
-                            
-                            switch (itemType) {
-                                case DIET -> {
-                                    if (itemJson.has("targetKcal")) {
-                                        item.setTargetKcal(itemJson.get("targetKcal").asInt());
-                                    }
-                                    item.setTargetMin(null);
-                                }
-                                case WORKOUT -> {
-                                    if (itemJson.has("targetMin")) {
-                                        item.setTargetMin(itemJson.get("targetMin").asInt());
-                                    }
-                                    item.setTargetKcal(null);
-                                }
-                                case NOTE -> {
-                                    item.setTargetKcal(null);
-                                    item.setTargetMin(null);
-                                }
-                            }
-                            
-                            planItemRepository.save(item);
-                        }
-                    }
+                response.append(chunk);
+                for (var day : parser.feed(chunk)) {
+                    week.save(day, titleOrDefault(parser.title()), blankToNull(parser.note()));
                 }
             }
-            
-            return match.getId();
-        } catch (Exception e) {
+        }
+
+        var plan = parser.finish();
+        if (plan.skipped() > 0 || plan.truncated()) {
+            System.out.println("[AI Plan] match=" + request.matchId() + " skipped=" + plan.skipped()
+                    + " truncated=" + plan.truncated());
+        }
+        if (gptFailure == null && !plan.truncated() && week.weekId != null) {
+            week.clearRest();
+            return new Generated(response.toString(), week.weekId, false);
+        }
+
+        System.out.println("[AI Plan] match=" + request.matchId() + " rule-based fallback (saved AI days="
+                + week.saved.size() + "): " + (gptFailure != null ? gptFailure.getMessage() : "응답 불완전"));
+        var fallback = planParser.parse(ruleBasedPlanGenerator.generate(request.userInfo()));
+        for (var day : fallback.days()) {
+            if (!week.saved.contains(day.dayIndex())) {
+                week.save(day, fallback.title(), fallback.note());
+            }
+        }
+        week.clearRest();
+        return new Generated(response.toString(), week.weekId, true);
+    }
+
+    /** generateProgressively 의 저장 상태: 첫 저장 때 주차 생성, 저장된 dayIndex 기록 (같은 Day 가 다시 오면 추가만) */
+    private final class ProgressiveWeek {
+        private final PlanRequest request;
+        private final Consumer<PlanJdbcRepository.DayRow> onDay;
+        private final Set<Integer> saved = new HashSet<>();
+        private Long createdBy;
+        private Long weekId;
+
+        private ProgressiveWeek(PlanRequest request, Consumer<PlanJdbcRepository.DayRow> onDay) {
+            this.request = request;
+            this.onDay = onDay;
+        }
+
+        private void save(PlanJdbcRepository.DayRow day, String title, String note) {
+            if (createdBy == null) createdBy = aiTrainerInitService.getAiTrainerAccountId();
+            weekId = planJdbcRepository.saveWeek(request.matchId(), request.weekStart(), title, note, createdBy,
+                    List.of(day), !saved.contains(day.dayIndex()));
+            saved.add(day.dayIndex());
+            onDay.accept(day);
+        }
+
+        /** 이번 실행에서 저장하지 않은 Day 의 이전 생성분 정리 (같은 주 재생성 시 새 플랜만 남도록) */
+        private void clearRest() {
+            if (weekId == null) return;
+            planJdbcRepository.clearItemsExcept(weekId, createdBy, saved);
+        }
+    }
+
+    /** 저장까지 성공한 GPT 응답을 캐시에 남긴다 */
+    public void remember(PlanRequest request, String gptResponse) {
+        planCache.put(request.cacheKey(), gptResponse);
+    }
+
+    /**
+     * 3단계: GPT 응답(JSON)을 주간 플랜/일/아이템으로 저장
+     * 스트리밍 파싱(잘못된 항목은 건너뜀) → 주/일/아이템 JDBC 일괄 저장 (아이템 수와 무관하게 문장 몇 개)
+     *
+     * @return plan_week id
+     */
+    @Transactional
+    public Long persistPlan(Long matchId, LocalDate weekStart, String gptResponse) {
+        AiPlanParser.Plan plan;
+        try {
+            plan = planParser.parse(gptResponse);
+        } catch (IllegalArgumentException e) {
             throw new RuntimeException("GPT 응답 파싱 또는 플랜 생성 실패: " + e.getMessage(), e);
         }
+        if (plan.skipped() > 0 || plan.truncated()) {
+            System.out.println("[AI Plan] match=" + matchId + " skipped=" + plan.skipped()
+                    + " truncated=" + plan.truncated());
+        }
+
+        // 주간 플랜 생성 (권한 검사 없이 직접 생성, AI 트레이너 계정 명의). 같은 주를 다시 만들면 주 전체 교체
+        Long createdBy = aiTrainerInitService.getAiTrainerAccountId();
+        Long weekId = planJdbcRepository.saveWeek(matchId, weekStart, titleOrDefault(plan.title()),
+                blankToNull(plan.note()), createdBy, plan.days(), true);
+        var days = new HashSet<Integer>();
+        for (var day : plan.days()) days.add(day.dayIndex());
+        planJdbcRepository.clearItemsExcept(weekId, createdBy, days);
+        return weekId;
+    }
+
+    private static String titleOrDefault(String title) {
+        return title != null && !title.isBlank() ? title : "AI 추천 플랜";
     }
-}
 
+    private static String blankToNull(String value) {
+        return value != null && !value.isBlank() ? value : null;
+    }
+}
@@ -0,0 +1,14 @@
+package com.healthcare.service;
+
+/** OpenAI 서킷 오픈 (최근 호출 실패율 초과). 호출하지 않고 바로 실패 → 503 + Retry-After */
+public class AiUnavailableException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public AiUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = Math.max(1, retryAfterSeconds);
+    }
+
+    public long getRetryAfterSeconds() { return retryAfterSeconds; }
+}
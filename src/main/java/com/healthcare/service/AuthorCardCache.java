@@ -0,0 +1,184 @@
+package com.healthcare.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.healthcare.domain.Account;
+import com.healthcare.repository.AccountRepository;
+import com.healthcare.repository.TrainerProfileRepository;
+import com.healthcare.repository.UserProfileRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * 작성자 카드 (account → username, displayName, role, profileId, imageUrl) 애플리케이션 공용 캐시.
+ * 커뮤니티 글/댓글, 매칭 상대 정보 조회가 함께 쓴다.
+ * 크기 제한 + TTL, miss 분은 account/user_profile/trainer_profile IN 쿼리로 한 번에 채운다.
+ * 표시 이름/프로필 이미지가 바뀌면 invalidate (트랜잭션 안이면 커밋 후).
+ */
+@Component
+public class AuthorCardCache {
+
+    public record AuthorCard(Long accountId, String username, String displayName,
+                             String role, Long profileId, String imageUrl) {
+        public static final AuthorCard EMPTY = new AuthorCard(null, null, null, null, null, null);
+    }
+
+    /** 프로필 id 는 역할별로 따로 채번되므로 (role, profileId) 로 구분 */
+    private record ProfileKey(Account.Role role, Long profileId) {}
+
+    private final AccountRepository accountRepo;
+    private final UserProfileRepository userProfileRepo;
+    private final TrainerProfileRepository trainerProfileRepo;
+
+    private final LoadingCache<Long, AuthorCard> cards;
+    // profile → account 매핑은 바뀌지 않으므로 TTL 없이 크기 제한만
+    private final Cache<ProfileKey, Long> accountByProfile;
+
+    public AuthorCardCache(AccountRepository accountRepo,
+                           UserProfileRepository userProfileRepo,
+                           TrainerProfileRepository trainerProfileRepo,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.author-card.max-size:50000}") long maxSize,
+                           @Value("${app.author-card.ttl-seconds:600}") long ttlSeconds) {
+        this.accountRepo = accountRepo;
+        this.userProfileRepo = userProfileRepo;
+        this.trainerProfileRepo = trainerProfileRepo;
+        this.cards = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build(new CacheLoader<>() {
+                    @Override
+                    public AuthorCard load(Long accountId) {
+                        return loadCards(List.of(accountId)).get(accountId);
+                    }
+
+                    @Override
+                    public Map<Long, AuthorCard> loadAll(Set<? extends Long> accountIds) {
+                        return loadCards(accountIds);
+                    }
+                });
+        this.accountByProfile = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cards, "author-card");
+    }
+
+    /** 단건. 없는 계정이면 null */
+    public AuthorCard get(Long accountId) {
+        if (accountId == null) return null;
+        return cards.get(accountId);
+    }
+
+    /** 여러 건. 없는 계정은 결과에서 빠진다 */
+    public Map<Long, AuthorCard> getAll(Collection<Long> accountIds) {
+        var ids = accountIds.stream().filter(Objects::nonNull).toList();
+        if (ids.isEmpty()) return Map.of();
+        return cards.getAll(ids);
+    }
+
+    /** 프로필 id 기준 단건. 없으면 null */
+    public AuthorCard getByProfile(Account.Role role, Long profileId) {
+        if (profileId == null) return null;
+        return getAllByProfile(role, List.of(profileId)).get(profileId);
+    }
+
+    /**
+     * user_profile/trainer_profile id 기준 조회 (매칭 상대 정보 등).
+     * @return profileId → 카드. 없는 프로필은 빠진다
+     */
+    public Map<Long, AuthorCard> getAllByProfile(Account.Role role, Collection<Long> profileIds) {
+        var missing = new ArrayList<Long>();
+        var accountIds = new LinkedHashMap<Long, Long>();
+        for (Long profileId : new LinkedHashSet<>(profileIds)) {
+            if (profileId == null) continue;
+            Long accountId = accountByProfile.getIfPresent(new ProfileKey(role, profileId));
+            if (accountId != null) accountIds.put(profileId, accountId);
+            else missing.add(profileId);
+        }
+        if (!missing.isEmpty()) {
+            if (role == Account.Role.USER) {
+                userProfileRepo.findAllById(missing).forEach(up -> accountIds.put(up.getId(), up.getAccountId()));
+            } else if (role == Account.Role.TRAINER) {
+                trainerProfileRepo.findAllById(missing).forEach(tp -> accountIds.put(tp.getId(), tp.getAccountId()));
+            }
+            for (Long profileId : missing) {
+                Long accountId = accountIds.get(profileId);
+                if (accountId != null) accountByProfile.put(new ProfileKey(role, profileId), accountId);
+            }
+        }
+
+        var byAccount = getAll(accountIds.values());
+        Map<Long, AuthorCard> result = new LinkedHashMap<>();
+        accountIds.forEach((profileId, accountId) -> {
+            var card = byAccount.get(accountId);
+            if (card != null) result.put(profileId, card);
+        });
+        return result;
+    }
+
+    /** 표시 이름/이미지 변경 시 호출. 트랜잭션 중이면 커밋 후 제거해서 옛 값이 다시 적재되지 않게 한다 */
+    public void invalidate(Long accountId) {
+        if (accountId == null) return;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cards.invalidate(accountId);
+                }
+            });
+        } else {
+            cards.invalidate(accountId);
+        }
+    }
+
+    /** account + user_profile + trainer_profile 을 각각 IN 쿼리 1회로 조회 */
+    private Map<Long, AuthorCard> loadCards(Collection<? extends Long> accountIds) {
+        var accounts = accountRepo.findAllById(new ArrayList<Long>(accountIds));
+        var userAccIds = new ArrayList<Long>();
+        var trainerAccIds = new ArrayList<Long>();
+        for (var acc : accounts) {
+            if (acc.getRole() == Account.Role.USER) userAccIds.add(acc.getId());
+            else if (acc.getRole() == Account.Role.TRAINER) trainerAccIds.add(acc.getId());
+        }
+
+        Map<Long, Long> profileIds = new HashMap<>();
+        Map<Long, String> imageUrls = new HashMap<>();
+        if (!userAccIds.isEmpty()) {
+            for (var up : userProfileRepo.findByAccountIdIn(userAccIds)) {
+                profileIds.put(up.getAccountId(), up.getId());
+                if (up.getImageUrl() != null) imageUrls.put(up.getAccountId(), up.getImageUrl());
+                accountByProfile.put(new ProfileKey(Account.Role.USER, up.getId()), up.getAccountId());
+            }
+        }
+        if (!trainerAccIds.isEmpty()) {
+            for (var tp : trainerProfileRepo.findByAccountIdIn(trainerAccIds)) {
+                profileIds.put(tp.getAccountId(), tp.getId());
+                if (tp.getImageUrl() != null) imageUrls.put(tp.getAccountId(), tp.getImageUrl());
+                accountByProfile.put(new ProfileKey(Account.Role.TRAINER, tp.getId()), tp.getAccountId());
+            }
+        }
+
+        Map<Long, AuthorCard> result = new HashMap<>();
+        for (var acc : accounts) {
+            result.put(acc.getId(), new AuthorCard(
+                    acc.getId(),
+                    acc.getUsername(),
+                    acc.getDisplayName(),
+                    acc.getRole() != null ? acc.getRole().name() : null,
+                    profileIds.get(acc.getId()),
+                    imageUrls.get(acc.getId())
+            ));
+        }
+        return result;
+    }
+}
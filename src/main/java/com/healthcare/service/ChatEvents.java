@@ -0,0 +1,20 @@
+package com.healthcare.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * 채팅 도메인 이벤트. ChatService 가 트랜잭션 안에서 발행하고,
+ * 실시간 푸시 등은 @TransactionalEventListener(AFTER_COMMIT) 로 커밋된 변경만 내보낸다.
+ */
+public final class ChatEvents {
+
+    private ChatEvents() { }
+
+    /** 메시지 전송 */
+    public record MessageSent(Long threadId, Long messageId, Long senderAcc,
+                              String content, LocalDateTime createdAt) { }
+
+    /** 메시지 숨김/해제 (모더레이션) */
+    public record MessageHidden(Long threadId, Long messageId, Long senderAcc, String content,
+                                boolean hidden, LocalDateTime createdAt) { }
+}
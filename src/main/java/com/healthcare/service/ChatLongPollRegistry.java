@@ -0,0 +1,91 @@
+package com.healthcare.service;
+
+import com.healthcare.dto.chat.ChatDtos;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * afterId 조회의 long-poll 대기자 목록 (스레드별).
+ * 대기 중에는 DB 를 읽지 않고, 등록 직후 한 번과 새 메시지가 커밋될 때마다 afterId 이후를 다시 읽어 응답한다.
+ * (이벤트의 메시지 하나만 보내면 조회~등록 사이에 커밋된 앞 메시지를 건너뛸 수 있다. 메시지 id 는 스레드마다 연속이 아님)
+ * 타임아웃이면 빈 결과, 전체 대기자 수가 한도를 넘으면 등록하지 않는다 (즉시 응답).
+ */
+@Component
+public class ChatLongPollRegistry {
+
+    /** reload: afterId 이후를 DB 에서 다시 읽는다 (응답 형식까지 만든 결과) */
+    private record Waiter(Long threadId, DeferredResult<ChatDtos.MessageSlice> result, long afterId,
+                          Supplier<ChatDtos.MessageSlice> reload) { }
+
+    private final ConcurrentMap<Long, Set<Waiter>> waiters = new ConcurrentHashMap<>();
+    private final AtomicInteger count = new AtomicInteger();
+    private final int maxWaiters;
+
+    public ChatLongPollRegistry(@Value("${app.chat.long-poll.max-waiters:10000}") int maxWaiters,
+                                MeterRegistry meterRegistry) {
+        this.maxWaiters = maxWaiters;
+        Gauge.builder("chat.longpoll.waiters", count, AtomicInteger::get).register(meterRegistry);
+    }
+
+    /**
+     * 대기 등록. 한도 초과면 null.
+     * 등록한 뒤 reload 를 한 번 더 실행한다: 호출자의 조회~등록 사이에 커밋된 메시지는 이벤트로 깨우지 못하므로.
+     */
+    public DeferredResult<ChatDtos.MessageSlice> register(Long threadId, long timeoutMs, long afterId,
+                                                          Supplier<ChatDtos.MessageSlice> reload) {
+        if (count.incrementAndGet() > maxWaiters) {
+            count.decrementAndGet();
+            return null;
+        }
+        var result = new DeferredResult<ChatDtos.MessageSlice>(timeoutMs,
+                () -> new ChatDtos.MessageSlice(List.of(), false, afterId));
+        var waiter = new Waiter(threadId, result, afterId, reload);
+        waiters.computeIfAbsent(threadId, k -> ConcurrentHashMap.newKeySet()).add(waiter);
+        result.onCompletion(() -> remove(waiter));
+        refresh(waiter);
+        return result;
+    }
+
+    private void remove(Waiter waiter) {
+        var set = waiters.get(waiter.threadId());
+        if (set != null && set.remove(waiter)) {
+            count.decrementAndGet();
+            waiters.computeIfPresent(waiter.threadId(), (k, v) -> v.isEmpty() ? null : v);
+        }
+    }
+
+    /** 새 메시지가 커밋되면 그 스레드의 대기자가 각자 afterId 이후를 다시 읽는다 */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onMessageSent(ChatEvents.MessageSent e) {
+        var set = waiters.get(e.threadId());
+        if (set == null || set.isEmpty()) return;
+        for (var waiter : set) {
+            if (e.messageId() > waiter.afterId()) refresh(waiter);
+        }
+    }
+
+    /** afterId 이후가 있으면(lastId 가 움직였으면) 응답. 조회 실패는 이 요청의 오류로. 응답하면 바로 목록에서 뺀다 */
+    private void refresh(Waiter waiter) {
+        if (waiter.result().isSetOrExpired()) return;
+        try {
+            var slice = waiter.reload().get();
+            if (slice.lastId == null || slice.lastId == waiter.afterId()) return;
+            waiter.result().setResult(slice);
+        } catch (RuntimeException ex) {
+            waiter.result().setErrorResult(ex);
+        }
+        remove(waiter);
+    }
+}
@@ -0,0 +1,44 @@
+package com.healthcare.service;
+
+import com.healthcare.dto.chat.ChatDtos;
+import com.healthcare.security.StompAuthChannelInterceptor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * 커밋된 채팅 변경을 스레드 토픽 구독자에게 푸시.
+ * 열려 있는 채팅 화면이 주기적으로 목록을 다시 조회(폴링)하지 않아도 되게 한다.
+ */
+@Component
+public class ChatRealtimePublisher {
+
+    private final SimpMessagingTemplate messaging;
+
+    public ChatRealtimePublisher(SimpMessagingTemplate messaging) {
+        this.messaging = messaging;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onMessageSent(ChatEvents.MessageSent e) {
+        send(e.threadId(), new ChatDtos.ThreadEvent("MESSAGE", e.threadId(),
+                new ChatDtos.MessageView(e.messageId(), e.senderAcc(), e.content(), false, e.createdAt())));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onMessageHidden(ChatEvents.MessageHidden e) {
+        // 숨김 처리된 본문은 내보내지 않고, 해제 시에는 복원용으로 함께 보낸다
+        send(e.threadId(), new ChatDtos.ThreadEvent("HIDDEN", e.threadId(),
+                new ChatDtos.MessageView(e.messageId(), e.senderAcc(), e.hidden() ? null : e.content(), e.hidden(), e.createdAt())));
+    }
+
+    private void send(Long threadId, ChatDtos.ThreadEvent event) {
+        try {
+            messaging.convertAndSend(StompAuthChannelInterceptor.THREAD_TOPIC_PREFIX + threadId, event);
+        } catch (Exception ex) {
+            // 푸시 실패는 저장 결과에 영향 없음 (클라이언트는 재연결 시 REST 로 보충)
+            System.err.println("[ChatRealtime] push failed thread=" + threadId + ": " + ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.healthcare.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.healthcare.domain.ChatMessage;
+import com.healthcare.repository.ChatMessageRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 최근 활동 스레드의 최신 메시지 N개 메모리 창 (스레드별 ring buffer).
+ * 읽기 시 처음 한 번 DB 에서 채우고, 이후 커밋된 전송/숨김 이벤트로 창을 갱신한다 (쓰기 시 적재하지 않음).
+ * 전체 메모리 상한(대략적인 bytes 가중치)을 넘거나 오래 안 읽힌 스레드부터 내보낸다.
+ * 창 안에서 답할 수 없는 조회(창보다 오래된 구간)는 empty → 호출 측이 DB 로 간다.
+ * 적재 도중 커밋된 이벤트가 있으면(세대 값이 바뀜) 그 적재는 스냅샷이 메시지를 놓쳤을 수 있어 캐시에 넣지 않는다.
+ */
+@Component
+public class ChatRecentMessages {
+
+    /** 창에 보관하는 메시지 (엔티티 대신 불변 값) */
+    public record Entry(Long id, Long senderAcc, String content, boolean hidden, LocalDateTime createdAt) {
+        public static Entry of(ChatMessage m) {
+            return new Entry(m.getId(), m.getSenderAcc(), m.getContent(), m.isHidden(), m.getCreatedAt());
+        }
+    }
+
+    /** 최신 N개 (작성 순). complete: 스레드 전체 메시지가 들어 있음 */
+    private record Window(List<Entry> entries, boolean complete) { }
+
+    private static final Comparator<Entry> ORDER =
+            Comparator.comparing(Entry::createdAt).thenComparing(Entry::id);
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final ChatMessageRepository messageRepo;
+    private final int perThread;
+    private final Cache<Long, Window> windows;
+    /** 스레드별 이벤트 세대 (고정 크기 줄무늬라 스레드 수와 무관). 창이 없어도 이벤트마다 올린다 */
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+    private final Counter servedFromMemory;
+    private final Counter servedFromDb;
+
+    public ChatRecentMessages(ChatMessageRepository messageRepo,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.chat.recent.per-thread:100}") int perThread,
+                              @Value("${app.chat.recent.max-bytes:67108864}") long maxBytes,
+                              @Value("${app.chat.recent.idle-minutes:30}") long idleMinutes) {
+        this.messageRepo = messageRepo;
+        this.perThread = perThread;
+        this.windows = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Long threadId, Window w) -> weight(w))
+                .expireAfterAccess(Duration.ofMinutes(idleMinutes))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, windows, "chat-recent");
+        this.servedFromMemory = Counter.builder("chat.recent.reads").tag("source", "memory").register(meterRegistry);
+        this.servedFromDb = Counter.builder("chat.recent.reads").tag("source", "db").register(meterRegistry);
+    }
+
+    /** 오프셋 페이지 (작성 순). 스레드 전체가 창에 있을 때만 */
+    public Optional<Page<Entry>> page(Long threadId, int page, int size) {
+        var w = window(threadId);
+        if (!w.complete()) return miss();
+        var all = w.entries();
+        int from = (int) Math.min((long) page * size, all.size());
+        int to = Math.min(from + size, all.size());
+        return hit(new PageImpl<>(all.subList(from, to), PageRequest.of(page, size), all.size()));
+    }
+
+    /** afterId 이후 최대 limit 개 (작성 순). afterId=0 은 스레드 처음부터 */
+    public Optional<List<Entry>> after(Long threadId, long afterId, int limit) {
+        var w = window(threadId);
+        var all = w.entries();
+        int start;
+        if (afterId == 0) {
+            if (!w.complete()) return miss();
+            start = 0;
+        } else {
+            int idx = indexOf(all, afterId);
+            if (idx < 0) return miss();
+            start = idx + 1;
+        }
+        return hit(all.subList(start, Math.min(start + limit, all.size())));
+    }
+
+    /** beforeId 이전 최대 limit 개 (작성 순, 기준 직전까지) */
+    public Optional<List<Entry>> before(Long threadId, long beforeId, int limit) {
+        var w = window(threadId);
+        var all = w.entries();
+        int idx = indexOf(all, beforeId);
+        if (idx < 0) return miss();
+        if (idx < limit && !w.complete()) return miss(); // 창 앞쪽이 잘려 있어 개수를 채울 수 없음
+        return hit(all.subList(Math.max(0, idx - limit), idx));
+    }
+
+    /** DB 에서 읽었을 때 호출 (메모리/DB 비율 메트릭) */
+    public void recordDbRead() {
+        servedFromDb.increment();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onMessageSent(ChatEvents.MessageSent e) {
+        var entry = new Entry(e.messageId(), e.senderAcc(), e.content(), false, e.createdAt());
+        windows.asMap().compute(e.threadId(), (k, w) -> {
+            bump(k);
+            if (w == null) return null;
+            if (indexOf(w.entries(), entry.id()) >= 0) return w; // 적재 시 이미 읽힘
+            var list = new ArrayList<>(w.entries());
+            list.add(entry);
+            list.sort(ORDER);
+            boolean complete = w.complete();
+            while (list.size() > perThread) {
+                list.remove(0);
+                complete = false;
+            }
+            return new Window(List.copyOf(list), complete);
+        });
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onMessageHidden(ChatEvents.MessageHidden e) {
+        windows.asMap().compute(e.threadId(), (k, w) -> {
+            bump(k);
+            if (w == null) return null;
+            int idx = indexOf(w.entries(), e.messageId());
+            if (idx < 0) return w;
+            var list = new ArrayList<>(w.entries());
+            var old = list.get(idx);
+            list.set(idx, new Entry(old.id(), old.senderAcc(), old.content(), e.hidden(), old.createdAt()));
+            return new Window(List.copyOf(list), w.complete());
+        });
+    }
+
+    private Window window(Long threadId) {
+        var cached = windows.getIfPresent(threadId);
+        if (cached != null) return cached;
+
+        // 세대를 먼저 읽고 적재: 적재 스냅샷 이후 커밋된 메시지는 반드시 세대를 올린다
+        long generation = generations.get(stripe(threadId));
+        var loaded = load(threadId);
+        // 호출 측 트랜잭션 안이면 스냅샷이 세대보다 먼저 열렸을 수 있다 → 이번 읽기에만 쓴다
+        if (TransactionSynchronizationManager.isActualTransactionActive()) return loaded;
+
+        // 이벤트 반영(compute)과 같은 키 잠금 안에서 비교 후 저장
+        var stored = windows.asMap().compute(threadId, (k, w) -> {
+            if (w != null) return w; // 다른 요청이 먼저 적재
+            return generations.get(stripe(k)) == generation ? loaded : null;
+        });
+        return stored != null ? stored : loaded;
+    }
+
+    private void bump(Long threadId) {
+        generations.incrementAndGet(stripe(threadId));
+    }
+
+    private static int stripe(Long threadId) {
+        return (int) Math.floorMod(threadId, (long) GENERATION_STRIPES);
+    }
+
+    private Window load(Long threadId) {
+        var fetched = messageRepo.findByThreadIdOrderByCreatedAtDescIdDesc(threadId, PageRequest.of(0, perThread + 1));
+        boolean complete = fetched.size() <= perThread;
+        var list = new ArrayList<Entry>(Math.min(fetched.size(), perThread));
+        for (int i = Math.min(fetched.size(), perThread) - 1; i >= 0; i--) {
+            list.add(Entry.of(fetched.get(i)));
+        }
+        return new Window(List.copyOf(list), complete);
+    }
+
+    private <T> Optional<T> hit(T value) {
+        servedFromMemory.increment();
+        return Optional.of(value);
+    }
+
+    private <T> Optional<T> miss() {
+        return Optional.empty();
+    }
+
+    private static int indexOf(List<Entry> entries, long messageId) {
+        for (int i = entries.size() - 1; i >= 0; i--) { // 최근 메시지 기준 조회가 대부분
+            if (entries.get(i).id() == messageId) return i;
+        }
+        return -1;
+    }
+
+    /** 대략적인 bytes: 창 고정 비용 + 메시지당 객체 비용 + UTF-16 본문 */
+    private static int weight(Window w) {
+        long bytes = 64;
+        for (var e : w.entries()) {
+            bytes += 96 + (e.content() != null ? 2L * e.content().length() : 0);
+        }
+        return (int) Math.min(bytes, Integer.MAX_VALUE);
+    }
+}
@@ -1,48 +1,79 @@
 package com.healthcare.service;
 
+import com.healthcare.domain.Account;
 import com.healthcare.domain.ChatMessage;
+import com.healthcare.domain.ChatReadState;
 import com.healthcare.domain.ChatThread;
+import com.healthcare.domain.Match;
 import com.healthcare.repository.ChatMessageRepository;
+import com.healthcare.repository.ChatReadStateRepository;
 import com.healthcare.repository.ChatThreadRepository;
 import com.healthcare.repository.MatchRepository;
 import com.healthcare.security.ActorGuard;
 import com.healthcare.security.NotFoundException;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
 @Service
 public class ChatService {
 
+    private static final int MAX_DELTA_SIZE = 100;
+    // afterId=0: 스레드 처음부터
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1000, 1, 1, 0, 0);
+
     private final ChatThreadRepository threadRepo;
     private final ChatMessageRepository messageRepo;
     private final MatchRepository matchRepo;
     private final ActorGuard guard;
+    private final ChatReadStateRepository readStateRepo;
+    private final AuthorCardCache authorCards;
+    private final ChatRecentMessages recent;
+    private final ApplicationEventPublisher events;
 
     public ChatService(ChatThreadRepository threadRepo,
                        ChatMessageRepository messageRepo,
                        MatchRepository matchRepo,
-                       ActorGuard guard) {
+                       ActorGuard guard,
+                       ChatReadStateRepository readStateRepo,
+                       AuthorCardCache authorCards,
+                       ChatRecentMessages recent,
+                       ApplicationEventPublisher events) {
         this.threadRepo = threadRepo;
         this.messageRepo = messageRepo;
         this.matchRepo = matchRepo;
         this.guard = guard;
+        this.readStateRepo = readStateRepo;
+        this.authorCards = authorCards;
+        this.recent = recent;
+        this.events = events;
     }
 
     /** 매칭당 1개 스레드 생성 (있으면 그대로 반환) */
     @Transactional
     public ChatThread createOrGetThread(Long matchId) {
         guard.requireAccessToMatch(matchId);
-        matchRepo.findById(matchId)
+        var match = matchRepo.findById(matchId)
                 .orElseThrow(() -> new NotFoundException("매칭 정보를 찾을 수 없습니다."));
 
         return threadRepo.findByMatchId(matchId).orElseGet(() -> {
             var t = new ChatThread();
             t.setMatchId(matchId);
             try {
-                return threadRepo.save(t);
+                var saved = threadRepo.save(t);
+                createReadStates(saved.getId(), match);
+                return saved;
             } catch (DataIntegrityViolationException ex) {
                 // 동시 요청 등으로 중복 생성이 시도된 경우 기존 스레드 반환
                 return threadRepo.findByMatchId(matchId)
@@ -51,19 +82,33 @@ public class ChatService {
         });
     }
 
-    /** 메시지 전송 */
-    @Transactional
+    /** 메시지 전송. READ COMMITTED: 보낸 사람 읽음 위치를 잠근 뒤 세는 수가 최신 커밋을 보도록 (advanceRead) */
+    @Transactional(isolation = Isolation.READ_COMMITTED)
     public ChatMessage sendMessage(Long threadId, Long senderAcc, String content) {
         if (content == null || content.isBlank()) throw new IllegalArgumentException("content is blank");
         var thread = threadRepo.findById(threadId)
                 .orElseThrow(() -> new NotFoundException("채팅 스레드를 찾을 수 없습니다."));
         guard.requireAccessToMatch(thread.getMatchId());
 
+        // 안 읽은 수: 상대 +1 을 메시지 저장보다 먼저. 스레드의 읽음 상태 행을 모두 잠가 두므로
+        // 이 메시지가 커밋되기 전에는 누구의 읽음 처리도 이 메시지를 빼고 세지 못한다
+        var now = LocalDateTime.now();
+        readStateRepo.incrementUnread(thread.getId(), senderAcc, now);
+
         var message = new ChatMessage();
         message.setThreadId(thread.getId());
         message.setSenderAcc(senderAcc);
         message.setContent(content);
-        return messageRepo.save(message);
+        var saved = messageRepo.save(message);
+
+        // 보낸 사람은 자기 메시지까지 읽은 것으로
+        advanceRead(thread.getId(), senderAcc, saved.getId(), now);
+        threadRepo.updateLastMessage(thread.getId(), saved.getId(), senderAcc,
+                ChatThread.snippet(saved.getContent()), saved.getCreatedAt());
+
+        events.publishEvent(new ChatEvents.MessageSent(
+                thread.getId(), saved.getId(), senderAcc, saved.getContent(), saved.getCreatedAt()));
+        return saved;
     }
 
     /** 메시지 숨김/해제 (모더레이션) */
@@ -75,18 +120,175 @@ public class ChatService {
                 .orElseThrow(() -> new NotFoundException("채팅 스레드를 찾을 수 없습니다."));
         guard.requireAccessToMatch(thread.getMatchId());
 
+        if (message.isHidden() != hidden) {
+            // 아직 안 읽은 참여자의 unread 도 같이 조정
+            readStateRepo.adjustUnreadFor(thread.getId(), message.getSenderAcc(), message.getId(),
+                    hidden ? -1 : 1, LocalDateTime.now());
+        }
         message.setHidden(hidden);
+        // 요약은 조건부 UPDATE 로만 고친다 (엔티티로 쓰면 동시에 반영된 더 새 메시지 요약을 덮어쓴다)
+        if (hidden) {
+            var prev = messageRepo.findTopByThreadIdAndHiddenFalseOrderByIdDesc(thread.getId()).orElse(null);
+            threadRepo.replaceHiddenLastMessage(thread.getId(), message.getId(),
+                    prev != null ? prev.getId() : null,
+                    prev != null ? prev.getSenderAcc() : null,
+                    prev != null ? ChatThread.snippet(prev.getContent()) : null,
+                    prev != null ? prev.getCreatedAt() : null);
+        } else {
+            threadRepo.updateLastMessage(thread.getId(), message.getId(), message.getSenderAcc(),
+                    ChatThread.snippet(message.getContent()), message.getCreatedAt());
+        }
+        events.publishEvent(new ChatEvents.MessageHidden(
+                thread.getId(), message.getId(), message.getSenderAcc(), message.getContent(), hidden, message.getCreatedAt()));
         return message;
     }
 
-    /** 메시지 페이지 조회 (오름차순 시간 정렬) */
-    @Transactional(readOnly = true)
-    public org.springframework.data.domain.Page<ChatMessage> getMessages(Long threadId, int page, int size) {
+    /**
+     * 메시지 페이지 조회 (오름차순 시간 정렬). 스레드 전체가 최근 메시지 창에 있으면 메모리에서.
+     * 트랜잭션을 열지 않는다: 창 적재가 호출 측의 오래된 스냅샷이 아닌 자기 쿼리 시점으로 읽어야 캐시된다.
+     */
+    public Page<ChatRecentMessages.Entry> getMessages(Long threadId, int page, int size) {
         var thread = threadRepo.findById(threadId)
                 .orElseThrow(() -> new NotFoundException("채팅 스레드를 찾을 수 없습니다."));
         guard.requireAccessToMatch(thread.getMatchId());
 
+        var cached = recent.page(threadId, page, size);
+        if (cached.isPresent()) return cached.get();
+
+        recent.recordDbRead();
         var pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.ASC, "createdAt"));
-        return messageRepo.findByThreadIdOrderByCreatedAtAsc(threadId, pageable);
+        return messageRepo.findByThreadIdOrderByCreatedAtAsc(threadId, pageable).map(ChatRecentMessages.Entry::of);
+    }
+
+    /**
+     * 읽음 처리. upToMessageId 가 없으면 스레드의 마지막 메시지까지.
+     * 읽음 위치는 앞으로만 움직이고, 남은 unread 는 그 이후 메시지로 다시 센다.
+     */
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public void markRead(Long threadId, Long accountId, Long upToMessageId) {
+        requireThreadAccess(threadId);
+        long upTo;
+        if (upToMessageId != null) {
+            upTo = anchor(threadId, upToMessageId).getId();
+        } else {
+            var last = messageRepo.findTopByThreadIdOrderByIdDesc(threadId);
+            if (last.isEmpty()) return;
+            upTo = last.get().getId();
+        }
+        advanceRead(threadId, accountId, upTo, LocalDateTime.now());
+    }
+
+    /**
+     * 읽음 상태 행을 잠근 뒤 별도 문장으로 남은 unread 를 세서 기록한다.
+     * 같은 UPDATE 안의 서브쿼리로 세면, 잠금을 기다렸던 UPDATE 도 처음 스냅샷으로 세어 그 사이 커밋된 +1 을 덮어쓴다.
+     * 잠금을 얻은 시점에는 이 스레드에 커밋 전 메시지가 없고 (전송은 저장 전에 이 행을 잠근다),
+     * READ COMMITTED 의 새 문장은 그 커밋을 모두 본다.
+     */
+    private void advanceRead(Long threadId, Long accountId, long upTo, LocalDateTime now) {
+        var current = readStateRepo.lockReadCursor(threadId, accountId);
+        if (current.isEmpty() || current.get() >= upTo) return;
+        long unread = messageRepo.countUnreadAfter(threadId, accountId, upTo);
+        readStateRepo.advanceRead(threadId, accountId, upTo, unread, now);
+    }
+
+    /** 내 스레드별 안 읽은 수 (0 인 스레드 제외). 계정 인덱스 쿼리 1회 */
+    @Transactional(readOnly = true)
+    public List<ChatReadState> unreadStates(Long accountId) {
+        return readStateRepo.findByAccountIdAndUnreadCountGreaterThan(accountId, 0);
+    }
+
+    /** 스레드 생성 시 양쪽 참여자 읽음 상태 행을 만든다 */
+    private void createReadStates(Long threadId, Match match) {
+        var user = authorCards.getByProfile(Account.Role.USER, match.getUserId());
+        var trainer = authorCards.getByProfile(Account.Role.TRAINER, match.getTrainerId());
+        for (var card : new AuthorCardCache.AuthorCard[]{user, trainer}) {
+            if (card == null) continue;
+            var state = new ChatReadState();
+            state.setThreadId(threadId);
+            state.setAccountId(card.accountId());
+            readStateRepo.save(state);
+        }
+    }
+
+    /** 인박스 행: 스레드(요약 포함) + 매칭 */
+    public record InboxRow(ChatThread thread, Match match) { }
+
+    /** 내 스레드 목록, 최근 활동순. 스레드+매칭 조인 쿼리 1회 */
+    @Transactional(readOnly = true)
+    public List<InboxRow> inbox(Long userProfileId, Long trainerProfileId) {
+        var rows = new ArrayList<Object[]>();
+        if (userProfileId != null) rows.addAll(threadRepo.findInboxByUserProfile(userProfileId));
+        if (trainerProfileId != null) rows.addAll(threadRepo.findInboxByTrainerProfile(trainerProfileId));
+        var result = rows.stream()
+                .map(r -> new InboxRow((ChatThread) r[0], (Match) r[1]))
+                .toList();
+        if (userProfileId != null && trainerProfileId != null) {
+            // 두 목록을 합친 경우에만 쿼리와 같은 기준으로 다시 정렬
+            result = result.stream().sorted(Comparator
+                    .comparing((InboxRow r) -> r.thread().getLastMessageAt() != null
+                            ? r.thread().getLastMessageAt() : r.thread().getCreatedAt())
+                    .thenComparing(r -> r.thread().getId())
+                    .reversed()).toList();
+        }
+        return result;
+    }
+
+    /** keyset 조회 결과. hasMore: 같은 방향으로 더 있음 */
+    public record MessageDelta(List<ChatRecentMessages.Entry> messages, boolean hasMore) { }
+
+    /**
+     * afterId 이후 새 메시지만 (작성 순). afterId=0 이면 처음부터.
+     * (createdAt, id) keyset 이라 OFFSET/count 없이 인덱스 범위만 읽는다. 트랜잭션 없음 (getMessages 참고)
+     */
+    public MessageDelta getMessagesAfter(Long threadId, long afterId, int size) {
+        requireThreadAccess(threadId);
+        size = clampDeltaSize(size);
+        var fetched = recent.after(threadId, afterId, size + 1).orElse(null);
+        if (fetched == null) {
+            recent.recordDbRead();
+            LocalDateTime createdAt = EPOCH;
+            if (afterId > 0) createdAt = anchor(threadId, afterId).getCreatedAt();
+            fetched = messageRepo.findAfter(threadId, createdAt, afterId, PageRequest.of(0, size + 1)).stream()
+                    .map(ChatRecentMessages.Entry::of).toList();
+        }
+        boolean hasMore = fetched.size() > size;
+        return new MessageDelta(hasMore ? fetched.subList(0, size) : fetched, hasMore);
+    }
+
+    /** beforeId 이전 메시지 (과거 스크롤). 결과는 작성 순으로 돌려준다. 트랜잭션 없음 (getMessages 참고) */
+    public MessageDelta getMessagesBefore(Long threadId, long beforeId, int size) {
+        requireThreadAccess(threadId);
+        size = clampDeltaSize(size);
+        var cached = recent.before(threadId, beforeId, size + 1);
+        if (cached.isPresent()) {
+            var list = cached.get(); // 작성 순, 기준 직전까지
+            boolean hasMore = list.size() > size;
+            return new MessageDelta(hasMore ? list.subList(1, list.size()) : list, hasMore);
+        }
+
+        recent.recordDbRead();
+        var a = anchor(threadId, beforeId);
+        var fetched = messageRepo.findBefore(threadId, a.getCreatedAt(), a.getId(), PageRequest.of(0, size + 1));
+        boolean hasMore = fetched.size() > size;
+        var page = new ArrayList<>((hasMore ? fetched.subList(0, size) : fetched).stream()
+                .map(ChatRecentMessages.Entry::of).toList());
+        Collections.reverse(page);
+        return new MessageDelta(page, hasMore);
+    }
+
+    private void requireThreadAccess(Long threadId) {
+        var thread = threadRepo.findById(threadId)
+                .orElseThrow(() -> new NotFoundException("채팅 스레드를 찾을 수 없습니다."));
+        guard.requireAccessToMatch(thread.getMatchId());
+    }
+
+    private ChatMessage anchor(Long threadId, long messageId) {
+        return messageRepo.findById(messageId)
+                .filter(m -> m.getThreadId().equals(threadId))
+                .orElseThrow(() -> new IllegalArgumentException("invalid message id: " + messageId));
+    }
+
+    private static int clampDeltaSize(int size) {
+        return Math.max(1, Math.min(size, MAX_DELTA_SIZE));
     }
 }
@@ -0,0 +1,24 @@
+package com.healthcare.service;
+
+import java.util.Set;
+
+/**
+ * 커뮤니티 도메인 이벤트. CommunityService 가 트랜잭션 안에서 발행하고,
+ * 인메모리 인덱스 등은 @TransactionalEventListener(AFTER_COMMIT) 로 커밋된 변경만 반영한다.
+ */
+public final class CommunityEvents {
+
+    private CommunityEvents() { }
+
+    /** 게시글 생성/수정. 해시태그는 이번 변경에서 추가/제거된 id 만 담는다 */
+    public record PostSaved(Long postId, boolean hidden, Set<Long> addedHashtagIds, Set<Long> removedHashtagIds) { }
+
+    /** 게시글 숨김/해제 (모더레이션) */
+    public record PostHidden(Long postId, boolean hidden) { }
+
+    /** 댓글 작성 */
+    public record CommentSaved(Long commentId, Long postId) { }
+
+    /** 댓글 숨김/해제 */
+    public record CommentHidden(Long commentId, Long postId, boolean hidden) { }
+}
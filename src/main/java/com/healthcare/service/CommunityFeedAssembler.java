@@ -0,0 +1,120 @@
+package com.healthcare.service;
+
+import com.healthcare.domain.*;
+import com.healthcare.dto.community.CommunityDtos;
+import com.healthcare.repository.*;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * 게시글 목록/상세 응답 조립기.
+ * 한 페이지의 게시글 id 집합 기준으로 미디어/해시태그/좋아요/조회수를
+ * 고정 개수의 IN/GROUP BY 쿼리로 읽어오고, 작성자 정보는 AuthorCardCache 에서 채워 PostView로 합친다. (페이지 크기와 무관)
+ */
+@Service
+public class CommunityFeedAssembler {
+
+    private final PostMediaRepository mediaRepo;
+    private final PostHashtagRepository postTagRepo;
+    private final HashtagDictionary hashtagDictionary;
+    private final PostLikeRepository likeRepo;
+    private final PostViewRepository viewRepo;
+    private final AuthorCardCache authorCards;
+
+    public CommunityFeedAssembler(PostMediaRepository mediaRepo,
+                                  PostHashtagRepository postTagRepo,
+                                  HashtagDictionary hashtagDictionary,
+                                  PostLikeRepository likeRepo,
+                                  PostViewRepository viewRepo,
+                                  AuthorCardCache authorCards) {
+        this.mediaRepo = mediaRepo;
+        this.postTagRepo = postTagRepo;
+        this.hashtagDictionary = hashtagDictionary;
+        this.likeRepo = likeRepo;
+        this.viewRepo = viewRepo;
+        this.authorCards = authorCards;
+    }
+
+    /** 단건 상세 */
+    @Transactional(readOnly = true)
+    public CommunityDtos.PostView assemble(Post post) {
+        return assemble(List.of(post)).get(0);
+    }
+
+    /** 목록: 입력 순서를 그대로 유지 */
+    @Transactional(readOnly = true)
+    public List<CommunityDtos.PostView> assemble(List<Post> posts) {
+        if (posts.isEmpty()) return List.of();
+
+        var postIds = posts.stream().map(Post::getId).toList();
+
+        // media: post_id in (...)
+        Map<Long, List<CommunityDtos.MediaView>> mediaByPost = new HashMap<>();
+        for (var m : mediaRepo.findByPostIdInOrderByPostIdAscIdAsc(postIds)) {
+            mediaByPost.computeIfAbsent(m.getPostId(), k -> new ArrayList<>()).add(new CommunityDtos.MediaView(
+                    m.getId(),
+                    m.getMediaType().name(),
+                    m.getPublicId(),
+                    m.getUrl(),
+                    m.getWidth(),
+                    m.getHeight(),
+                    m.getBytes()
+            ));
+        }
+
+        // hashtags: post_hashtag 만 조회, 태그명은 사전 캐시로 해석 (miss 분만 IN 쿼리)
+        var postTags = postTagRepo.findByPostIdInOrderByPostIdAscHashtagIdAsc(postIds);
+        var tagNames = hashtagDictionary.tagsOf(
+                postTags.stream().map(PostHashtag::getHashtagId).collect(Collectors.toSet()));
+        Map<Long, List<String>> tagsByPost = new HashMap<>();
+        for (var ph : postTags) {
+            String tag = tagNames.get(ph.getHashtagId());
+            if (tag != null) tagsByPost.computeIfAbsent(ph.getPostId(), k -> new ArrayList<>()).add(tag);
+        }
+
+        // 좋아요/조회수: group by post_id
+        Map<Long, Long> likeCounts = toCountMap(likeRepo.countByPostIds(postIds));
+        Map<Long, Long> viewCounts = toCountMap(viewRepo.sumByPostIds(postIds));
+
+        // 작성자 카드: 공용 캐시, miss 분만 IN 쿼리
+        var authorIds = posts.stream()
+                .map(Post::getAuthorAcc)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        var authors = authorCards.getAll(authorIds);
+
+        var list = new ArrayList<CommunityDtos.PostView>(posts.size());
+        for (var p : posts) {
+            var authorInfo = authors.getOrDefault(p.getAuthorAcc(), AuthorCardCache.AuthorCard.EMPTY);
+            list.add(new CommunityDtos.PostView(
+                    p.getId(),
+                    p.getAuthorAcc(),
+                    authorInfo.username(),
+                    authorInfo.displayName(),
+                    authorInfo.role(),
+                    authorInfo.profileId(),
+                    p.getTitle(),
+                    p.getContent(),
+                    p.isHidden(),
+                    likeCounts.getOrDefault(p.getId(), 0L),
+                    viewCounts.getOrDefault(p.getId(), 0L),
+                    mediaByPost.getOrDefault(p.getId(), List.of()),
+                    tagsByPost.getOrDefault(p.getId(), List.of()),
+                    p.getCreatedAt(),
+                    p.getUpdatedAt()
+            ));
+        }
+        return list;
+    }
+
+    private static Map<Long, Long> toCountMap(List<Object[]> rows) {
+        Map<Long, Long> map = new HashMap<>();
+        for (Object[] row : rows) {
+            map.put((Long) row[0], ((Number) row[1]).longValue());
+        }
+        return map;
+    }
+}
@@ -0,0 +1,437 @@
+package com.healthcare.service;
+
+import com.healthcare.domain.Comment;
+import com.healthcare.domain.Post;
+import com.healthcare.dto.community.CommunityDtos;
+import com.healthcare.repository.CommentRepository;
+import com.healthcare.repository.PostRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.ko.KoreanAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexNotFoundException;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.queryparser.classic.QueryParser;
+import org.apache.lucene.search.*;
+import org.apache.lucene.search.highlight.*;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 게시글/댓글 전문 검색 (Lucene, 로컬 디스크 색인).
+ * - 한국어는 Nori 형태소 분석기(KoreanAnalyzer)로 토큰화
+ * - 노출 중인 게시글/댓글만 색인. 숨김 처리되면 문서를 지우고, 해제되면 다시 넣는다
+ * - 커밋된 CommunityEvents 로 증분 갱신, 색인이 비어 있으면 시작 시 DB 에서 chunk 로 채운다
+ * - IndexWriter 커밋은 주기적으로(및 종료 시) 수행, 검색은 near-real-time reader 사용
+ * 색인이 DB 와 어긋나지 않도록:
+ * - 실패한 증분 갱신은 dirty 로 남겨 두고 주기 커밋 때 DB 를 다시 읽어 재시도한다
+ * - 커밋마다 "이 시각 이전 변경은 모두 반영됨"(syncedAt, 미해결 dirty 가 있으면 그 최초 시각)을 함께 저장하고,
+ *   시작 시 syncedAt 이후 updated_at 이 바뀐 글/댓글을 다시 색인한다 (비정상 종료로 잃은 미커밋 변경 복구)
+ */
+@Component
+public class CommunitySearchIndex {
+
+    private static final String F_UID = "uid";           // post:1, comment:5
+    private static final String F_TYPE = "type";         // post | comment
+    private static final String F_POST_ID = "postId";
+    private static final String F_COMMENT_ID = "commentId";
+    private static final String F_TITLE = "title";
+    private static final String F_CONTENT = "content";
+    private static final String F_CREATED_AT = "createdAt";
+    private static final int SNIPPET_CHARS = 120;
+    private static final String SYNCED_AT = "syncedAt";
+    /** 커밋 직전까지 이벤트가 아직 반영되지 않았을 수 있는 변경(긴 트랜잭션 등)까지 덮는 여유 */
+    private static final Duration RECONCILE_MARGIN = Duration.ofMinutes(5);
+
+    private final PostRepository postRepo;
+    private final CommentRepository commentRepo;
+    private final Path indexDir;
+    private final int rebuildChunk;
+
+    private Analyzer analyzer;
+    private Directory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+
+    /** 증분 갱신에 실패한 대상(post:1 = 글과 댓글, comment:5) → 최초 실패 시각 */
+    private final Map<String, LocalDateTime> dirty = new ConcurrentHashMap<>();
+
+    public CommunitySearchIndex(PostRepository postRepo,
+                                CommentRepository commentRepo,
+                                @Value("${community.search.index-dir:./data/search-index}") String indexDir,
+                                @Value("${community.search.rebuild-chunk:500}") int rebuildChunk) {
+        this.postRepo = postRepo;
+        this.commentRepo = commentRepo;
+        this.indexDir = Path.of(indexDir);
+        this.rebuildChunk = rebuildChunk;
+    }
+
+    @PostConstruct
+    public void open() {
+        try {
+            Files.createDirectories(indexDir);
+            analyzer = new KoreanAnalyzer();
+            directory = FSDirectory.open(indexDir);
+            var config = new IndexWriterConfig(analyzer)
+                    .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+            writer = new IndexWriter(directory, config);
+            searcherManager = new SearcherManager(writer, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException("search index open failed: " + indexDir, e);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        commit();
+        try {
+            searcherManager.close();
+            writer.close();
+            directory.close();
+        } catch (IOException e) {
+            System.err.println("[CommunitySearchIndex] close failed: " + e.getMessage());
+        }
+    }
+
+    /** dirty 재시도 후 syncedAt 과 함께 커밋 */
+    @Scheduled(fixedDelayString = "${community.search.commit-interval-ms:30000}")
+    public void commit() {
+        LocalDateTime now = LocalDateTime.now();
+        retryDirty();
+        try {
+            LocalDateTime synced = dirty.values().stream().min(LocalDateTime::compareTo).orElse(now);
+            writer.setLiveCommitData(Map.of(SYNCED_AT, synced.toString()).entrySet());
+            writer.commit();
+        } catch (IOException e) {
+            System.err.println("[CommunitySearchIndex] commit failed: " + e.getMessage());
+        }
+    }
+
+    /** 마지막 커밋에 기록된 syncedAt (없으면 null) */
+    LocalDateTime syncedAt() {
+        try (var reader = DirectoryReader.open(directory)) {
+            String value = reader.getIndexCommit().getUserData().get(SYNCED_AT);
+            return value != null ? LocalDateTime.parse(value) : null;
+        } catch (IndexNotFoundException e) {
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    int dirtyCount() {
+        return dirty.size();
+    }
+
+    /* ---------- 검색 ---------- */
+
+    /**
+     * @param type all | post | comment
+     * 사용자 입력은 쿼리 문법으로 해석하지 않고 그대로 검색어로 쓴다 (모든 단어 포함, 제목 가중치 2배).
+     */
+    public CommunityDtos.SearchResponse search(String q, String type, int page, int size) {
+        if (q == null || q.isBlank()) throw new IllegalArgumentException("q is blank");
+        page = Math.max(0, page);
+        size = Math.max(1, Math.min(size, 50));
+
+        Query text;
+        try {
+            var parser = new MultiFieldQueryParser(
+                    new String[]{F_TITLE, F_CONTENT}, analyzer, Map.of(F_TITLE, 2f, F_CONTENT, 1f));
+            parser.setDefaultOperator(QueryParser.Operator.AND);
+            text = parser.parse(QueryParser.escape(q.trim()));
+        } catch (ParseException e) {
+            throw new IllegalArgumentException("invalid query");
+        }
+
+        var builder = new BooleanQuery.Builder().add(text, BooleanClause.Occur.MUST);
+        if ("post".equalsIgnoreCase(type) || "comment".equalsIgnoreCase(type)) {
+            builder.add(new TermQuery(new Term(F_TYPE, type.toLowerCase())), BooleanClause.Occur.FILTER);
+        }
+        var query = builder.build();
+
+        var highlighter = new Highlighter(
+                new SimpleHTMLFormatter("<em>", "</em>"), new SimpleHTMLEncoder(), new QueryScorer(text));
+        highlighter.setTextFragmenter(new SimpleFragmenter(SNIPPET_CHARS));
+
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                var top = searcher.search(query, (page + 1) * size);
+                var stored = searcher.storedFields();
+                var hits = new ArrayList<CommunityDtos.SearchHit>();
+                for (int i = page * size; i < top.scoreDocs.length; i++) {
+                    var sd = top.scoreDocs[i];
+                    var doc = stored.document(sd.doc);
+                    String title = doc.get(F_TITLE);
+                    String content = doc.get(F_CONTENT);
+                    String commentId = doc.get(F_COMMENT_ID);
+                    hits.add(new CommunityDtos.SearchHit(
+                            doc.get(F_TYPE),
+                            Long.valueOf(doc.get(F_POST_ID)),
+                            commentId != null ? Long.valueOf(commentId) : null,
+                            title != null ? highlight(highlighter, F_TITLE, title) : null,
+                            highlight(highlighter, F_CONTENT, content),
+                            sd.score,
+                            LocalDateTime.parse(doc.get(F_CREATED_AT))
+                    ));
+                }
+                return new CommunityDtos.SearchResponse(q, top.totalHits.value, page, size, hits);
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** 매칭 구간을 <em> 으로 감싼 조각. 매칭이 없으면(다른 필드에서 매칭) 앞부분을 잘라서 반환 */
+    private String highlight(Highlighter highlighter, String field, String text) {
+        try {
+            String fragment = highlighter.getBestFragment(analyzer, field, text);
+            if (fragment != null) return fragment;
+        } catch (IOException | InvalidTokenOffsetsException e) {
+            // 하이라이트 실패 시 원문 앞부분
+        }
+        String head = text.length() > SNIPPET_CHARS ? text.substring(0, SNIPPET_CHARS) : text;
+        return new SimpleHTMLEncoder().encodeText(head);
+    }
+
+    /* ---------- 증분 갱신 (커밋 후) ---------- */
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onPostSaved(CommunityEvents.PostSaved e) {
+        safely(postUid(e.postId()), () -> {
+            var post = postRepo.findById(e.postId()).orElse(null);
+            if (post == null || post.isHidden()) writer.deleteDocuments(new Term(F_UID, postUid(e.postId())));
+            else writer.updateDocument(new Term(F_UID, postUid(post.getId())), toDocument(post));
+        });
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onPostHidden(CommunityEvents.PostHidden e) {
+        safely(postUid(e.postId()), () -> reindexPost(e.postId()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onCommentSaved(CommunityEvents.CommentSaved e) {
+        safely(commentUid(e.commentId()), () -> indexCommentIfVisible(e.commentId()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onCommentHidden(CommunityEvents.CommentHidden e) {
+        safely(commentUid(e.commentId()), () -> {
+            if (e.hidden()) writer.deleteDocuments(new Term(F_UID, commentUid(e.commentId())));
+            else indexCommentIfVisible(e.commentId());
+        });
+    }
+
+    /** 게시글과 그 댓글을 함께 내리고, 노출 중이면 함께 다시 넣는다 */
+    private void reindexPost(Long postId) throws IOException {
+        writer.deleteDocuments(new Term(F_POST_ID, postId.toString()));
+        var post = postRepo.findById(postId).orElse(null);
+        if (post == null || post.isHidden()) return;
+        writer.updateDocument(new Term(F_UID, postUid(post.getId())), toDocument(post));
+        for (var c : commentRepo.findByPostIdAndHiddenFalse(post.getId())) {
+            writer.updateDocument(new Term(F_UID, commentUid(c.getId())), toDocument(c));
+        }
+    }
+
+    private void indexCommentIfVisible(Long commentId) throws IOException {
+        var c = commentRepo.findById(commentId).orElse(null);
+        boolean visible = c != null && !c.isHidden()
+                && postRepo.findById(c.getPostId()).map(p -> !p.isHidden()).orElse(false);
+        if (visible) writer.updateDocument(new Term(F_UID, commentUid(commentId)), toDocument(c));
+        else writer.deleteDocuments(new Term(F_UID, commentUid(commentId)));
+    }
+
+    private interface IndexAction {
+        void run() throws IOException;
+    }
+
+    /** 색인 실패가 이미 커밋된 요청을 실패시키지 않도록 로그만 남기고 dirty 로 표시 (주기 커밋 때 재시도) */
+    private void safely(String target, IndexAction action) {
+        try {
+            action.run();
+            searcherManager.maybeRefresh();
+        } catch (IOException | RuntimeException e) {
+            dirty.putIfAbsent(target, LocalDateTime.now());
+            System.err.println("[CommunitySearchIndex] update failed (" + target + "), will retry: " + e.getMessage());
+        }
+    }
+
+    /** dirty 대상을 DB 의 현재 상태로 다시 색인. 또 실패하면 최초 실패 시각 그대로 남긴다 */
+    void retryDirty() {
+        if (dirty.isEmpty()) return;
+        for (var entry : List.copyOf(dirty.entrySet())) {
+            String target = entry.getKey();
+            Long id = Long.valueOf(target.substring(target.indexOf(':') + 1));
+            try {
+                if (target.startsWith("post:")) reindexPost(id);
+                else indexCommentIfVisible(id);
+                dirty.remove(target, entry.getValue());
+            } catch (IOException | RuntimeException e) {
+                System.err.println("[CommunitySearchIndex] retry failed (" + target + "): " + e.getMessage());
+            }
+        }
+        try {
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            System.err.println("[CommunitySearchIndex] refresh failed: " + e.getMessage());
+        }
+    }
+
+    /* ---------- 재구성 ---------- */
+
+    /** 비어 있거나 syncedAt 이 없으면(이전 형식) 전체 재구성, 아니면 syncedAt 이후 변경분만 다시 색인 */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        try {
+            LocalDateTime synced = syncedAt();
+            if (writer.getDocStats().numDocs == 0 || synced == null) rebuild();
+            else reconcileSince(synced.minus(RECONCILE_MARGIN));
+        } catch (RuntimeException e) {
+            System.err.println("[CommunitySearchIndex] reconcile failed: " + e.getMessage());
+        }
+    }
+
+    /** updated_at 이 since 이후인 글/댓글(숨김 포함)을 DB 상태대로 다시 색인 */
+    public void reconcileSince(LocalDateTime since) {
+        long started = System.currentTimeMillis();
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            int posts = 0;
+            long lastId = 0;
+            while (true) {
+                var chunk = postRepo.findByUpdatedAtGreaterThanEqualAndIdGreaterThanOrderByIdAsc(
+                        since, lastId, PageRequest.of(0, rebuildChunk));
+                for (var p : chunk) reindexPost(p.getId());
+                posts += chunk.size();
+                if (chunk.size() < rebuildChunk) break;
+                lastId = chunk.get(chunk.size() - 1).getId();
+            }
+
+            var hiddenPosts = new HashSet<>(postRepo.findHiddenIds());
+            int comments = 0;
+            lastId = 0;
+            while (true) {
+                var chunk = commentRepo.findByUpdatedAtGreaterThanEqualAndIdGreaterThanOrderByIdAsc(
+                        since, lastId, PageRequest.of(0, rebuildChunk));
+                for (var c : chunk) {
+                    var uid = new Term(F_UID, commentUid(c.getId()));
+                    if (c.isHidden() || hiddenPosts.contains(c.getPostId())) writer.deleteDocuments(uid);
+                    else writer.updateDocument(uid, toDocument(c));
+                }
+                comments += chunk.size();
+                if (chunk.size() < rebuildChunk) break;
+                lastId = chunk.get(chunk.size() - 1).getId();
+            }
+            commitSyncedAt(now);
+            System.out.println("[CommunitySearchIndex] reconciled since " + since + ": posts=" + posts
+                    + ", comments=" + comments + " in " + (System.currentTimeMillis() - started) + "ms");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void commitSyncedAt(LocalDateTime synced) throws IOException {
+        writer.setLiveCommitData(Map.of(SYNCED_AT, synced.toString()).entrySet());
+        writer.commit();
+        searcherManager.maybeRefresh();
+    }
+
+    /** 노출 중인 게시글/댓글 전체를 id keyset chunk 로 다시 색인 */
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            writer.deleteAll();
+            int posts = 0;
+            long lastId = 0;
+            while (true) {
+                var chunk = postRepo.findByIdGreaterThanAndHiddenFalseOrderByIdAsc(lastId, PageRequest.of(0, rebuildChunk));
+                for (var p : chunk) writer.addDocument(toDocument(p));
+                posts += chunk.size();
+                if (chunk.size() < rebuildChunk) break;
+                lastId = chunk.get(chunk.size() - 1).getId();
+            }
+
+            var hiddenPosts = new HashSet<>(postRepo.findHiddenIds());
+            int comments = 0;
+            lastId = 0;
+            while (true) {
+                var chunk = commentRepo.findByIdGreaterThanAndHiddenFalseOrderByIdAsc(lastId, PageRequest.of(0, rebuildChunk));
+                for (var c : chunk) {
+                    if (hiddenPosts.contains(c.getPostId())) continue;
+                    writer.addDocument(toDocument(c));
+                    comments++;
+                }
+                if (chunk.size() < rebuildChunk) break;
+                lastId = chunk.get(chunk.size() - 1).getId();
+            }
+            commitSyncedAt(now);
+            System.out.println("[CommunitySearchIndex] rebuilt: posts=" + posts + ", comments=" + comments
+                    + " in " + (System.currentTimeMillis() - started) + "ms");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /* ---------- 문서 ---------- */
+
+    private static Document toDocument(Post p) {
+        var doc = new Document();
+        doc.add(new StringField(F_UID, postUid(p.getId()), Field.Store.NO));
+        doc.add(new StringField(F_TYPE, "post", Field.Store.YES));
+        doc.add(new StringField(F_POST_ID, p.getId().toString(), Field.Store.YES));
+        doc.add(new TextField(F_TITLE, p.getTitle(), Field.Store.YES));
+        doc.add(new TextField(F_CONTENT, p.getContent(), Field.Store.YES));
+        doc.add(new StoredField(F_CREATED_AT, p.getCreatedAt().toString()));
+        return doc;
+    }
+
+    private static Document toDocument(Comment c) {
+        var doc = new Document();
+        doc.add(new StringField(F_UID, commentUid(c.getId()), Field.Store.NO));
+        doc.add(new StringField(F_TYPE, "comment", Field.Store.YES));
+        doc.add(new StringField(F_POST_ID, c.getPostId().toString(), Field.Store.YES));
+        doc.add(new StoredField(F_COMMENT_ID, c.getId().toString()));
+        doc.add(new TextField(F_CONTENT, c.getContent(), Field.Store.YES));
+        doc.add(new StoredField(F_CREATED_AT, c.getCreatedAt().toString()));
+        return doc;
+    }
+
+    private static String postUid(Long id) { return "post:" + id; }
+
+    private static String commentUid(Long id) { return "comment:" + id; }
+}
@@ -3,42 +3,73 @@ package com.healthcare.service;
 import com.healthcare.domain.*;
 import com.healthcare.dto.community.CommunityDtos;
 import com.healthcare.repository.*;
+import org.springframework.context.ApplicationEventPublisher;
+import org.roaringbitmap.RoaringBitmap;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 public class CommunityService {
 
+    private static final int MAX_CURSOR_SIZE = 100;
+    private static final ZoneId SEOUL = ZoneId.of("Asia/Seoul");
+
     private final PostRepository postRepo;
     private final PostMediaRepository mediaRepo;
-    private final HashtagRepository tagRepo;
+    private final PostContentJdbcRepository postContentRepo;
+    private final HashtagDictionary hashtagDictionary;
+    private final HashtagPostIndex hashtagIndex;
     private final PostHashtagRepository postTagRepo;
     private final PostLikeRepository likeRepo;
     private final PostViewRepository viewRepo;
     private final CommentRepository commentRepo;
     private final ReportRepository reportRepo;
+    private final EngagementBuffer engagementBuffer;
+    private final DailyViewFilter viewFilter;
+    private final HotScoreCalculator hotScoreCalculator;
+    private final ApplicationEventPublisher events;
 
     public CommunityService(PostRepository postRepo,
                             PostMediaRepository mediaRepo,
-                            HashtagRepository tagRepo,
+                            PostContentJdbcRepository postContentRepo,
+                            HashtagDictionary hashtagDictionary,
+                            HashtagPostIndex hashtagIndex,
                             PostHashtagRepository postTagRepo,
                             PostLikeRepository likeRepo,
                             PostViewRepository viewRepo,
                             CommentRepository commentRepo,
-                            ReportRepository reportRepo) {
+                            ReportRepository reportRepo,
+                            EngagementBuffer engagementBuffer,
+                            DailyViewFilter viewFilter,
+                            HotScoreCalculator hotScoreCalculator,
+                            ApplicationEventPublisher events) {
         this.postRepo = postRepo;
         this.mediaRepo = mediaRepo;
-        this.tagRepo = tagRepo;
+        this.postContentRepo = postContentRepo;
+        this.hashtagDictionary = hashtagDictionary;
+        this.hashtagIndex = hashtagIndex;
         this.postTagRepo = postTagRepo;
         this.likeRepo = likeRepo;
         this.viewRepo = viewRepo;
         this.commentRepo = commentRepo;
         this.reportRepo = reportRepo;
+        this.engagementBuffer = engagementBuffer;
+        this.viewFilter = viewFilter;
+        this.hotScoreCalculator = hotScoreCalculator;
+        this.events = events;
     }
 
     /* ---------- Post ---------- */
@@ -52,24 +83,16 @@ public class CommunityService {
         p.setAuthorAcc(req.authorAcc);
         p.setTitle(req.title);
         p.setContent(req.content);
+        p.setHotScore(hotScoreCalculator.score(0, 0, 0, p.getCreatedAt())); // 첫 배치 전에도 hot 목록에 노출
         var saved = postRepo.save(p);
 
-        // media
+        // media: JDBC 배치 insert 1회
         if (req.mediaList != null) {
-            for (var m : req.mediaList) {
-                var pm = new PostMedia();
-                pm.setPostId(saved.getId());
-                pm.setMediaType(PostMedia.MediaType.valueOf(m.mediaType.toUpperCase()));
-                pm.setPublicId(m.publicId);
-                pm.setUrl(m.url);
-                pm.setWidth(m.width);
-                pm.setHeight(m.height);
-                pm.setBytes(m.bytes);
-                mediaRepo.save(pm);
-            }
+            postContentRepo.insertMedia(saved.getId(), toMediaRows(req.mediaList));
         }
         // hashtags
-        if (req.hashtags != null) attachHashtags(saved.getId(), req.hashtags);
+        Set<Long> tagIds = req.hashtags != null ? attachHashtags(saved.getId(), req.hashtags) : Set.of();
+        events.publishEvent(new CommunityEvents.PostSaved(saved.getId(), saved.isHidden(), tagIds, Set.of()));
         return saved;
     }
 
@@ -79,54 +102,54 @@ public class CommunityService {
         if (req.title != null) p.setTitle(req.title);
         if (req.content != null) p.setContent(req.content);
 
-        // media 전체 교체 정책
+        // media 전체 교체 정책: 일괄 DELETE 1회 + 배치 insert 1회
         if (req.mediaList != null) {
-            var list = mediaRepo.findByPostId(postId);
-            mediaRepo.deleteAll(list);
-            for (var m : req.mediaList) {
-                var pm = new PostMedia();
-                pm.setPostId(postId);
-                pm.setMediaType(PostMedia.MediaType.valueOf(m.mediaType.toUpperCase()));
-                pm.setPublicId(m.publicId);
-                pm.setUrl(m.url);
-                pm.setWidth(m.width);
-                pm.setHeight(m.height);
-                pm.setBytes(m.bytes);
-                mediaRepo.save(pm);
-            }
+            var rows = toMediaRows(req.mediaList);
+            mediaRepo.bulkDeleteByPostId(postId);
+            postContentRepo.insertMedia(postId, rows);
         }
-        // hashtags 교체
+        // hashtags 교체: 빠진 태그만 삭제, 새 태그만 추가
+        Set<Long> added = Set.of();
+        Set<Long> removed = Set.of();
         if (req.hashtags != null) {
             var cur = postTagRepo.findByPostId(postId);
-            postTagRepo.deleteAll(cur);
-            attachHashtags(postId, req.hashtags);
+            var wanted = resolveHashtagIds(req.hashtags);
+            var curIds = cur.stream().map(PostHashtag::getHashtagId).collect(Collectors.toSet());
+            added = wanted.stream().filter(id -> !curIds.contains(id)).collect(Collectors.toSet());
+            removed = curIds.stream().filter(id -> !wanted.contains(id)).collect(Collectors.toSet());
+            if (!removed.isEmpty()) postTagRepo.bulkDeleteLinks(postId, removed);
+            postContentRepo.insertHashtagLinks(postId, added);
         }
+        events.publishEvent(new CommunityEvents.PostSaved(postId, p.isHidden(), added, removed));
         return p;
     }
 
-    private void attachHashtags(Long postId, List<String> tags) {
-        for (String raw : tags) {
-            if (raw == null || raw.isBlank()) continue;
-
-            String trimmed = raw.trim();
-            final String tagVal = trimmed.startsWith("#") ? trimmed.substring(1) : trimmed;
+    /** @return 연결된 해시태그 id */
+    private Set<Long> attachHashtags(Long postId, List<String> tags) {
+        var hashtagIds = resolveHashtagIds(tags);
+        postContentRepo.insertHashtagLinks(postId, hashtagIds);
+        return hashtagIds;
+    }
 
-            var ht = tagRepo.findByTagIgnoreCase(tagVal).orElseGet(() -> {
-                var h = new Hashtag();
-                h.setTag(tagVal);
-                return tagRepo.save(h);
-            });
+    /** 태그 id 해석은 HashtagDictionary (캐시 miss 분만 IN 쿼리 1회). 같은 태그가 중복돼도 한 번만 연결 */
+    private Set<Long> resolveHashtagIds(List<String> tags) {
+        return hashtagDictionary.getOrCreateIds(tags);
+    }
 
-            var ph = new PostHashtag();
-            ph.setPostId(postId);
-            ph.setHashtagId(ht.getId());
-            postTagRepo.save(ph);
-        }
+    private static List<PostContentJdbcRepository.MediaRow> toMediaRows(List<CommunityDtos.MediaCreate> mediaList) {
+        return mediaList.stream()
+                .map(m -> new PostContentJdbcRepository.MediaRow(
+                        PostMedia.MediaType.valueOf(m.mediaType.toUpperCase()).name(),
+                        m.publicId, m.url, m.width, m.height, m.bytes))
+                .toList();
     }
 
-    /** 목록 페이징 + 정렬(최신/좋아요/조회) + 해시태그/작성자 필터 */
+    /**
+     * 목록 페이징 + 정렬(최신/좋아요/조회/hot) + 해시태그/작성자 필터.
+     * hashtag 는 콤마로 여러 개 지정 가능 (mode = any | all).
+     */
     @Transactional(readOnly = true)
-    public Page<Post> pagePosts(Integer page, Integer size, String hashtag, Long authorAcc, String sort) {
+    public Page<Post> pagePosts(Integer page, Integer size, String hashtag, String mode, Long authorAcc, String sort) {
         var pageable = PageRequest.of(page, size);
 
         // 작성자 필터 우선
@@ -135,13 +158,22 @@ public class CommunityService {
         }
 
         // 해시태그 + 정렬
-        if (hashtag != null && !hashtag.isBlank()) {
-            String tag = hashtag.trim();
+        var tags = parseTagFilter(hashtag, mode);
+        if (tags != null) {
+            if (tags.matchesNothing()) return Page.empty(pageable);
+            var ids = tags.ids();
+            long min = tags.minMatches();
             String key = (sort == null ? "latest" : sort.toLowerCase());
             return switch (key) {
-                case "likes" -> postRepo.findByHashtagPopularByLikes(tag, pageable);
-                case "views" -> postRepo.findByHashtagPopularByViews(tag, pageable);
-                default -> postRepo.findByHashtag(tag, pageable); // latest
+                case "likes" -> postRepo.findByHashtagPopularByLikes(ids, min, pageable);
+                case "views" -> postRepo.findByHashtagPopularByViews(ids, min, pageable);
+                case "hot" -> postRepo.findByHashtagHot(ids, min, pageable);
+                default -> { // latest: 인덱스가 준비됐으면 비트맵에서 바로 페이지를 자른다
+                    var matched = hashtagIndex.match(ids, tags.all());
+                    yield matched.isPresent()
+                            ? pageFromIndex(matched.get(), pageable)
+                            : postRepo.findByHashtag(ids, min, pageable);
+                }
             };
         }
 
@@ -150,44 +182,158 @@ public class CommunityService {
         return switch (key) {
             case "likes" -> postRepo.findPopularByLikes(pageable);
             case "views" -> postRepo.findPopularByViews(pageable);
+            case "hot" -> postRepo.findHot(pageable);
             default -> postRepo.findByHiddenFalse(pageable); // latest
         };
     }
 
+    /**
+     * 커서 모드 목록. 필터/정렬 우선순위는 pagePosts 와 동일 (작성자 필터는 최신순).
+     * size+1 개를 읽어 다음 페이지 존재 여부를 판단하므로 count 쿼리가 없다.
+     */
+    @Transactional(readOnly = true)
+    public FeedCursor.Page<Post> cursorPosts(String cursor, int size, String hashtag, String mode, Long authorAcc, String sort) {
+        size = clampCursorSize(size);
+        var limit = PageRequest.of(0, size + 1);
+        String key = switch (sort == null ? "latest" : sort.toLowerCase()) {
+            case "likes", "views", "hot" -> sort.toLowerCase();
+            default -> "latest";
+        };
+        if (authorAcc != null) key = "latest";
+        var c = FeedCursor.decode(cursor, key, FeedCursor.DESC_START);
+
+        List<Post> fetched;
+        var tags = authorAcc == null ? parseTagFilter(hashtag, mode) : null;
+        if (authorAcc != null) {
+            fetched = postRepo.findByAuthorAfter(authorAcc, c.createdAt(), c.id(), limit);
+        } else if (tags != null) {
+            if (tags.matchesNothing()) return new FeedCursor.Page<>(List.of(), null, false);
+            var ids = tags.ids();
+            long min = tags.minMatches();
+            fetched = switch (key) {
+                case "likes" -> postRepo.findByHashtagPopularByLikesAfter(ids, min, c.sortKey(), c.createdAt(), c.id(), limit);
+                case "views" -> postRepo.findByHashtagPopularByViewsAfter(ids, min, c.sortKey(), c.createdAt(), c.id(), limit);
+                case "hot" -> postRepo.findByHashtagHotAfter(ids, min, c.sortKey(), c.createdAt(), c.id(), limit);
+                default -> {
+                    var matched = hashtagIndex.match(ids, tags.all());
+                    yield matched.isPresent()
+                            ? visibleBefore(matched.get(), c.id(), size + 1)
+                            : postRepo.findByHashtagAfter(ids, min, c.id(), limit);
+                }
+            };
+        } else {
+            fetched = switch (key) {
+                case "likes" -> postRepo.findPopularByLikesAfter(c.sortKey(), c.createdAt(), c.id(), limit);
+                case "views" -> postRepo.findPopularByViewsAfter(c.sortKey(), c.createdAt(), c.id(), limit);
+                case "hot" -> postRepo.findHotAfter(c.sortKey(), c.createdAt(), c.id(), limit);
+                default -> postRepo.findLatestAfter(c.createdAt(), c.id(), limit);
+            };
+        }
+
+        String sortKey = key;
+        return FeedCursor.slice(fetched, size, sortKey, p -> new FeedCursor(
+                switch (sortKey) {
+                    case "likes" -> p.getLikeCount();
+                    case "views" -> p.getViewCount();
+                    case "hot" -> p.getHotScore();
+                    default -> 0L;
+                },
+                p.getCreatedAt(), p.getId()));
+    }
+
+    /** 해시태그 필터. ids 는 사전에서 찾은 태그 id, all 이면 모두 포함(AND) */
+    private record TagFilter(List<Long> ids, boolean all, boolean matchesNothing) {
+        long minMatches() { return all ? ids.size() : 1; }
+    }
+
+    /** "diet,squat" → TagFilter. 유효한 태그가 하나도 없으면 null (필터 없음) */
+    private TagFilter parseTagFilter(String hashtag, String mode) {
+        if (hashtag == null || hashtag.isBlank()) return null;
+        boolean all = "all".equalsIgnoreCase(mode);
+        var ids = new LinkedHashSet<Long>();
+        boolean requested = false;
+        boolean missing = false;
+        for (String raw : hashtag.split(",")) {
+            if (HashtagDictionary.normalize(raw) == null) continue;
+            requested = true;
+            var id = hashtagDictionary.findId(raw);
+            if (id.isPresent()) ids.add(id.get());
+            else missing = true;
+        }
+        if (!requested) return null;
+        // 없는 태그: any 는 무시, all 은 결과 없음
+        return new TagFilter(List.copyOf(ids), all, ids.isEmpty() || (all && missing));
+    }
+
+    /* 해시태그 최신순은 인덱스/DB 경로 모두 게시글 id 내림차순 (삽입 순서) */
+
+    private Page<Post> pageFromIndex(RoaringBitmap matched, Pageable pageable) {
+        long total = matched.getLongCardinality();
+        long from = pageable.getOffset();
+        long to = Math.min(total, from + pageable.getPageSize());
+        var ids = new ArrayList<Long>();
+        for (long i = from; i < to; i++) {
+            ids.add((long) matched.select((int) (total - 1 - i)));
+        }
+        return new PageImpl<>(loadInOrder(ids), pageable, total);
+    }
+
+    /** beforeId 보다 작은 id 를 큰 것부터 limit 개 */
+    private static List<Long> idsBefore(RoaringBitmap matched, long beforeId, int limit) {
+        if (beforeId <= 1) return List.of();
+        long rank = matched.rankLong((int) Math.min(beforeId - 1, Integer.MAX_VALUE));
+        var ids = new ArrayList<Long>();
+        for (long r = rank - 1; r >= 0 && ids.size() < limit; r--) {
+            ids.add((long) matched.select((int) r));
+        }
+        return ids;
+    }
+
+    /**
+     * beforeId 보다 작은 id 중 보이는 글을 큰 것부터 limit 개.
+     * 인덱스에 아직 반영되지 않은 숨김/삭제 글은 건너뛰고 그만큼 더 읽는다 (페이지가 짧아지거나 hasNext 가 틀리지 않도록).
+     */
+    private List<Post> visibleBefore(RoaringBitmap matched, long beforeId, int limit) {
+        var result = new ArrayList<Post>(limit);
+        long before = beforeId;
+        while (result.size() < limit) {
+            var ids = idsBefore(matched, before, limit - result.size());
+            if (ids.isEmpty()) break;
+            result.addAll(loadInOrder(ids));
+            before = ids.get(ids.size() - 1);
+        }
+        return result;
+    }
+
+    /** id 순서를 유지해서 로드. 커밋 직후 숨김 처리된 글은 제외 */
+    private List<Post> loadInOrder(List<Long> ids) {
+        if (ids.isEmpty()) return List.of();
+        var byId = postRepo.findAllById(ids).stream()
+                .filter(p -> !p.isHidden())
+                .collect(Collectors.toMap(Post::getId, p -> p));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+
     @Transactional(readOnly = true)
     public long likeCount(Long postId) { return likeRepo.countByPostId(postId); }
 
     @Transactional(readOnly = true)
     public long viewCount(Long postId) { return viewRepo.countByPostId(postId); }
 
-    @Transactional
+    /**
+     * 일별 1회 조회 기록 (Asia/Seoul 날짜). 오늘 이미 본 것으로 판단되면(DailyViewFilter) 바로 반환하고,
+     * 그 외에는 EngagementBuffer flush 에서 배치로 insert/카운터 반영
+     */
     public void registerView(Long postId, Long accountId) {
-        var today = LocalDate.now(); // 서버 TZ 기준
-        boolean exists = viewRepo.existsByPostIdAndAccountIdAndViewDate(postId, accountId, today);
-        if (!exists) {
-            var pv = new PostView();
-            pv.setPostId(postId);
-            pv.setAccountId(accountId);
-            pv.setViewDate(today);
-            pv.setCnt(1);
-            viewRepo.save(pv);
-        }
+        var today = LocalDate.now(SEOUL);
+        if (!viewFilter.markSeen(postId, accountId, today)) return;
+        engagementBuffer.recordView(postId, accountId, today);
     }
 
-    @Transactional
+    /** 좋아요 토글. 버퍼에 최종 상태만 기록하고 결과(true: liked)를 바로 돌려준다 */
     public boolean toggleLike(Long postId, Long accountId) {
-        var pk = new PostLike.PK(postId, accountId);
-        boolean exists = likeRepo.existsByPostIdAndAccountId(postId, accountId);
-        if (exists) {
-            likeRepo.deleteById(pk);
-            return false; // unliked
-        } else {
-            var pl = new PostLike();
-            pl.setPostId(postId);
-            pl.setAccountId(accountId);
-            likeRepo.save(pl);
-            return true; // liked
-        }
+        return engagementBuffer.toggleLike(postId, accountId,
+                () -> likeRepo.existsByPostIdAndAccountId(postId, accountId));
     }
 
     @Transactional
@@ -195,6 +341,7 @@ public class CommunityService {
         var p = postRepo.findById(postId).orElseThrow();
         p.setHidden(hidden);
         p.setHiddenReason(hidden ? reason : null);
+        events.publishEvent(new CommunityEvents.PostHidden(postId, hidden));
         return p;
     }
 
@@ -206,7 +353,10 @@ public class CommunityService {
         c.setPostId(postId);
         c.setAuthorAcc(authorAcc);
         c.setContent(content);
-        return commentRepo.save(c);
+        var saved = commentRepo.save(c);
+        postRepo.addCommentCount(postId, 1);
+        events.publishEvent(new CommunityEvents.CommentSaved(saved.getId(), postId));
+        return saved;
     }
 
     @Transactional(readOnly = true)
@@ -214,14 +364,31 @@ public class CommunityService {
         return commentRepo.findByPostIdAndHiddenFalseOrderByCreatedAtAsc(postId, PageRequest.of(page, size));
     }
 
+    /** 커서 모드 댓글: (createdAt, id) 오름차순 */
+    @Transactional(readOnly = true)
+    public FeedCursor.Page<Comment> cursorComments(Long postId, String cursor, int size) {
+        size = clampCursorSize(size);
+        var c = FeedCursor.decode(cursor, FeedCursor.COMMENTS, FeedCursor.ASC_START);
+        var fetched = commentRepo.findVisibleAfter(postId, c.createdAt(), c.id(), PageRequest.of(0, size + 1));
+        return FeedCursor.slice(fetched, size, FeedCursor.COMMENTS, cm -> new FeedCursor(0, cm.getCreatedAt(), cm.getId()));
+    }
+
     @Transactional
     public Comment hideComment(Long commentId, boolean hidden, String reason) {
         var c = commentRepo.findById(commentId).orElseThrow();
+        if (c.isHidden() != hidden) {
+            postRepo.addCommentCount(c.getPostId(), hidden ? -1 : 1);
+        }
         c.setHidden(hidden);
         c.setHiddenReason(hidden ? reason : null);
+        events.publishEvent(new CommunityEvents.CommentHidden(commentId, c.getPostId(), hidden));
         return c;
     }
 
+    private static int clampCursorSize(int size) {
+        return Math.max(1, Math.min(size, MAX_CURSOR_SIZE));
+    }
+
     /* ---------- Report ---------- */
 
     @Transactional
@@ -0,0 +1,123 @@
+package com.healthcare.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 일별 조회 중복 제거용 Bloom filter (post, account).
+ * "처음 보는 조합"이면 반드시 true 를 돌려주고 (false negative 없음),
+ * 이미 본 것으로 판단되면 false → 호출 측은 버퍼/DB 를 건너뛴다.
+ * 오탐(처음인데 false)은 설정한 fpp 이하이며, 그만큼 조회수가 덜 집계되는 것을 허용한다.
+ * 날짜(Asia/Seoul)가 바뀌면 새 필터로 교체하고, 하루 예상 건수를 넘기면 오탐률 유지를 위해 필터를 건너뛴다.
+ */
+@Component
+public class DailyViewFilter {
+
+    private final long expectedPerDay;
+    private final long bitCount;
+    private final int hashCount;
+    private final AtomicReference<DayFilter> current = new AtomicReference<>();
+
+    private final Counter skipped;
+    private final Counter passed;
+
+    public DailyViewFilter(@Value("${community.views.filter.expected-per-day:1000000}") long expectedPerDay,
+                           @Value("${community.views.filter.fpp:0.001}") double fpp,
+                           MeterRegistry meterRegistry) {
+        if (expectedPerDay <= 0 || fpp <= 0 || fpp >= 1) {
+            throw new IllegalArgumentException("invalid view filter settings");
+        }
+        this.expectedPerDay = expectedPerDay;
+        // m = -n ln p / (ln 2)^2, k = m/n ln 2
+        this.bitCount = Math.max(64, (long) Math.ceil(-expectedPerDay * Math.log(fpp) / (Math.log(2) * Math.log(2))));
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedPerDay * Math.log(2)));
+        this.skipped = Counter.builder("community.views.filter").tag("result", "skipped").register(meterRegistry);
+        this.passed = Counter.builder("community.views.filter").tag("result", "passed").register(meterRegistry);
+    }
+
+    /** 필터 1개 메모리(bytes) */
+    public long memoryBytes() {
+        return (bitCount + 63) / 64 * 8;
+    }
+
+    /**
+     * @return true: 오늘 처음(으로 추정) → 기록 필요, false: 이미 기록된 것으로 판단 → 건너뜀
+     */
+    public boolean markSeen(Long postId, Long accountId, LocalDate day) {
+        var filter = filterFor(day);
+        if (filter.inserted.sum() >= expectedPerDay) { // 용량 초과: 오탐률 보장이 안 되므로 통과
+            passed.increment();
+            return true;
+        }
+        boolean added = filter.put(postId, accountId);
+        if (added) {
+            filter.inserted.increment();
+            passed.increment();
+        } else {
+            skipped.increment();
+        }
+        return added;
+    }
+
+    private DayFilter filterFor(LocalDate day) {
+        while (true) {
+            var f = current.get();
+            if (f != null && f.day.equals(day)) return f;
+            if (f != null && f.day.isAfter(day)) return f; // 자정 직후 늦게 도착한 전날 요청: 오늘 필터로 처리
+            var next = new DayFilter(day, bitCount, hashCount);
+            if (current.compareAndSet(f, next)) return next;
+        }
+    }
+
+    private static final class DayFilter {
+        final LocalDate day;
+        final long bits;
+        final int hashes;
+        final AtomicLongArray words;
+        final LongAdder inserted = new LongAdder();
+
+        DayFilter(LocalDate day, long bits, int hashes) {
+            this.day = day;
+            this.bits = bits;
+            this.hashes = hashes;
+            this.words = new AtomicLongArray((int) ((bits + 63) / 64));
+        }
+
+        /** @return 하나라도 새로 켠 비트가 있으면 true (= 이전에 없던 원소) */
+        boolean put(long postId, long accountId) {
+            long h = mix(postId * 0x9E3779B97F4A7C15L ^ mix(accountId));
+            int h1 = (int) h;
+            int h2 = (int) (h >>> 32);
+            boolean changed = false;
+            for (int i = 0; i < hashes; i++) {
+                long idx = Math.floorMod(h1 + (long) i * h2, bits);
+                changed |= setBit(idx);
+            }
+            return changed;
+        }
+
+        private boolean setBit(long idx) {
+            int w = (int) (idx >>> 6);
+            long mask = 1L << (idx & 63);
+            while (true) {
+                long old = words.get(w);
+                if ((old & mask) != 0) return false;
+                if (words.compareAndSet(w, old, old | mask)) return true;
+            }
+        }
+
+        /** splitmix64 finalizer */
+        private static long mix(long z) {
+            z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+            return z ^ (z >>> 31);
+        }
+    }
+}
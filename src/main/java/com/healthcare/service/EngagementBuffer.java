@@ -0,0 +1,283 @@
+package com.healthcare.service;
+
+import com.healthcare.repository.EngagementJdbcRepository;
+import com.healthcare.repository.EngagementJdbcRepository.LikeRow;
+import com.healthcare.repository.EngagementJdbcRepository.ViewRow;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+
+/**
+ * 좋아요/조회 write-behind 버퍼.
+ * 요청 스레드는 ConcurrentHashMap 에 이벤트만 쌓고 (같은 키는 하나로 합쳐짐),
+ * 주기적인 flush 가 post_view / post_like / post 카운터에 JDBC 배치로 반영한다.
+ * - 조회: (post, account, date) 키 집합
+ * - 좋아요: (post, account) → 최종 상태. 여러 번 토글해도 마지막 상태만 반영
+ * 종료 시(@PreDestroy) 남은 이벤트를 모두 flush 한다.
+ * flush 가 실패한 이벤트는 버리지 않고 다음 flush 로 되돌린다 (이벤트별 연속 실패 횟수 기록).
+ * 여러 번 실패한 이벤트는 배치에서 빼서 하나씩 다시 시도한다 (문제 있는 이벤트 하나가 다른 이벤트를 막지 않도록).
+ * 버리는 경우는 대기 이벤트가 max-retained 를 넘었을 때뿐이며, 실패가 많은 이벤트부터 버리고 dropped 메트릭에 센다.
+ */
+@Component
+public class EngagementBuffer {
+
+    /** 이 횟수 이상 실패한 이벤트는 배치에서 빼서 하나씩 */
+    private static final int ISOLATE_AFTER_FAILURES = 3;
+    private static final int ISOLATED_PER_FLUSH = 50;
+    private static final int DRAIN_ROUNDS = 3;
+
+    private final EngagementJdbcRepository engagementRepo;
+    private final int maxPending;
+    private final int maxRetained;
+
+    private final Set<ViewRow> pendingViews = ConcurrentHashMap.newKeySet();
+    private final ConcurrentHashMap<LikeKey, Boolean> pendingLikes = new ConcurrentHashMap<>();
+    /** flush 중(아직 커밋 전)인 좋아요 상태. 그 사이 토글이 DB의 이전 상태를 읽지 않도록 유지 */
+    private final ConcurrentHashMap<LikeKey, Boolean> inflightLikes = new ConcurrentHashMap<>();
+
+    /** flush 에 실패한 적 있는 이벤트(ViewRow 또는 LikeKey)별 연속 실패 횟수. 성공하거나 새로 토글되면 제거 */
+    private final ConcurrentHashMap<Object, Integer> failures = new ConcurrentHashMap<>();
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private final Timer flushTimer;
+    private final Counter flushedViews;
+    private final Counter flushedLikes;
+    private final Counter flushFailures;
+    private final Counter droppedViews;
+    private final Counter droppedLikes;
+
+    public EngagementBuffer(EngagementJdbcRepository engagementRepo,
+                            MeterRegistry meterRegistry,
+                            @Value("${community.engagement.max-pending:5000}") int maxPending,
+                            @Value("${community.engagement.max-retained:50000}") int maxRetained) {
+        this.engagementRepo = engagementRepo;
+        this.maxPending = maxPending;
+        this.maxRetained = maxRetained;
+
+        Gauge.builder("community.engagement.buffer.depth", this, EngagementBuffer::depth)
+                .description("flush 대기 중인 좋아요/조회 이벤트 수")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("community.engagement.flush")
+                .description("버퍼 flush 소요 시간")
+                .register(meterRegistry);
+        this.flushedViews = Counter.builder("community.engagement.flushed").tag("type", "view").register(meterRegistry);
+        this.flushedLikes = Counter.builder("community.engagement.flushed").tag("type", "like").register(meterRegistry);
+        this.flushFailures = Counter.builder("community.engagement.flush.failures").register(meterRegistry);
+        this.droppedViews = Counter.builder("community.engagement.dropped").tag("type", "view")
+                .description("보관 상한 초과/종료로 반영하지 못하고 버린 이벤트 수")
+                .register(meterRegistry);
+        this.droppedLikes = Counter.builder("community.engagement.dropped").tag("type", "like")
+                .description("보관 상한 초과/종료로 반영하지 못하고 버린 이벤트 수")
+                .register(meterRegistry);
+    }
+
+    private record LikeKey(Long postId, Long accountId) { }
+
+    public int depth() {
+        return pendingViews.size() + pendingLikes.size();
+    }
+
+    /** 일별 조회 1회. 같은 날 중복 조회는 버퍼/flush 단계에서 걸러진다 */
+    public void recordView(Long postId, Long accountId, LocalDate viewDate) {
+        pendingViews.add(new ViewRow(postId, accountId, viewDate));
+        flushIfFull();
+    }
+
+    /**
+     * 좋아요 토글. 버퍼(또는 flush 중) 상태가 있으면 그것을 기준으로 뒤집고,
+     * 없을 때만 dbState 로 현재 DB 상태를 읽는다.
+     * @return 토글 후 상태 (true: liked)
+     */
+    public boolean toggleLike(Long postId, Long accountId, BooleanSupplier dbState) {
+        var key = new LikeKey(postId, accountId);
+        Boolean known = pendingLikes.get(key);
+        if (known == null) known = inflightLikes.get(key);
+        boolean current = known != null ? known : dbState.getAsBoolean();
+
+        boolean next = pendingLikes.compute(key, (k, v) -> {
+            if (v != null) return !v;
+            Boolean inflight = inflightLikes.get(k);
+            return inflight != null ? !inflight : !current;
+        });
+        failures.remove(key); // 새 상태: 이전 실패 이력과 무관
+        flushIfFull();
+        return next;
+    }
+
+    @Scheduled(fixedDelayString = "${community.engagement.flush-interval-ms:1000}")
+    public void scheduledFlush() {
+        if (!flushLock.tryLock()) return; // 다른 스레드가 flush 중
+        try {
+            flushOnce();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /** 버퍼가 상한을 넘으면 요청 스레드에서 즉시 flush (배압) */
+    private void flushIfFull() {
+        if (depth() >= maxPending) scheduledFlush();
+    }
+
+    @PreDestroy
+    public void drain() {
+        flushLock.lock();
+        try {
+            int rounds = 0;
+            while (depth() > 0 && rounds++ < DRAIN_ROUNDS) {
+                flushOnce();
+            }
+            if (depth() > 0) {
+                System.err.println("[EngagementBuffer] shutdown with " + depth() + " unflushed events, dropping");
+                droppedViews.increment(pendingViews.size());
+                droppedLikes.increment(pendingLikes.size());
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /** flushLock 보유 상태에서만 호출. 일반 배치 → (성공했거나 비었으면) 여러 번 실패한 이벤트를 하나씩 */
+    private void flushOnce() {
+        var isolatedViews = new ArrayList<ViewRow>();
+        var isolatedLikes = new ArrayList<LikeKey>();
+        var views = new ArrayList<ViewRow>();
+        for (var it = pendingViews.iterator(); it.hasNext(); ) {
+            var view = it.next();
+            if (isSuspect(view)) {
+                isolatedViews.add(view); // 버퍼에 남겨 둔 채 아래에서 하나씩
+                continue;
+            }
+            views.add(view);
+            it.remove();
+        }
+        var likes = new ArrayList<LikeRow>();
+        for (var key : pendingLikes.keySet()) {
+            if (isSuspect(key)) {
+                isolatedLikes.add(key);
+                continue;
+            }
+            var row = takeLike(key);
+            if (row != null) likes.add(row);
+        }
+
+        boolean healthy = views.isEmpty() && likes.isEmpty() || flushBatch(views, likes);
+        if (!healthy) return; // DB 장애일 가능성: 하나씩 재시도는 다음 기회에
+
+        // 실패가 적은 것부터, 한 번 실패하면 이번 flush 는 중단 (장애 중 반복 호출 방지)
+        var isolated = new ArrayList<Object>(isolatedViews);
+        isolated.addAll(isolatedLikes);
+        isolated.sort(Comparator.comparingInt(e -> failures.getOrDefault(e, 0)));
+        int tried = 0;
+        for (var event : isolated) {
+            if (tried++ >= ISOLATED_PER_FLUSH) break;
+            boolean ok;
+            if (event instanceof ViewRow view) {
+                if (!pendingViews.remove(view)) continue;
+                ok = flushBatch(List.of(view), List.of());
+            } else {
+                var row = takeLike((LikeKey) event);
+                if (row == null) continue;
+                ok = flushBatch(List.of(), List.of(row));
+            }
+            if (!ok) break;
+        }
+    }
+
+    private boolean isSuspect(Object event) {
+        return failures.getOrDefault(event, 0) >= ISOLATE_AFTER_FAILURES;
+    }
+
+    /** pending → inflight 로 옮긴다. 그 사이 다시 토글됐으면 null (새 상태는 다음 flush 에서) */
+    private LikeRow takeLike(LikeKey key) {
+        Boolean liked = pendingLikes.get(key);
+        if (liked == null) return null;
+        // inflight 에 먼저 올린 뒤 pending 에서 뺀다 (두 맵 모두 비는 순간이 없도록)
+        inflightLikes.put(key, liked);
+        if (pendingLikes.remove(key, liked)) {
+            return new LikeRow(key.postId(), key.accountId(), liked);
+        }
+        inflightLikes.remove(key, liked);
+        return null;
+    }
+
+    /** @return 성공 여부. 실패하면 이벤트를 되돌리고 이벤트별 실패 횟수를 올린다 */
+    private boolean flushBatch(List<ViewRow> views, List<LikeRow> likes) {
+        long started = System.nanoTime();
+        try {
+            var result = engagementRepo.flush(views, likes);
+            views.forEach(failures::remove);
+            likes.forEach(l -> failures.remove(new LikeKey(l.postId(), l.accountId())));
+            flushedViews.increment(result.viewsInserted());
+            flushedLikes.increment(result.likesInserted() + result.likesDeleted());
+            return true;
+        } catch (RuntimeException e) {
+            flushFailures.increment();
+            requeue(views, likes, e);
+            return false;
+        } finally {
+            for (var l : likes) {
+                inflightLikes.remove(new LikeKey(l.postId(), l.accountId()), l.liked());
+            }
+            flushTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /** 실패한 배치는 다음 flush 로 되돌린다 (시도 횟수로 버리지 않음). 보관 상한을 넘으면 그때만 버린다 */
+    private void requeue(List<ViewRow> views, List<LikeRow> likes, RuntimeException e) {
+        System.err.println("[EngagementBuffer] flush of " + (views.size() + likes.size())
+                + " events failed, requeue: " + e.getMessage());
+        for (var v : views) {
+            pendingViews.add(v);
+            failures.merge(v, 1, Integer::sum);
+        }
+        for (var l : likes) {
+            var key = new LikeKey(l.postId(), l.accountId());
+            // 그 사이 새로 토글된 상태가 있으면 그쪽이 최신 (실패 이력도 새 상태에는 넘기지 않는다)
+            if (pendingLikes.putIfAbsent(key, l.liked()) == null) failures.merge(key, 1, Integer::sum);
+        }
+        enforceRetainedLimit();
+    }
+
+    /** 대기 이벤트가 보관 상한을 넘으면 실패가 많은 이벤트부터 버린다 (한 번도 실패하지 않은 이벤트는 유지) */
+    private void enforceRetainedLimit() {
+        int excess = depth() - maxRetained;
+        if (excess <= 0) return;
+        var candidates = new ArrayList<>(failures.entrySet());
+        candidates.sort(Map.Entry.<Object, Integer>comparingByValue().reversed());
+        int views = 0, likes = 0;
+        for (var entry : candidates) {
+            if (views + likes >= excess) break;
+            var event = entry.getKey();
+            boolean removed = event instanceof ViewRow view ? pendingViews.remove(view)
+                    : pendingLikes.remove((LikeKey) event) != null;
+            failures.remove(event);
+            if (!removed) continue;
+            if (event instanceof ViewRow) views++;
+            else likes++;
+        }
+        if (views + likes > 0) {
+            droppedViews.increment(views);
+            droppedLikes.increment(likes);
+            System.err.println("[EngagementBuffer] retained limit " + maxRetained + " exceeded, dropped "
+                    + views + " views and " + likes + " likes");
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.healthcare.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 커뮤니티 keyset 페이지네이션 커서 (sortKey, createdAt, id).
+ * 클라이언트에는 base64url 문자열로만 노출한다 (형식에 의존하지 않도록).
+ * 토큰에는 만든 정렬 모드도 담는다: 다른 정렬의 커서를 넘기면 sortKey 의미가 달라지므로 400.
+ * - 게시글: 정렬 키(좋아요/조회수, 최신순은 0) → createdAt → id 내림차순
+ * - 댓글: createdAt → id 오름차순 (sortKey 미사용)
+ */
+public record FeedCursor(long sortKey, LocalDateTime createdAt, long id) {
+
+    /** 내림차순 첫 페이지: 모든 행보다 "뒤"에 있는 가상의 위치 */
+    public static final FeedCursor DESC_START =
+            new FeedCursor(Long.MAX_VALUE, LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+
+    /** 오름차순 첫 페이지 (MySQL DATETIME 하한) */
+    public static final FeedCursor ASC_START =
+            new FeedCursor(0, LocalDateTime.of(1000, 1, 1, 0, 0), 0);
+
+    /** 댓글 커서의 정렬 모드 */
+    public static final String COMMENTS = "comments";
+
+    public String encode(String sort) {
+        String raw = sort + "|" + sortKey + "|" + createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** null/blank 이면 start 반환. 형식이 틀리거나 sort 가 아닌 정렬에서 만든 커서면 IllegalArgumentException (400) */
+    public static FeedCursor decode(String cursor, String sort, FeedCursor start) {
+        if (cursor == null || cursor.isBlank()) return start;
+        String[] parts;
+        FeedCursor decoded;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            parts = raw.split("\\|");
+            if (parts.length != 4) throw new IllegalArgumentException("invalid cursor");
+            decoded = new FeedCursor(Long.parseLong(parts[1]), LocalDateTime.parse(parts[2]), Long.parseLong(parts[3]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("invalid cursor");
+        }
+        if (!parts[0].equals(sort)) throw new IllegalArgumentException("cursor sort mismatch");
+        return decoded;
+    }
+
+    /** size+1 개를 조회한 결과를 잘라 다음 커서를 만든다 */
+    public record Page<T>(List<T> content, String nextCursor, boolean hasNext) { }
+
+    public static <T> Page<T> slice(List<T> fetched, int size, String sort, Function<T, FeedCursor> keyOf) {
+        boolean hasNext = fetched.size() > size;
+        var content = hasNext ? fetched.subList(0, size) : fetched;
+        String next = hasNext ? keyOf.apply(content.get(content.size() - 1)).encode(sort) : null;
+        return new Page<>(content, next, hasNext);
+    }
+}
@@ -1,18 +1,28 @@
 package com.healthcare.service;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.time.Duration;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * OpenAI GPT API를 호출하여 운동 및 식단 플랜을 생성하는 서비스
@@ -25,14 +35,28 @@ public class GptApiService {
     private final String apiUrl;
     private final String model;
     private final ObjectMapper objectMapper;
+    private final Timer chatFirstTokenTimer;
+    private final Timer planFirstTokenTimer;
+    private final OpenAiGate gate;
+    private final OpenAiCircuitBreaker breaker;
+
+    private static final ParameterizedTypeReference<ServerSentEvent<String>> SSE_STRING =
+            new ParameterizedTypeReference<>() { };
 
     public GptApiService(@Value("${openai.api-key}") String apiKey,
             @Value("${openai.api-url}") String apiUrl,
-            @Value("${openai.model}") String model) {
+            @Value("${openai.model}") String model,
+            MeterRegistry meterRegistry,
+            OpenAiGate gate,
+            OpenAiCircuitBreaker breaker) {
         this.apiKey = apiKey;
         this.apiUrl = apiUrl;
         this.model = model;
         this.objectMapper = new ObjectMapper();
+        this.chatFirstTokenTimer = Timer.builder("ai.chat.first-token").register(meterRegistry);
+        this.planFirstTokenTimer = Timer.builder("ai.plan.first-token").register(meterRegistry);
+        this.gate = gate;
+        this.breaker = breaker;
 
         this.webClient = WebClient.builder()
                 .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + apiKey)
@@ -50,24 +74,109 @@ public class GptApiService {
      * @return GPT가 생성한 플랜 데이터 (JSON 문자열)
      */
     public String generatePlan(Map<String, Object> userInfo, String weekStart) {
-        String prompt = buildPrompt(userInfo, weekStart);
+        ChatRequest request = planRequest(userInfo, weekStart);
+
+        try {
+            // 요청 본문을 JSON으로 직렬화하여 로깅 (디버깅용)
+            String requestJson = objectMapper.writeValueAsString(request);
+            System.out.println("[GPT API] Request JSON: " + requestJson);
+            System.out.println("[GPT API] Model: " + this.model);
+            System.out.println("[GPT API] URL: " + this.apiUrl);
+        } catch (Exception e) {
+            System.err.println("[GPT API] Request JSON 직렬화 실패: " + e.getMessage());
+        }
+        return complete(request, "GPT API", "GPT API 호출 실패: ");
+    }
+
+    /**
+     * 플랜 스트리밍: generatePlan 과 같은 프롬프트를 stream=true 로 호출하고 응답 조각을 도착하는 대로 흘려보낸다.
+     * 호출 측이 조각을 이어 붙이며 완성된 Day 부터 처리한다 (AiPlanParser.incremental).
+     * 구독 시점 → 첫 조각까지를 ai.plan.first-token 으로 기록한다.
+     */
+    public Flux<String> streamPlan(Map<String, Object> userInfo, String weekStart) {
+        ChatRequest request = planRequest(userInfo, weekStart);
+        request.stream = true;
+
+        return guarded(request, planFirstTokenTimer);
+    }
 
+    private ChatRequest planRequest(Map<String, Object> userInfo, String weekStart) {
         ChatRequest request = new ChatRequest();
         request.model = this.model;
         request.messages = List.of(
                 new ChatMessage("system",
                         "당신은 전문 피트니스 트레이너이자 영양사입니다. 사용자의 개인 정보를 바탕으로 주간 운동 계획과 식단을 구체적이고 실현 가능하게 추천해주세요. 응답은 반드시 JSON 형식으로 제공해야 합니다."),
-                new ChatMessage("user", prompt));
+                new ChatMessage("user", buildPrompt(userInfo, weekStart)));
         request.temperature = 0.7;
         request.maxTokens = 4000;
+        return request;
+    }
 
-        try {
-            // 요청 본문을 JSON으로 직렬화하여 로깅 (디버깅용)
-            String requestJson = objectMapper.writeValueAsString(request);
-            System.out.println("[GPT API] Request JSON: " + requestJson);
-            System.out.println("[GPT API] Model: " + this.model);
-            System.out.println("[GPT API] URL: " + this.apiUrl);
+    /**
+     * 채팅 메시지를 GPT에게 전송하고 응답을 받음 (대화 컨텍스트 유지)
+     * 
+     * @param conversationHistory 이전 대화 내역 (user와 assistant 메시지 교차)
+     * @param userMessage         사용자가 보낸 메시지
+     * @return GPT 응답 메시지
+     */
+    public String chatWithGpt(List<Map<String, String>> conversationHistory, String userMessage) {
+        return chatWithGpt(null, conversationHistory, userMessage);
+    }
+
+    /**
+     * 채팅 (서버 저장 대화 기반)
+     *
+     * @param summary             오래된 대화의 요약 (없으면 null). 시스템 메시지로 붙는다
+     * @param conversationHistory 요약 이후 최근 대화 내역
+     * @param userMessage         사용자가 보낸 메시지
+     * @return GPT 응답 메시지
+     */
+    public String chatWithGpt(String summary, List<Map<String, String>> conversationHistory, String userMessage) {
+        ChatRequest request = new ChatRequest();
+        request.model = this.model;
+        request.messages = buildChatMessages(summary, conversationHistory, userMessage);
+        request.temperature = 0.7;
+        request.maxTokens = 1000;
+        return complete(request, "GPT Chat", "GPT 채팅 API 호출 실패: ");
+    }
+
+    /**
+     * 대화 요약: 이전 요약 + 새로 밀려난 대화를 합쳐 하나의 요약으로 만든다 (대화 메모리 압축용)
+     *
+     * @param previousSummary 기존 요약 (없으면 null)
+     * @param turns           요약에 합칠 대화 (role, content)
+     * @param maxTokens       요약 최대 토큰
+     */
+    public String summarizeConversation(String previousSummary, List<Map<String, String>> turns, int maxTokens) {
+        StringBuilder transcript = new StringBuilder();
+        if (previousSummary != null && !previousSummary.isBlank()) {
+            transcript.append("[기존 요약]\n").append(previousSummary).append("\n\n");
+        }
+        transcript.append("[이어진 대화]\n");
+        for (Map<String, String> turn : turns) {
+            transcript.append("user".equals(turn.get("role")) ? "사용자: " : "트레이너: ")
+                    .append(turn.get("content")).append("\n");
+        }
+
+        ChatRequest request = new ChatRequest();
+        request.model = this.model;
+        request.messages = List.of(
+                new ChatMessage("system",
+                        "당신은 피트니스 상담 기록을 정리하는 도우미입니다. 기존 요약과 이어진 대화를 합쳐 " +
+                                "사용자의 목표, 신체 정보, 제약 사항, 합의한 운동/식단 내용을 빠짐없이 담은 하나의 간결한 요약을 한국어로 작성하세요."),
+                new ChatMessage("user", transcript.toString()));
+        request.temperature = 0.3;
+        request.maxTokens = maxTokens;
+        return complete(request, "GPT Summary", "GPT 요약 API 호출 실패: ");
+    }
 
+    /**
+     * 비스트리밍 completion 호출 (블로킹, 60초 제한). 서킷 → 게이트 통과 후 호출.
+     * 서킷 오픈(AiUnavailableException)/게이트 포화(AiBusyException)는 감싸지 않고 그대로 전달
+     */
+    private String complete(ChatRequest request, String tag, String failPrefix) {
+        var call = breaker.acquire();
+        try (var permit = gate.acquire(reservedTokens(request))) {
             ChatResponse response = webClient.post()
                     .uri(apiUrl)
                     .bodyValue(request)
@@ -78,8 +187,8 @@ public class GptApiService {
                                         .defaultIfEmpty("(응답 본문 없음)")
                                         .flatMap(errorBody -> {
                                             System.err
-                                                    .println("[GPT API] Error Status: " + clientResponse.statusCode());
-                                            System.err.println("[GPT API] Error Response Body: " + errorBody);
+                                                    .println("[" + tag + "] Error Status: " + clientResponse.statusCode());
+                                            System.err.println("[" + tag + "] Error Response Body: " + errorBody);
                                             return Mono.error(new RuntimeException(
                                                     "OpenAI API 오류 (" + clientResponse.statusCode() + "): "
                                                             + errorBody));
@@ -93,33 +202,124 @@ public class GptApiService {
                 throw new RuntimeException("GPT API 응답이 비어있습니다.");
             }
 
+            call.success();
             return response.choices.get(0).message.content;
+        } catch (AiBusyException e) {
+            call.ignore();
+            throw e;
         } catch (Exception e) {
-            System.err.println("[GPT API] Exception: " + e.getClass().getName() + " - " + e.getMessage());
+            call.failure(e);
+            System.err.println("[" + tag + "] Exception: " + e.getClass().getName() + " - " + e.getMessage());
             if (e.getCause() != null) {
-                System.err.println("[GPT API] Cause: " + e.getCause().getMessage());
+                System.err.println("[" + tag + "] Cause: " + e.getCause().getMessage());
             }
             e.printStackTrace();
-            throw new RuntimeException("GPT API 호출 실패: " + e.getMessage(), e);
+            throw new RuntimeException(failPrefix + e.getMessage(), e);
         }
     }
 
     /**
-     * 채팅 메시지를 GPT에게 전송하고 응답을 받음 (대화 컨텍스트 유지)
-     * 
+     * 채팅 스트리밍: stream=true 로 호출하고 토큰(delta.content)을 도착하는 대로 흘려보낸다.
+     * 블로킹 없이 WebClient 이벤트 루프에서 처리되며, 구독 시점 → 첫 토큰까지를 ai.chat.first-token 으로 기록한다.
+     *
      * @param conversationHistory 이전 대화 내역 (user와 assistant 메시지 교차)
      * @param userMessage         사용자가 보낸 메시지
-     * @return GPT 응답 메시지
+     * @return 응답 토큰 조각 스트림
      */
-    public String chatWithGpt(List<Map<String, String>> conversationHistory, String userMessage) {
+    public Flux<String> streamChat(List<Map<String, String>> conversationHistory, String userMessage) {
+        return streamChat(null, conversationHistory, userMessage);
+    }
+
+    /** 스트리밍 (서버 저장 대화 기반). summary 는 시스템 메시지로 붙는다 */
+    public Flux<String> streamChat(String summary, List<Map<String, String>> conversationHistory, String userMessage) {
         ChatRequest request = new ChatRequest();
         request.model = this.model;
+        request.messages = buildChatMessages(summary, conversationHistory, userMessage);
+        request.temperature = 0.7;
+        request.maxTokens = 1000;
+        request.stream = true;
+
+        return guarded(request, chatFirstTokenTimer);
+    }
+
+    /**
+     * 서킷 → 게이트 → 스트림. 서킷이 열려 있으면 구독 즉시 AiUnavailableException.
+     * 게이트 대기는 블로킹이므로 boundedElastic 에서, 통과권은 스트림이 끝나거나 취소될 때 반납.
+     * 스트림 완료/오류를 서킷에 알리고, 취소(클라이언트 이탈 등)는 세지 않는다
+     */
+    private Flux<String> guarded(ChatRequest request, Timer firstTokenTimer) {
+        return Mono.fromCallable(breaker::acquire)
+                .flatMapMany(call -> Mono.fromCallable(() -> gate.acquire(reservedTokens(request)))
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .flatMapMany(permit -> stream(request, firstTokenTimer).doFinally(signal -> permit.close()))
+                        .doOnComplete(call::success)
+                        .doOnError(call::failure)
+                        .doOnCancel(call::ignore));
+    }
+
+    private Flux<String> stream(ChatRequest request, Timer firstTokenTimer) {
+        return Flux.defer(() -> {
+            long startedAt = System.nanoTime();
+            AtomicBoolean first = new AtomicBoolean(true);
+            return webClient.post()
+                    .uri(apiUrl)
+                    .accept(MediaType.TEXT_EVENT_STREAM)
+                    .bodyValue(request)
+                    .retrieve()
+                    .onStatus(status -> status.is4xxClientError() || status.is5xxServerError(),
+                            clientResponse -> clientResponse.bodyToMono(String.class)
+                                    .defaultIfEmpty("(응답 본문 없음)")
+                                    .flatMap(errorBody -> {
+                                        System.err.println("[GPT Stream] Error Status: " + clientResponse.statusCode());
+                                        System.err.println("[GPT Stream] Error Response Body: " + errorBody);
+                                        return Mono.error(new RuntimeException(
+                                                "OpenAI API 오류 (" + clientResponse.statusCode() + "): " + errorBody));
+                                    }))
+                    .bodyToFlux(SSE_STRING)
+                    .mapNotNull(ServerSentEvent::data)
+                    .takeWhile(data -> !"[DONE]".equals(data.trim()))
+                    .mapNotNull(this::deltaContent)
+                    .timeout(Duration.ofSeconds(60)) // 토큰 사이 최대 대기
+                    .doOnNext(token -> {
+                        if (first.compareAndSet(true, false)) {
+                            firstTokenTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                        }
+                    })
+                    .doOnError(e -> System.err.println("[GPT Stream] Exception: "
+                            + e.getClass().getName() + " - " + e.getMessage()));
+        });
+    }
 
-        // 시스템 메시지와 대화 내역 구성
+    /** 게이트에서 미리 차감할 토큰: 메시지 근사치 합 + 응답 max_tokens */
+    private static int reservedTokens(ChatRequest request) {
+        int tokens = request.maxTokens != null ? request.maxTokens : 0;
+        for (ChatMessage m : request.messages) {
+            tokens += OpenAiGate.estimateTokens(m.content);
+        }
+        return tokens;
+    }
+
+    /** 스트리밍 chunk(JSON) 의 choices[0].delta.content. 역할/종료 chunk 등 내용이 없으면 null */
+    private String deltaContent(String data) {
+        try {
+            JsonNode content = objectMapper.readTree(data).path("choices").path(0).path("delta").path("content");
+            return content.isTextual() && !content.asText().isEmpty() ? content.asText() : null;
+        } catch (Exception e) {
+            System.err.println("[GPT Stream] 잘못된 chunk 무시: " + data);
+            return null;
+        }
+    }
+
+    /** 시스템 메시지 + (이전 대화 요약) + 이전 대화(user/assistant 만) + 현재 사용자 메시지 */
+    private List<ChatMessage> buildChatMessages(String summary, List<Map<String, String>> conversationHistory,
+                                                String userMessage) {
         List<ChatMessage> messages = new java.util.ArrayList<>();
         messages.add(new ChatMessage("system",
                 "당신은 전문 피트니스 트레이너이자 영양사입니다. 사용자의 운동, 식단, 건강 관련 질문에 친절하고 전문적으로 답변해주세요. " +
                         "구체적이고 실용적인 조언을 제공하며, 사용자의 목표와 상황을 고려한 맞춤형 답변을 해주세요."));
+        if (summary != null && !summary.isBlank()) {
+            messages.add(new ChatMessage("system", "이전 대화 요약:\n" + summary));
+        }
 
         // 이전 대화 내역 추가
         if (conversationHistory != null) {
@@ -134,46 +334,7 @@ public class GptApiService {
 
         // 현재 사용자 메시지 추가
         messages.add(new ChatMessage("user", userMessage));
-
-        request.messages = messages;
-        request.temperature = 0.7;
-        request.maxTokens = 1000;
-
-        try {
-            ChatResponse response = webClient.post()
-                    .uri(apiUrl)
-                    .bodyValue(request)
-                    .retrieve()
-                    .onStatus(status -> status.is4xxClientError() || status.is5xxServerError(),
-                            clientResponse -> {
-                                return clientResponse.bodyToMono(String.class)
-                                        .defaultIfEmpty("(응답 본문 없음)")
-                                        .flatMap(errorBody -> {
-                                            System.err
-                                                    .println("[GPT Chat] Error Status: " + clientResponse.statusCode());
-                                            System.err.println("[GPT Chat] Error Response Body: " + errorBody);
-                                            return Mono.error(new RuntimeException(
-                                                    "OpenAI API 오류 (" + clientResponse.statusCode() + "): "
-                                                            + errorBody));
-                                        });
-                            })
-                    .bodyToMono(ChatResponse.class)
-                    .timeout(Duration.ofSeconds(60))
-                    .block();
-
-            if (response == null || response.choices == null || response.choices.isEmpty()) {
-                throw new RuntimeException("GPT API 응답이 비어있습니다.");
-            }
-
-            return response.choices.get(0).message.content;
-        } catch (Exception e) {
-            System.err.println("[GPT Chat] Exception: " + e.getClass().getName() + " - " + e.getMessage());
-            if (e.getCause() != null) {
-                System.err.println("[GPT Chat] Cause: " + e.getCause().getMessage());
-            }
-            e.printStackTrace();
-            throw new RuntimeException("GPT 채팅 API 호출 실패: " + e.getMessage(), e);
-        }
+        return messages;
     }
 
     private String buildPrompt(Map<String, Object> userInfo, String weekStart) {
@@ -240,6 +401,7 @@ public class GptApiService {
 
     // OpenAI API 요청/응답 DTO
     @JsonIgnoreProperties(ignoreUnknown = true)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     static class ChatRequest {
         public String model;
         public List<ChatMessage> messages;
@@ -247,6 +409,8 @@ public class GptApiService {
 
         @JsonProperty("max_tokens")
         public Integer maxTokens;
+
+        public Boolean stream; // true: SSE chunk 응답
     }
 
     @JsonIgnoreProperties(ignoreUnknown = true)
@@ -0,0 +1,171 @@
+package com.healthcare.service;
+
+import com.healthcare.domain.Hashtag;
+import com.healthcare.repository.HashtagRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.text.Normalizer;
+import java.util.*;
+
+/**
+ * 해시태그 사전 (정규화 태그 → id, id → 표시용 태그) 프로세스 내 캐시.
+ * 필요할 때만 DB 에서 읽어오며(lazy), 크기를 넘으면 가장 오래 안 쓴 항목부터 버린다 (LRU).
+ * 새 태그는 트랜잭션 커밋 후에만 등록해서 롤백된 id 가 캐시에 남지 않도록 한다.
+ */
+@Component
+public class HashtagDictionary {
+
+    private final HashtagRepository tagRepo;
+    private final Map<String, Long> idByNorm;
+    private final Map<Long, String> tagById;
+
+    public HashtagDictionary(HashtagRepository tagRepo,
+                             @Value("${community.hashtag.dictionary-size:10000}") int maxEntries) {
+        this.tagRepo = tagRepo;
+        this.idByNorm = lru(maxEntries);
+        this.tagById = lru(maxEntries);
+    }
+
+    /** "#Leg Day " → "leg day". 비어 있으면 null */
+    public static String normalize(String raw) {
+        if (raw == null) return null;
+        String s = raw.trim();
+        if (s.startsWith("#")) s = s.substring(1).trim();
+        if (s.isEmpty()) return null;
+        return Normalizer.normalize(s, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+    }
+
+    /** 조회 경로: 없는 태그면 empty (생성하지 않음) */
+    public Optional<Long> findId(String raw) {
+        String norm = normalize(raw);
+        if (norm == null) return Optional.empty();
+        Long cached = cachedId(norm);
+        if (cached != null) return Optional.of(cached);
+        return lookup(norm).map(h -> {
+            put(h);
+            return h.getId();
+        });
+    }
+
+    /** 쓰기 경로: 없으면 생성. 호출 측 트랜잭션 안에서 사용 */
+    public Long getOrCreateId(String raw) {
+        String norm = normalize(raw);
+        if (norm == null) throw new IllegalArgumentException("hashtag is blank");
+        Long cached = cachedId(norm);
+        if (cached != null) return cached;
+
+        var existing = lookup(norm);
+        if (existing.isPresent()) {
+            put(existing.get());
+            return existing.get().getId();
+        }
+
+        var h = new Hashtag();
+        h.setTag(display(raw));
+        h.setTagNorm(norm);
+        var saved = tagRepo.save(h);
+        putAfterCommit(saved);
+        return saved.getId();
+    }
+
+    /**
+     * 쓰기 경로(여러 태그): 캐시 miss 분은 tag_norm IN 쿼리 1회로 찾고, 그래도 없는 것만 생성한다.
+     * @return 입력 순서를 유지한 중복 없는 태그 id
+     */
+    public LinkedHashSet<Long> getOrCreateIds(Collection<String> raws) {
+        Map<String, String> displayByNorm = new LinkedHashMap<>();
+        for (String raw : raws) {
+            String norm = normalize(raw);
+            if (norm != null) displayByNorm.putIfAbsent(norm, display(raw));
+        }
+
+        Map<String, Long> idByNormResult = new HashMap<>();
+        List<String> misses = new ArrayList<>();
+        synchronized (this) {
+            for (String norm : displayByNorm.keySet()) {
+                Long id = idByNorm.get(norm);
+                if (id != null) idByNormResult.put(norm, id);
+                else misses.add(norm);
+            }
+        }
+        if (!misses.isEmpty()) {
+            for (var h : tagRepo.findByTagNormIn(misses)) {
+                put(h);
+                idByNormResult.put(h.getTagNorm(), h.getId());
+            }
+            for (String norm : misses) {
+                if (idByNormResult.containsKey(norm)) continue;
+                idByNormResult.put(norm, getOrCreateId(displayByNorm.get(norm)));
+            }
+        }
+
+        var ids = new LinkedHashSet<Long>();
+        for (String norm : displayByNorm.keySet()) ids.add(idByNormResult.get(norm));
+        return ids;
+    }
+
+    /** 읽기 경로: id → 표시용 태그. 캐시에 없는 것만 IN 쿼리 1회로 채운다 */
+    public Map<Long, String> tagsOf(Collection<Long> ids) {
+        Map<Long, String> result = new HashMap<>();
+        List<Long> misses = new ArrayList<>();
+        synchronized (this) {
+            for (Long id : ids) {
+                String tag = tagById.get(id);
+                if (tag != null) result.put(id, tag);
+                else misses.add(id);
+            }
+        }
+        if (!misses.isEmpty()) {
+            for (var h : tagRepo.findAllById(misses)) {
+                put(h);
+                result.put(h.getId(), h.getTag());
+            }
+        }
+        return result;
+    }
+
+    /** 표시용 태그: 앞의 '#' 와 공백만 제거 */
+    private static String display(String raw) {
+        String s = raw.trim();
+        return s.startsWith("#") ? s.substring(1).trim() : s;
+    }
+
+    private synchronized Long cachedId(String norm) {
+        return idByNorm.get(norm);
+    }
+
+    /** tag_norm 은 시작 시 HashtagNormBackfill 이 모두 채워 둔다 */
+    private Optional<Hashtag> lookup(String norm) {
+        return tagRepo.findByTagNorm(norm);
+    }
+
+    private synchronized void put(Hashtag h) {
+        if (h.getTagNorm() != null) idByNorm.put(h.getTagNorm(), h.getId());
+        tagById.put(h.getId(), h.getTag());
+    }
+
+    private void putAfterCommit(Hashtag h) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            put(h);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                put(h);
+            }
+        });
+    }
+
+    private static <K, V> Map<K, V> lru(int maxEntries) {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+}
@@ -0,0 +1,89 @@
+package com.healthcare.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+
+/**
+ * hashtag.tag_norm 을 HashtagDictionary.normalize 와 똑같이 맞춘다 (시작 시, 요청을 받기 전에 1회).
+ * SQL 로는 NFKC 를 재현할 수 없어서 V8 은 컬럼만 만들고 값은 여기서 채운다.
+ * 정규화 결과가 같은 태그(#Diet / diet / ｄｉｅｔ 등)는 id 가 가장 작은 태그로 합친다
+ * (post_hashtag 를 옮긴 뒤 나머지 삭제). 이미 맞으면 읽기 1회로 끝난다.
+ */
+@Component
+public class HashtagNormBackfill {
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+
+    public HashtagNormBackfill(JdbcTemplate jdbc, PlatformTransactionManager transactionManager) {
+        this.jdbc = jdbc;
+        this.tx = new TransactionTemplate(transactionManager);
+    }
+
+    private record Row(long id, String tag, String tagNorm) { }
+
+    @PostConstruct
+    public void backfillOnStartup() {
+        try {
+            int changed = backfill();
+            if (changed > 0) System.out.println("[HashtagNormBackfill] updated/merged " + changed + " hashtags");
+        } catch (RuntimeException e) {
+            System.err.println("[HashtagNormBackfill] failed, retry on next start: " + e.getMessage());
+        }
+    }
+
+    /** @return 정규화 값을 고치거나 합친 태그 수 */
+    public int backfill() {
+        Integer changed = tx.execute(status -> {
+            // 태그 사전은 작다: 한 번에 읽는다
+            var rows = jdbc.query("select id, tag, tag_norm from hashtag order by id",
+                    (rs, i) -> new Row(rs.getLong(1), rs.getString(2), rs.getString(3)));
+
+            Map<String, List<Row>> byNorm = new LinkedHashMap<>();
+            var stale = new ArrayList<Row>();
+            for (var row : rows) {
+                String norm = HashtagDictionary.normalize(row.tag());
+                if (!Objects.equals(norm, row.tagNorm())) stale.add(row);
+                if (norm != null) byNorm.computeIfAbsent(norm, k -> new ArrayList<>()).add(row);
+            }
+            if (stale.isEmpty() && byNorm.values().stream().allMatch(g -> g.size() == 1)) return 0;
+
+            // 잘못된 값을 먼저 비워서 다른 태그의 정규화 값과 unique 충돌이 나지 않도록
+            for (var row : stale) {
+                if (row.tagNorm() != null) jdbc.update("update hashtag set tag_norm = null where id = ?", row.id());
+            }
+            int count = 0;
+            for (var entry : byNorm.entrySet()) {
+                var group = entry.getValue();
+                var keep = group.get(0);
+                for (var dup : group.subList(1, group.size())) {
+                    merge(dup.id(), keep.id());
+                    count++;
+                }
+                if (!entry.getKey().equals(keep.tagNorm())) {
+                    jdbc.update("update hashtag set tag_norm = ? where id = ?", entry.getKey(), keep.id());
+                    count++;
+                }
+            }
+            return count;
+        });
+        return changed == null ? 0 : changed;
+    }
+
+    /** from 태그의 게시글 연결을 into 로 옮기고(이미 있는 연결은 건너뜀) from 삭제 */
+    private void merge(long from, long into) {
+        var postIds = jdbc.queryForList("""
+                select post_id from post_hashtag
+                where hashtag_id = ? and post_id not in (select post_id from post_hashtag where hashtag_id = ?)
+                """, Long.class, from, into);
+        jdbc.batchUpdate("insert into post_hashtag (post_id, hashtag_id) values (?, ?)",
+                postIds.stream().map(postId -> new Object[]{postId, into}).toList());
+        jdbc.update("delete from post_hashtag where hashtag_id = ?", from);
+        jdbc.update("delete from hashtag where id = ?", from);
+    }
+}
@@ -0,0 +1,201 @@
+package com.healthcare.service;
+
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+
+/**
+ * 해시태그 id → 게시글 id 압축 비트맵(Roaring) 역색인.
+ * - byTag: 태그별 게시글 id (숨김 여부와 무관), visible: 노출 중인 게시글 id
+ * - 조회 결과 = AND/OR(태그 비트맵) ∩ visible
+ * 시작 시 DB 에서 chunk 단위로 다시 만들고(그동안은 ready=false → DB 쿼리로 대체),
+ * 이후에는 커밋된 CommunityEvents 로만 갱신한다.
+ * 게시글 id 는 int 범위(RoaringBitmap)로 가정하며, 벗어나는 id 는 색인하지 않는다.
+ */
+@Component
+public class HashtagPostIndex {
+
+    private final JdbcTemplate jdbc;
+    private final int chunkSize;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<Long, RoaringBitmap> byTag = new HashMap<>();
+    private RoaringBitmap visible = new RoaringBitmap();
+    /** 재구성 중 들어온 변경. 새 스냅샷에 다시 적용한다 (lock 보유 상태에서만 접근) */
+    private List<BiConsumer<Map<Long, RoaringBitmap>, RoaringBitmap>> pendingDuringRebuild;
+    private volatile boolean ready;
+
+    public HashtagPostIndex(JdbcTemplate jdbc,
+                            @Value("${community.hashtag-index.rebuild-chunk:10000}") int chunkSize) {
+        this.jdbc = jdbc;
+        this.chunkSize = chunkSize;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * @param all true: 모든 태그를 가진 글(AND), false: 하나라도 가진 글(OR)
+     * @return 아직 준비되지 않았으면 empty (호출 측이 DB 쿼리로 대체)
+     */
+    public Optional<RoaringBitmap> match(Collection<Long> hashtagIds, boolean all) {
+        if (!ready) return Optional.empty();
+        lock.readLock().lock();
+        try {
+            RoaringBitmap acc = null;
+            for (Long tagId : hashtagIds) {
+                var bm = byTag.get(tagId);
+                if (bm == null) {
+                    if (all) return Optional.of(new RoaringBitmap());
+                    continue;
+                }
+                if (acc == null) acc = bm.clone();
+                else if (all) acc.and(bm);
+                else acc.or(bm);
+            }
+            if (acc == null) return Optional.of(new RoaringBitmap());
+            acc.and(visible);
+            return Optional.of(acc);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /* ---------- 증분 갱신 (커밋 후) ---------- */
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onPostSaved(CommunityEvents.PostSaved e) {
+        if (!indexable(e.postId())) return;
+        int id = e.postId().intValue();
+        mutate((tags, vis) -> {
+            for (Long tagId : e.removedHashtagIds()) {
+                var bm = tags.get(tagId);
+                if (bm != null) bm.remove(id);
+            }
+            for (Long tagId : e.addedHashtagIds()) {
+                tags.computeIfAbsent(tagId, k -> new RoaringBitmap()).add(id);
+            }
+            if (e.hidden()) vis.remove(id);
+            else vis.add(id);
+        });
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onPostHidden(CommunityEvents.PostHidden e) {
+        if (!indexable(e.postId())) return;
+        int id = e.postId().intValue();
+        mutate((tags, vis) -> {
+            if (e.hidden()) vis.remove(id);
+            else vis.add(id);
+        });
+    }
+
+    private void mutate(BiConsumer<Map<Long, RoaringBitmap>, RoaringBitmap> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(byTag, visible);
+            if (pendingDuringRebuild != null) pendingDuringRebuild.add(change);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /* ---------- 시작 시 재구성 ---------- */
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            System.err.println("[HashtagPostIndex] rebuild failed, using DB queries: " + e.getMessage());
+        }
+    }
+
+    /** post / post_hashtag 를 keyset chunk 로 읽어 새 스냅샷을 만든 뒤 교체 */
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            pendingDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Map<Long, RoaringBitmap> newByTag = new HashMap<>();
+        var newVisible = new RoaringBitmap();
+        try {
+            long lastId = 0;
+            while (true) {
+                var ids = jdbc.queryForList(
+                        "select id from post where is_hidden = false and id > ? order by id limit ?",
+                        Long.class, lastId, chunkSize);
+                for (Long id : ids) {
+                    if (indexable(id)) newVisible.add(id.intValue());
+                }
+                if (ids.size() < chunkSize) break;
+                lastId = ids.get(ids.size() - 1);
+            }
+
+            long[] last = {0, 0};
+            while (true) {
+                int[] rows = {0};
+                jdbc.query("""
+                        select post_id, hashtag_id from post_hashtag
+                        where post_id > ? or (post_id = ? and hashtag_id > ?)
+                        order by post_id, hashtag_id
+                        limit ?
+                        """, rs -> {
+                    long postId = rs.getLong(1);
+                    long tagId = rs.getLong(2);
+                    if (indexable(postId)) {
+                        newByTag.computeIfAbsent(tagId, k -> new RoaringBitmap()).add((int) postId);
+                    }
+                    last[0] = postId;
+                    last[1] = tagId;
+                    rows[0]++;
+                }, last[0], last[0], last[1], chunkSize);
+                if (rows[0] < chunkSize) break;
+            }
+            newByTag.values().forEach(RoaringBitmap::runOptimize);
+            newVisible.runOptimize();
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (var change : pendingDuringRebuild) {
+                change.accept(newByTag, newVisible);
+            }
+            pendingDuringRebuild = null;
+            byTag = newByTag;
+            visible = newVisible;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        System.out.println("[HashtagPostIndex] rebuilt: tags=" + newByTag.size()
+                + ", visiblePosts=" + newVisible.getLongCardinality()
+                + " in " + (System.currentTimeMillis() - started) + "ms");
+    }
+
+    private static boolean indexable(Long postId) {
+        return postId != null && postId > 0 && postId <= Integer.MAX_VALUE;
+    }
+}
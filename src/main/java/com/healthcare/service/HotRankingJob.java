@@ -0,0 +1,58 @@
+package com.healthcare.service;
+
+import com.healthcare.repository.PostHotScoreRepository;
+import com.healthcare.repository.PostHotScoreRepository.ScoreUpdate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+
+/**
+ * hot_score 증분 갱신 배치.
+ * 좋아요/조회/댓글 카운터가 바뀐 게시글(hot_dirty)만 id 순 chunk 로 읽어 점수를 다시 계산한다.
+ * chunk 마다 별도 문장이므로 긴 락 없이 처리된다.
+ */
+@Component
+public class HotRankingJob {
+
+    private final PostHotScoreRepository hotRepo;
+    private final HotScoreCalculator calculator;
+    private final int chunkSize;
+
+    public HotRankingJob(PostHotScoreRepository hotRepo,
+                         HotScoreCalculator calculator,
+                         @Value("${community.hot.chunk:1000}") int chunkSize) {
+        this.hotRepo = hotRepo;
+        this.calculator = calculator;
+        this.chunkSize = chunkSize;
+    }
+
+    @Scheduled(fixedDelayString = "${community.hot.refresh-interval-ms:60000}")
+    public void scheduledRefresh() {
+        int updated = refreshDirty();
+        if (updated > 0) {
+            System.out.println("[HotRankingJob] refreshed " + updated + " posts");
+        }
+    }
+
+    /** @return 점수가 갱신된 게시글 수 */
+    public int refreshDirty() {
+        long lastId = 0;
+        int updated = 0;
+        while (true) {
+            var rows = hotRepo.findDirtyAfter(lastId, chunkSize);
+            if (rows.isEmpty()) break;
+
+            var updates = new ArrayList<ScoreUpdate>(rows.size());
+            for (var r : rows) {
+                long score = calculator.score(r.likeCount(), r.viewCount(), r.commentCount(), r.createdAt());
+                updates.add(new ScoreUpdate(r.id(), score, r.likeCount(), r.viewCount(), r.commentCount()));
+            }
+            updated += hotRepo.applyScores(updates);
+            lastId = rows.get(rows.size() - 1).id();
+            if (rows.size() < chunkSize) break;
+        }
+        return updated;
+    }
+}
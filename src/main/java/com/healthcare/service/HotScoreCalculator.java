@@ -0,0 +1,44 @@
+package com.healthcare.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * 커뮤니티 "hot" 점수 계산 (Reddit 방식).
+ *   score = log10(max(1, 가중 참여도)) + (작성시각 - 기준시각) / timeScale
+ * 참여도가 10배가 되어야 timeScale 초만큼 최근 글과 같아지므로, 시간이 지나도 점수를 다시 계산할 필요가 없고
+ * 참여도가 바뀐 글만 갱신하면 된다. DB 에는 정수 정렬을 위해 1e6 배 고정소수점(BIGINT)으로 저장한다.
+ */
+@Component
+public class HotScoreCalculator {
+
+    static final long SCALE = 1_000_000L;
+    private static final ZoneId ZONE = ZoneId.of("Asia/Seoul");
+    private static final long BASE_EPOCH_SEC =
+            LocalDateTime.of(2025, 1, 1, 0, 0).atZone(ZONE).toEpochSecond();
+
+    private final double likeWeight;
+    private final double commentWeight;
+    private final double viewWeight;
+    private final double timeScaleSec;
+
+    public HotScoreCalculator(@Value("${community.hot.like-weight:1.0}") double likeWeight,
+                              @Value("${community.hot.comment-weight:2.0}") double commentWeight,
+                              @Value("${community.hot.view-weight:0.1}") double viewWeight,
+                              @Value("${community.hot.time-scale-sec:45000}") double timeScaleSec) {
+        this.likeWeight = likeWeight;
+        this.commentWeight = commentWeight;
+        this.viewWeight = viewWeight;
+        this.timeScaleSec = timeScaleSec;
+    }
+
+    public long score(long likes, long views, long comments, LocalDateTime createdAt) {
+        double engagement = likes * likeWeight + comments * commentWeight + views * viewWeight;
+        double order = Math.log10(Math.max(1.0, engagement));
+        double age = (createdAt.atZone(ZONE).toEpochSecond() - BASE_EPOCH_SEC) / timeScaleSec;
+        return Math.round((order + age) * SCALE);
+    }
+}
@@ -0,0 +1,170 @@
+package com.healthcare.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * OpenAI 호출 서킷 브레이커 (게이트 앞단).
+ * - CLOSED: 최근 window-size 건의 결과를 보관. minimum-calls 이상에서 실패율이 임계치를 넘으면 OPEN
+ * - OPEN: open-ms 동안 호출하지 않고 바로 AiUnavailableException (타임아웃을 기다리지 않음)
+ * - HALF_OPEN: 시험 호출 1건만 통과. 성공하면 CLOSED(기록 초기화), 실패하면 다시 OPEN
+ * 게이트 포화(AiBusyException)와 취소된 스트림은 OpenAI 상태와 무관하므로 세지 않는다.
+ * 호출 측은 acquire 로 받은 Call 에 결과를 한 번 알린다 (success / failure / ignore).
+ */
+@Component
+public class OpenAiCircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int minimumCalls;
+    private final int failureRatePercent;
+    private final long openNanos;
+
+    // 최근 결과 ring buffer (true = 실패)
+    private final boolean[] outcomes;
+    private int recorded;
+    private int nextSlot;
+    private int failures;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    private final Counter rejected;
+    private final Map<State, Counter> transitions = new EnumMap<>(State.class);
+
+    public OpenAiCircuitBreaker(MeterRegistry meterRegistry,
+                                @Value("${app.ai.circuit.window-size:20}") int windowSize,
+                                @Value("${app.ai.circuit.minimum-calls:5}") int minimumCalls,
+                                @Value("${app.ai.circuit.failure-rate-percent:50}") int failureRatePercent,
+                                @Value("${app.ai.circuit.open-ms:30000}") long openMs) {
+        this.outcomes = new boolean[Math.max(1, windowSize)];
+        this.minimumCalls = Math.max(1, Math.min(minimumCalls, outcomes.length));
+        this.failureRatePercent = failureRatePercent;
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMs);
+
+        Gauge.builder("ai.circuit.state", this, b -> b.state().ordinal())
+                .description("OpenAI 서킷 상태 (0=CLOSED, 1=OPEN, 2=HALF_OPEN)")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("ai.circuit.rejected")
+                .description("서킷이 열려 호출하지 않고 바로 실패한 수")
+                .register(meterRegistry);
+        for (State s : State.values()) {
+            transitions.put(s, Counter.builder("ai.circuit.transitions").tag("to", s.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+
+    /** 호출 1건의 결과 보고. 여러 번 불러도 첫 보고만 반영 */
+    public final class Call {
+        private final boolean trial;
+        private final AtomicBoolean reported = new AtomicBoolean();
+
+        private Call(boolean trial) {
+            this.trial = trial;
+        }
+
+        public void success() {
+            if (reported.compareAndSet(false, true)) onResult(trial, false);
+        }
+
+        /** 게이트 포화는 OpenAI 실패가 아니므로 ignore 로 처리 */
+        public void failure(Throwable error) {
+            if (error instanceof AiBusyException || error instanceof AiUnavailableException) {
+                ignore();
+            } else if (reported.compareAndSet(false, true)) {
+                onResult(trial, true);
+            }
+        }
+
+        /** 결과를 알 수 없음 (취소 등): 기록하지 않고 시험 호출 자리만 반납 */
+        public void ignore() {
+            if (reported.compareAndSet(false, true)) onIgnored(trial);
+        }
+    }
+
+    /**
+     * 호출 허가 (블로킹 없음).
+     * @throws AiUnavailableException 서킷이 열려 있거나 시험 호출이 진행 중
+     */
+    public synchronized Call acquire() {
+        if (state == State.OPEN) {
+            long elapsed = System.nanoTime() - openedAt;
+            if (elapsed < openNanos) {
+                throw reject(openNanos - elapsed);
+            }
+            transition(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialInFlight) throw reject(TimeUnit.SECONDS.toNanos(1));
+            trialInFlight = true;
+            return new Call(true);
+        }
+        return new Call(false);
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    private synchronized void onResult(boolean trial, boolean failed) {
+        if (trial) {
+            trialInFlight = false;
+            if (failed) {
+                open();
+            } else {
+                reset();
+                transition(State.CLOSED);
+            }
+            return;
+        }
+        if (state != State.CLOSED) return; // 열리기 전에 시작된 호출의 늦은 결과
+
+        if (recorded == outcomes.length && outcomes[nextSlot]) failures--;
+        outcomes[nextSlot] = failed;
+        if (failed) failures++;
+        nextSlot = (nextSlot + 1) % outcomes.length;
+        recorded = Math.min(recorded + 1, outcomes.length);
+
+        if (recorded >= minimumCalls && failures * 100 >= failureRatePercent * recorded) {
+            open();
+        }
+    }
+
+    private synchronized void onIgnored(boolean trial) {
+        if (trial) trialInFlight = false;
+    }
+
+    private void open() {
+        openedAt = System.nanoTime();
+        reset();
+        transition(State.OPEN);
+    }
+
+    private void reset() {
+        recorded = 0;
+        nextSlot = 0;
+        failures = 0;
+    }
+
+    private void transition(State to) {
+        if (state == to && to != State.OPEN) return;
+        System.out.println("[AI Circuit] " + state + " -> " + to);
+        state = to;
+        transitions.get(to).increment();
+    }
+
+    private AiUnavailableException reject(long retryAfterNanos) {
+        rejected.increment();
+        return new AiUnavailableException("AI 서비스가 일시적으로 응답하지 않습니다. 잠시 후 다시 시도해 주세요.",
+                TimeUnit.NANOSECONDS.toSeconds(retryAfterNanos) + 1);
+    }
+}
@@ -0,0 +1,198 @@
+package com.healthcare.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * OpenAI 호출 앞단 게이트 (bulkhead + 속도 제한).
+ * - 동시 호출 수: 공정(FIFO) 세마포어. 자리가 없으면 대기열에서 최대 max-wait 까지 기다린다
+ * - 대기열 상한을 넘으면 기다리지 않고 바로 AiBusyException (→ 429 Retry-After)
+ * - 분당 요청 수 / 분당 토큰 수: 토큰 버킷 두 개. 토큰은 프롬프트 근사치 + max_tokens 로 미리 차감
+ * 호출 측은 acquire 로 받은 Permit 을 응답(스트림 종료 포함)이 끝난 뒤 close 한다.
+ */
+@Component
+public class OpenAiGate {
+
+    private final int maxConcurrent;
+    private final int maxQueued;
+    private final long maxWaitNanos;
+
+    private final Semaphore slots;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final TokenBucket requestBucket;
+    private final TokenBucket tokenBucket;
+
+    private final Timer queueWait;
+    private final Counter rejectedQueueFull;
+    private final Counter rejectedTimeout;
+    private final Counter rejectedRateLimit;
+
+    public OpenAiGate(MeterRegistry meterRegistry,
+                      @Value("${app.ai.gate.max-concurrent:8}") int maxConcurrent,
+                      @Value("${app.ai.gate.max-queued:32}") int maxQueued,
+                      @Value("${app.ai.gate.max-wait-ms:10000}") long maxWaitMs,
+                      @Value("${app.ai.gate.requests-per-minute:500}") long requestsPerMinute,
+                      @Value("${app.ai.gate.tokens-per-minute:60000}") long tokensPerMinute) {
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueued = maxQueued;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+        this.slots = new Semaphore(maxConcurrent, true);
+        this.requestBucket = new TokenBucket(requestsPerMinute);
+        this.tokenBucket = new TokenBucket(tokensPerMinute);
+
+        Gauge.builder("ai.gate.inflight", this, OpenAiGate::inflight)
+                .description("진행 중인 OpenAI 호출 수")
+                .register(meterRegistry);
+        Gauge.builder("ai.gate.queued", queued, AtomicInteger::get)
+                .description("게이트 대기 중인 호출 수")
+                .register(meterRegistry);
+        this.queueWait = Timer.builder("ai.gate.queue.wait")
+                .description("게이트 통과까지 대기 시간 (동시 호출 + 속도 제한)")
+                .register(meterRegistry);
+        this.rejectedQueueFull = Counter.builder("ai.gate.rejected").tag("reason", "queue_full").register(meterRegistry);
+        this.rejectedTimeout = Counter.builder("ai.gate.rejected").tag("reason", "timeout").register(meterRegistry);
+        this.rejectedRateLimit = Counter.builder("ai.gate.rejected").tag("reason", "rate_limit").register(meterRegistry);
+    }
+
+    /** 호출 1건의 통과권. close 는 여러 번 불러도 한 번만 반납 */
+    public final class Permit implements AutoCloseable {
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) slots.release();
+        }
+    }
+
+    /**
+     * 통과권 획득 (블로킹, 최대 max-wait).
+     * @param estimatedTokens 프롬프트 근사 토큰 + 응답 max_tokens
+     * @throws AiBusyException 대기열 가득, 대기 시간 초과, 속도 제한 대기가 남은 시간보다 긺
+     */
+    public Permit acquire(int estimatedTokens) {
+        long start = System.nanoTime();
+        long deadline = start + maxWaitNanos;
+        try {
+            if (!slots.tryAcquire(0, TimeUnit.NANOSECONDS)) { // 공정 모드: 대기자가 있으면 새치기하지 않음
+                if (queued.incrementAndGet() > maxQueued) {
+                    queued.decrementAndGet();
+                    rejectedQueueFull.increment();
+                    throw new AiBusyException("AI 요청이 많습니다. 잠시 후 다시 시도해 주세요.",
+                            retryAfterSeconds(maxWaitNanos));
+                }
+                boolean acquired;
+                try {
+                    acquired = slots.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+                } finally {
+                    queued.decrementAndGet();
+                }
+                if (!acquired) {
+                    rejectedTimeout.increment();
+                    throw new AiBusyException("AI 응답 대기 시간이 초과되었습니다. 잠시 후 다시 시도해 주세요.",
+                            retryAfterSeconds(maxWaitNanos));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AiBusyException("AI 요청이 취소되었습니다.", 1);
+        }
+
+        var permit = new Permit();
+        try {
+            awaitRate(estimatedTokens, deadline);
+        } catch (RuntimeException e) {
+            permit.close();
+            throw e;
+        }
+        queueWait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return permit;
+    }
+
+    public int inflight() {
+        return maxConcurrent - slots.availablePermits();
+    }
+
+    /** 두 버킷에서 함께 꺼낼 수 있을 때까지 대기. 기다려야 할 시간이 마감을 넘으면 바로 거절 */
+    private void awaitRate(int tokens, long deadline) {
+        while (true) {
+            long wait;
+            synchronized (this) {
+                long now = System.nanoTime();
+                wait = Math.max(requestBucket.nanosUntil(1, now), tokenBucket.nanosUntil(tokens, now));
+                if (wait == 0) {
+                    requestBucket.take(1);
+                    tokenBucket.take(tokens);
+                    return;
+                }
+            }
+            if (System.nanoTime() + wait > deadline) {
+                rejectedRateLimit.increment();
+                throw new AiBusyException("AI 요청 한도를 초과했습니다. 잠시 후 다시 시도해 주세요.",
+                        retryAfterSeconds(wait));
+            }
+            LockSupport.parkNanos(wait);
+            if (Thread.interrupted()) {
+                Thread.currentThread().interrupt();
+                throw new AiBusyException("AI 요청이 취소되었습니다.", 1);
+            }
+        }
+    }
+
+    /** Retry-After 초: 올림, 최소 1 (1초 미만 대기를 0 으로 내려 즉시 재시도하게 만들지 않도록) */
+    static long retryAfterSeconds(long waitNanos) {
+        long unit = TimeUnit.SECONDS.toNanos(1);
+        return Math.max(1, (waitNanos + unit - 1) / unit);
+    }
+
+    /**
+     * 토큰 수 근사: 한글 등 비ASCII 는 글자당 1, ASCII 는 4글자당 1, 메시지당 고정 4.
+     * 토크나이저 없이 예산/속도 제한 판단용으로만 쓴다 (보수적으로 약간 크게 잡힘).
+     */
+    public static int estimateTokens(String text) {
+        if (text == null) return 4;
+        int ascii = 0;
+        int other = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) < 128) ascii++;
+            else other++;
+        }
+        return 4 + other + (ascii + 3) / 4;
+    }
+
+    /** 분당 perMinute 만큼 연속으로 채워지는 버킷 (최대 perMinute). 호출 측에서 동기화 */
+    private static final class TokenBucket {
+        private final double capacity;
+        private final double perNano;
+        private double available;
+        private long lastRefill;
+
+        TokenBucket(long perMinute) {
+            this.capacity = Math.max(1, perMinute);
+            this.perNano = capacity / TimeUnit.MINUTES.toNanos(1);
+            this.available = capacity;
+            this.lastRefill = System.nanoTime();
+        }
+
+        /** n 을 꺼내려면 기다려야 하는 시간 (0: 지금 가능). 버킷보다 큰 요청은 가득 찼을 때 통과 */
+        long nanosUntil(double n, long now) {
+            available = Math.min(capacity, available + (now - lastRefill) * perNano);
+            lastRefill = now;
+            double need = Math.min(n, capacity);
+            return available >= need ? 0 : (long) Math.ceil((need - available) / perNano);
+        }
+
+        void take(double n) {
+            available -= Math.min(n, capacity);
+        }
+    }
+}
@@ -16,6 +16,9 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 public class PlanService {
@@ -95,9 +98,16 @@ public class PlanService {
                 .orElseThrow(() -> new com.healthcare.security.NotFoundException("해당 주차 플랜을 찾을 수 없습니다."));
         var days = dayRepo.findByWeekIdOrderByDayIndexAsc(week.getId());
 
+        // 아이템은 한 번에 읽어 day 별로 묶는다 (day 마다 조회하지 않음)
+        var itemsByDay = days.isEmpty()
+                ? Map.<Long, List<PlanItem>>of()
+                : itemRepo.findByDayIdInOrderByDayIdAscCreatedAtAscIdAsc(days.stream().map(PlanDay::getId).toList())
+                        .stream()
+                        .collect(Collectors.groupingBy(PlanItem::getDayId));
+
         var dayViews = new ArrayList<PlanDtos.DayView>();
         for (var d : days) {
-            var items = itemRepo.findByDayIdOrderByCreatedAtAsc(d.getId());
+            var items = itemsByDay.getOrDefault(d.getId(), List.of());
             var itemViews = new ArrayList<PlanDtos.ItemView>();
             for (var it : items) {
                 itemViews.add(new PlanDtos.ItemView(
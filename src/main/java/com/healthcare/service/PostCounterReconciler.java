@@ -0,0 +1,42 @@
+package com.healthcare.service;
+
+import com.healthcare.repository.PostRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * post.like_count / view_count / comment_count 드리프트 보정 배치.
+ * id 구간(chunk) 단위로 원본 테이블(post_like, post_view, comment)에서 다시 계산한다.
+ * 구간마다 별도 트랜잭션이므로 긴 락 없이 전체 테이블을 순회한다.
+ */
+@Component
+public class PostCounterReconciler {
+
+    private final PostRepository postRepo;
+    private final int chunkSize;
+
+    public PostCounterReconciler(PostRepository postRepo,
+                                 @Value("${community.counters.reconcile-chunk:1000}") int chunkSize) {
+        this.postRepo = postRepo;
+        this.chunkSize = chunkSize;
+    }
+
+    @Scheduled(cron = "${community.counters.reconcile-cron:0 30 4 * * *}", zone = "Asia/Seoul")
+    public void scheduledReconcile() {
+        reconcileAll();
+    }
+
+    /** @return 갱신된 게시글 수 */
+    public int reconcileAll() {
+        long started = System.currentTimeMillis();
+        long maxId = postRepo.findMaxId();
+        int updated = 0;
+        for (long from = 1; from <= maxId; from += chunkSize) {
+            updated += postRepo.reconcileCounters(from, from + chunkSize - 1);
+        }
+        System.out.println("[PostCounterReconciler] reconciled " + updated + " posts in "
+                + (System.currentTimeMillis() - started) + "ms");
+        return updated;
+    }
+}
@@ -20,15 +20,18 @@ public class ProfileService {
     private final TrainerProfileRepository trainerProfileRepo;
     private final SecurityUtil securityUtil;
     private final Cloudinary cloudinary;
+    private final AuthorCardCache authorCards;
 
     public ProfileService(UserProfileRepository userProfileRepo,
                          TrainerProfileRepository trainerProfileRepo,
                          SecurityUtil securityUtil,
-                         Cloudinary cloudinary) {
+                         Cloudinary cloudinary,
+                         AuthorCardCache authorCards) {
         this.userProfileRepo = userProfileRepo;
         this.trainerProfileRepo = trainerProfileRepo;
         this.securityUtil = securityUtil;
         this.cloudinary = cloudinary;
+        this.authorCards = authorCards;
     }
 
     /**
@@ -79,6 +82,7 @@ public class ProfileService {
         } else {
             throw new IllegalStateException("Only USER or TRAINER can update profile image");
         }
+        authorCards.invalidate(accountId); // 커밋 후 작성자 카드(imageUrl) 갱신
     }
 
     @Transactional
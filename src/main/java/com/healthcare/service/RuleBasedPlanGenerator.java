@@ -0,0 +1,182 @@
+package com.healthcare.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * OpenAI 장애/서킷 오픈 시 쓰는 규칙 기반 주간 플랜 (프로세스 내 계산, 외부 호출 없음, 같은 입력 → 같은 플랜).
+ * - 하루 목표 kcal: Mifflin-St Jeor 기초대사량 × 활동 계수(ActivityLevel) ± 목표 보정
+ * - 운동: ActivityLevel 로 주당 횟수/시간, 목표(감량/증량/유지)로 종목 순환
+ * 응답은 GPT 플랜과 같은 JSON 형식이라 AiPlanParser 로 그대로 읽힌다.
+ */
+@Component
+public class RuleBasedPlanGenerator {
+
+    public static final String TITLE = "기본 플랜 (자동 생성)";
+
+    enum Goal { LOSE, GAIN, MAINTAIN }
+
+    private record Session(String title, String description) { }
+
+    private static final Map<Goal, List<Session>> SESSIONS = Map.of(
+            Goal.LOSE, List.of(
+                    new Session("빠르게 걷기·조깅", "대화가 가능한 강도(최대 심박 60~70%)로 꾸준히 유지합니다."),
+                    new Session("전신 서킷 트레이닝", "스쿼트, 푸시업, 런지, 플랭크를 40초 운동/20초 휴식으로 3~4바퀴 반복합니다."),
+                    new Session("인터벌 유산소", "1분 빠르게 / 2분 천천히를 반복합니다. 앞뒤로 5분씩 워밍업·쿨다운을 합니다.")),
+            Goal.GAIN, List.of(
+                    new Session("상체 근력 (가슴·등·어깨)", "벤치프레스, 로우, 숄더프레스를 8~12회 × 4세트. 세트 사이 90초 휴식."),
+                    new Session("하체 근력 (스쿼트·런지)", "스쿼트, 루마니안 데드리프트, 런지를 8~12회 × 4세트. 무게는 매주 조금씩 올립니다."),
+                    new Session("전신 근력 (복합 운동)", "데드리프트, 풀업(또는 랫풀다운), 딥스를 6~10회 × 4세트.")),
+            Goal.MAINTAIN, List.of(
+                    new Session("전신 근력", "스쿼트, 푸시업, 로우, 플랭크를 10~15회 × 3세트."),
+                    new Session("유산소 (자전거·조깅)", "중간 강도로 쉬지 않고 유지합니다."),
+                    new Session("코어·유연성", "플랭크, 버드독, 데드버그 후 전신 스트레칭으로 마무리합니다.")));
+
+    /** ActivityLevel → 운동 요일(0=월), 회당 분 */
+    private static final Map<String, int[]> WORKOUT_DAYS = Map.of(
+            "LOW", new int[]{0, 2, 4},
+            "MID", new int[]{0, 1, 3, 4},
+            "HIGH", new int[]{0, 1, 2, 4, 5});
+    private static final Map<String, Integer> WORKOUT_MIN = Map.of("LOW", 30, "MID", 45, "HIGH", 60);
+    private static final Map<String, Double> ACTIVITY_FACTOR = Map.of("LOW", 1.375, "MID", 1.55, "HIGH", 1.725);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * @param userInfo prepare 가 UserProfile 에서 만든 값 (gender, age, heightCm, weightKg, activityLevel, goal, specialRequests)
+     * @return GPT 플랜과 같은 형식의 JSON
+     */
+    public String generate(Map<String, Object> userInfo) {
+        double weight = number(userInfo.get("weightKg"), 70);
+        double height = number(userInfo.get("heightCm"), 170);
+        double age = number(userInfo.get("age"), 30);
+        String gender = String.valueOf(userInfo.getOrDefault("gender", "O"));
+        String level = String.valueOf(userInfo.getOrDefault("activityLevel", "MID"));
+        if (!ACTIVITY_FACTOR.containsKey(level)) level = "MID";
+        Goal goal = goalOf((String) userInfo.get("goal"));
+
+        int bmr = (int) Math.round(bmr(gender, weight, height, age));
+        int tdee = (int) Math.round(bmr * ACTIVITY_FACTOR.get(level));
+        int kcal = targetKcal(goal, bmr, tdee);
+        int protein = (int) Math.round(weight * switch (goal) {
+            case LOSE -> 1.6;
+            case GAIN -> 1.8;
+            case MAINTAIN -> 1.2;
+        });
+
+        ObjectNode plan = objectMapper.createObjectNode();
+        plan.put("title", TITLE);
+        String note = "AI 응답이 지연되어 규칙 기반으로 만든 기본 플랜입니다. 하루 목표 약 " + kcal + "kcal, 단백질 "
+                + protein + "g (기초대사량 " + bmr + "kcal, 활동대사량 " + tdee + "kcal 기준).";
+        if (userInfo.containsKey("specialRequests")) {
+            note += " 특별 요청사항은 반영되지 않았으니 필요하면 다시 생성해 주세요.";
+        }
+        plan.put("note", note);
+
+        ArrayNode days = plan.putArray("days");
+        int[] workoutDays = WORKOUT_DAYS.get(level);
+        int minutes = WORKOUT_MIN.get(level);
+        List<Session> sessions = SESSIONS.get(goal);
+        int session = 0;
+        for (int d = 0; d < 7; d++) {
+            ObjectNode day = days.addObject();
+            day.put("dayIndex", d);
+            ArrayNode items = day.putArray("items");
+            if (contains(workoutDays, d)) {
+                var s = sessions.get(session++ % sessions.size());
+                day.put("note", "운동하는 날");
+                workout(items, s.title(), s.description(), minutes);
+            } else {
+                day.put("note", "회복하는 날");
+                workout(items, "가벼운 걷기·스트레칭", "근육 회복을 위해 가볍게 움직이고 전신을 풀어 줍니다.", 20);
+            }
+            meals(items, goal, kcal);
+        }
+
+        try {
+            return objectMapper.writeValueAsString(plan);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** Mifflin-St Jeor. 성별 미상은 남녀 보정값의 중간 */
+    static double bmr(String gender, double weightKg, double heightCm, double age) {
+        double base = 10 * weightKg + 6.25 * heightCm - 5 * age;
+        return switch (gender) {
+            case "M" -> base + 5;
+            case "F" -> base - 161;
+            default -> base - 78;
+        };
+    }
+
+    static Goal goalOf(String goal) {
+        if (goal == null) return Goal.MAINTAIN;
+        String g = goal.toLowerCase(Locale.ROOT);
+        if (g.contains("감량") || g.contains("다이어트") || g.contains("체지방") || g.contains("lose")) return Goal.LOSE;
+        if (g.contains("근육") || g.contains("증량") || g.contains("벌크") || g.contains("근력") || g.contains("gain")) return Goal.GAIN;
+        return Goal.MAINTAIN;
+    }
+
+    /** 감량 -500 (기초대사량 아래로는 내리지 않음), 증량 +300. 10kcal 단위 */
+    private static int targetKcal(Goal goal, int bmr, int tdee) {
+        int kcal = switch (goal) {
+            case LOSE -> Math.max(bmr, tdee - 500);
+            case GAIN -> tdee + 300;
+            case MAINTAIN -> tdee;
+        };
+        return Math.max(1200, Math.round(kcal / 10f) * 10);
+    }
+
+    private static void workout(ArrayNode items, String title, String description, int minutes) {
+        ObjectNode item = items.addObject();
+        item.put("itemType", "WORKOUT");
+        item.put("title", title);
+        item.put("description", description);
+        item.put("targetMin", minutes);
+    }
+
+    private static void meals(ArrayNode items, Goal goal, int kcal) {
+        String[][] menu = switch (goal) {
+            case LOSE -> new String[][]{
+                    {"아침", "귀리죽, 삶은 달걀 2개, 방울토마토"},
+                    {"점심", "현미밥 반 공기, 닭가슴살, 나물 반찬"},
+                    {"저녁", "두부·채소 샐러드, 고구마 1개"},
+                    {"간식", "그릭요거트 또는 견과류 한 줌"}};
+            case GAIN -> new String[][]{
+                    {"아침", "현미밥, 달걀 3개, 우유 한 잔"},
+                    {"점심", "현미밥 한 공기 반, 소고기·돼지 안심, 채소"},
+                    {"저녁", "고구마, 연어 또는 고등어, 샐러드"},
+                    {"간식", "바나나, 프로틴 쉐이크"}};
+            case MAINTAIN -> new String[][]{
+                    {"아침", "통밀빵, 달걀, 과일"},
+                    {"점심", "잡곡밥, 생선 또는 닭고기, 나물 반찬"},
+                    {"저녁", "잡곡밥 반 공기, 두부조림, 채소"},
+                    {"간식", "견과류 한 줌, 우유"}};
+        };
+        double[] share = {0.25, 0.35, 0.30, 0.10};
+        for (int i = 0; i < menu.length; i++) {
+            ObjectNode item = items.addObject();
+            item.put("itemType", "DIET");
+            item.put("title", menu[i][0]);
+            item.put("description", menu[i][1]);
+            item.put("targetKcal", Math.round(kcal * share[i] / 10) * 10);
+        }
+    }
+
+    private static boolean contains(int[] values, int value) {
+        for (int v : values) if (v == value) return true;
+        return false;
+    }
+
+    private static double number(Object value, double fallback) {
+        return value instanceof Number n ? n.doubleValue() : fallback;
+    }
+}
@@ -1,54 +1,122 @@
 package com.healthcare.web;
 
+import com.healthcare.domain.AiPlanJob;
 import com.healthcare.dto.ai.AiDtos;
-import com.healthcare.service.AiRecommendationService;
+import com.healthcare.dto.plan.PlanDtos;
+import com.healthcare.repository.PlanJdbcRepository;
+import com.healthcare.security.SecurityUtil;
+import com.healthcare.service.AiPlanJobService;
+import com.healthcare.service.PlanService;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 /**
  * AI 추천 컨트롤러
+ * 플랜 생성은 비동기 작업: 등록 → 상태 폴링(또는 SSE 로 Day 단위 수신) → 결과 조회
  */
 @RestController
 @RequestMapping("/api/ai")
 public class AiRecommendationController {
 
-    private final AiRecommendationService aiRecommendationService;
+    private final AiPlanJobService jobService;
+    private final PlanService planService;
+    private final SecurityUtil securityUtil;
 
-    public AiRecommendationController(AiRecommendationService aiRecommendationService) {
-        this.aiRecommendationService = aiRecommendationService;
+    public AiRecommendationController(AiPlanJobService jobService,
+                                      PlanService planService,
+                                      SecurityUtil securityUtil) {
+        this.jobService = jobService;
+        this.planService = planService;
+        this.securityUtil = securityUtil;
     }
 
     /**
      * AI 추천 플랜 생성 요청
      * 사용자 정보를 기반으로 GPT가 운동 및 식단 플랜을 생성하고 매칭을 설정합니다.
-     * 
+     * GPT 호출을 기다리지 않고 작업 id 를 바로 반환합니다 (202).
+     * 같은 요청이 진행 중이면(중복 클릭/재시도) 그 작업을 반환합니다.
+     *
      * @param req 추천 요청 정보 (weekStart, goal, specialRequests)
-     * @return 생성된 매칭 ID
+     * @return 등록된 작업 (PENDING)
      */
     @PreAuthorize("hasRole('USER')")
     @PostMapping("/recommendations")
-    public ResponseEntity<AiDtos.RecommendationResponse> createRecommendation(
+    public ResponseEntity<AiDtos.JobView> createRecommendation(
             @Valid @RequestBody AiDtos.RecommendationRequest req) {
-        try {
-            Long matchId = aiRecommendationService.createAiRecommendation(
-                    req.weekStart,
-                    req.goal,
-                    req.specialRequests
-            );
-            
-            return ResponseEntity.ok(new AiDtos.RecommendationResponse(
-                    matchId,
-                    "AI 추천 플랜이 성공적으로 생성되었습니다."
-            ));
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError()
-                    .body(new AiDtos.RecommendationResponse(
-                            null,
-                            "AI 추천 플랜 생성 중 오류가 발생했습니다: " + e.getMessage()
-                    ));
+        var job = jobService.submit(securityUtil.currentAccountId(), req.weekStart, req.goal, req.specialRequests);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(toView(job));
+    }
+
+    /** 작업 상태 폴링 */
+    @PreAuthorize("hasRole('USER')")
+    @GetMapping("/recommendations/jobs/{jobId}")
+    public ResponseEntity<AiDtos.JobView> getJob(@PathVariable Long jobId) {
+        return ResponseEntity.ok(toView(jobService.get(jobId, securityUtil.currentAccountId())));
+    }
+
+    /** 작업 결과: 생성된 주간 플랜. 아직 끝나지 않았거나 실패했으면 409 + 작업 상태 */
+    @PreAuthorize("hasRole('USER')")
+    @GetMapping("/recommendations/jobs/{jobId}/result")
+    public ResponseEntity<?> getJobResult(@PathVariable Long jobId) {
+        var job = jobService.get(jobId, securityUtil.currentAccountId());
+        if (job.getStatus() != AiPlanJob.Status.SUCCEEDED) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(toView(job));
         }
+        PlanDtos.WeekView week = planService.getWeekView(job.getMatchId(), job.getWeekStart());
+        return ResponseEntity.ok(week);
+    }
+
+    /**
+     * 작업 진행 SSE: Day 가 저장되는 대로 event: day (DayView, 아직 id 없음) → 끝나면 event: done (JobView).
+     * 이미 끝난 작업은 저장된 Day 를 바로 보내고 done. 이 서버에서 실행 중이 아니면 done(현재 상태) 만 → 폴링으로 전환
+     */
+    @PreAuthorize("hasRole('USER')")
+    @GetMapping(value = "/recommendations/jobs/{jobId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> streamJob(@PathVariable Long jobId) {
+        Long accountId = securityUtil.currentAccountId();
+        var job = jobService.get(jobId, accountId);
+
+        Flux<PlanDtos.DayView> days = jobService.progress(jobId)
+                .map(live -> live.map(AiRecommendationController::toDayView))
+                .orElseGet(() -> job.getStatus() == AiPlanJob.Status.SUCCEEDED
+                        ? Flux.fromIterable(planService.getWeekView(job.getMatchId(), job.getWeekStart()).days)
+                        : Flux.empty());
+
+        return days.map(day -> ServerSentEvent.<Object>builder(day).event("day").build())
+                .concatWith(Mono.fromCallable(() -> ServerSentEvent.<Object>builder(toView(jobService.get(jobId, accountId)))
+                                .event("done").build())
+                        .subscribeOn(Schedulers.boundedElastic()))
+                .onErrorResume(e -> Mono.just(ServerSentEvent.<Object>builder("AI 플랜 진행 상황을 가져오지 못했습니다.")
+                        .event("error").build()));
     }
-}
 
+    private static PlanDtos.DayView toDayView(PlanJdbcRepository.DayRow day) {
+        var items = day.items().stream()
+                .map(it -> new PlanDtos.ItemView(null, it.itemType().name(), it.title(), it.description(),
+                        it.targetKcal(), it.targetMin(), "X", false))
+                .toList();
+        return new PlanDtos.DayView(null, day.dayIndex(), day.note(), items);
+    }
+
+    private static AiDtos.JobView toView(AiPlanJob job) {
+        var view = new AiDtos.JobView();
+        view.jobId = job.getId();
+        view.status = job.getStatus().name();
+        view.matchId = job.getMatchId();
+        view.weekStart = job.getWeekStart();
+        view.weekId = job.getWeekId();
+        view.error = job.getError();
+        view.fallback = job.isFallback();
+        view.createdAt = job.getCreatedAt();
+        view.finishedAt = job.getFinishedAt();
+        return view;
+    }
+}
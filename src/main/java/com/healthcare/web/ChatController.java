@@ -2,21 +2,29 @@ package com.healthcare.web;
 
 import com.healthcare.domain.Account;
 import com.healthcare.domain.Match;
-import com.healthcare.domain.TrainerProfile;
 import com.healthcare.dto.chat.ChatDtos;
-import com.healthcare.repository.AccountRepository;
 import com.healthcare.repository.MatchRepository;
-import com.healthcare.repository.TrainerProfileRepository;
 import com.healthcare.security.ActorGuard;
+import com.healthcare.security.ActorResolver;
+import com.healthcare.service.AiBusyException;
+import com.healthcare.service.AiConversationService;
+import com.healthcare.service.AiUnavailableException;
+import com.healthcare.service.AuthorCardCache;
+import com.healthcare.service.ChatLongPollRegistry;
 import com.healthcare.service.ChatService;
-import com.healthcare.service.GptApiService;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @RestController
@@ -25,26 +33,31 @@ public class ChatController {
 
     private final ChatService service;
     private final com.healthcare.security.SecurityUtil securityUtil;
-    private final GptApiService gptApiService;
+    private final AiConversationService aiConversation;
     private final MatchRepository matchRepository;
-    private final TrainerProfileRepository trainerProfileRepository;
-    private final AccountRepository accountRepository;
+    private final AuthorCardCache authorCards;
     private final ActorGuard actorGuard;
+    private final ChatLongPollRegistry longPoll;
+    private final ActorResolver actorResolver;
+
+    private static final long MAX_WAIT_MS = 30_000;
 
     public ChatController(ChatService service, 
                          com.healthcare.security.SecurityUtil securityUtil,
-                         GptApiService gptApiService,
+                         AiConversationService aiConversation,
                          MatchRepository matchRepository,
-                         TrainerProfileRepository trainerProfileRepository,
-                         AccountRepository accountRepository,
-                         ActorGuard actorGuard) {
+                         AuthorCardCache authorCards,
+                         ActorGuard actorGuard,
+                         ChatLongPollRegistry longPoll,
+                         ActorResolver actorResolver) {
         this.service = service;
         this.securityUtil = securityUtil;
-        this.gptApiService = gptApiService;
+        this.aiConversation = aiConversation;
         this.matchRepository = matchRepository;
-        this.trainerProfileRepository = trainerProfileRepository;
-        this.accountRepository = accountRepository;
+        this.authorCards = authorCards;
         this.actorGuard = actorGuard;
+        this.longPoll = longPoll;
+        this.actorResolver = actorResolver;
     }
 
     // (1) 매칭별 스레드 생성/조회
@@ -74,8 +87,8 @@ public class ChatController {
 
         var pageObj = service.getMessages(threadId, page, size);
         var list = pageObj.getContent().stream()
-                .filter(m -> includeHidden || !m.isHidden())
-                .map(m -> new ChatDtos.MessageView(m.getId(), m.getSenderAcc(), m.getContent(), m.isHidden(), m.getCreatedAt()))
+                .filter(m -> includeHidden || !m.hidden())
+                .map(m -> new ChatDtos.MessageView(m.id(), m.senderAcc(), m.content(), m.hidden(), m.createdAt()))
                 .collect(Collectors.toList());
 
         return ResponseEntity.ok(new ChatDtos.PageResponse<>(
@@ -83,6 +96,127 @@ public class ChatController {
         ));
     }
 
+    // (3-1) 새 메시지만: ?afterId= (0 이면 처음부터). waitMs>0 이고 새 메시지가 없으면 최대 waitMs 동안 대기(long-poll)
+    @GetMapping(value = "/threads/{threadId}/messages", params = "afterId")
+    public DeferredResult<ChatDtos.MessageSlice> getMessagesAfter(
+            @PathVariable Long threadId,
+            @RequestParam long afterId,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(defaultValue = "0") long waitMs,
+            @RequestParam(defaultValue = "false") boolean includeHidden) {
+
+        long wait = Math.max(0, Math.min(waitMs, MAX_WAIT_MS));
+        Supplier<ChatDtos.MessageSlice> load =
+                () -> toSlice(service.getMessagesAfter(threadId, afterId, size), includeHidden, afterId);
+        var slice = load.get();
+        if (wait == 0 || !slice.lastId.equals(afterId)) return completed(slice);
+
+        // 새 메시지가 없을 때만 대기. 등록 뒤 한 번 더 읽고, 이후에는 커밋될 때마다 afterId 부터 다시 읽는다.
+        // 다시 읽기는 보낸 사람의 요청 스레드에서 돌기 때문에 (접근 검사가 SecurityContext 기준) 이 요청의 사용자로 채운다
+        var requester = SecurityContextHolder.getContext();
+        var pending = longPoll.register(threadId, wait, afterId, () -> {
+            var previous = SecurityContextHolder.getContext();
+            SecurityContextHolder.setContext(requester);
+            try {
+                return load.get();
+            } finally {
+                SecurityContextHolder.setContext(previous);
+            }
+        });
+        return pending != null ? pending : completed(slice);
+    }
+
+    private static DeferredResult<ChatDtos.MessageSlice> completed(ChatDtos.MessageSlice slice) {
+        var result = new DeferredResult<ChatDtos.MessageSlice>();
+        result.setResult(slice);
+        return result;
+    }
+
+    // (3-2) 이전 메시지: ?beforeId= (과거 스크롤)
+    @GetMapping(value = "/threads/{threadId}/messages", params = "beforeId")
+    public ResponseEntity<ChatDtos.MessageSlice> getMessagesBefore(
+            @PathVariable Long threadId,
+            @RequestParam long beforeId,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(defaultValue = "false") boolean includeHidden) {
+        var delta = service.getMessagesBefore(threadId, beforeId, size);
+        return ResponseEntity.ok(toSlice(delta, includeHidden, beforeId));
+    }
+
+    private static ChatDtos.MessageSlice toSlice(ChatService.MessageDelta delta, boolean includeHidden, long anchorId) {
+        var list = delta.messages().stream()
+                .filter(m -> includeHidden || !m.hidden())
+                .map(m -> new ChatDtos.MessageView(m.id(), m.senderAcc(), m.content(), m.hidden(), m.createdAt()))
+                .collect(Collectors.toList());
+        Long lastId = delta.messages().isEmpty() ? anchorId : delta.messages().get(delta.messages().size() - 1).id();
+        return new ChatDtos.MessageSlice(list, delta.hasMore(), lastId);
+    }
+
+    // (3-3) 읽음 처리: 본문 없으면 마지막 메시지까지
+    @PostMapping("/threads/{threadId}/read")
+    public ResponseEntity<Void> markRead(@PathVariable Long threadId,
+                                         @RequestBody(required = false) ChatDtos.ReadRequest req) {
+        Long accountId = securityUtil.currentAccountId();
+        service.markRead(threadId, accountId, req != null ? req.lastReadMessageId : null);
+        return ResponseEntity.noContent().build();
+    }
+
+    // (3-4) 내 전체 스레드 안 읽은 수 (홈 배지)
+    @GetMapping("/unread")
+    public ResponseEntity<ChatDtos.UnreadResponse> unread() {
+        Long accountId = securityUtil.currentAccountId();
+        var threads = service.unreadStates(accountId).stream()
+                .map(r -> new ChatDtos.UnreadThread(r.getThreadId(), r.getUnreadCount()))
+                .toList();
+        long total = threads.stream().mapToLong(t -> t.unreadCount).sum();
+        return ResponseEntity.ok(new ChatDtos.UnreadResponse(total, threads));
+    }
+
+    // (3-5) 인박스: 내 스레드 전체, 최근 활동순 + 상대 정보 + 마지막 메시지 요약 + 안 읽은 수
+    @GetMapping("/inbox")
+    public ResponseEntity<List<ChatDtos.InboxItem>> inbox() {
+        var actor = actorResolver.resolve();
+        var rows = service.inbox(actor.userProfileId(), actor.trainerProfileId());
+
+        // 상대 카드: 내가 유저면 트레이너, 트레이너면 유저 (작성자 카드 캐시, miss 분만 IN 쿼리)
+        var trainerCards = authorCards.getAllByProfile(Account.Role.TRAINER, rows.stream()
+                .filter(r -> !r.match().getTrainerId().equals(actor.trainerProfileId()))
+                .map(r -> r.match().getTrainerId()).toList());
+        var userCards = authorCards.getAllByProfile(Account.Role.USER, rows.stream()
+                .filter(r -> r.match().getTrainerId().equals(actor.trainerProfileId()))
+                .map(r -> r.match().getUserId()).toList());
+        Map<Long, Integer> unread = service.unreadStates(actor.accountId()).stream()
+                .collect(Collectors.toMap(r -> r.getThreadId(), r -> r.getUnreadCount()));
+
+        var result = new ArrayList<ChatDtos.InboxItem>(rows.size());
+        for (var row : rows) {
+            var t = row.thread();
+            var m = row.match();
+            boolean iAmTrainer = m.getTrainerId().equals(actor.trainerProfileId());
+            var partner = iAmTrainer ? userCards.get(m.getUserId()) : trainerCards.get(m.getTrainerId());
+
+            var item = new ChatDtos.InboxItem();
+            item.threadId = t.getId();
+            item.matchId = m.getId();
+            item.matchStatus = m.getStatus().name();
+            if (partner != null) {
+                item.partnerAccountId = partner.accountId();
+                item.partnerProfileId = partner.profileId();
+                item.partnerUsername = partner.username();
+                item.partnerName = partner.displayName();
+                item.partnerImageUrl = partner.imageUrl();
+                item.isAiTrainer = !iAmTrainer && "ai_trainer".equals(partner.username());
+            }
+            item.lastMessageId = t.getLastMessageId();
+            item.lastSenderAcc = t.getLastSenderAcc();
+            item.lastSnippet = t.getLastSnippet();
+            item.lastMessageAt = t.getLastMessageAt();
+            item.unreadCount = unread.getOrDefault(t.getId(), 0);
+            result.add(item);
+        }
+        return ResponseEntity.ok(result);
+    }
+
     // (4) 메시지 숨김/해제
     @PostMapping("/messages/{messageId}/hide")
     public ResponseEntity<Long> hideMessage(@PathVariable Long messageId, @RequestBody ChatDtos.HideRequest req) {
@@ -90,12 +224,55 @@ public class ChatController {
         return ResponseEntity.ok(m.getId());
     }
 
-    // (5) AI 채팅: GPT와 실시간 대화 (DB 저장 없음)
+    // (5) AI 채팅: 대화 내역은 서버가 매칭 단위로 보관 (요약 + 최근 턴), 요청은 새 메시지만
     @PostMapping("/ai/{matchId}/message")
     public ResponseEntity<ChatDtos.AiChatResponse> sendAiMessage(
             @PathVariable Long matchId,
             @RequestBody ChatDtos.AiChatRequest req) {
         
+        requireAiTrainerMatch(matchId);
+        
+        // GPT API 호출 (서버 메모리 기준 프롬프트)
+        String gptResponse = aiConversation.reply(matchId, req.message);
+        
+        // 응답 반환
+        ChatDtos.AiChatResponse response = new ChatDtos.AiChatResponse();
+        response.message = gptResponse;
+        return ResponseEntity.ok(response);
+    }
+
+    // (6) AI 채팅 스트리밍: 토큰이 도착하는 대로 SSE 로 전달 (event: delta → done | error)
+    @PostMapping(value = "/ai/{matchId}/message/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<String>> streamAiMessage(
+            @PathVariable Long matchId,
+            @RequestBody ChatDtos.AiChatRequest req) {
+
+        requireAiTrainerMatch(matchId);
+
+        return aiConversation.streamReply(matchId, req.message)
+                .map(token -> ServerSentEvent.builder(token).event("delta").build())
+                .concatWith(Mono.just(ServerSentEvent.builder("").event("done").build()))
+                .onErrorResume(e -> Mono.just(ServerSentEvent.builder(
+                        e instanceof AiBusyException || e instanceof AiUnavailableException
+                                ? e.getMessage() : "AI 응답 생성에 실패했습니다.").event("error").build()));
+    }
+
+    // (7) AI 채팅 내역: 화면 복원용 최근 턴 (작성 순)
+    @GetMapping("/ai/{matchId}/history")
+    public ResponseEntity<List<ChatDtos.ChatMessage>> getAiHistory(
+            @PathVariable Long matchId,
+            @RequestParam(defaultValue = "50") int size) {
+
+        requireAiTrainerMatch(matchId);
+
+        var turns = aiConversation.recentTurns(matchId, size).stream()
+                .map(t -> new ChatDtos.ChatMessage(t.getRole(), t.getContent()))
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(turns);
+    }
+
+    /** 매칭 접근 권한 + AI 트레이너 매칭인지 확인 */
+    private void requireAiTrainerMatch(Long matchId) {
         // 매칭 접근 권한 확인
         actorGuard.requireAccessToMatch(matchId);
         
@@ -103,36 +280,14 @@ public class ChatController {
         Match match = matchRepository.findById(matchId)
                 .orElseThrow(() -> new com.healthcare.security.NotFoundException("매칭 정보를 찾을 수 없습니다."));
         
-        // AI 트레이너인지 확인
-        TrainerProfile trainer = trainerProfileRepository.findById(match.getTrainerId())
-                .orElse(null);
+        // AI 트레이너인지 확인 (작성자 카드 캐시)
+        var trainer = authorCards.getByProfile(Account.Role.TRAINER, match.getTrainerId());
         if (trainer == null) {
             throw new IllegalArgumentException("트레이너 정보를 찾을 수 없습니다.");
         }
         
-        Account trainerAccount = accountRepository.findById(trainer.getAccountId())
-                .orElse(null);
-        if (trainerAccount == null || !"ai_trainer".equals(trainerAccount.getUsername())) {
+        if (!"ai_trainer".equals(trainer.username())) {
             throw new IllegalArgumentException("이 매칭은 AI 트레이너와의 매칭이 아닙니다.");
         }
-        
-        // 대화 내역을 GPT API 형식으로 변환
-        List<Map<String, String>> conversationHistory = new ArrayList<>();
-        if (req.conversationHistory != null) {
-            for (ChatDtos.ChatMessage msg : req.conversationHistory) {
-                Map<String, String> map = new HashMap<>();
-                map.put("role", msg.role);
-                map.put("content", msg.content);
-                conversationHistory.add(map);
-            }
-        }
-        
-        // GPT API 호출
-        String gptResponse = gptApiService.chatWithGpt(conversationHistory, req.message);
-        
-        // 응답 반환
-        ChatDtos.AiChatResponse response = new ChatDtos.AiChatResponse();
-        response.message = gptResponse;
-        return ResponseEntity.ok(response);
     }
 }
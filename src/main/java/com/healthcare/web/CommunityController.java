@@ -4,48 +4,39 @@ import com.healthcare.domain.*;
 import com.healthcare.dto.community.CommunityDtos;
 import com.healthcare.repository.*;
 import com.healthcare.security.SecurityUtil;
+import com.healthcare.service.AuthorCardCache;
+import com.healthcare.service.CommunityFeedAssembler;
+import com.healthcare.service.CommunitySearchIndex;
 import com.healthcare.service.CommunityService;
 import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/community")
 public class CommunityController {
 
     private final CommunityService service;
-    private final PostMediaRepository mediaRepo;
-    private final PostHashtagRepository postTagRepo;
-    private final HashtagRepository tagRepo;
+    private final CommunityFeedAssembler feedAssembler;
+    private final CommunitySearchIndex searchIndex;
     private final PostRepository postRepo;
     private final SecurityUtil securityUtil;
-    private final AccountRepository accountRepo;
-    private final UserProfileRepository userProfileRepo;
-    private final TrainerProfileRepository trainerProfileRepo;
+    private final AuthorCardCache authorCards;
 
     public CommunityController(CommunityService service,
-                               PostMediaRepository mediaRepo,
-                               PostHashtagRepository postTagRepo,
-                               HashtagRepository tagRepo,
+                               CommunityFeedAssembler feedAssembler,
+                               CommunitySearchIndex searchIndex,
                                PostRepository postRepo,
                                SecurityUtil securityUtil,
-                               AccountRepository accountRepo,
-                               UserProfileRepository userProfileRepo,
-                               TrainerProfileRepository trainerProfileRepo) {
+                               AuthorCardCache authorCards) {
         this.service = service;
-        this.mediaRepo = mediaRepo;
-        this.postTagRepo = postTagRepo;
-        this.tagRepo = tagRepo;
+        this.feedAssembler = feedAssembler;
+        this.searchIndex = searchIndex;
         this.postRepo = postRepo;
         this.securityUtil = securityUtil;
-        this.accountRepo = accountRepo;
-        this.userProfileRepo = userProfileRepo;
-        this.trainerProfileRepo = trainerProfileRepo;
+        this.authorCards = authorCards;
     }
 
     /** ---- Post ---- */
@@ -67,125 +58,46 @@ public class CommunityController {
         return ResponseEntity.ok(p.getId());
     }
 
-    // 목록: sort = latest | likes | views
+    // 목록: sort = latest | likes | views | hot, hashtag = 콤마 구분 (mode = any | all)
     @GetMapping("/posts")
     public ResponseEntity<CommunityDtos.PageResponse<CommunityDtos.PostView>> pagePosts(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(required = false) String hashtag,
+            @RequestParam(defaultValue = "any") String mode,
             @RequestParam(required = false) Long authorAcc,
             @RequestParam(defaultValue = "latest") String sort
     ) {
 
-        Page<Post> pg = service.pagePosts(page, size, hashtag, authorAcc, sort);
-
-        var posts = pg.getContent();
-        var accountIds = posts.stream()
-                .map(Post::getAuthorAcc)
-                .distinct()
-                .toList();
-        var accounts = accountRepo.findAllById(accountIds).stream()
-                .collect(Collectors.toMap(Account::getId, acc -> acc));
-        var userProfileCache = new HashMap<Long, Long>();
-        var trainerProfileCache = new HashMap<Long, Long>();
-
-        var list = new ArrayList<CommunityDtos.PostView>();
-        for (var p : posts) {
-            var medias = mediaRepo.findByPostId(p.getId()).stream().map(m ->
-                    new CommunityDtos.MediaView(
-                            m.getId(),
-                            m.getMediaType().name(),
-                            m.getPublicId(),
-                            m.getUrl(),
-                            m.getWidth(),
-                            m.getHeight(),
-                            m.getBytes()
-                    )
-            ).toList();
-
-            var tags = postTagRepo.findByPostId(p.getId()).stream()
-                    .map(ph -> tagRepo.findById(ph.getHashtagId()).map(Hashtag::getTag).orElse(null))
-                    .filter(t -> t != null).toList();
-
-            long likeCount = service.likeCount(p.getId());
-            long viewCount = service.viewCount(p.getId());
-
-            var account = accounts.get(p.getAuthorAcc());
-            var authorInfo = resolveAuthorInfo(account, userProfileCache, trainerProfileCache);
-
-            list.add(new CommunityDtos.PostView(
-                    p.getId(),
-                    p.getAuthorAcc(),
-                    authorInfo.username(),
-                    authorInfo.displayName(),
-                    authorInfo.role(),
-                    authorInfo.profileId(),
-                    p.getTitle(),
-                    p.getContent(),
-                    p.isHidden(),
-                    likeCount,
-                    viewCount,
-                    medias,
-                    tags,
-                    p.getCreatedAt(),
-                    p.getUpdatedAt()
-            ));
-        }
+        Page<Post> pg = service.pagePosts(page, size, hashtag, mode, authorAcc, sort);
+        var list = feedAssembler.assemble(pg.getContent());
 
         return ResponseEntity.ok(new CommunityDtos.PageResponse<>(
                 list, pg.getNumber(), pg.getSize(), pg.getTotalElements(), pg.getTotalPages(), pg.isLast()
         ));
     }
 
+    // 커서 모드: ?cursor= (빈 값이면 첫 페이지). count 쿼리 없이 nextCursor 로 이어서 조회
+    @GetMapping(value = "/posts", params = "cursor")
+    public ResponseEntity<CommunityDtos.CursorResponse<CommunityDtos.PostView>> cursorPosts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String hashtag,
+            @RequestParam(defaultValue = "any") String mode,
+            @RequestParam(required = false) Long authorAcc,
+            @RequestParam(defaultValue = "latest") String sort
+    ) {
+        var slice = service.cursorPosts(cursor, size, hashtag, mode, authorAcc, sort);
+        var list = feedAssembler.assemble(slice.content());
+        return ResponseEntity.ok(new CommunityDtos.CursorResponse<>(
+                list, slice.nextCursor(), slice.hasNext(), list.size()
+        ));
+    }
+
     @GetMapping("/posts/{postId}")
     public ResponseEntity<CommunityDtos.PostView> getPost(@PathVariable Long postId) {
         var p = postRepo.findById(postId).orElseThrow();
-
-        var medias = mediaRepo.findByPostId(postId).stream().map(m ->
-                new CommunityDtos.MediaView(
-                        m.getId(),
-                        m.getMediaType().name(),
-                        m.getPublicId(),
-                        m.getUrl(),
-                        m.getWidth(),
-                        m.getHeight(),
-                        m.getBytes()
-                )
-        ).toList();
-
-        var tags = postTagRepo.findByPostId(postId).stream()
-                .map(ph -> tagRepo.findById(ph.getHashtagId()).map(Hashtag::getTag).orElse(null))
-                .filter(t -> t != null).toList();
-
-        long likeCount = service.likeCount(postId);
-        long viewCount = service.viewCount(postId);
-
-        var account = p.getAuthorAcc() != null
-                ? accountRepo.findById(p.getAuthorAcc()).orElse(null)
-                : null;
-        var authorInfo = resolveAuthorInfo(
-                account,
-                new HashMap<>(),
-                new HashMap<>()
-        );
-
-        return ResponseEntity.ok(new CommunityDtos.PostView(
-                p.getId(),
-                p.getAuthorAcc(),
-                authorInfo.username(),
-                authorInfo.displayName(),
-                authorInfo.role(),
-                authorInfo.profileId(),
-                p.getTitle(),
-                p.getContent(),
-                p.isHidden(),
-                likeCount,
-                viewCount,
-                medias,
-                tags,
-                p.getCreatedAt(),
-                p.getUpdatedAt()
-        ));
+        return ResponseEntity.ok(feedAssembler.assemble(p));
     }
 
     /** 유니크 조회수 (계정+일 1회): 토큰에서 accountId */
@@ -232,49 +144,46 @@ public class CommunityController {
             @RequestParam(defaultValue = "20") int size) {
 
         var pg = service.pageComments(postId, page, size);
-        var accountIds = pg.getContent().stream().map(Comment::getAuthorAcc).distinct().toList();
-        var accounts = accountRepo.findAllById(accountIds).stream()
-                .collect(Collectors.toMap(Account::getId, acc -> acc));
+        var list = toCommentViews(pg.getContent());
 
-        var list = pg.getContent().stream()
-                .map(c -> {
-                    var account = accounts.get(c.getAuthorAcc());
-                    String username = null;
-                    String displayName = null;
-                    String role = null;
-                    Long profileId = null;
-                    if (account != null) {
-                        username = account.getUsername();
-                        displayName = account.getDisplayName();
-                        role = account.getRole() != null ? account.getRole().name() : null;
+        return ResponseEntity.ok(new CommunityDtos.PageResponse<>(
+                list, pg.getNumber(), pg.getSize(), pg.getTotalElements(), pg.getTotalPages(), pg.isLast()
+        ));
+    }
+
+    // 커서 모드 댓글: ?cursor= (빈 값이면 첫 페이지), 작성 순
+    @GetMapping(value = "/posts/{postId}/comments", params = "cursor")
+    public ResponseEntity<CommunityDtos.CursorResponse<CommunityDtos.CommentView>> cursorComments(
+            @PathVariable Long postId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+
+        var slice = service.cursorComments(postId, cursor, size);
+        var list = toCommentViews(slice.content());
+        return ResponseEntity.ok(new CommunityDtos.CursorResponse<>(
+                list, slice.nextCursor(), slice.hasNext(), list.size()
+        ));
+    }
+
+    private List<CommunityDtos.CommentView> toCommentViews(List<Comment> comments) {
+        var authors = authorCards.getAll(comments.stream().map(Comment::getAuthorAcc).distinct().toList());
 
-                        if (account.getRole() == Account.Role.USER) {
-                            profileId = userProfileRepo.findByAccountId(account.getId())
-                                    .map(UserProfile::getId)
-                                    .orElse(null);
-                        } else if (account.getRole() == Account.Role.TRAINER) {
-                            profileId = trainerProfileRepo.findByAccountId(account.getId())
-                                    .map(TrainerProfile::getId)
-                                    .orElse(null);
-                        }
-                    }
+        return comments.stream()
+                .map(c -> {
+                    var author = authors.getOrDefault(c.getAuthorAcc(), AuthorCardCache.AuthorCard.EMPTY);
                     return new CommunityDtos.CommentView(
                             c.getId(),
                             c.getAuthorAcc(),
-                            username,
-                            displayName,
-                            role,
-                            profileId,
+                            author.username(),
+                            author.displayName(),
+                            author.role(),
+                            author.profileId(),
                             c.getContent(),
                             c.isHidden(),
                             c.getCreatedAt()
                     );
                 })
                 .toList();
-
-        return ResponseEntity.ok(new CommunityDtos.PageResponse<>(
-                list, pg.getNumber(), pg.getSize(), pg.getTotalElements(), pg.getTotalPages(), pg.isLast()
-        ));
     }
 
     @PostMapping("/comments/{commentId}/hide")
@@ -284,6 +193,18 @@ public class CommunityController {
         return ResponseEntity.ok(c.getId());
     }
 
+    /** ---- Search ---- */
+
+    // 전문 검색: type = all | post | comment, 결과는 관련도순 (하이라이트 <em>)
+    @GetMapping("/search")
+    public ResponseEntity<CommunityDtos.SearchResponse> search(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "all") String type,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(searchIndex.search(q, type, page, size));
+    }
+
     /** ---- Report ---- */
 
     // 신고 작성: reporterAcc가 없으면 토큰에서 기본 설정
@@ -295,32 +216,4 @@ public class CommunityController {
         var r = service.createReport(req);
         return ResponseEntity.ok(r.getId());
     }
-
-    private AuthorInfo resolveAuthorInfo(Account account,
-                                         Map<Long, Long> userProfileCache,
-                                         Map<Long, Long> trainerProfileCache) {
-        if (account == null) {
-            return new AuthorInfo(null, null, null, null);
-        }
-        String username = account.getUsername();
-        String displayName = account.getDisplayName();
-        String role = null;
-        Long profileId = null;
-        var accountRole = account.getRole();
-        if (accountRole != null) {
-            role = accountRole.name();
-            Long accountId = account.getId();
-            if (accountRole == Account.Role.USER) {
-                profileId = userProfileCache.computeIfAbsent(accountId,
-                        id -> userProfileRepo.findByAccountId(id).map(UserProfile::getId).orElse(null));
-            } else if (accountRole == Account.Role.TRAINER) {
-                profileId = trainerProfileCache.computeIfAbsent(accountId,
-                        id -> trainerProfileRepo.findByAccountId(id).map(TrainerProfile::getId).orElse(null));
-            }
-        }
-        return new AuthorInfo(username, displayName, role, profileId);
-    }
-
-    private record AuthorInfo(String username, String displayName, String role, Long profileId) {
-    }
 }
@@ -2,19 +2,18 @@ package com.healthcare.web;
 
 import com.healthcare.domain.Match;
 import com.healthcare.domain.Account;
-import com.healthcare.domain.TrainerProfile;
-import com.healthcare.domain.UserProfile;
 import com.healthcare.dto.match.MatchDtos;
-import com.healthcare.repository.AccountRepository;
 import com.healthcare.repository.UserProfileRepository;
 import com.healthcare.repository.TrainerProfileRepository;
 import com.healthcare.security.SecurityUtil;
+import com.healthcare.service.AuthorCardCache;
 import com.healthcare.service.MatchService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/matches")
@@ -24,17 +23,17 @@ public class MatchController {
     private final SecurityUtil securityUtil;
     private final UserProfileRepository userProfileRepository;
     private final TrainerProfileRepository trainerProfileRepository;
-    private final AccountRepository accountRepository;
+    private final AuthorCardCache authorCards;
 
     public MatchController(MatchService service, SecurityUtil securityUtil,
                           UserProfileRepository userProfileRepository,
                           TrainerProfileRepository trainerProfileRepository,
-                          AccountRepository accountRepository) {
+                          AuthorCardCache authorCards) {
         this.service = service;
         this.securityUtil = securityUtil;
         this.userProfileRepository = userProfileRepository;
         this.trainerProfileRepository = trainerProfileRepository;
-        this.accountRepository = accountRepository;
+        this.authorCards = authorCards;
     }
 
     // 매칭 요청 생성
@@ -133,6 +132,11 @@ public class MatchController {
             throw new IllegalStateException("Invalid role for match listing");
         }
 
+        // 상대방 카드를 한 번에 조회 (캐시 miss 분만 IN 쿼리)
+        Map<Long, AuthorCardCache.AuthorCard> partners = "USER".equals(role)
+                ? authorCards.getAllByProfile(Account.Role.TRAINER, matches.stream().map(Match::getTrainerId).toList())
+                : authorCards.getAllByProfile(Account.Role.USER, matches.stream().map(Match::getUserId).toList());
+
         // 매칭 정보에 상대방 정보 추가 (종료된 매칭 제외)
         List<MatchDtos.MatchWithPartnerInfo> result = new ArrayList<>();
         for (Match match : matches) {
@@ -159,32 +163,20 @@ public class MatchController {
             info.createdAt = match.getCreatedAt();
             info.updatedAt = match.getUpdatedAt();
 
-            // 상대방 정보 조회
+            // 상대방 정보: 공용 작성자 카드 캐시
             if ("USER".equals(role)) {
-                // 사용자인 경우: 트레이너 정보 조회
-                TrainerProfile trainer = trainerProfileRepository.findById(match.getTrainerId())
-                        .orElse(null);
+                var trainer = partners.get(match.getTrainerId());
                 if (trainer != null) {
-                    Account trainerAccount = accountRepository.findById(trainer.getAccountId())
-                            .orElse(null);
-                    if (trainerAccount != null) {
-                        info.partnerName = trainerAccount.getDisplayName();
-                        info.partnerUsername = trainerAccount.getUsername();
-                        info.isAiTrainer = "ai_trainer".equals(trainerAccount.getUsername());
-                    }
+                    info.partnerName = trainer.displayName();
+                    info.partnerUsername = trainer.username();
+                    info.isAiTrainer = "ai_trainer".equals(trainer.username());
                 }
             } else if ("TRAINER".equals(role)) {
-                // 트레이너인 경우: 사용자 정보 조회
-                UserProfile user = userProfileRepository.findById(match.getUserId())
-                        .orElse(null);
+                var user = partners.get(match.getUserId());
                 if (user != null) {
-                    Account userAccount = accountRepository.findById(user.getAccountId())
-                            .orElse(null);
-                    if (userAccount != null) {
-                        info.partnerName = userAccount.getDisplayName();
-                        info.partnerUsername = userAccount.getUsername();
-                        info.isAiTrainer = false; // 사용자는 AI가 아님
-                    }
+                    info.partnerName = user.displayName();
+                    info.partnerUsername = user.username();
+                    info.isAiTrainer = false; // 사용자는 AI가 아님
                 }
             }
 
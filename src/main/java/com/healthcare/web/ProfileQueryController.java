@@ -8,6 +8,7 @@ import com.healthcare.repository.AccountRepository;
 import com.healthcare.repository.TrainerProfileRepository;
 import com.healthcare.repository.UserProfileRepository;
 import com.healthcare.security.SecurityUtil;
+import com.healthcare.service.AuthorCardCache;
 import com.healthcare.service.ProfileService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -26,17 +27,20 @@ public class ProfileQueryController {
     private final AccountRepository accountRepo;
     private final SecurityUtil securityUtil;
     private final ProfileService profileService;
+    private final AuthorCardCache authorCards;
 
     public ProfileQueryController(UserProfileRepository userRepo, 
                                  TrainerProfileRepository trainerRepo,
                                  AccountRepository accountRepo,
                                  SecurityUtil securityUtil,
-                                 ProfileService profileService) {
+                                 ProfileService profileService,
+                                 AuthorCardCache authorCards) {
         this.userRepo = userRepo;
         this.trainerRepo = trainerRepo;
         this.accountRepo = accountRepo;
         this.securityUtil = securityUtil;
         this.profileService = profileService;
+        this.authorCards = authorCards;
     }
 
     // 현재 사용자의 프로필 정보 조회
@@ -193,6 +197,7 @@ public class ProfileQueryController {
                 .orElseThrow(() -> new IllegalStateException("Account not found"));
         account.setDisplayName(displayName);
         accountRepo.save(account);
+        authorCards.invalidate(accountId);
         return ResponseEntity.noContent().build();
     }
 
@@ -0,0 +1,19 @@
+-- V10__chat_thread_summary.sql
+-- 채팅 인박스: 스레드별 마지막(보이는) 메시지 요약 비정규화
+-- 기존 스레드는 현재 마지막 보이는 메시지로 채운다
+
+ALTER TABLE chat_thread
+    ADD COLUMN last_message_id BIGINT       NULL,
+    ADD COLUMN last_sender_acc BIGINT       NULL,
+    ADD COLUMN last_snippet    VARCHAR(200) NULL,
+    ADD COLUMN last_message_at TIMESTAMP    NULL;
+
+UPDATE chat_thread t
+SET t.last_message_id = (SELECT MAX(cm.id) FROM chat_message cm
+                         WHERE cm.thread_id = t.id AND cm.is_hidden = 0);
+
+UPDATE chat_thread t
+JOIN chat_message cm ON cm.id = t.last_message_id
+SET t.last_sender_acc = cm.sender_acc,
+    t.last_snippet    = SUBSTRING(TRIM(cm.content), 1, 100),
+    t.last_message_at = cm.created_at;
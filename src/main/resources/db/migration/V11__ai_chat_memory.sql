@@ -0,0 +1,23 @@
+-- V11__ai_chat_memory.sql
+-- AI 트레이너 대화 서버 보관: 턴 원문 + 매칭별 누적 요약
+-- 프롬프트 = 요약 + covered_turn_id 이후 턴 (토큰 예산 안에서)
+
+CREATE TABLE ai_chat_turn (
+  id             BIGINT PRIMARY KEY AUTO_INCREMENT,
+  match_id       BIGINT      NOT NULL,
+  role           VARCHAR(16) NOT NULL,   -- user | assistant
+  content        TEXT        NOT NULL,
+  token_estimate INT         NOT NULL,
+  created_at     TIMESTAMP   NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  CONSTRAINT fk_ai_chat_turn_match FOREIGN KEY (match_id) REFERENCES `match`(id)
+) ENGINE=InnoDB;
+
+CREATE INDEX idx_ai_chat_turn_match ON ai_chat_turn(match_id, id);
+
+CREATE TABLE ai_chat_summary (
+  match_id        BIGINT PRIMARY KEY,
+  summary         TEXT      NOT NULL,
+  covered_turn_id BIGINT    NOT NULL DEFAULT 0,
+  updated_at      TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  CONSTRAINT fk_ai_chat_summary_match FOREIGN KEY (match_id) REFERENCES `match`(id)
+) ENGINE=InnoDB;
@@ -0,0 +1,20 @@
+-- V12__ai_plan_job.sql
+-- AI 플랜 생성 비동기 작업: 요청은 작업 id 만 받고, 상태/결과는 폴링
+
+CREATE TABLE ai_plan_job (
+  id          BIGINT PRIMARY KEY AUTO_INCREMENT,
+  account_id  BIGINT        NOT NULL,
+  match_id    BIGINT        NOT NULL,
+  week_start  DATE          NOT NULL,
+  status      VARCHAR(16)   NOT NULL,   -- PENDING | RUNNING | SUCCEEDED | FAILED
+  week_id     BIGINT        NULL,
+  error       VARCHAR(1000) NULL,
+  created_at  TIMESTAMP     NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  started_at  TIMESTAMP     NULL,
+  finished_at TIMESTAMP     NULL,
+  CONSTRAINT fk_ai_plan_job_account FOREIGN KEY (account_id) REFERENCES account(id),
+  CONSTRAINT fk_ai_plan_job_match   FOREIGN KEY (match_id)   REFERENCES `match`(id)
+) ENGINE=InnoDB;
+
+CREATE INDEX idx_ai_plan_job_account ON ai_plan_job(account_id, id);
+CREATE INDEX idx_ai_plan_job_status ON ai_plan_job(status);
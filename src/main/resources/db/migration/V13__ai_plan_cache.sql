@@ -0,0 +1,14 @@
+-- V13__ai_plan_cache.sql
+-- AI 플랜 응답 캐시: 구간화된 프로필(성별, 나이대, 키/몸무게 구간, 활동량, 목표) 지문 → GPT 응답
+-- TTL(created_at) + 개수 상한(last_hit_at 기준 LRU) 으로 정리
+
+CREATE TABLE ai_plan_cache (
+  fingerprint VARCHAR(64)  PRIMARY KEY,
+  profile_key VARCHAR(300) NOT NULL,
+  response    TEXT         NOT NULL,
+  hit_count   BIGINT       NOT NULL DEFAULT 0,
+  created_at  TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  last_hit_at TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP
+) ENGINE=InnoDB;
+
+CREATE INDEX idx_ai_plan_cache_last_hit ON ai_plan_cache(last_hit_at);
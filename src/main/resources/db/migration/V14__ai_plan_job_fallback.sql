@@ -0,0 +1,5 @@
+-- V14__ai_plan_job_fallback.sql
+-- OpenAI 장애/차단(서킷 오픈) 시 규칙 기반 기본 플랜으로 채운 작업 표시
+
+ALTER TABLE ai_plan_job
+    ADD COLUMN fallback TINYINT(1) NOT NULL DEFAULT 0;
@@ -0,0 +1,17 @@
+-- V5__post_counters.sql
+-- 게시글 좋아요/조회/댓글 비정규화 카운터 + 인기순 정렬용 복합 인덱스
+
+ALTER TABLE post
+    ADD COLUMN like_count    BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN view_count    BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN comment_count BIGINT NOT NULL DEFAULT 0;
+
+-- 기존 데이터 백필 (updated_at 은 유지)
+UPDATE post p SET
+    like_count    = (SELECT COUNT(*) FROM post_like pl WHERE pl.post_id = p.id),
+    view_count    = (SELECT COALESCE(SUM(pv.cnt), 0) FROM post_view pv WHERE pv.post_id = p.id),
+    comment_count = (SELECT COUNT(*) FROM comment c WHERE c.post_id = p.id AND c.is_hidden = 0),
+    updated_at    = updated_at;
+
+CREATE INDEX idx_post_hidden_likes ON post(is_hidden, like_count DESC, created_at DESC);
+CREATE INDEX idx_post_hidden_views ON post(is_hidden, view_count DESC, created_at DESC);
@@ -0,0 +1,7 @@
+-- V6__feed_keyset_indexes.sql
+-- 커뮤니티 커서(keyset) 페이지네이션용 인덱스
+-- 좋아요/조회순은 V5 의 (is_hidden, *_count DESC, created_at DESC) 인덱스를 그대로 사용 (InnoDB 는 PK id 가 뒤에 포함됨)
+-- 댓글은 기존 idx_comment_post_created (post_id, created_at) 사용
+
+CREATE INDEX idx_post_hidden_created ON post(is_hidden, created_at DESC, id DESC);
+CREATE INDEX idx_post_author_created ON post(author_acc, created_at DESC);
@@ -0,0 +1,10 @@
+-- V7__post_hot_score.sql
+-- 커뮤니티 hot 정렬: 사전 계산 점수(1e6 배 고정소수점) + 증분 갱신용 dirty 플래그
+-- 기존 글은 모두 dirty 로 두고 HotRankingJob 첫 실행에서 계산한다
+
+ALTER TABLE post
+    ADD COLUMN hot_score BIGINT     NOT NULL DEFAULT 0,
+    ADD COLUMN hot_dirty TINYINT(1) NOT NULL DEFAULT 1;
+
+CREATE INDEX idx_post_hidden_hot ON post(is_hidden, hot_score DESC, created_at DESC);
+CREATE INDEX idx_post_hot_dirty ON post(hot_dirty, id);
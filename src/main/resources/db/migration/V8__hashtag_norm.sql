@@ -0,0 +1,11 @@
+-- V8__hashtag_norm.sql
+-- 해시태그 정규화 컬럼 (HashtagDictionary.normalize: trim, '#' 1개 제거, NFKC, 소문자)
+-- lower(tag) 비교 대신 unique 인덱스로 조회한다
+-- 값은 HashtagNormBackfill 이 시작 시 Java 정규화로 채운다 (SQL 로는 NFKC 재현 불가).
+-- 정규화 결과가 겹치는 기존 태그(#Diet / diet 등)도 그때 합치므로, 여기서는 NULL 로 두고 인덱스만 만든다.
+
+ALTER TABLE hashtag ADD COLUMN tag_norm VARCHAR(100) NULL;
+CREATE UNIQUE INDEX uk_hashtag_tag_norm ON hashtag(tag_norm);
+
+-- 태그 → 게시글 조회 (PK 는 post_id 선행)
+CREATE INDEX idx_post_hashtag_tag_post ON post_hashtag(hashtag_id, post_id);
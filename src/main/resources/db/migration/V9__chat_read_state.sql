@@ -0,0 +1,30 @@
+-- V9__chat_read_state.sql
+-- 채팅 참여자별 읽음 위치 + 안 읽은 수 (배지 조회를 계정 기준 인덱스 한 번으로)
+-- 기존 스레드는 현재 마지막 메시지까지 읽은 것으로 채운다
+
+CREATE TABLE chat_read_state (
+  thread_id            BIGINT    NOT NULL,
+  account_id           BIGINT    NOT NULL,
+  last_read_message_id BIGINT    NOT NULL DEFAULT 0,
+  unread_count         INT       NOT NULL DEFAULT 0,
+  updated_at           TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  PRIMARY KEY (thread_id, account_id),
+  CONSTRAINT fk_chat_read_thread  FOREIGN KEY (thread_id)  REFERENCES chat_thread(id),
+  CONSTRAINT fk_chat_read_account FOREIGN KEY (account_id) REFERENCES account(id)
+) ENGINE=InnoDB;
+
+CREATE INDEX idx_chat_read_state_account ON chat_read_state(account_id, unread_count);
+
+INSERT INTO chat_read_state (thread_id, account_id, last_read_message_id, unread_count)
+SELECT t.id, up.account_id,
+       COALESCE((SELECT MAX(cm.id) FROM chat_message cm WHERE cm.thread_id = t.id), 0), 0
+FROM chat_thread t
+JOIN `match` m ON m.id = t.match_id
+JOIN user_profile up ON up.id = m.user_id;
+
+INSERT INTO chat_read_state (thread_id, account_id, last_read_message_id, unread_count)
+SELECT t.id, tp.account_id,
+       COALESCE((SELECT MAX(cm.id) FROM chat_message cm WHERE cm.thread_id = t.id), 0), 0
+FROM chat_thread t
+JOIN `match` m ON m.id = t.match_id
+JOIN trainer_profile tp ON tp.id = m.trainer_id;
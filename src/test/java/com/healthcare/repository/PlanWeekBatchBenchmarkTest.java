@@ -0,0 +1,211 @@
+package com.healthcare.repository;
+
+import com.healthcare.domain.PlanItem;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * AI 주간 플랜 저장 비교 벤치마크 (7일, 아이템 42개).
+ * - legacy: 행 단위 insert (기존 planDayRepository.save / planItemRepository.save 루프와 같은 문장 수)
+ * - batch : PlanJdbcRepository.saveWeek (주차 1 + Day batch 1 + 아이템 batch 1 + 조회 2)
+ * DB 왕복 수는 Statement execute* 호출을 세고, 지연은 왕복마다 -Dbench.rttMicros (기본 200µs) 를 더해 측정한다.
+ * ./gradlew benchmark 로 실행.
+ */
+@Tag("benchmark")
+class PlanWeekBatchBenchmarkTest {
+
+    private static final int WEEKS = 100;
+    private static final int ITEMS_PER_DAY = 6;
+    private static final long RTT_NANOS = Long.getLong("bench.rttMicros", 200L) * 1_000L;
+
+    private static final AtomicLong roundTrips = new AtomicLong();
+    private static JdbcTemplate jdbc;
+    private static PlanJdbcRepository repo;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        Connection raw = DriverManager.getConnection("jdbc:h2:mem:planbatch;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbc = new JdbcTemplate(new SingleConnectionDataSource(counting(raw), true));
+        jdbc.execute("""
+                create table plan_week (
+                  id bigint auto_increment primary key,
+                  match_id bigint not null,
+                  week_start date not null,
+                  title varchar(200) not null,
+                  note varchar(1000),
+                  created_by bigint not null,
+                  created_at timestamp not null,
+                  updated_at timestamp not null,
+                  unique (match_id, week_start)
+                )
+                """);
+        jdbc.execute("""
+                create table plan_day (
+                  id bigint auto_increment primary key,
+                  week_id bigint not null,
+                  day_index tinyint not null,
+                  note varchar(1000),
+                  unique (week_id, day_index)
+                )
+                """);
+        jdbc.execute("""
+                create table plan_item (
+                  id bigint auto_increment primary key,
+                  day_id bigint not null,
+                  item_type varchar(10) not null,
+                  title varchar(200) not null,
+                  description varchar(1000),
+                  target_kcal int, target_min int,
+                  status_mark varchar(1) not null,
+                  completed_at timestamp,
+                  locked boolean not null,
+                  created_at timestamp not null,
+                  updated_at timestamp not null
+                )
+                """);
+        repo = new PlanJdbcRepository(jdbc);
+    }
+
+    @Test
+    void compareLegacyAndBatch() {
+        var days = new ArrayList<PlanJdbcRepository.DayRow>();
+        for (int d = 0; d < PlanJdbcRepository.DAYS_PER_WEEK; d++) {
+            var items = new ArrayList<PlanJdbcRepository.ItemRow>();
+            for (int i = 0; i < ITEMS_PER_DAY; i++) {
+                items.add(i % 2 == 0
+                        ? new PlanJdbcRepository.ItemRow(PlanItem.ItemType.WORKOUT, "운동 " + i, "3세트", null, 20)
+                        : new PlanJdbcRepository.ItemRow(PlanItem.ItemType.DIET, "식단 " + i, "현미밥", 500, null));
+            }
+            days.add(new PlanJdbcRepository.DayRow(d, "Day " + d, items));
+        }
+        LocalDate monday = LocalDate.of(2026, 10, 19);
+
+        long legacyStmts = 0, batchStmts = 0, legacyNanos = 0, batchNanos = 0;
+        for (int w = 0; w < WEEKS; w++) {
+            roundTrips.set(0);
+            long t0 = System.nanoTime();
+            legacySave(1_000L + w, monday, days);
+            legacyNanos += System.nanoTime() - t0;
+            legacyStmts += roundTrips.get();
+
+            roundTrips.set(0);
+            long t1 = System.nanoTime();
+            repo.saveWeek(2_000L + w, monday, "AI 추천 플랜", null, 1L, days, true);
+            batchNanos += System.nanoTime() - t1;
+            batchStmts += roundTrips.get();
+        }
+
+        System.out.printf("[PlanWeekBatchBenchmark] rtt=%dus days=%d items=%d weeks=%d%n",
+                RTT_NANOS / 1000, days.size(), days.size() * ITEMS_PER_DAY, WEEKS);
+        System.out.printf("  save: legacy %d stmts %.2fms | batch %d stmts %.2fms%n",
+                legacyStmts / WEEKS, legacyNanos / 1e6 / WEEKS, batchStmts / WEEKS, batchNanos / 1e6 / WEEKS);
+
+        assertThat(batchStmts / WEEKS).isEqualTo(5);
+        assertThat(legacyStmts / WEEKS).isGreaterThan(days.size() * ITEMS_PER_DAY);
+
+        // 저장 결과 확인: 마지막 주차의 Day 7개, 아이템 42개
+        Long weekId = jdbc.queryForObject("select id from plan_week where match_id = ?", Long.class, 2_000L + WEEKS - 1);
+        assertThat(jdbc.queryForObject("select count(*) from plan_day where week_id = ?", Integer.class, weekId))
+                .isEqualTo(PlanJdbcRepository.DAYS_PER_WEEK);
+        assertThat(jdbc.queryForObject("""
+                select count(*) from plan_item i join plan_day d on d.id = i.day_id where d.week_id = ?
+                """, Integer.class, weekId)).isEqualTo(days.size() * ITEMS_PER_DAY);
+    }
+
+    @Test
+    void existingWeekKeepsDaysAndAppendsItems() {
+        LocalDate monday = LocalDate.of(2026, 10, 26);
+        var first = List.of(new PlanJdbcRepository.DayRow(0, "첫 메모",
+                List.of(new PlanJdbcRepository.ItemRow(PlanItem.ItemType.NOTE, "메모", "", null, null))));
+        Long weekId = repo.saveWeek(9_000L, monday, "플랜", null, 1L, first, false);
+
+        var second = List.of(new PlanJdbcRepository.DayRow(0, "새 메모",
+                List.of(new PlanJdbcRepository.ItemRow(PlanItem.ItemType.WORKOUT, "플랭크", "1분", null, 5))));
+        assertThat(repo.saveWeek(9_000L, monday, "플랜", null, 1L, second, false)).isEqualTo(weekId);
+
+        assertThat(jdbc.queryForObject("select count(*) from plan_day where week_id = ?", Integer.class, weekId))
+                .isEqualTo(PlanJdbcRepository.DAYS_PER_WEEK);
+        assertThat(jdbc.queryForObject("select note from plan_day where week_id = ? and day_index = 0", String.class, weekId))
+                .isEqualTo("새 메모");
+        assertThat(jdbc.queryForObject("""
+                select count(*) from plan_item i join plan_day d on d.id = i.day_id where d.week_id = ?
+                """, Integer.class, weekId)).isEqualTo(2);
+    }
+
+    /* ---------- legacy: 행 단위 (기존 persistPlan 루프) ---------- */
+
+    private void legacySave(long matchId, LocalDate weekStart, List<PlanJdbcRepository.DayRow> days) {
+        jdbc.queryForList("select id from plan_week where match_id = ? and week_start = ?", Long.class, matchId, weekStart);
+        jdbc.update("""
+                insert into plan_week (match_id, week_start, title, created_by, created_at, updated_at)
+                values (?, ?, 'AI 추천 플랜', 1, current_timestamp, current_timestamp)
+                """, matchId, weekStart);
+        Long weekId = jdbc.queryForObject("select id from plan_week where match_id = ? and week_start = ?",
+                Long.class, matchId, weekStart);
+        for (int d = 0; d < PlanJdbcRepository.DAYS_PER_WEEK; d++) {
+            jdbc.update("insert into plan_day (week_id, day_index) values (?, ?)", weekId, d);
+        }
+        var dayIds = jdbc.queryForList("select id from plan_day where week_id = ? order by day_index", Long.class, weekId);
+        for (var day : days) {
+            Long dayId = dayIds.get(day.dayIndex());
+            jdbc.update("update plan_day set note = ? where id = ?", day.note(), dayId);
+            for (var it : day.items()) {
+                jdbc.update("""
+                        insert into plan_item (day_id, item_type, title, description, target_kcal, target_min,
+                                               status_mark, locked, created_at, updated_at)
+                        values (?, ?, ?, ?, ?, ?, 'X', false, current_timestamp, current_timestamp)
+                        """, dayId, it.itemType().name(), it.title(), it.description(), it.targetKcal(), it.targetMin());
+            }
+        }
+    }
+
+    /* ---------- 왕복 계수 프록시 ---------- */
+
+    private static Connection counting(Connection target) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    Object result = invoke(target, method, args);
+                    if (result instanceof Statement && method.getReturnType().isInterface()) {
+                        return countingStatement(result, method.getReturnType());
+                    }
+                    return result;
+                });
+    }
+
+    private static Object countingStatement(Object target, Class<?> type) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (method.getName().startsWith("execute")) {
+                roundTrips.incrementAndGet();
+                if (RTT_NANOS > 0) LockSupport.parkNanos(RTT_NANOS);
+            }
+            return invoke(target, method, args);
+        };
+        return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.healthcare.repository;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 게시글 작성/수정 시 자식 행(미디어 10개, 태그 10개) 쓰기 비교 벤치마크.
+ * - legacy: 행 단위 insert / 행 단위 delete (기존 JPA save/deleteAll 과 같은 문장 수)
+ * - batch : 일괄 DELETE 1회 + JDBC batch insert
+ * DB 왕복 수는 Statement execute* 호출을 세고, 지연은 왕복마다 -Dbench.rttMicros (기본 200µs) 를 더해 측정한다.
+ * ./gradlew benchmark 로 실행.
+ */
+@Tag("benchmark")
+class PostContentBatchBenchmarkTest {
+
+    private static final int POSTS = 200;
+    private static final int MEDIA = 10;
+    private static final int TAGS = 10;
+    private static final long RTT_NANOS = Long.getLong("bench.rttMicros", 200L) * 1_000L;
+
+    private static final AtomicLong roundTrips = new AtomicLong();
+    private static JdbcTemplate jdbc;
+    private static PostContentJdbcRepository repo;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        Connection raw = DriverManager.getConnection("jdbc:h2:mem:postbatch;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbc = new JdbcTemplate(new SingleConnectionDataSource(counting(raw), true));
+        jdbc.execute("""
+                create table post_media (
+                  id bigint auto_increment primary key,
+                  post_id bigint not null,
+                  media_type varchar(10) not null,
+                  public_id varchar(255) not null,
+                  url varchar(500),
+                  width int, height int, bytes bigint,
+                  created_at timestamp not null
+                )
+                """);
+        jdbc.execute("create index idx_post_media_post on post_media(post_id)");
+        jdbc.execute("create table post_hashtag (post_id bigint not null, hashtag_id bigint not null, primary key (post_id, hashtag_id))");
+        repo = new PostContentJdbcRepository(jdbc);
+    }
+
+    @Test
+    void compareLegacyAndBatch() {
+        var media = new ArrayList<PostContentJdbcRepository.MediaRow>();
+        for (int i = 0; i < MEDIA; i++) {
+            media.add(new PostContentJdbcRepository.MediaRow("IMAGE", "pub-" + i, "https://cdn/" + i, 800, 600, 12345L));
+        }
+        var tags = new ArrayList<Long>();
+        for (long t = 1; t <= TAGS; t++) tags.add(t);
+        var newTags = tags.stream().map(t -> t + TAGS / 2).toList(); // 절반 교체
+
+        var legacy = run(1, postId -> legacyCreate(postId, media, tags), postId -> legacyUpdate(postId, media, newTags));
+        var batch = run(100_000, postId -> batchCreate(postId, media, tags), postId -> batchUpdate(postId, media, newTags));
+
+        System.out.printf("[PostContentBatchBenchmark] rtt=%dus media=%d tags=%d posts=%d%n",
+                RTT_NANOS / 1000, MEDIA, TAGS, POSTS);
+        System.out.printf("  create: legacy %d stmts %.2fms | batch %d stmts %.2fms%n",
+                legacy.createStatements(), legacy.createMs(), batch.createStatements(), batch.createMs());
+        System.out.printf("  update: legacy %d stmts %.2fms | batch %d stmts %.2fms%n",
+                legacy.updateStatements(), legacy.updateMs(), batch.updateStatements(), batch.updateMs());
+
+        assertThat(legacy.createStatements()).isEqualTo(MEDIA + TAGS);
+        assertThat(batch.createStatements()).isEqualTo(2);
+        assertThat(batch.updateStatements()).isLessThan(legacy.updateStatements());
+    }
+
+    private interface PostAction {
+        void run(long postId);
+    }
+
+    /** 게시글 1건당 평균 */
+    private record Result(long createStatements, double createMs, long updateStatements, double updateMs) { }
+
+    private Result run(long firstPostId, PostAction create, PostAction update) {
+        long createStmts = 0, updateStmts = 0, createNanos = 0, updateNanos = 0;
+        for (int i = 0; i < POSTS; i++) {
+            long postId = firstPostId + i;
+
+            roundTrips.set(0);
+            long t0 = System.nanoTime();
+            create.run(postId);
+            createNanos += System.nanoTime() - t0;
+            createStmts += roundTrips.get();
+
+            roundTrips.set(0);
+            long t1 = System.nanoTime();
+            update.run(postId);
+            updateNanos += System.nanoTime() - t1;
+            updateStmts += roundTrips.get();
+        }
+        return new Result(createStmts / POSTS, createNanos / 1e6 / POSTS, updateStmts / POSTS, updateNanos / 1e6 / POSTS);
+    }
+
+    /* ---------- legacy: 행 단위 ---------- */
+
+    private void legacyCreate(long postId, List<PostContentJdbcRepository.MediaRow> media, List<Long> tags) {
+        for (var m : media) insertMediaRow(postId, m);
+        for (Long t : tags) jdbc.update("insert into post_hashtag (post_id, hashtag_id) values (?, ?)", postId, t);
+    }
+
+    private void legacyUpdate(long postId, List<PostContentJdbcRepository.MediaRow> media, List<Long> newTags) {
+        // mediaRepo.findByPostId + deleteAll(list) + save(each)
+        var mediaIds = jdbc.queryForList("select id from post_media where post_id = ?", Long.class, postId);
+        for (Long id : mediaIds) jdbc.update("delete from post_media where id = ?", id);
+        for (var m : media) insertMediaRow(postId, m);
+        // postTagRepo.findByPostId + deleteAll(cur) + save(each)
+        var cur = jdbc.queryForList("select hashtag_id from post_hashtag where post_id = ?", Long.class, postId);
+        for (Long t : cur) jdbc.update("delete from post_hashtag where post_id = ? and hashtag_id = ?", postId, t);
+        for (Long t : newTags) jdbc.update("insert into post_hashtag (post_id, hashtag_id) values (?, ?)", postId, t);
+    }
+
+    private void insertMediaRow(long postId, PostContentJdbcRepository.MediaRow m) {
+        jdbc.update("""
+                insert into post_media (post_id, media_type, public_id, url, width, height, bytes, created_at)
+                values (?, ?, ?, ?, ?, ?, ?, current_timestamp)
+                """, postId, m.mediaType(), m.publicId(), m.url(), m.width(), m.height(), m.bytes());
+    }
+
+    /* ---------- batch: 일괄 DELETE + JDBC batch (CommunityService 와 같은 흐름) ---------- */
+
+    private void batchCreate(long postId, List<PostContentJdbcRepository.MediaRow> media, List<Long> tags) {
+        repo.insertMedia(postId, media);
+        repo.insertHashtagLinks(postId, tags);
+    }
+
+    private void batchUpdate(long postId, List<PostContentJdbcRepository.MediaRow> media, List<Long> newTags) {
+        jdbc.update("delete from post_media where post_id = ?", postId);
+        repo.insertMedia(postId, media);
+
+        var cur = jdbc.queryForList("select hashtag_id from post_hashtag where post_id = ?", Long.class, postId);
+        var removed = cur.stream().filter(t -> !newTags.contains(t)).map(String::valueOf).toList();
+        var added = newTags.stream().filter(t -> !cur.contains(t)).toList();
+        if (!removed.isEmpty()) {
+            jdbc.update("delete from post_hashtag where post_id = ? and hashtag_id in (" + String.join(",", removed) + ")", postId);
+        }
+        repo.insertHashtagLinks(postId, added);
+    }
+
+    /* ---------- 왕복 계수 프록시 ---------- */
+
+    private static Connection counting(Connection target) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    Object result = invoke(target, method, args);
+                    if (result instanceof Statement && method.getReturnType().isInterface()) {
+                        return countingStatement(result, method.getReturnType());
+                    }
+                    return result;
+                });
+    }
+
+    private static Object countingStatement(Object target, Class<?> type) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (method.getName().startsWith("execute")) {
+                roundTrips.incrementAndGet();
+                if (RTT_NANOS > 0) LockSupport.parkNanos(RTT_NANOS);
+            }
+            return invoke(target, method, args);
+        };
+        return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.healthcare.security;
+
+import com.healthcare.domain.ChatThread;
+import com.healthcare.repository.ChatThreadRepository;
+import com.healthcare.repository.MatchRepository;
+import com.healthcare.service.AccountUserDetailsService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.Principal;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * STOMP 인바운드 인증/인가: CONNECT 의 JWT 검증, 다른 사람 스레드 구독 거부(ActorGuard), 클라이언트 SEND 거부.
+ */
+class StompAuthChannelInterceptorTest {
+
+    private static final String SECRET = "test-secret-test-secret-test-secret-0123456789";
+    private static final long ALICE_THREAD = 5L, BOB_THREAD = 6L;
+
+    private final JwtUtil jwtUtil = new JwtUtil(SECRET, 60);
+    private final MessageChannel channel = mock(MessageChannel.class);
+    private StompAuthChannelInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        var uds = mock(AccountUserDetailsService.class);
+        when(uds.loadUserByUsername(anyString())).thenAnswer(inv ->
+                User.withUsername(inv.getArgument(0)).password("x").roles("USER").build());
+
+        var threadRepo = mock(ChatThreadRepository.class);
+        when(threadRepo.findById(anyLong())).thenReturn(Optional.empty());
+        when(threadRepo.findById(ALICE_THREAD)).thenReturn(Optional.of(thread(ALICE_THREAD, 50L)));
+        when(threadRepo.findById(BOB_THREAD)).thenReturn(Optional.of(thread(BOB_THREAD, 60L)));
+
+        // 매치 50: alice(유저 100), 매치 60: bob(유저 200). 트레이너는 각각 900, 901
+        var matchRepo = mock(MatchRepository.class);
+        when(matchRepo.findUserProfileIdByMatchId(50L)).thenReturn(Optional.of(100L));
+        when(matchRepo.findTrainerProfileIdByMatchId(50L)).thenReturn(Optional.of(900L));
+        when(matchRepo.findUserProfileIdByMatchId(60L)).thenReturn(Optional.of(200L));
+        when(matchRepo.findTrainerProfileIdByMatchId(60L)).thenReturn(Optional.of(901L));
+
+        // ActorResolver 는 SecurityContext 의 사용자로 행위자를 정한다
+        var resolver = mock(ActorResolver.class);
+        when(resolver.resolve()).thenAnswer(inv -> {
+            var auth = SecurityContextHolder.getContext().getAuthentication();
+            if (auth == null) throw new IllegalStateException("no authentication");
+            return switch (auth.getName()) {
+                case "alice" -> new ActorContext(1L, 100L, null, Set.of("USER"));
+                case "bob" -> new ActorContext(2L, 200L, null, Set.of("USER"));
+                default -> new ActorContext(3L, null, null, Set.of("USER"));
+            };
+        });
+
+        interceptor = new StompAuthChannelInterceptor(jwtUtil, uds, threadRepo, new ActorGuard(resolver, matchRepo));
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void connectWithValidJwtBindsSessionUser() {
+        var message = frame(StompCommand.CONNECT, a ->
+                a.addNativeHeader("Authorization", "Bearer " + jwtUtil.generateToken("alice", 1L, "USER")));
+
+        var result = interceptor.preSend(message, channel);
+
+        Principal user = StompHeaderAccessor.wrap(result).getUser();
+        assertThat(user).isInstanceOf(Authentication.class);
+        assertThat(user.getName()).isEqualTo("alice");
+    }
+
+    @Test
+    void connectWithoutValidJwtIsRejected() {
+        var otherKey = new JwtUtil("another-secret-another-secret-another-secret-01", 60);
+        var expired = new JwtUtil(SECRET, -1);
+        for (String header : List.of(
+                "",
+                "Basic YWxpY2U6cHc=",
+                "Bearer not-a-jwt",
+                "Bearer " + otherKey.generateToken("alice", 1L, "USER"),
+                "Bearer " + expired.generateToken("alice", 1L, "USER"))) {
+            var message = frame(StompCommand.CONNECT, a -> {
+                if (!header.isEmpty()) a.addNativeHeader("Authorization", header);
+            });
+            assertThatThrownBy(() -> interceptor.preSend(message, channel))
+                    .as(header)
+                    .isInstanceOf(MessageDeliveryException.class);
+        }
+    }
+
+    @Test
+    void subscribeToOwnThreadIsAllowed() {
+        var message = subscribe("alice", StompAuthChannelInterceptor.THREAD_TOPIC_PREFIX + ALICE_THREAD);
+
+        assertThat(interceptor.preSend(message, channel)).isSameAs(message);
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull(); // 검사 후 원래 컨텍스트로
+    }
+
+    @Test
+    void subscribeToAnotherUsersThreadIsDenied() {
+        var message = subscribe("alice", StompAuthChannelInterceptor.THREAD_TOPIC_PREFIX + BOB_THREAD);
+
+        assertThatThrownBy(() -> interceptor.preSend(message, channel))
+                .isInstanceOf(MessageDeliveryException.class)
+                .hasMessageContaining("접근 권한이 없습니다.");
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+
+    @Test
+    void subscribeWithoutSessionUserOrToOtherDestinationsIsDenied() {
+        var anonymous = frame(StompCommand.SUBSCRIBE,
+                a -> a.setDestination(StompAuthChannelInterceptor.THREAD_TOPIC_PREFIX + ALICE_THREAD));
+        assertThatThrownBy(() -> interceptor.preSend(anonymous, channel))
+                .isInstanceOf(MessageDeliveryException.class);
+
+        for (String destination : List.of("/topic/admin", StompAuthChannelInterceptor.THREAD_TOPIC_PREFIX + "abc",
+                StompAuthChannelInterceptor.THREAD_TOPIC_PREFIX + "999")) {
+            assertThatThrownBy(() -> interceptor.preSend(subscribe("alice", destination), channel))
+                    .as(destination)
+                    .isInstanceOf(MessageDeliveryException.class);
+        }
+    }
+
+    @Test
+    void clientSendFramesAreRefused() {
+        var message = frame(StompCommand.SEND, a -> {
+            a.setUser(auth("alice"));
+            a.setDestination(StompAuthChannelInterceptor.THREAD_TOPIC_PREFIX + ALICE_THREAD);
+        });
+
+        assertThatThrownBy(() -> interceptor.preSend(message, channel))
+                .isInstanceOf(MessageDeliveryException.class);
+    }
+
+    private Message<byte[]> subscribe(String username, String destination) {
+        return frame(StompCommand.SUBSCRIBE, a -> {
+            a.setUser(auth(username));
+            a.setDestination(destination);
+        });
+    }
+
+    private static Message<byte[]> frame(StompCommand command, Consumer<StompHeaderAccessor> headers) {
+        var accessor = StompHeaderAccessor.create(command);
+        headers.accept(accessor);
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private static Authentication auth(String username) {
+        var user = User.withUsername(username).password("x").roles("USER").build();
+        return new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+    }
+
+    private static ChatThread thread(Long id, Long matchId) {
+        var t = new ChatThread();
+        ReflectionTestUtils.setField(t, "id", id);
+        t.setMatchId(matchId);
+        return t;
+    }
+}
@@ -0,0 +1,140 @@
+package com.healthcare.service;
+
+import com.healthcare.domain.AiChatSummary;
+import com.healthcare.domain.AiChatTurn;
+import com.healthcare.repository.AiChatSummaryRepository;
+import com.healthcare.repository.AiChatTurnRepository;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 로컬 HttpServer 스텁(completion 응답)과 메모리 리스트 기반 저장소로
+ * 대화가 길어져도 프롬프트가 예산 안에 머물고, 요약 호출이 매 턴이 아니라 가끔만 일어나는지 확인.
+ */
+class AiConversationServiceTest {
+
+    private static final long MATCH_ID = 7L;
+    private static final int BUDGET = 200;
+
+    private HttpServer server;
+    private final AtomicInteger chatCalls = new AtomicInteger();
+    private final AtomicInteger summaryCalls = new AtomicInteger();
+    private final AtomicReference<String> lastChatBody = new AtomicReference<>();
+
+    private final List<AiChatTurn> turns = new ArrayList<>();
+    private final Map<Long, AiChatSummary> summaries = new HashMap<>();
+    private AiConversationService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/v1/chat/completions", exchange -> {
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            String content;
+            if (body.contains("상담 기록을 정리하는 도우미")) {
+                content = "요약" + summaryCalls.incrementAndGet();
+            } else {
+                lastChatBody.set(body);
+                content = "답변 " + chatCalls.incrementAndGet() + " " + "자세한 설명입니다 ".repeat(3);
+            }
+            byte[] out = ("{\"choices\":[{\"message\":{\"role\":\"assistant\",\"content\":\"" + content + "\"}}]}")
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, out.length);
+            exchange.getResponseBody().write(out);
+            exchange.close();
+        });
+        server.start();
+
+        var turnRepo = mock(AiChatTurnRepository.class);
+        when(turnRepo.saveAll(anyList())).thenAnswer(inv -> {
+            List<AiChatTurn> saved = inv.getArgument(0);
+            for (var t : saved) {
+                ReflectionTestUtils.setField(t, "id", (long) turns.size() + 1);
+                turns.add(t);
+            }
+            return saved;
+        });
+        when(turnRepo.findByMatchIdAndIdGreaterThanOrderByIdAsc(eq(MATCH_ID), anyLong())).thenAnswer(inv -> {
+            long after = inv.getArgument(1);
+            return turns.stream().filter(t -> t.getId() > after).toList();
+        });
+        var summaryRepo = mock(AiChatSummaryRepository.class);
+        when(summaryRepo.findById(anyLong())).thenAnswer(inv -> Optional.ofNullable(summaries.get((Long) inv.getArgument(0))));
+        when(summaryRepo.save(any())).thenAnswer(inv -> {
+            AiChatSummary s = inv.getArgument(0);
+            summaries.put(s.getMatchId(), s);
+            return s;
+        });
+
+        String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/v1/chat/completions";
+        var gpt = new GptApiService("test-key", url, "test-model", new SimpleMeterRegistry(),
+                new OpenAiGate(new SimpleMeterRegistry(), 8, 32, 10_000, 10_000, 10_000_000),
+                new OpenAiCircuitBreaker(new SimpleMeterRegistry(), 20, 5, 50, 30_000));
+        service = new AiConversationService(turnRepo, summaryRepo, gpt, BUDGET, 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void keepsPromptWithinBudgetAndSummarizesOnlyOccasionally() {
+        int rounds = 30;
+        for (int i = 1; i <= rounds; i++) {
+            service.reply(MATCH_ID, "질문 " + i + " 스쿼트 자세를 어떻게 교정하면 좋을까요");
+
+            var prompt = service.preparePrompt(MATCH_ID);
+            int tokens = prompt.history().stream()
+                    .mapToInt(m -> OpenAiGate.estimateTokens(m.get("content")))
+                    .sum();
+            assertThat(tokens).isLessThanOrEqualTo(BUDGET);
+        }
+
+        assertThat(chatCalls.get()).isEqualTo(rounds);
+        assertThat(turns).hasSize(rounds * 2);
+        // 절반까지 접으므로 요약은 여러 턴에 한 번
+        assertThat(summaryCalls.get()).isPositive().isLessThan(rounds / 2);
+        // 마지막 호출은 요약 + 최근 턴만 보낸다 (전체 대화가 아님)
+        assertThat(lastChatBody.get()).contains("이전 대화 요약").doesNotContain("질문 1 ");
+        assertThat(lastChatBody.get()).contains("질문 " + rounds + " ");
+    }
+
+    @Test
+    void shortConversationIsSentVerbatimWithoutSummary() {
+        service.reply(MATCH_ID, "안녕하세요");
+        service.reply(MATCH_ID, "오늘 운동 추천해 주세요");
+
+        assertThat(summaryCalls.get()).isZero();
+        assertThat(summaries).isEmpty();
+        assertThat(lastChatBody.get()).contains("안녕하세요").contains("답변 1").doesNotContain("이전 대화 요약");
+    }
+
+    @Test
+    void foldsWholeExchangesSoSummaryCoversAnAssistantTurn() {
+        for (int i = 1; i <= 12; i++) {
+            service.reply(MATCH_ID, "질문 " + i + " 벤치프레스 무게를 얼마나 올려야 하나요");
+        }
+
+        var summary = summaries.get(MATCH_ID);
+        assertThat(summary).isNotNull();
+        var lastCovered = turns.stream().filter(t -> t.getId() == summary.getCoveredTurnId()).findFirst().orElseThrow();
+        assertThat(lastCovered.getRole()).isEqualTo("assistant");
+    }
+}
@@ -0,0 +1,85 @@
+package com.healthcare.service;
+
+import com.healthcare.domain.AiPlanCacheEntry;
+import com.healthcare.repository.AiPlanCacheRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 프로필 구간화/목표 정규화로 비슷한 요청이 같은 키가 되는지, 특별 요청은 캐시를 우회하는지,
+ * 적중률이 집계되는지 확인. 저장소는 메모리 Map.
+ */
+class AiPlanCacheTest {
+
+    private static final String PLAN = "{\"title\":\"AI 추천 플랜\",\"days\":[]}";
+
+    private final Map<String, AiPlanCacheEntry> rows = new HashMap<>();
+    private AiPlanCache cache;
+
+    @BeforeEach
+    void setUp() {
+        var repo = mock(AiPlanCacheRepository.class);
+        when(repo.findById(anyString())).thenAnswer(inv -> Optional.ofNullable(rows.get((String) inv.getArgument(0))));
+        when(repo.save(any())).thenAnswer(inv -> {
+            AiPlanCacheEntry e = inv.getArgument(0);
+            rows.put(e.getFingerprint(), e);
+            return e;
+        });
+        cache = new AiPlanCache(repo, new SimpleMeterRegistry(), 14, 100);
+    }
+
+    @Test
+    void similarProfilesShareKey() {
+        var a = cache.keyOf(profile(31, 70.2, "체중 감량"));
+        var b = cache.keyOf(profile(32, 70.5, " 체중감량!"));
+        var older = cache.keyOf(profile(36, 70.2, "체중 감량"));
+        var otherGoal = cache.keyOf(profile(31, 70.2, "근육 증가"));
+
+        assertThat(a).isEqualTo(b).contains("a=30-34").contains("w=70-74");
+        assertThat(older).isNotEqualTo(a);
+        assertThat(otherGoal).isNotEqualTo(a);
+    }
+
+    @Test
+    void specialRequestsBypassCache() {
+        var info = profile(31, 70.2, "체중 감량");
+        info.put("specialRequests", "무릎 부상");
+
+        assertThat(cache.keyOf(info)).isNull();
+        assertThat(cache.get(null)).isEmpty();
+    }
+
+    @Test
+    void storesOnlyPlanJsonAndReportsHitRatio() {
+        var key = cache.keyOf(profile(31, 70.2, "체중 감량"));
+
+        assertThat(cache.get(key)).isEmpty();           // miss
+        cache.put(key, "죄송합니다, 다시 시도해 주세요");   // JSON 아님 → 저장 안 함
+        assertThat(cache.get(key)).isEmpty();           // miss
+        cache.put(key, PLAN);
+        assertThat(cache.get(cache.keyOf(profile(33, 71.0, "체중감량")))).contains(PLAN); // hit
+
+        assertThat(rows).hasSize(1);
+        assertThat(cache.hitRatio()).isEqualTo(1.0 / 3);
+    }
+
+    private static Map<String, Object> profile(int age, double weightKg, String goal) {
+        var info = new HashMap<String, Object>();
+        info.put("gender", "MALE");
+        info.put("age", age);
+        info.put("heightCm", 176.0);
+        info.put("weightKg", weightKg);
+        info.put("activityLevel", "MODERATE");
+        info.put("goal", goal);
+        return info;
+    }
+}
@@ -0,0 +1,338 @@
+package com.healthcare.service;
+
+import com.healthcare.domain.AiPlanJob;
+import com.healthcare.repository.AiPlanJobRepository;
+import com.healthcare.repository.PlanJdbcRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * GPT 호출이 트랜잭션 밖에서 실행되고(커넥션 미점유), 저장된 Day 가 구독자에게 흘러가고 작업 완료 뒤 스트림이 끝나는지,
+ * 대기열 상한을 넘으면 거절되는지, 캐시 적중 시 GPT 없이 바로 끝나는지,
+ * 동시에 들어온 같은 요청이 작업 하나/GPT 호출 한 번으로 합쳐지는지, 정리 배치가 먼저 끝낸 작업을 늦은 결과가 덮어쓰지 않는지 확인.
+ * 트랜잭션 매니저는 열린 트랜잭션 수만 세는 가짜.
+ */
+class AiPlanJobServiceTest {
+
+    private static final LocalDate WEEK = LocalDate.of(2026, 10, 19);
+
+    private final AtomicInteger openTx = new AtomicInteger();
+    private final Map<Long, AiPlanJob> jobs = new ConcurrentHashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+
+    private PlatformTransactionManager txManager;
+    private AiRecommendationService recommendation;
+    private AiPlanJobRepository jobRepo;
+
+    @BeforeEach
+    void setUp() {
+        txManager = mock(PlatformTransactionManager.class);
+        when(txManager.getTransaction(any())).thenAnswer(inv -> {
+            openTx.incrementAndGet();
+            return new SimpleTransactionStatus();
+        });
+        doAnswer(inv -> openTx.decrementAndGet()).when(txManager).commit(any());
+        doAnswer(inv -> openTx.decrementAndGet()).when(txManager).rollback(any());
+
+        recommendation = mock(AiRecommendationService.class);
+        when(recommendation.prepare(any(), any(), any(), any()))
+                .thenReturn(new AiRecommendationService.PlanRequest(1L, 10L, WEEK, Map.of("goal", "체중 감량"), "goal=체중감량"));
+        when(recommendation.cachedPlan(any())).thenReturn(Optional.empty());
+
+        jobRepo = mock(AiPlanJobRepository.class);
+        when(jobRepo.save(any())).thenAnswer(inv -> {
+            AiPlanJob job = inv.getArgument(0);
+            if (job.getId() == null) ReflectionTestUtils.setField(job, "id", ids.incrementAndGet());
+            jobs.put(job.getId(), job);
+            return job;
+        });
+        when(jobRepo.findById(anyLong())).thenAnswer(inv -> Optional.ofNullable(jobs.get((Long) inv.getArgument(0))));
+        // 조건부 UPDATE 흉내: 상태가 맞을 때만 바꾸고 바뀐 행 수를 돌려준다
+        when(jobRepo.markRunning(anyLong(), any())).thenAnswer(inv -> {
+            var job = jobs.get((Long) inv.getArgument(0));
+            if (job == null || job.getStatus() != AiPlanJob.Status.PENDING) return 0;
+            job.start();
+            return 1;
+        });
+        when(jobRepo.finish(anyLong(), any(), any(), anyBoolean(), any(), any())).thenAnswer(inv -> {
+            var job = jobs.get((Long) inv.getArgument(0));
+            if (job == null || job.isDone()) return 0;
+            if (inv.getArgument(1) == AiPlanJob.Status.SUCCEEDED) job.succeed(inv.getArgument(2), inv.getArgument(3));
+            else job.fail(inv.getArgument(4));
+            return 1;
+        });
+    }
+
+    @Test
+    void callsGptOutsideTransactionAndCompletesJobWithWeekId() throws Exception {
+        var txDuringGpt = new AtomicInteger(-1);
+        when(recommendation.generateProgressively(any(), any())).thenAnswer(inv -> {
+            txDuringGpt.set(openTx.get());
+            return generated("{\"title\":\"AI 추천 플랜\"}", 99L);
+        });
+
+        var service = service(2, 10);
+        var job = service.submit(1L, WEEK, "체중 감량", null);
+
+        assertThat(job.getStatus()).isEqualTo(AiPlanJob.Status.PENDING);
+        awaitDone(job.getId());
+
+        var done = jobs.get(job.getId());
+        assertThat(done.getStatus()).isEqualTo(AiPlanJob.Status.SUCCEEDED);
+        assertThat(done.getWeekId()).isEqualTo(99L);
+        assertThat(done.getStartedAt()).isNotNull();
+        assertThat(txDuringGpt.get()).isZero();
+        assertThat(openTx.get()).isZero();
+    }
+
+    @Test
+    void streamsDaysToLateSubscribersAndCompletesAfterJobIsDone() throws Exception {
+        var subscribed = new CountDownLatch(1);
+        when(recommendation.generateProgressively(any(), any())).thenAnswer(inv -> {
+            Consumer<PlanJdbcRepository.DayRow> onDay = inv.getArgument(1);
+            onDay.accept(new PlanJdbcRepository.DayRow(0, "월", List.of()));
+            subscribed.await(5, TimeUnit.SECONDS); // 첫 Day 이후에 구독해도 replay 로 받는다
+            onDay.accept(new PlanJdbcRepository.DayRow(1, "화", List.of()));
+            return generated("{\"days\":[]}", 7L);
+        });
+
+        var service = service(1, 10);
+        var job = service.submit(1L, WEEK, null, null);
+        var progress = service.progress(job.getId()).orElseThrow();
+
+        var statusAtComplete = new AtomicReference<AiPlanJob.Status>();
+        var days = progress.doOnSubscribe(s -> subscribed.countDown())
+                .doOnComplete(() -> statusAtComplete.set(jobs.get(job.getId()).getStatus()))
+                .map(PlanJdbcRepository.DayRow::dayIndex)
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertThat(days).containsExactly(0, 1);
+        assertThat(statusAtComplete.get()).isEqualTo(AiPlanJob.Status.SUCCEEDED);
+    }
+
+    @Test
+    void recordsFailureWhenGptCallFails() throws Exception {
+        when(recommendation.generateProgressively(any(), any())).thenThrow(new RuntimeException("OpenAI API 오류 (500)"));
+
+        var job = service(1, 10).submit(1L, WEEK, null, null);
+        awaitDone(job.getId());
+
+        var done = jobs.get(job.getId());
+        assertThat(done.getStatus()).isEqualTo(AiPlanJob.Status.FAILED);
+        assertThat(done.getError()).contains("500");
+        verify(recommendation, never()).remember(any(), any());
+    }
+
+    @Test
+    void lateResultDoesNotOverwriteJobFailedByCleanup() throws Exception {
+        var running = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        when(recommendation.generateProgressively(any(), any())).thenAnswer(inv -> {
+            running.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return generated("{\"days\":[]}", 9L);
+        });
+        var service = service(1, 10);
+        var job = service.submit(1L, WEEK, null, null);
+        assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+
+        jobs.get(job.getId()).fail("작업이 중단되었습니다."); // failStaleJobs 가 먼저 정리
+        release.countDown();
+        awaitNoInFlight(service);
+
+        var done = jobs.get(job.getId());
+        assertThat(done.getStatus()).isEqualTo(AiPlanJob.Status.FAILED);
+        assertThat(done.getError()).isEqualTo("작업이 중단되었습니다.");
+        assertThat(done.getWeekId()).isNull();
+        verify(jobRepo).finish(eq(job.getId()), eq(AiPlanJob.Status.SUCCEEDED), eq(9L), eq(false), isNull(), any());
+    }
+
+    @Test
+    void jobFailedWhileQueuedIsNotRun() throws Exception {
+        var release = new CountDownLatch(1);
+        when(recommendation.generateProgressively(any(), any())).thenAnswer(inv -> {
+            release.await(5, TimeUnit.SECONDS);
+            return generated("{}", 1L);
+        });
+        var service = service(1, 10);
+        service.submit(1L, WEEK, null, null); // 실행 중
+        var queued = service.submit(2L, WEEK, null, null);
+
+        jobs.get(queued.getId()).fail("작업이 중단되었습니다.");
+        release.countDown();
+        awaitNoInFlight(service);
+
+        assertThat(jobs.get(queued.getId()).getStartedAt()).isNull();
+        verify(recommendation, times(1)).generateProgressively(any(), any());
+    }
+
+    @Test
+    void cacheHitCompletesInsideSubmitWithoutGpt() {
+        when(recommendation.cachedPlan(any())).thenReturn(Optional.of("{\"days\":[]}"));
+        when(recommendation.persistPlan(eq(10L), eq(WEEK), eq("{\"days\":[]}"))).thenReturn(77L);
+
+        var job = service(1, 10).submit(1L, WEEK, "체중 감량", null);
+
+        assertThat(job.getStatus()).isEqualTo(AiPlanJob.Status.SUCCEEDED);
+        assertThat(job.getWeekId()).isEqualTo(77L);
+        verify(recommendation, never()).generateProgressively(any(), any());
+        verify(recommendation, never()).remember(any(), any());
+        assertThat(openTx.get()).isZero();
+    }
+
+    @Test
+    void rememberOnlyAfterSuccessfulPersist() throws Exception {
+        when(recommendation.generateProgressively(any(), any())).thenReturn(generated("{\"days\":[]}", 5L));
+
+        var job = service(1, 10).submit(1L, WEEK, null, null);
+        awaitDone(job.getId());
+
+        verify(recommendation, timeout(1000)).remember(any(), eq("{\"days\":[]}"));
+    }
+
+    @Test
+    void fallbackPlanIsMarkedOnJobAndNotCached() throws Exception {
+        when(recommendation.generateProgressively(any(), any()))
+                .thenReturn(new AiRecommendationService.Generated("", 8L, true));
+
+        var job = service(1, 10).submit(1L, WEEK, null, null);
+        awaitDone(job.getId());
+
+        var done = jobs.get(job.getId());
+        assertThat(done.getStatus()).isEqualTo(AiPlanJob.Status.SUCCEEDED);
+        assertThat(done.isFallback()).isTrue();
+        assertThat(done.getWeekId()).isEqualTo(8L);
+        verify(recommendation, never()).remember(any(), any());
+    }
+
+    @Test
+    void concurrentDuplicateRequestsShareOneJobAndOneGptCall() throws Exception {
+        var gptCalls = new AtomicInteger();
+        when(recommendation.generateProgressively(any(), any())).thenAnswer(inv -> {
+            gptCalls.incrementAndGet();
+            Thread.sleep(200);
+            return generated("{\"days\":[]}", 42L);
+        });
+
+        var service = service(4, 10);
+        int callers = 8;
+        var ready = new CountDownLatch(callers);
+        var go = new CountDownLatch(1);
+        var pool = Executors.newFixedThreadPool(callers);
+        try {
+            var futures = new ArrayList<Future<AiPlanJob>>();
+            for (int i = 0; i < callers; i++) {
+                futures.add(pool.submit(() -> {
+                    ready.countDown();
+                    go.await();
+                    return service.submit(1L, WEEK, "체중 감량", null);
+                }));
+            }
+            ready.await();
+            go.countDown();
+
+            var jobIds = new HashSet<Long>();
+            for (var f : futures) jobIds.add(f.get(5, TimeUnit.SECONDS).getId());
+            assertThat(jobIds).hasSize(1);
+            awaitDone(jobIds.iterator().next());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(gptCalls.get()).isEqualTo(1);
+        verify(recommendation, times(1)).prepare(any(), any(), any(), any());
+        verify(recommendation, times(1)).generateProgressively(any(), any());
+        assertThat(jobs).hasSize(1);
+    }
+
+    @Test
+    void differentInputsOrFinishedJobsAreNotCoalesced() throws Exception {
+        when(recommendation.generateProgressively(any(), any())).thenReturn(generated("{\"days\":[]}", 1L));
+        var service = service(2, 10);
+
+        var first = service.submit(1L, WEEK, "체중 감량", null);
+        var other = service.submit(1L, WEEK, "체중 감량", "무릎 부상");
+        assertThat(other.getId()).isNotEqualTo(first.getId());
+
+        awaitDone(first.getId());
+        awaitDone(other.getId());
+        awaitNoInFlight(service); // 완료 표시 후 finally 에서 진행 목록 정리
+        var again = service.submit(1L, WEEK, "체중 감량", null);
+        assertThat(again.getId()).isNotEqualTo(first.getId());
+    }
+
+    @Test
+    void rejectsWhenQueueIsFull() throws Exception {
+        var release = new CountDownLatch(1);
+        when(recommendation.generateProgressively(any(), any())).thenAnswer(inv -> {
+            release.await(5, TimeUnit.SECONDS);
+            return generated("{}", 1L);
+        });
+
+        var service = service(1, 1);
+        service.submit(1L, WEEK, null, null); // 실행 중
+        service.submit(2L, WEEK, null, null); // 대기열
+
+        assertThatThrownBy(() -> service.submit(3L, WEEK, null, null))
+                .isInstanceOf(AiBusyException.class)
+                .satisfies(e -> assertThat(((AiBusyException) e).getRetryAfterSeconds()).isPositive());
+        var rejected = jobs.get(3L);
+        assertThat(rejected.getStatus()).isEqualTo(AiPlanJob.Status.FAILED);
+
+        release.countDown();
+        awaitDone(2L);
+        assertThat(jobs.get(2L).getStatus()).isEqualTo(AiPlanJob.Status.SUCCEEDED);
+    }
+
+    private static AiRecommendationService.Generated generated(String response, Long weekId) {
+        return new AiRecommendationService.Generated(response, weekId, false);
+    }
+
+    private AiPlanJobService service(int maxConcurrent, int maxQueued) {
+        return new AiPlanJobService(recommendation, jobRepo, txManager, new SimpleMeterRegistry(),
+                maxConcurrent, maxQueued, 30);
+    }
+
+    private static void awaitNoInFlight(AiPlanJobService service) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (service.inFlightCount() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(service.inFlightCount()).isZero();
+    }
+
+    private void awaitDone(Long jobId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!jobs.get(jobId).isDone() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(jobs.get(jobId).isDone()).isTrue();
+    }
+}
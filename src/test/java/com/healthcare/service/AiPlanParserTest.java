@@ -0,0 +1,161 @@
+package com.healthcare.service;
+
+import com.healthcare.domain.PlanItem;
+import com.healthcare.repository.PlanJdbcRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * GPT 플랜 응답 파싱: 코드 펜스/설명 문장 무시, 잘못된 항목 건너뛰기, 잘린 응답에서 완성된 Day 만 사용.
+ * 스트리밍(incremental)은 Day 객체가 닫히는 조각에서 바로 그 Day 를 돌려주는지 확인.
+ */
+class AiPlanParserTest {
+
+    private final AiPlanParser parser = new AiPlanParser();
+
+    @Test
+    void parsesPlanInsideCodeFence() {
+        var plan = parser.parse("""
+                다음은 플랜입니다.
+                ```json
+                {"title":"감량 1주차","note":"물 2L","days":[
+                  {"dayIndex":0,"note":"가볍게","items":[
+                    {"itemType":"workout","title":"스쿼트","description":"3세트","targetMin":"20","targetKcal":300},
+                    {"itemType":"DIET","title":"닭가슴살","targetKcal":450}
+                  ]},
+                  {"dayIndex":1,"items":[{"itemType":"NOTE","title":"휴식"}]}
+                ]}
+                ```
+                """);
+
+        assertThat(plan.title()).isEqualTo("감량 1주차");
+        assertThat(plan.note()).isEqualTo("물 2L");
+        assertThat(plan.days()).hasSize(2);
+        assertThat(plan.skipped()).isZero();
+        assertThat(plan.truncated()).isFalse();
+
+        var monday = plan.days().get(0);
+        assertThat(monday.note()).isEqualTo("가볍게");
+        var workout = monday.items().get(0);
+        assertThat(workout.itemType()).isEqualTo(PlanItem.ItemType.WORKOUT);
+        assertThat(workout.targetMin()).isEqualTo(20);
+        assertThat(workout.targetKcal()).isNull(); // 운동은 kcal 미사용
+        assertThat(monday.items().get(1).targetKcal()).isEqualTo(450);
+        assertThat(plan.days().get(1).items().get(0).description()).isEmpty();
+    }
+
+    @Test
+    void skipsInvalidDaysAndItemsAndMergesDuplicateDays() {
+        var plan = parser.parse("""
+                {"days":[
+                  {"dayIndex":9,"items":[{"itemType":"WORKOUT","title":"범위 밖"}]},
+                  "문자열",
+                  {"dayIndex":2,"items":[{"itemType":"STRETCH","title":"모르는 타입"},{"itemType":"WORKOUT","title":"런지"}]},
+                  {"dayIndex":2,"note":"추가","items":[{"itemType":"DIET","title":"샐러드","extra":{"a":[1,2]}}]}
+                ]}
+                """);
+
+        assertThat(plan.skipped()).isEqualTo(3);
+        assertThat(plan.days()).hasSize(1);
+        var day = plan.days().get(0);
+        assertThat(day.dayIndex()).isEqualTo(2);
+        assertThat(day.note()).isEqualTo("추가");
+        assertThat(day.items()).extracting(i -> i.title()).containsExactly("런지", "샐러드");
+    }
+
+    @Test
+    void objectValuedItemTypeIsSkippedWithoutDerailingTheRest() {
+        var plan = parser.parse("""
+                {"days":[
+                  {"dayIndex":0,"items":[
+                    {"itemType":{"name":"WORKOUT","tags":["x"]},"title":"객체 타입"},
+                    {"itemType":["DIET"],"title":"배열 타입"},
+                    {"itemType":"WORKOUT","title":"스쿼트"}
+                  ]},
+                  {"dayIndex":1,"items":[{"itemType":"DIET","title":"현미밥"}]}
+                ]}
+                """);
+
+        assertThat(plan.skipped()).isEqualTo(2);
+        assertThat(plan.truncated()).isFalse();
+        assertThat(plan.days()).hasSize(2);
+        assertThat(plan.days().get(0).items()).extracting(i -> i.title()).containsExactly("스쿼트");
+        assertThat(plan.days().get(1).items()).extracting(i -> i.title()).containsExactly("현미밥");
+    }
+
+    @Test
+    void keepsCompletedDaysWhenResponseIsTruncated() {
+        var plan = parser.parse("""
+                {"title":"플랜","days":[
+                  {"dayIndex":0,"items":[{"itemType":"WORKOUT","title":"푸시업"}]},
+                  {"dayIndex":1,"items":[{"itemType":"DIET","title":"현미
+                """);
+
+        assertThat(plan.truncated()).isTrue();
+        assertThat(plan.days()).hasSize(1);
+        assertThat(plan.days().get(0).items().get(0).title()).isEqualTo("푸시업");
+    }
+
+    @Test
+    void truncatesLongStrings() {
+        var plan = parser.parse("{\"title\":\"" + "가".repeat(500) + "\",\"days\":[]}");
+        assertThat(plan.title()).hasSize(200);
+    }
+
+    @Test
+    void incrementalParserEmitsEachDayAsSoonAsItCloses() {
+        String response = """
+                ```json
+                {"title":"감량","note":"물 2L","days":[
+                  {"dayIndex":0,"items":[{"itemType":"WORKOUT","title":"스쿼트","targetMin":20}]},
+                  "문자열",
+                  {"dayIndex":1,"note":"식단","items":[{"itemType":"DIET","title":"현미밥","targetKcal":500}]}
+                ]}
+                ```
+                """;
+        var incremental = new AiPlanParser().incremental();
+        int day0ClosesAt = response.indexOf("]}") + 2;
+
+        var beforeClose = incremental.feed(response.substring(0, day0ClosesAt - 1));
+        assertThat(beforeClose).isEmpty();
+        assertThat(incremental.title()).isEqualTo("감량");
+
+        var day0 = incremental.feed(response.substring(day0ClosesAt - 1, day0ClosesAt));
+        assertThat(day0).extracting(d -> d.dayIndex()).containsExactly(0);
+
+        // 나머지는 몇 글자씩 (토큰 경계와 무관)
+        var rest = new ArrayList<PlanJdbcRepository.DayRow>();
+        for (int i = day0ClosesAt; i < response.length(); i += 3) {
+            rest.addAll(incremental.feed(response.substring(i, Math.min(response.length(), i + 3))));
+        }
+        assertThat(rest).hasSize(1);
+        assertThat(rest.get(0).note()).isEqualTo("식단");
+        assertThat(rest.get(0).items().get(0).targetKcal()).isEqualTo(500);
+
+        var plan = incremental.finish();
+        assertThat(plan.days()).hasSize(2);
+        assertThat(plan.skipped()).isEqualTo(1);
+        assertThat(plan.truncated()).isFalse();
+    }
+
+    @Test
+    void incrementalParserReportsTruncation() {
+        var incremental = new AiPlanParser().incremental();
+        var days = incremental.feed("{\"days\":[{\"dayIndex\":2,\"items\":[]},{\"dayIndex\":3,\"it");
+
+        assertThat(days).extracting(d -> d.dayIndex()).containsExactly(2);
+        assertThat(incremental.finish().truncated()).isTrue();
+    }
+
+    @Test
+    void rejectsResponseWithoutUsablePlan() {
+        assertThatThrownBy(() -> parser.parse("죄송합니다. 플랜을 만들 수 없습니다."))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> parser.parse("{\"title\":\"깨진"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
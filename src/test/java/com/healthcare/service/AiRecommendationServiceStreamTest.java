@@ -0,0 +1,280 @@
+package com.healthcare.service;
+
+import com.healthcare.repository.MatchRepository;
+import com.healthcare.repository.PlanJdbcRepository;
+import com.healthcare.repository.UserProfileRepository;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 로컬 HttpServer 스텁이 플랜 JSON 을 SSE chunk 로 시간차를 두고 내보낼 때
+ * 완성된 Day 가 응답 끝을 기다리지 않고 저장/통지되는지 확인.
+ * OpenAI 오류/응답 잘림/서킷 오픈 시 남은 Day 가 규칙 기반 플랜으로 채워지는지 확인.
+ * 저장 실패 후 재시도, 같은 주 재생성 시 Day 별로 교체되어 아이템이 한 벌만 남는지 확인 (H2, MySQL 모드).
+ */
+class AiRecommendationServiceStreamTest {
+
+    private static final long DAY_DELAY_MS = 300;
+    private static final LocalDate WEEK = LocalDate.of(2026, 10, 19);
+
+    private HttpServer server;
+    private PlanJdbcRepository planJdbc;
+    private final List<Long> savedAt = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger failingCalls = new AtomicInteger();
+    private AiTrainerInitService trainer;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/v1/chat/completions", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+            exchange.sendResponseHeaders(200, 0); // chunked
+            try (OutputStream out = exchange.getResponseBody()) {
+                send(out, "{\"title\":\"감량 플랜\",\"days\":[");
+                for (int d = 0; d < 3; d++) {
+                    // Day 하나를 여러 조각으로 (조각 경계가 JSON 토큰 경계와 무관)
+                    send(out, "{\"dayIndex\":" + d + ",\"items\":[{\"itemType\":\"WOR");
+                    send(out, "KOUT\",\"title\":\"운동 " + d + "\",\"targetMin\":30}]}");
+                    send(out, d < 2 ? "," : "]}");
+                    sleep(DAY_DELAY_MS);
+                }
+                out.write("data: [DONE]\n\n".getBytes(StandardCharsets.UTF_8));
+            }
+        });
+        // 2일치까지만 보내고 JSON 을 닫지 않은 채 끝나는 응답
+        server.createContext("/truncated", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream out = exchange.getResponseBody()) {
+                send(out, "{\"title\":\"감량 플랜\",\"days\":[");
+                send(out, "{\"dayIndex\":0,\"items\":[{\"itemType\":\"WORKOUT\",\"title\":\"운동 0\",\"targetMin\":30}]},");
+                send(out, "{\"dayIndex\":1,\"items\":[{\"itemType\":\"WORKOUT\",\"title\":\"운동 1\",\"targetMin\":30}]},");
+                send(out, "{\"dayIndex\":2,\"items\":[{\"itemType\":\"WOR");
+                out.write("data: [DONE]\n\n".getBytes(StandardCharsets.UTF_8));
+            }
+        });
+        server.createContext("/failing", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            failingCalls.incrementAndGet();
+            exchange.sendResponseHeaders(500, -1);
+            exchange.close();
+        });
+        server.start();
+
+        trainer = mock(AiTrainerInitService.class);
+        when(trainer.getAiTrainerAccountId()).thenReturn(3L);
+        planJdbc = mock(PlanJdbcRepository.class);
+        when(planJdbc.saveWeek(anyLong(), any(), anyString(), any(), anyLong(), anyList(), anyBoolean())).thenAnswer(inv -> {
+            savedAt.add(System.nanoTime());
+            return 55L;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void persistsAndReportsEachDayBeforeResponseEnds() {
+        var service = service("/v1/chat/completions",
+                new OpenAiCircuitBreaker(new SimpleMeterRegistry(), 20, 5, 50, 30_000));
+
+        var days = new ArrayList<Integer>();
+        long start = System.nanoTime();
+        var generated = service.generateProgressively(request(), day -> days.add(day.dayIndex()));
+        long totalMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(days).containsExactly(0, 1, 2);
+        assertThat(generated.weekId()).isEqualTo(55L);
+        assertThat(generated.fallback()).isFalse();
+        assertThat(generated.response()).startsWith("{\"title\"").endsWith("]}");
+        verify(planJdbc, times(3)).saveWeek(eq(10L), eq(WEEK), eq("감량 플랜"), isNull(), eq(3L), anyList(), eq(true));
+        verify(trainer, times(1)).getAiTrainerAccountId();
+
+        // 첫 Day 는 Day 간격 2번만큼 응답 끝보다 먼저 저장된다
+        long firstMs = (savedAt.get(0) - start) / 1_000_000;
+        assertThat(totalMs - firstMs).isGreaterThanOrEqualTo(DAY_DELAY_MS * 2 - 50);
+    }
+
+    @Test
+    void fillsMissingDaysFromRuleBasedPlanWhenResponseIsTruncated() {
+        var service = service("/truncated", new OpenAiCircuitBreaker(new SimpleMeterRegistry(), 20, 5, 50, 30_000));
+
+        var days = new ArrayList<Integer>();
+        var generated = service.generateProgressively(request(), day -> days.add(day.dayIndex()));
+
+        assertThat(days).containsExactly(0, 1, 2, 3, 4, 5, 6);
+        assertThat(generated.fallback()).isTrue();
+        assertThat(generated.weekId()).isEqualTo(55L);
+        verify(planJdbc, times(2)).saveWeek(eq(10L), eq(WEEK), eq("감량 플랜"), isNull(), eq(3L), anyList(), eq(true));
+        verify(planJdbc, times(5)).saveWeek(eq(10L), eq(WEEK), eq(RuleBasedPlanGenerator.TITLE), anyString(),
+                eq(3L), anyList(), eq(true));
+    }
+
+    @Test
+    void openCircuitServesRuleBasedPlanWithoutCallingOpenAi() {
+        var breaker = new OpenAiCircuitBreaker(new SimpleMeterRegistry(), 20, 1, 50, 30_000);
+        var service = service("/failing", breaker);
+
+        // 첫 호출: 500 응답 → 실패 기록 → OPEN, 플랜은 규칙 기반으로
+        var first = service.generateProgressively(request(), day -> { });
+        assertThat(first.fallback()).isTrue();
+        assertThat(failingCalls.get()).isEqualTo(1);
+        assertThat(breaker.state()).isEqualTo(OpenAiCircuitBreaker.State.OPEN);
+
+        // 두 번째: OpenAI 를 부르지 않고 바로 대체
+        var days = new ArrayList<Integer>();
+        long start = System.nanoTime();
+        var second = service.generateProgressively(request(), day -> days.add(day.dayIndex()));
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(second.fallback()).isTrue();
+        assertThat(days).hasSize(7);
+        assertThat(failingCalls.get()).isEqualTo(1);
+        assertThat(elapsedMs).isLessThan(1_000);
+    }
+
+    @Test
+    void retryAfterFailedDaySaveLeavesExactlyOneSetOfItems() {
+        var jdbc = planDb();
+        var failOnDay = new AtomicInteger(2);
+        var repo = new PlanJdbcRepository(jdbc) {
+            @Override
+            public Long saveWeek(Long matchId, LocalDate weekStart, String title, String note, Long createdBy,
+                                 List<DayRow> days, boolean replaceItems) {
+                if (days.stream().anyMatch(d -> d.dayIndex() == failOnDay.get())) {
+                    throw new IllegalStateException("db down");
+                }
+                return super.saveWeek(matchId, weekStart, title, note, createdBy, days, replaceItems);
+            }
+        };
+        var service = service("/v1/chat/completions",
+                new OpenAiCircuitBreaker(new SimpleMeterRegistry(), 20, 5, 50, 30_000), repo);
+
+        // Day 2 저장 실패: 저장 오류는 대체하지 않고 전파, Day 0/1 은 남는다
+        assertThatThrownBy(() -> service.generateProgressively(request(), day -> { }))
+                .hasMessage("db down");
+        assertThat(itemTitles(jdbc)).containsExactly("운동 0", "운동 1");
+
+        failOnDay.set(-1);
+        var retry = service.generateProgressively(request(), day -> { });
+
+        assertThat(retry.fallback()).isFalse();
+        assertThat(itemTitles(jdbc)).containsExactly("운동 0", "운동 1", "운동 2");
+    }
+
+    @Test
+    void generatingSameWeekTwiceReplacesPreviousPlanButKeepsLockedItems() {
+        var jdbc = planDb();
+        var service = service("/v1/chat/completions",
+                new OpenAiCircuitBreaker(new SimpleMeterRegistry(), 20, 5, 50, 30_000), new PlanJdbcRepository(jdbc));
+
+        // 이전 생성분 (캐시 적중 경로): Day 0, Day 3. Day 0 의 한 아이템은 트레이너가 잠금
+        String previous = """
+                {"title":"이전 플랜","days":[
+                  {"dayIndex":0,"items":[{"itemType":"WORKOUT","title":"잠긴 운동"},{"itemType":"WORKOUT","title":"이전 운동"}]},
+                  {"dayIndex":3,"items":[{"itemType":"DIET","title":"이전 식단"}]}
+                ]}
+                """;
+        service.persistPlan(10L, WEEK, previous);
+        service.persistPlan(10L, WEEK, previous);
+        assertThat(itemTitles(jdbc)).containsExactly("잠긴 운동", "이전 운동", "이전 식단");
+        jdbc.update("update plan_item set locked = true where title = '잠긴 운동'");
+
+        // 다시 생성 두 번: 새 플랜(Day 0~2)만 한 벌, 새 플랜에 없는 Day 3 의 이전 아이템도 정리
+        service.generateProgressively(request(), day -> { });
+        service.generateProgressively(request(), day -> { });
+
+        assertThat(itemTitles(jdbc)).containsExactly("잠긴 운동", "운동 0", "운동 1", "운동 2");
+        assertThat(jdbc.queryForObject("select count(*) from plan_week", Integer.class)).isEqualTo(1);
+        assertThat(jdbc.queryForObject("select title from plan_week", String.class)).isEqualTo("감량 플랜");
+    }
+
+    private static JdbcTemplate planDb() {
+        var jdbc = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:aiplan" + System.nanoTime() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", ""));
+        createPlanTables(jdbc);
+        return jdbc;
+    }
+
+    private static void createPlanTables(JdbcTemplate jdbc) {
+        jdbc.execute("""
+                create table plan_week (id bigint auto_increment primary key, match_id bigint not null,
+                  week_start date not null, title varchar(200) not null, note varchar(1000),
+                  created_by bigint not null, created_at timestamp not null, updated_at timestamp not null,
+                  unique (match_id, week_start))
+                """);
+        jdbc.execute("""
+                create table plan_day (id bigint auto_increment primary key, week_id bigint not null,
+                  day_index tinyint not null, note varchar(1000), unique (week_id, day_index))
+                """);
+        jdbc.execute("""
+                create table plan_item (id bigint auto_increment primary key, day_id bigint not null,
+                  item_type varchar(10) not null, title varchar(200) not null, description varchar(1000),
+                  target_kcal int, target_min int, status_mark varchar(1) not null, completed_at timestamp,
+                  locked boolean not null, created_at timestamp not null, updated_at timestamp not null)
+                """);
+    }
+
+    private static List<String> itemTitles(JdbcTemplate jdbc) {
+        return jdbc.queryForList("""
+                select i.title from plan_item i join plan_day d on d.id = i.day_id
+                order by d.day_index, i.id
+                """, String.class);
+    }
+
+    private AiRecommendationService service(String path, OpenAiCircuitBreaker breaker) {
+        return service(path, breaker, planJdbc);
+    }
+
+    private AiRecommendationService service(String path, OpenAiCircuitBreaker breaker, PlanJdbcRepository repo) {
+        String url = "http://127.0.0.1:" + server.getAddress().getPort() + path;
+        var gpt = new GptApiService("test-key", url, "test-model", new SimpleMeterRegistry(),
+                new OpenAiGate(new SimpleMeterRegistry(), 8, 32, 10_000, 10_000, 10_000_000), breaker);
+        return new AiRecommendationService(gpt, trainer, mock(UserProfileRepository.class),
+                mock(MatchRepository.class), repo, new AiPlanParser(), mock(AiPlanCache.class),
+                new RuleBasedPlanGenerator());
+    }
+
+    private static AiRecommendationService.PlanRequest request() {
+        return new AiRecommendationService.PlanRequest(1L, 10L, WEEK, Map.of("goal", "체중 감량"), null);
+    }
+
+    private static void send(OutputStream out, String content) throws java.io.IOException {
+        String escaped = content.replace("\\", "\\\\").replace("\"", "\\\"");
+        String data = "{\"choices\":[{\"delta\":{\"content\":\"" + escaped + "\"}}]}";
+        out.write(("data: " + data + "\n\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.healthcare.service;
+
+import com.healthcare.domain.ChatMessage;
+import com.healthcare.domain.ChatThread;
+import com.healthcare.repository.ChatMessageRepository;
+import com.healthcare.repository.ChatReadStateRepository;
+import com.healthcare.repository.ChatThreadRepository;
+import com.healthcare.repository.MatchRepository;
+import com.healthcare.security.ActorGuard;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 메시지 숨김/해제 시 스레드 요약은 조건부 UPDATE 로만 고친다:
+ * 숨김은 요약이 아직 그 메시지일 때만 직전 보이는 메시지로, 해제는 더 새 경우에만 앞으로.
+ * 읽어 둔 스레드 엔티티(요약이 오래됐을 수 있음)는 건드리지 않는다.
+ */
+class ChatHideMessageTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 3, 1, 9, 0);
+
+    private final ChatThreadRepository threadRepo = mock(ChatThreadRepository.class);
+    private final ChatMessageRepository messageRepo = mock(ChatMessageRepository.class);
+    private final ChatReadStateRepository readStateRepo = mock(ChatReadStateRepository.class);
+    private final ChatThread thread = new ChatThread();
+    private ChatService service;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(thread, "id", 1L);
+        thread.setMatchId(10L);
+        // 읽어 온 시점의 요약: 5번. 그 사이 다른 요청이 6번을 반영했을 수 있다
+        ReflectionTestUtils.setField(thread, "lastMessageId", 5L);
+        when(threadRepo.findById(1L)).thenReturn(Optional.of(thread));
+        service = new ChatService(threadRepo, messageRepo, mock(MatchRepository.class), mock(ActorGuard.class),
+                readStateRepo, mock(AuthorCardCache.class), mock(ChatRecentMessages.class),
+                mock(ApplicationEventPublisher.class));
+    }
+
+    @Test
+    void hidingReplacesSummaryOnlyIfItStillPointsToHiddenMessage() {
+        var hidden = message(5L, false);
+        var prev = message(4L, false);
+        when(messageRepo.findById(5L)).thenReturn(Optional.of(hidden));
+        when(messageRepo.findTopByThreadIdAndHiddenFalseOrderByIdDesc(1L)).thenReturn(Optional.of(prev));
+
+        service.hideMessage(5L, true);
+
+        verify(threadRepo).replaceHiddenLastMessage(1L, 5L, 4L, 100L, "m4", T0.plusMinutes(4));
+        verify(threadRepo, never()).save(any());
+        assertThat(thread.getLastMessageId()).isEqualTo(5L);
+    }
+
+    @Test
+    void hidingLastVisibleMessageClearsSummary() {
+        when(messageRepo.findById(5L)).thenReturn(Optional.of(message(5L, false)));
+        when(messageRepo.findTopByThreadIdAndHiddenFalseOrderByIdDesc(1L)).thenReturn(Optional.empty());
+
+        service.hideMessage(5L, true);
+
+        verify(threadRepo).replaceHiddenLastMessage(1L, 5L, null, null, null, null);
+    }
+
+    @Test
+    void unhidingOnlyMovesSummaryForward() {
+        when(messageRepo.findById(5L)).thenReturn(Optional.of(message(5L, true)));
+
+        service.hideMessage(5L, false);
+
+        verify(threadRepo).updateLastMessage(1L, 5L, 100L, "m5", T0.plusMinutes(5));
+        verify(threadRepo, never()).replaceHiddenLastMessage(any(), any(), any(), any(), any(), any());
+        verify(messageRepo, never()).findTopByThreadIdAndHiddenFalseOrderByIdDesc(anyLong());
+    }
+
+    private static ChatMessage message(long id, boolean hidden) {
+        var m = new ChatMessage();
+        ReflectionTestUtils.setField(m, "id", id);
+        ReflectionTestUtils.setField(m, "createdAt", T0.plusMinutes(id));
+        m.setThreadId(1L);
+        m.setSenderAcc(100L);
+        m.setContent("m" + id);
+        m.setHidden(hidden);
+        return m;
+    }
+}
@@ -0,0 +1,117 @@
+package com.healthcare.service;
+
+import com.healthcare.dto.chat.ChatDtos;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 대기자는 등록 직후와 커밋 이벤트마다 afterId 이후를 다시 읽는다:
+ * 조회~등록 사이, 등록 뒤 다시 읽기 전에 커밋된 메시지도 건너뛰지 않는지 확인.
+ */
+class ChatLongPollRegistryTest {
+
+    /** 스레드별로 커밋된 메시지 id (DB 역할) */
+    private final List<Long> thread1 = new CopyOnWriteArrayList<>();
+    private final List<Long> thread2 = new CopyOnWriteArrayList<>();
+
+    @Test
+    void committedMessageWakesOnlyWaitersOfThatThread() {
+        var registry = new ChatLongPollRegistry(10, new SimpleMeterRegistry());
+        var waiter1 = registry.register(1L, 30_000, 5L, after(thread1, 5L));
+        var waiter2 = registry.register(2L, 30_000, 7L, after(thread2, 7L));
+
+        publish(registry, thread1, 1L, 8L);
+
+        assertThat(waiter1.hasResult()).isTrue();
+        var slice = (ChatDtos.MessageSlice) waiter1.getResult();
+        assertThat(slice.content).extracting(m -> m.id).containsExactly(8L);
+        assertThat(slice.lastId).isEqualTo(8L);
+        assertThat(waiter2.hasResult()).isFalse();
+    }
+
+    @Test
+    void messageCommittedBetweenQueryAndRegisterIsReturnedOnRegister() {
+        var registry = new ChatLongPollRegistry(10, new SimpleMeterRegistry());
+        // 호출자의 조회는 비어 있었지만 등록 전에 11 이 커밋됨 (그때는 깨울 대기자가 없다)
+        publish(registry, thread1, 1L, 11L);
+
+        var waiter = registry.register(1L, 30_000, 10L, after(thread1, 10L));
+
+        assertThat(waiter.hasResult()).isTrue();
+        assertThat(((ChatDtos.MessageSlice) waiter.getResult()).content).extracting(m -> m.id).containsExactly(11L);
+    }
+
+    @Test
+    void wakeReturnsEveryMessageAfterCursorNotJustTheEventOne() {
+        var registry = new ChatLongPollRegistry(10, new SimpleMeterRegistry());
+        var reloads = new AtomicInteger();
+        Supplier<ChatDtos.MessageSlice> reload = () -> {
+            reloads.incrementAndGet();
+            return after(thread1, 10L).get();
+        };
+        var waiter = registry.register(1L, 30_000, 10L, reload);
+        assertThat(waiter.hasResult()).isFalse();
+
+        // 11, 12 는 커밋됐지만 이벤트가 아직 처리되지 않았고 13 의 이벤트가 먼저 도착
+        thread1.addAll(List.of(11L, 12L));
+        publish(registry, thread1, 1L, 13L);
+
+        var slice = (ChatDtos.MessageSlice) waiter.getResult();
+        assertThat(slice.content).extracting(m -> m.id).containsExactly(11L, 12L, 13L);
+        assertThat(slice.lastId).isEqualTo(13L);
+
+        // 이미 응답한 대기자는 다시 읽지 않는다
+        publish(registry, thread1, 1L, 14L);
+        assertThat(reloads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void failedReloadBecomesErrorResult() {
+        var registry = new ChatLongPollRegistry(10, new SimpleMeterRegistry());
+        var fail = new AtomicInteger();
+        var waiter = registry.register(1L, 30_000, 10L, () -> {
+            if (fail.get() > 0) throw new IllegalStateException("db down");
+            return after(thread1, 10L).get();
+        });
+
+        fail.set(1);
+        publish(registry, thread1, 1L, 11L);
+
+        assertThat(waiter.getResult()).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void refusesWaitersOverLimitUntilOneCompletes() {
+        var registry = new ChatLongPollRegistry(1, new SimpleMeterRegistry());
+        var first = registry.register(1L, 30_000, 0L, after(thread1, 0L));
+
+        assertThat(first).isNotNull();
+        assertThat(registry.register(1L, 30_000, 0L, after(thread1, 0L))).isNull();
+
+        publish(registry, thread1, 1L, 1L); // 응답 완료 → 자리 반납
+        assertThat(registry.register(1L, 30_000, 0L, after(thread1, 0L))).isNotNull();
+    }
+
+    private static void publish(ChatLongPollRegistry registry, List<Long> thread, long threadId, long messageId) {
+        thread.add(messageId);
+        registry.onMessageSent(new ChatEvents.MessageSent(threadId, messageId, 100L, "m" + messageId, LocalDateTime.now()));
+    }
+
+    /** ChatController 의 afterId 조회와 같은 모양: 없으면 lastId = afterId */
+    private static Supplier<ChatDtos.MessageSlice> after(List<Long> thread, long afterId) {
+        return () -> {
+            var views = thread.stream().filter(id -> id > afterId).sorted()
+                    .map(id -> new ChatDtos.MessageView(id, 100L, "m" + id, false, LocalDateTime.now()))
+                    .toList();
+            return new ChatDtos.MessageSlice(views, false, views.isEmpty() ? afterId : views.get(views.size() - 1).id);
+        };
+    }
+}
@@ -0,0 +1,273 @@
+package com.healthcare.service;
+
+import com.healthcare.domain.ChatMessage;
+import com.healthcare.domain.ChatThread;
+import com.healthcare.repository.ChatMessageRepository;
+import com.healthcare.repository.ChatReadStateRepository;
+import com.healthcare.repository.ChatThreadRepository;
+import com.healthcare.repository.MatchRepository;
+import com.healthcare.security.ActorGuard;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 읽음 위치/unread: ChatService 를 리포지토리의 네이티브 SQL 그대로(H2, MySQL 모드) 실행해서
+ * 잠금 뒤 별도 문장으로 다시 세는지, 전송 트랜잭션이 커밋되기를 기다린 읽음 처리가 새 메시지를 세는지,
+ * 두 참여자가 동시에 보내도 교착 없이 줄을 서는지 확인.
+ */
+class ChatReadCursorTest {
+
+    private static final long THREAD = 1, ME = 100, OTHER = 200;
+
+    private JdbcTemplate jdbc;
+    private NamedParameterJdbcTemplate named;
+    private TransactionTemplate tx;
+    private final AtomicLong nextId = new AtomicLong(1);
+    private final ApplicationEventPublisher events = mock(ApplicationEventPublisher.class);
+    private ChatService service;
+
+    @BeforeEach
+    void setUp() {
+        var dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:readcursor" + System.nanoTime() + ";MODE=MySQL;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000", "sa", "");
+        jdbc = new JdbcTemplate(dataSource);
+        named = new NamedParameterJdbcTemplate(jdbc);
+        tx = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        tx.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED); // ChatService 와 같은 격리 수준
+        jdbc.execute("create table chat_message (id bigint primary key, thread_id bigint not null, "
+                + "sender_acc bigint not null, is_hidden boolean not null default false)");
+        jdbc.execute("create table chat_read_state (thread_id bigint not null, account_id bigint not null, "
+                + "last_read_message_id bigint not null default 0, unread_count int not null default 0, "
+                + "updated_at timestamp not null default current_timestamp, primary key (thread_id, account_id))");
+        jdbc.update("insert into chat_read_state (thread_id, account_id) values (?, ?), (?, ?)", THREAD, ME, THREAD, OTHER);
+
+        var threadRepo = mock(ChatThreadRepository.class);
+        var thread = new ChatThread();
+        ReflectionTestUtils.setField(thread, "id", THREAD);
+        thread.setMatchId(10L);
+        when(threadRepo.findById(THREAD)).thenReturn(Optional.of(thread));
+
+        var readStateRepo = mock(ChatReadStateRepository.class, runsQuerySql());
+        var messageRepo = mock(ChatMessageRepository.class, runsQuerySql());
+        doAnswer(inv -> {
+            ChatMessage m = inv.getArgument(0);
+            long id = nextId.getAndIncrement();
+            jdbc.update("insert into chat_message (id, thread_id, sender_acc) values (?, ?, ?)",
+                    id, m.getThreadId(), m.getSenderAcc());
+            ReflectionTestUtils.setField(m, "id", id);
+            return m;
+        }).when(messageRepo).save(any());
+        doAnswer(inv -> {
+            var m = new ChatMessage();
+            ReflectionTestUtils.setField(m, "id", inv.getArgument(0));
+            m.setThreadId(THREAD);
+            return Optional.of(m);
+        }).when(messageRepo).findById(anyLong());
+
+        service = new ChatService(threadRepo, messageRepo, mock(MatchRepository.class), mock(ActorGuard.class),
+                readStateRepo, mock(AuthorCardCache.class), mock(ChatRecentMessages.class), events);
+    }
+
+    @Test
+    void readRecountsVisibleMessagesFromOthersAfterCursor() {
+        send(OTHER);               // 1
+        send(OTHER);               // 2
+        long hidden = send(OTHER); // 3
+        send(OTHER);               // 4
+        // unread 조정 없이 숨김: 읽음 처리가 저장된 값이 아니라 메시지로 다시 세는지
+        jdbc.update("update chat_message set is_hidden = true where id = ?", hidden);
+        assertThat(unread(ME)).isEqualTo(4);
+
+        markRead(ME, 1);
+
+        assertThat(unread(ME)).isEqualTo(2); // 2, 4
+        assertThat(lastRead(ME)).isEqualTo(1);
+        assertThat(unread(OTHER)).isZero(); // 보낸 사람은 자기 메시지까지 읽은 것으로
+    }
+
+    @Test
+    void sendBeforeOrAfterReadLeavesSameUnread() {
+        send(OTHER);
+        send(OTHER);
+
+        // 읽음 → 전송
+        markRead(ME, 2);
+        send(OTHER); // 3
+        assertThat(unread(ME)).isEqualTo(1);
+
+        // 전송 → 읽음: 전송이 올린 +1 을 덮어쓰지 않고 기준점 이후를 다시 센다
+        send(OTHER); // 4
+        assertThat(unread(ME)).isEqualTo(2);
+        markRead(ME, 3);
+        assertThat(unread(ME)).isEqualTo(1);
+    }
+
+    @Test
+    void readCursorNeverMovesBackward() {
+        send(OTHER);
+        send(OTHER);
+        send(OTHER);
+        markRead(ME, 3);
+        send(OTHER); // 4
+
+        markRead(ME, 2); // 늦게 도착한 이전 위치의 읽음 처리
+
+        assertThat(lastRead(ME)).isEqualTo(3);
+        assertThat(unread(ME)).isEqualTo(1);
+    }
+
+    @Test
+    void readWaitingForUncommittedSendCountsItsMessage() throws Exception {
+        send(OTHER); // 1
+        send(OTHER); // 2
+        var sent = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        pauseBeforeCommit(sent, release);
+
+        // 3 을 보내는 트랜잭션이 커밋 전에 멈춘 사이, 2 까지 읽음 처리
+        var sender = CompletableFuture.runAsync(() -> send(OTHER));
+        assertThat(sent.await(10, TimeUnit.SECONDS)).isTrue();
+        var reader = CompletableFuture.runAsync(() -> markRead(ME, 2));
+        awaitBlockedSession();
+        release.countDown();
+        sender.get(10, TimeUnit.SECONDS);
+        reader.get(10, TimeUnit.SECONDS);
+
+        assertThat(lastRead(ME)).isEqualTo(2);
+        assertThat(unread(ME)).isEqualTo(1); // 3 의 +1 을 이전 스냅샷의 0 으로 덮어쓰지 않는다
+    }
+
+    @Test
+    void concurrentSendsFromBothParticipantsQueueWithoutDeadlock() throws Exception {
+        var sent = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        pauseBeforeCommit(sent, release);
+
+        var first = CompletableFuture.runAsync(() -> send(OTHER)); // 1, 커밋 전에 멈춤
+        assertThat(sent.await(10, TimeUnit.SECONDS)).isTrue();
+        var second = CompletableFuture.runAsync(() -> send(ME)); // 읽음 상태 행 잠금에서 기다린다
+        awaitBlockedSession();
+        release.countDown();
+        first.get(10, TimeUnit.SECONDS);
+        second.get(10, TimeUnit.SECONDS);
+
+        assertThat(unread(OTHER)).isEqualTo(1); // ME 의 메시지 2
+        assertThat(lastRead(ME)).isEqualTo(2);
+        assertThat(unread(ME)).isZero(); // 1 은 ME 가 보낸 2 보다 앞: 보내면서 읽음
+    }
+
+    @Test
+    void sendLocksReadStatesBeforeSavingAndCountsAfterLockingOwnCursor() {
+        var threadRepo = mock(ChatThreadRepository.class);
+        var messageRepo = mock(ChatMessageRepository.class);
+        var readStateRepo = mock(ChatReadStateRepository.class);
+        var thread = new ChatThread();
+        ReflectionTestUtils.setField(thread, "id", THREAD);
+        thread.setMatchId(10L);
+        when(threadRepo.findById(THREAD)).thenReturn(Optional.of(thread));
+        when(messageRepo.save(any())).thenAnswer(inv -> {
+            ChatMessage m = inv.getArgument(0);
+            ReflectionTestUtils.setField(m, "id", 5L);
+            return m;
+        });
+        when(readStateRepo.lockReadCursor(THREAD, ME)).thenReturn(Optional.of(4L));
+        when(messageRepo.countUnreadAfter(THREAD, ME, 5L)).thenReturn(0L);
+        var mocked = new ChatService(threadRepo, messageRepo, mock(MatchRepository.class), mock(ActorGuard.class),
+                readStateRepo, mock(AuthorCardCache.class), mock(ChatRecentMessages.class),
+                mock(ApplicationEventPublisher.class));
+
+        mocked.sendMessage(THREAD, ME, "hi");
+
+        var order = inOrder(readStateRepo, messageRepo);
+        order.verify(readStateRepo).incrementUnread(eq(THREAD), eq(ME), any());
+        order.verify(messageRepo).save(any());
+        order.verify(readStateRepo).lockReadCursor(THREAD, ME);
+        order.verify(messageRepo).countUnreadAfter(THREAD, ME, 5L);
+        order.verify(readStateRepo).advanceRead(eq(THREAD), eq(ME), eq(5L), eq(0L), any());
+    }
+
+    private long send(long sender) {
+        return tx.execute(s -> service.sendMessage(THREAD, sender, "m").getId());
+    }
+
+    private void markRead(long accountId, long upTo) {
+        tx.executeWithoutResult(s -> service.markRead(THREAD, accountId, upTo));
+    }
+
+    /** 다음 전송 하나만 이벤트 발행(트랜잭션 커밋 직전)에서 release 까지 멈춘다 */
+    private void pauseBeforeCommit(CountDownLatch sent, CountDownLatch release) {
+        var paused = new AtomicBoolean();
+        doAnswer(inv -> {
+            if (!paused.compareAndSet(false, true)) return null;
+            sent.countDown();
+            assertThat(release.await(10, TimeUnit.SECONDS)).isTrue();
+            return null;
+        }).when(events).publishEvent(any(Object.class));
+    }
+
+    /** 다른 세션이 행 잠금을 기다리기 시작할 때까지 */
+    private void awaitBlockedSession() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (jdbc.queryForObject("select count(*) from information_schema.sessions where blocker_id is not null",
+                Integer.class) == 0) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    /** @Query 가 붙은 리포지토리 메서드는 그 SQL 을 그대로 실행 (@Param 이름으로 바인딩) */
+    private Answer<Object> runsQuerySql() {
+        return inv -> {
+            var method = inv.getMethod();
+            var query = method.getAnnotation(Query.class);
+            if (query == null) return RETURNS_DEFAULTS.answer(inv);
+            var params = new MapSqlParameterSource();
+            var annotations = method.getParameterAnnotations();
+            for (int i = 0; i < annotations.length; i++) {
+                for (var a : annotations[i]) {
+                    if (a instanceof Param p) params.addValue(p.value(), inv.getArgument(i));
+                }
+            }
+            if (method.isAnnotationPresent(Modifying.class)) return named.update(query.value(), params);
+            if (method.getReturnType() == Optional.class) {
+                return named.queryForList(query.value(), params, Long.class).stream().findFirst();
+            }
+            return named.queryForObject(query.value(), params, Long.class);
+        };
+    }
+
+    private int unread(long accountId) {
+        return jdbc.queryForObject("select unread_count from chat_read_state where thread_id = ? and account_id = ?",
+                Integer.class, THREAD, accountId);
+    }
+
+    private long lastRead(long accountId) {
+        return jdbc.queryForObject("select last_read_message_id from chat_read_state where thread_id = ? and account_id = ?",
+                Long.class, THREAD, accountId);
+    }
+}
@@ -0,0 +1,108 @@
+package com.healthcare.service;
+
+import com.healthcare.domain.ChatMessage;
+import com.healthcare.repository.ChatMessageRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ChatRecentMessagesTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 3, 1, 9, 0);
+
+    private ChatMessageRepository messageRepo;
+    private ChatRecentMessages recent;
+
+    @BeforeEach
+    void setUp() {
+        messageRepo = mock(ChatMessageRepository.class);
+        recent = new ChatRecentMessages(messageRepo, new SimpleMeterRegistry(), 3, 1_000_000, 30);
+    }
+
+    @Test
+    void smallThreadIsServedFromMemoryAfterFirstLoad() {
+        when(messageRepo.findByThreadIdOrderByCreatedAtDescIdDesc(eq(1L), any()))
+                .thenReturn(newestFirst(1, 2)); // 2건 < 창 크기 3 → 전체
+
+        var first = recent.page(1L, 0, 10).orElseThrow();
+        var delta = recent.after(1L, 1L, 10).orElseThrow();
+
+        assertThat(first.getTotalElements()).isEqualTo(2);
+        assertThat(first.getContent()).extracting(ChatRecentMessages.Entry::id).containsExactly(1L, 2L);
+        assertThat(delta).extracting(ChatRecentMessages.Entry::id).containsExactly(2L);
+        verify(messageRepo, times(1)).findByThreadIdOrderByCreatedAtDescIdDesc(eq(1L), any());
+    }
+
+    @Test
+    void committedMessagesSlideTheWindowAndOlderReadsFallBack() {
+        when(messageRepo.findByThreadIdOrderByCreatedAtDescIdDesc(eq(1L), any()))
+                .thenReturn(newestFirst(1, 2, 3));
+        recent.page(1L, 0, 10); // 적재 (정확히 창 크기 → 전체)
+
+        recent.onMessageSent(new ChatEvents.MessageSent(1L, 4L, 100L, "m4", T0.plusMinutes(4)));
+
+        assertThat(recent.page(1L, 0, 10)).isEmpty();                // 1번이 밀려나서 전체가 아님
+        assertThat(recent.after(1L, 2L, 10).orElseThrow())
+                .extracting(ChatRecentMessages.Entry::id).containsExactly(3L, 4L);
+        assertThat(recent.after(1L, 1L, 10)).isEmpty();               // 창 밖 기준점 → DB
+        assertThat(recent.before(1L, 4L, 2).orElseThrow())
+                .extracting(ChatRecentMessages.Entry::id).containsExactly(2L, 3L);
+    }
+
+    @Test
+    void hideEventUpdatesBufferedMessage() {
+        when(messageRepo.findByThreadIdOrderByCreatedAtDescIdDesc(eq(1L), any()))
+                .thenReturn(newestFirst(1, 2));
+        recent.page(1L, 0, 10);
+
+        recent.onMessageHidden(new ChatEvents.MessageHidden(1L, 2L, 100L, "m2", true, T0.plusMinutes(2)));
+
+        var page = recent.page(1L, 0, 10).orElseThrow();
+        assertThat(page.getContent().get(1).hidden()).isTrue();
+    }
+
+    @Test
+    void loadThatRacedCommittedSendIsNotCached() {
+        // 적재 스냅샷은 3번 커밋 전에 열렸다: 3번의 커밋 이벤트는 적재가 끝나기 전에 도착 (창이 아직 없음)
+        when(messageRepo.findByThreadIdOrderByCreatedAtDescIdDesc(eq(1L), any()))
+                .thenAnswer(inv -> {
+                    recent.onMessageSent(new ChatEvents.MessageSent(1L, 3L, 100L, "m3", T0.plusMinutes(3)));
+                    return newestFirst(1, 2);
+                })
+                .thenReturn(newestFirst(1, 2, 3));
+
+        var first = recent.page(1L, 0, 10).orElseThrow();
+        assertThat(first.getContent()).extracting(ChatRecentMessages.Entry::id).containsExactly(1L, 2L);
+
+        // 놓친 창을 계속 쓰지 않고 다시 적재한다
+        var second = recent.page(1L, 0, 10).orElseThrow();
+        assertThat(second.getContent()).extracting(ChatRecentMessages.Entry::id).containsExactly(1L, 2L, 3L);
+        assertThat(recent.after(1L, 2L, 10).orElseThrow())
+                .extracting(ChatRecentMessages.Entry::id).containsExactly(3L);
+        verify(messageRepo, times(2)).findByThreadIdOrderByCreatedAtDescIdDesc(eq(1L), any());
+    }
+
+    private static List<ChatMessage> newestFirst(long... ids) {
+        var list = new ArrayList<ChatMessage>();
+        for (int i = ids.length - 1; i >= 0; i--) {
+            var m = new ChatMessage();
+            ReflectionTestUtils.setField(m, "id", ids[i]);
+            ReflectionTestUtils.setField(m, "createdAt", T0.plusMinutes(ids[i]));
+            m.setThreadId(1L);
+            m.setSenderAcc(100L);
+            m.setContent("m" + ids[i]);
+            list.add(m);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,162 @@
+package com.healthcare.service;
+
+import com.healthcare.domain.Account;
+import com.healthcare.domain.Hashtag;
+import com.healthcare.domain.Post;
+import com.healthcare.domain.PostHashtag;
+import com.healthcare.repository.*;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CommunityFeedAssemblerTest {
+
+    private PostMediaRepository mediaRepo;
+    private PostHashtagRepository postTagRepo;
+    private HashtagRepository tagRepo;
+    private PostLikeRepository likeRepo;
+    private PostViewRepository viewRepo;
+    private AccountRepository accountRepo;
+    private UserProfileRepository userProfileRepo;
+    private TrainerProfileRepository trainerProfileRepo;
+    private CommunityFeedAssembler assembler;
+
+    @BeforeEach
+    void setUp() {
+        mediaRepo = mock(PostMediaRepository.class);
+        postTagRepo = mock(PostHashtagRepository.class);
+        tagRepo = mock(HashtagRepository.class);
+        likeRepo = mock(PostLikeRepository.class);
+        viewRepo = mock(PostViewRepository.class);
+        accountRepo = mock(AccountRepository.class);
+        userProfileRepo = mock(UserProfileRepository.class);
+        trainerProfileRepo = mock(TrainerProfileRepository.class);
+        assembler = newAssembler();
+
+        when(accountRepo.findAllById(any())).thenReturn(List.of(
+                account(1L, Account.Role.USER),
+                account(2L, Account.Role.TRAINER)
+        ));
+    }
+
+    @Test
+    void queryCountDoesNotGrowWithPageSize() {
+        int small = queriesFor(1);
+        int medium = queriesFor(20);
+        int large = queriesFor(100);
+
+        assertThat(small).isEqualTo(7);
+        assertThat(medium).isEqualTo(small);
+        assertThat(large).isEqualTo(small);
+    }
+
+    @Test
+    void keepsInputOrderAndFillsCounts() {
+        when(likeRepo.countByPostIds(any())).thenReturn(List.<Object[]>of(new Object[]{11L, 3L}));
+        when(viewRepo.sumByPostIds(any())).thenReturn(List.<Object[]>of(new Object[]{12L, 7L}));
+
+        var views = assembler.assemble(List.of(post(12L, 2L), post(11L, 1L)));
+
+        assertThat(views).extracting(v -> v.id).containsExactly(12L, 11L);
+        assertThat(views.get(0).viewCount).isEqualTo(7L);
+        assertThat(views.get(0).likeCount).isZero();
+        assertThat(views.get(1).likeCount).isEqualTo(3L);
+        assertThat(views.get(1).authorRole).isEqualTo("USER");
+    }
+
+    @Test
+    void resolvesTagNamesOnceThroughDictionary() {
+        when(postTagRepo.findByPostIdInOrderByPostIdAscHashtagIdAsc(any())).thenReturn(List.of(
+                postTag(11L, 5L), postTag(12L, 5L), postTag(12L, 6L)));
+        when(tagRepo.findAllById(any())).thenReturn(List.of(hashtag(5L, "LegDay"), hashtag(6L, "diet")));
+
+        var first = assembler.assemble(List.of(post(11L, 1L), post(12L, 2L)));
+        var second = assembler.assemble(List.of(post(11L, 1L), post(12L, 2L)));
+
+        assertThat(first.get(0).hashtags).containsExactly("LegDay");
+        assertThat(first.get(1).hashtags).containsExactly("LegDay", "diet");
+        assertThat(second.get(1).hashtags).containsExactly("LegDay", "diet");
+        // 두 번째 조립은 사전 캐시 hit
+        Mockito.verify(tagRepo, Mockito.times(1)).findAllById(any());
+    }
+
+    @Test
+    void authorCardsComeFromSharedCacheOnLaterPages() {
+        assembler.assemble(List.of(post(11L, 1L), post(12L, 2L)));
+        Mockito.clearInvocations(accountRepo, userProfileRepo, trainerProfileRepo);
+
+        var views = assembler.assemble(List.of(post(13L, 2L), post(14L, 1L)));
+
+        assertThat(views.get(0).authorUsername).isEqualTo("user2");
+        assertThat(views.get(1).authorDisplayName).isEqualTo("name1");
+        Mockito.verifyNoInteractions(accountRepo, userProfileRepo, trainerProfileRepo);
+    }
+
+    private CommunityFeedAssembler newAssembler() {
+        var authorCards = new AuthorCardCache(accountRepo, userProfileRepo, trainerProfileRepo,
+                new SimpleMeterRegistry(), 1000, 600);
+        return new CommunityFeedAssembler(mediaRepo, postTagRepo, new HashtagDictionary(tagRepo, 100),
+                likeRepo, viewRepo, authorCards);
+    }
+
+    private int queriesFor(int pageSize) {
+        assembler = newAssembler(); // 작성자 캐시가 빈 상태(cold)에서 측정
+        Mockito.clearInvocations(mediaRepo, postTagRepo, likeRepo, viewRepo,
+                accountRepo, userProfileRepo, trainerProfileRepo);
+
+        var posts = new ArrayList<Post>();
+        for (int i = 0; i < pageSize; i++) {
+            posts.add(post(100L + i, i % 2 == 0 ? 1L : 2L));
+        }
+        assembler.assemble(posts);
+
+        return Stream.of(mediaRepo, postTagRepo, likeRepo, viewRepo,
+                        accountRepo, userProfileRepo, trainerProfileRepo)
+                .mapToInt(m -> Mockito.mockingDetails(m).getInvocations().size())
+                .sum();
+    }
+
+    private static Post post(Long id, Long authorAcc) {
+        var p = new Post();
+        ReflectionTestUtils.setField(p, "id", id);
+        p.setAuthorAcc(authorAcc);
+        p.setTitle("title " + id);
+        p.setContent("content " + id);
+        return p;
+    }
+
+    private static PostHashtag postTag(Long postId, Long hashtagId) {
+        var ph = new PostHashtag();
+        ph.setPostId(postId);
+        ph.setHashtagId(hashtagId);
+        return ph;
+    }
+
+    private static Hashtag hashtag(Long id, String tag) {
+        var h = new Hashtag();
+        ReflectionTestUtils.setField(h, "id", id);
+        h.setTag(tag);
+        h.setTagNorm(HashtagDictionary.normalize(tag));
+        return h;
+    }
+
+    private static Account account(Long id, Account.Role role) {
+        var a = new Account();
+        ReflectionTestUtils.setField(a, "id", id);
+        a.setUsername("user" + id);
+        a.setDisplayName("name" + id);
+        a.setRole(role);
+        return a;
+    }
+}
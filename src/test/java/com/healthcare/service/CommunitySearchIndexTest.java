@@ -0,0 +1,182 @@
+package com.healthcare.service;
+
+import com.healthcare.domain.Comment;
+import com.healthcare.domain.Post;
+import com.healthcare.repository.CommentRepository;
+import com.healthcare.repository.PostRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 전문 검색 색인: 색인/검색, 숨김·해제(글과 댓글 함께), 실패한 증분 갱신의 재시도,
+ * 재시작 시 syncedAt 이후 변경분 보정 (임시 디렉터리 + 맵으로 흉내 낸 리포지토리).
+ */
+class CommunitySearchIndexTest {
+
+    @TempDir
+    Path dir;
+
+    private final TreeMap<Long, Post> posts = new TreeMap<>();
+    private final TreeMap<Long, Comment> comments = new TreeMap<>();
+    private final AtomicBoolean dbDown = new AtomicBoolean();
+    private PostRepository postRepo;
+    private CommentRepository commentRepo;
+    private CommunitySearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        postRepo = mock(PostRepository.class);
+        commentRepo = mock(CommentRepository.class);
+        when(postRepo.findById(anyLong())).thenAnswer(inv -> {
+            if (dbDown.get()) throw new IllegalStateException("db down");
+            return Optional.ofNullable(posts.get((Long) inv.getArgument(0)));
+        });
+        when(postRepo.findByIdGreaterThanAndHiddenFalseOrderByIdAsc(anyLong(), any())).thenAnswer(inv ->
+                posts.tailMap(inv.getArgument(0), false).values().stream().filter(p -> !p.isHidden())
+                        .limit(((Pageable) inv.getArgument(1)).getPageSize()).toList());
+        when(postRepo.findHiddenIds()).thenAnswer(inv ->
+                posts.values().stream().filter(Post::isHidden).map(Post::getId).toList());
+        when(postRepo.findByUpdatedAtGreaterThanEqualAndIdGreaterThanOrderByIdAsc(any(), anyLong(), any())).thenAnswer(inv ->
+                posts.tailMap(inv.getArgument(1), false).values().stream()
+                        .filter(p -> !p.getUpdatedAt().isBefore(inv.getArgument(0)))
+                        .limit(((Pageable) inv.getArgument(2)).getPageSize()).toList());
+        when(commentRepo.findById(anyLong())).thenAnswer(inv -> Optional.ofNullable(comments.get((Long) inv.getArgument(0))));
+        when(commentRepo.findByPostIdAndHiddenFalse(anyLong())).thenAnswer(inv -> comments.values().stream()
+                .filter(c -> c.getPostId().equals(inv.getArgument(0)) && !c.isHidden()).toList());
+        when(commentRepo.findByIdGreaterThanAndHiddenFalseOrderByIdAsc(anyLong(), any())).thenAnswer(inv ->
+                comments.tailMap(inv.getArgument(0), false).values().stream().filter(c -> !c.isHidden())
+                        .limit(((Pageable) inv.getArgument(1)).getPageSize()).toList());
+        when(commentRepo.findByUpdatedAtGreaterThanEqualAndIdGreaterThanOrderByIdAsc(any(), anyLong(), any())).thenAnswer(inv ->
+                comments.tailMap(inv.getArgument(1), false).values().stream()
+                        .filter(c -> !c.getUpdatedAt().isBefore(inv.getArgument(0)))
+                        .limit(((Pageable) inv.getArgument(2)).getPageSize()).toList());
+
+        post(1L, "스쿼트 자세 교정", "무릎이 발끝을 넘지 않게 앉습니다");
+        post(2L, "다이어트 식단", "닭가슴살과 현미밥");
+        comment(10L, 1L, "스쿼트 할 때 허리가 아파요");
+        index = open();
+    }
+
+    @AfterEach
+    void tearDown() {
+        index.close();
+    }
+
+    @Test
+    void indexesVisiblePostsAndCommentsAndSearchesByType() {
+        var all = index.search("스쿼트", "all", 0, 10);
+        assertThat(all.totalHits).isEqualTo(2);
+        assertThat(all.hits).extracting(h -> h.type).containsExactlyInAnyOrder("post", "comment");
+        assertThat(all.hits).filteredOn(h -> h.type.equals("post")).first()
+                .satisfies(h -> assertThat(h.title).contains("<em>"));
+
+        var onlyComments = index.search("스쿼트", "comment", 0, 10);
+        assertThat(onlyComments.hits).singleElement().satisfies(h -> {
+            assertThat(h.postId).isEqualTo(1L);
+            assertThat(h.commentId).isEqualTo(10L);
+        });
+
+        post(3L, "하체 루틴", "스쿼트와 런지");
+        index.onPostSaved(new CommunityEvents.PostSaved(3L, false, Set.of(), Set.of()));
+        assertThat(index.search("스쿼트", "post", 0, 10).totalHits).isEqualTo(2);
+    }
+
+    @Test
+    void hidingPostRemovesItsCommentsAndUnhidingRestoresThem() {
+        posts.get(1L).setHidden(true);
+        index.onPostHidden(new CommunityEvents.PostHidden(1L, true));
+        assertThat(index.search("스쿼트", "all", 0, 10).totalHits).isZero();
+
+        posts.get(1L).setHidden(false);
+        index.onPostHidden(new CommunityEvents.PostHidden(1L, false));
+        assertThat(index.search("스쿼트", "all", 0, 10).totalHits).isEqualTo(2);
+
+        comments.get(10L).setHidden(true);
+        index.onCommentHidden(new CommunityEvents.CommentHidden(10L, 1L, true));
+        assertThat(index.search("스쿼트", "comment", 0, 10).totalHits).isZero();
+    }
+
+    @Test
+    void failedUpdateIsRetriedOnNextCommit() {
+        LocalDateTime before = LocalDateTime.now();
+        post(3L, "벤치프레스 팁", "견갑을 고정합니다");
+
+        dbDown.set(true);
+        index.onPostSaved(new CommunityEvents.PostSaved(3L, false, Set.of(), Set.of()));
+        assertThat(index.dirtyCount()).isEqualTo(1);
+        index.commit(); // 아직 실패: syncedAt 은 최초 실패 시각을 넘지 않는다
+        assertThat(index.dirtyCount()).isEqualTo(1);
+        assertThat(index.syncedAt()).isBetween(before, LocalDateTime.now());
+        assertThat(index.search("벤치프레스", "all", 0, 10).totalHits).isZero();
+
+        dbDown.set(false);
+        index.commit();
+
+        assertThat(index.dirtyCount()).isZero();
+        assertThat(index.search("벤치프레스", "all", 0, 10).totalHits).isEqualTo(1);
+    }
+
+    @Test
+    void restartReindexesChangesSinceLastSyncInsteadOfRebuilding() {
+        index.close();
+        clearInvocations(postRepo);
+
+        // 색인에 반영되기 전에 종료된 변경: 새 글, 숨김 처리된 글, 새 댓글
+        post(3L, "케틀벨 스윙", "엉덩이로 밀어냅니다");
+        posts.get(2L).setHidden(true);
+        touch(posts.get(2L));
+        comment(11L, 1L, "케틀벨 무게 추천해 주세요");
+
+        index = open();
+
+        assertThat(index.search("케틀벨", "all", 0, 10).totalHits).isEqualTo(2);
+        assertThat(index.search("다이어트", "all", 0, 10).totalHits).isZero();
+        assertThat(index.search("스쿼트", "all", 0, 10).totalHits).isEqualTo(2);
+        // 전체 재구성 없이 변경분만
+        verify(postRepo, never()).findByIdGreaterThanAndHiddenFalseOrderByIdAsc(anyLong(), any());
+    }
+
+    private CommunitySearchIndex open() {
+        var i = new CommunitySearchIndex(postRepo, commentRepo, dir.toString(), 2);
+        i.open();
+        i.reconcileOnStartup();
+        return i;
+    }
+
+    private void post(Long id, String title, String content) {
+        var p = new Post();
+        ReflectionTestUtils.setField(p, "id", id);
+        p.setAuthorAcc(1L);
+        p.setTitle(title);
+        p.setContent(content);
+        posts.put(id, p);
+    }
+
+    private void comment(Long id, Long postId, String content) {
+        var c = new Comment();
+        ReflectionTestUtils.setField(c, "id", id);
+        c.setPostId(postId);
+        c.setAuthorAcc(1L);
+        c.setContent(content);
+        comments.put(id, c);
+    }
+
+    private static void touch(Post p) {
+        ReflectionTestUtils.setField(p, "updatedAt", LocalDateTime.now());
+    }
+}
@@ -0,0 +1,218 @@
+package com.healthcare.service;
+
+import com.healthcare.domain.Comment;
+import com.healthcare.domain.Post;
+import com.healthcare.repository.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 커서 목록: size+1 개를 요청해 hasNext 를 판단하고, 다음 커서가 마지막으로 보여 준 행의 키로
+ * 다음 쿼리에 그대로 전달되는지 확인.
+ * 해시태그 최신순은 비트맵 인덱스 경로와 DB 경로가 같은 순서(id 내림차순)로 이어지는지 확인.
+ */
+class CommunityServiceCursorTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 3, 1, 12, 0);
+
+    private PostRepository postRepo;
+    private CommentRepository commentRepo;
+    private HashtagDictionary dictionary;
+    private HashtagPostIndex hashtagIndex;
+    private CommunityService service;
+
+    @BeforeEach
+    void setUp() {
+        postRepo = mock(PostRepository.class);
+        commentRepo = mock(CommentRepository.class);
+        dictionary = mock(HashtagDictionary.class);
+        hashtagIndex = new HashtagPostIndex(mock(JdbcTemplate.class), 1000);
+        service = new CommunityService(postRepo, mock(PostMediaRepository.class), mock(PostContentJdbcRepository.class),
+                dictionary, hashtagIndex, mock(PostHashtagRepository.class),
+                mock(PostLikeRepository.class), mock(PostViewRepository.class), commentRepo,
+                mock(ReportRepository.class), mock(EngagementBuffer.class), mock(DailyViewFilter.class),
+                mock(HotScoreCalculator.class), mock(ApplicationEventPublisher.class));
+    }
+
+    @Test
+    void hotFeedFetchesOneExtraRowAndCursorCarriesSortKey() {
+        when(postRepo.findHotAfter(anyLong(), any(), anyLong(), any())).thenReturn(List.of(
+                post(30L, 900, T0), post(20L, 800, T0.minusHours(1)), post(10L, 700, T0.minusHours(2))));
+
+        var page = service.cursorPosts(null, 2, null, null, null, "hot");
+
+        assertThat(page.content()).extracting(Post::getId).containsExactly(30L, 20L);
+        assertThat(page.hasNext()).isTrue();
+        verify(postRepo).findHotAfter(eq(Long.MAX_VALUE), eq(FeedCursor.DESC_START.createdAt()), eq(Long.MAX_VALUE),
+                argThat((Pageable p) -> p.getPageSize() == 3 && p.getPageNumber() == 0));
+
+        // 다음 페이지: 마지막으로 보여 준 글의 (hotScore, createdAt, id) 부터
+        when(postRepo.findHotAfter(eq(800L), eq(T0.minusHours(1)), eq(20L), any()))
+                .thenReturn(List.of(post(10L, 700, T0.minusHours(2))));
+        var next = service.cursorPosts(page.nextCursor(), 2, null, null, null, "hot");
+
+        assertThat(next.content()).extracting(Post::getId).containsExactly(10L);
+        assertThat(next.hasNext()).isFalse();
+        assertThat(next.nextCursor()).isNull();
+    }
+
+    @Test
+    void cursorFromAnotherSortIsRejected() {
+        when(postRepo.findHotAfter(anyLong(), any(), anyLong(), any())).thenReturn(List.of(
+                post(30L, 900, T0), post(20L, 800, T0.minusHours(1)), post(10L, 700, T0.minusHours(2))));
+        var hot = service.cursorPosts(null, 2, null, null, null, "hot");
+
+        // hotScore 를 좋아요 수로 해석하면 엉뚱한 위치부터 이어진다
+        assertThatThrownBy(() -> service.cursorPosts(hot.nextCursor(), 2, null, null, null, "likes"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("cursor sort mismatch");
+        assertThatThrownBy(() -> service.cursorComments(7L, hot.nextCursor(), 2))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(postRepo, never()).findPopularByLikesAfter(anyLong(), any(), anyLong(), any());
+    }
+
+    @Test
+    void commentsPageAscendingWithSizePlusOne() {
+        when(commentRepo.findVisibleAfter(eq(7L), any(), anyLong(), any())).thenReturn(List.of(
+                comment(1L, T0), comment(2L, T0), comment(3L, T0.plusMinutes(1))));
+
+        var page = service.cursorComments(7L, null, 2);
+
+        assertThat(page.content()).extracting(Comment::getId).containsExactly(1L, 2L);
+        assertThat(page.hasNext()).isTrue();
+        var cursor = FeedCursor.decode(page.nextCursor(), FeedCursor.COMMENTS, null);
+        assertThat(cursor.createdAt()).isEqualTo(T0);
+        assertThat(cursor.id()).isEqualTo(2L);
+        verify(commentRepo).findVisibleAfter(eq(7L), eq(FeedCursor.ASC_START.createdAt()), eq(0L),
+                argThat((Pageable p) -> p.getPageSize() == 3));
+    }
+
+    @Test
+    void cursorSizeIsClamped() {
+        when(postRepo.findLatestAfter(any(), anyLong(), any())).thenReturn(List.of());
+
+        service.cursorPosts(null, 10_000, null, null, null, null);
+
+        verify(postRepo).findLatestAfter(any(), anyLong(), argThat((Pageable p) -> p.getPageSize() == 101));
+    }
+
+    @Test
+    void hashtagLatestPagesFromIndexByIdDescending() {
+        givenIndexedDietPosts(5);
+
+        var first = service.cursorPosts(null, 2, "diet", null, null, null);
+        assertThat(first.content()).extracting(Post::getId).containsExactly(5L, 4L);
+        assertThat(first.hasNext()).isTrue();
+
+        var second = service.cursorPosts(first.nextCursor(), 2, "diet", null, null, null);
+        assertThat(second.content()).extracting(Post::getId).containsExactly(3L, 2L);
+
+        var last = service.cursorPosts(second.nextCursor(), 2, "diet", null, null, null);
+        assertThat(last.content()).extracting(Post::getId).containsExactly(1L);
+        assertThat(last.hasNext()).isFalse();
+
+        var offsetPage = service.pagePosts(1, 2, "#Diet", null, null, null);
+        assertThat(offsetPage.getContent()).extracting(Post::getId).containsExactly(3L, 2L);
+        assertThat(offsetPage.getTotalElements()).isEqualTo(5);
+
+        verify(postRepo, never()).findByHashtagAfter(any(), anyLong(), anyLong(), any());
+        verify(postRepo, never()).findByHashtag(any(), anyLong(), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void hashtagLatestSkipsPostsHiddenOrDeletedAfterIndexing() {
+        givenIndexedDietPosts(5);
+        // 인덱스에는 아직 남아 있지만 4 는 방금 숨김, 3 은 삭제됨
+        when(postRepo.findAllById(any())).thenAnswer(inv -> ((Collection<Long>) inv.getArgument(0)).stream()
+                .filter(id -> id != 3L)
+                .map(id -> {
+                    var p = post(id, 0, T0.plusMinutes(id));
+                    p.setHidden(id == 4L);
+                    return p;
+                })
+                .toList());
+
+        var first = service.cursorPosts(null, 2, "diet", null, null, null);
+        assertThat(first.content()).extracting(Post::getId).containsExactly(5L, 2L);
+        assertThat(first.hasNext()).isTrue();
+
+        var last = service.cursorPosts(first.nextCursor(), 2, "diet", null, null, null);
+        assertThat(last.content()).extracting(Post::getId).containsExactly(1L);
+        assertThat(last.hasNext()).isFalse();
+    }
+
+    @Test
+    void hashtagLatestContinuesOnDbPathWithSameIdKeyset() {
+        givenIndexedDietPosts(5);
+        var first = service.cursorPosts(null, 2, "diet", null, null, null);
+
+        // 인덱스를 쓸 수 없는 인스턴스가 다음 페이지를 받아도 id 기준으로 이어진다
+        var dbOnly = new CommunityService(postRepo, mock(PostMediaRepository.class), mock(PostContentJdbcRepository.class),
+                dictionary, new HashtagPostIndex(mock(JdbcTemplate.class), 1000), mock(PostHashtagRepository.class),
+                mock(PostLikeRepository.class), mock(PostViewRepository.class), commentRepo,
+                mock(ReportRepository.class), mock(EngagementBuffer.class), mock(DailyViewFilter.class),
+                mock(HotScoreCalculator.class), mock(ApplicationEventPublisher.class));
+        when(postRepo.findByHashtagAfter(eq(List.of(1L)), eq(1L), eq(4L), any()))
+                .thenReturn(List.of(post(3L, 0, T0), post(2L, 0, T0), post(1L, 0, T0)));
+
+        var second = dbOnly.cursorPosts(first.nextCursor(), 2, "diet", null, null, null);
+
+        assertThat(second.content()).extracting(Post::getId).containsExactly(3L, 2L);
+        assertThat(second.hasNext()).isTrue();
+    }
+
+    @Test
+    void hiddenPostsAreSkippedOnIndexPath() {
+        givenIndexedDietPosts(5);
+        hashtagIndex.onPostHidden(new CommunityEvents.PostHidden(4L, true));
+
+        var page = service.cursorPosts(null, 3, "diet", null, null, null);
+
+        assertThat(page.content()).extracting(Post::getId).containsExactly(5L, 3L, 2L);
+    }
+
+    /** 태그 diet(id 1) 를 가진 글 1..n 을 인덱스에 올리고, findAllById 는 요청한 id 의 글을 돌려준다 */
+    @SuppressWarnings("unchecked")
+    private void givenIndexedDietPosts(int n) {
+        when(dictionary.findId(anyString())).thenAnswer(inv ->
+                "diet".equals(HashtagDictionary.normalize(inv.getArgument(0))) ? Optional.of(1L) : Optional.empty());
+        hashtagIndex.rebuild(); // 빈 DB(mock) 로 준비 상태만 만든다
+        for (long id = 1; id <= n; id++) {
+            hashtagIndex.onPostSaved(new CommunityEvents.PostSaved(id, false, Set.of(1L), Set.of()));
+        }
+        when(postRepo.findAllById(any())).thenAnswer(inv -> ((Collection<Long>) inv.getArgument(0)).stream()
+                .map(id -> post(id, 0, T0.plusMinutes(id)))
+                .toList());
+    }
+
+    static Post post(Long id, long hotScore, LocalDateTime createdAt) {
+        var p = new Post();
+        ReflectionTestUtils.setField(p, "id", id);
+        ReflectionTestUtils.setField(p, "createdAt", createdAt);
+        p.setHotScore(hotScore);
+        return p;
+    }
+
+    private static Comment comment(Long id, LocalDateTime createdAt) {
+        var c = new Comment();
+        ReflectionTestUtils.setField(c, "id", id);
+        ReflectionTestUtils.setField(c, "createdAt", createdAt);
+        return c;
+    }
+}
@@ -0,0 +1,48 @@
+package com.healthcare.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DailyViewFilterTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 1);
+
+    @Test
+    void repeatedViewIsSkippedSameDayAndPassesNextDay() {
+        var filter = new DailyViewFilter(1000, 0.01, new SimpleMeterRegistry());
+
+        assertThat(filter.markSeen(1L, 10L, DAY)).isTrue();
+        assertThat(filter.markSeen(1L, 10L, DAY)).isFalse();
+        assertThat(filter.markSeen(1L, 10L, DAY.plusDays(1))).isTrue();
+    }
+
+    @Test
+    void falsePositiveRateStaysNearBudget() {
+        int n = 100_000;
+        var filter = new DailyViewFilter(n, 0.01, new SimpleMeterRegistry());
+
+        int falsePositives = 0;
+        for (long i = 0; i < n; i++) {
+            // 모두 처음 보는 조합: false 는 오탐
+            if (!filter.markSeen(i / 100, i % 100 + 1000, DAY)) falsePositives++;
+        }
+        // 채워지는 동안의 누적 오탐률은 최종 fpp 보다 낮다
+        assertThat(falsePositives).isLessThan((int) (n * 0.01));
+        // 다시 넣으면 전부 건너뜀 (false negative 없음)
+        for (long i = 0; i < 1000; i++) {
+            assertThat(filter.markSeen(i / 100, i % 100 + 1000, DAY)).isFalse();
+        }
+    }
+
+    @Test
+    void bypassesFilterOnceDailyCapacityIsExceeded() {
+        var filter = new DailyViewFilter(10, 0.01, new SimpleMeterRegistry());
+        for (long i = 0; i < 50; i++) filter.markSeen(i, 1L, DAY);
+
+        assertThat(filter.markSeen(0L, 1L, DAY)).isTrue();
+    }
+}
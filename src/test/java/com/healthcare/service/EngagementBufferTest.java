@@ -0,0 +1,197 @@
+package com.healthcare.service;
+
+import com.healthcare.repository.EngagementJdbcRepository;
+import com.healthcare.repository.EngagementJdbcRepository.FlushResult;
+import com.healthcare.repository.EngagementJdbcRepository.LikeRow;
+import com.healthcare.repository.EngagementJdbcRepository.ViewRow;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * 좋아요 토글 합치기, flush 중(inflight) 상태 기준 토글, 실패 시 재적재(시도 횟수로 버리지 않음),
+ * 반복 실패 이벤트 격리, 보관 상한 초과 시에만 폐기 + 메트릭, 같은 날 조회 중복 제거.
+ */
+class EngagementBufferTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 1);
+
+    private final EngagementJdbcRepository repo = mock(EngagementJdbcRepository.class);
+    private final List<List<ViewRow>> flushedViews = new ArrayList<>();
+    private final List<List<LikeRow>> flushedLikes = new ArrayList<>();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final EngagementBuffer buffer = new EngagementBuffer(repo, registry, 5000, 50_000);
+
+    @SuppressWarnings("unchecked")
+    private void recordFlushes() {
+        // doAnswer: 이미 예외를 던지도록 스텁된 경우에도 다시 스텁할 수 있도록
+        doAnswer(inv -> {
+            flushedViews.add(new ArrayList<>((List<ViewRow>) inv.getArgument(0)));
+            flushedLikes.add(new ArrayList<>((List<LikeRow>) inv.getArgument(1)));
+            return new FlushResult(0, 0, 0);
+        }).when(repo).flush(anyList(), anyList());
+    }
+
+    @Test
+    void repeatedTogglesCoalesceIntoFinalState() {
+        recordFlushes();
+        var dbReads = new AtomicInteger();
+
+        assertThat(buffer.toggleLike(1L, 10L, () -> { dbReads.incrementAndGet(); return false; })).isTrue();
+        assertThat(buffer.toggleLike(1L, 10L, () -> { dbReads.incrementAndGet(); return false; })).isFalse();
+        assertThat(buffer.toggleLike(1L, 10L, () -> { dbReads.incrementAndGet(); return false; })).isTrue();
+        assertThat(buffer.depth()).isEqualTo(1);
+
+        buffer.scheduledFlush();
+
+        assertThat(dbReads.get()).isEqualTo(1); // 버퍼에 상태가 있으면 DB 를 다시 읽지 않는다
+        assertThat(flushedLikes).containsExactly(List.of(new LikeRow(1L, 10L, true)));
+        assertThat(buffer.depth()).isZero();
+    }
+
+    @Test
+    void toggleDuringFlushUsesInflightStateInsteadOfDb() {
+        var duringFlush = new ArrayList<Boolean>();
+        when(repo.flush(anyList(), anyList())).thenAnswer(inv -> {
+            // 아직 커밋 전: DB 는 이전 상태(false)를 보여 주지만 inflight(true) 를 기준으로 뒤집어야 한다
+            duringFlush.add(buffer.toggleLike(1L, 10L, () -> false));
+            return new FlushResult(0, 1, 0);
+        });
+
+        buffer.toggleLike(1L, 10L, () -> false);
+        buffer.scheduledFlush();
+
+        assertThat(duringFlush).containsExactly(false);
+        assertThat(buffer.depth()).isEqualTo(1); // unlike 는 다음 flush 로
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void failedFlushIsRequeuedAndRetried() {
+        when(repo.flush(anyList(), anyList()))
+                .thenThrow(new RuntimeException("db down"))
+                .thenAnswer(inv -> {
+                    flushedLikes.add(new ArrayList<>((List<LikeRow>) inv.getArgument(1)));
+                    return new FlushResult(1, 1, 0);
+                });
+
+        buffer.recordView(1L, 10L, DAY);
+        buffer.toggleLike(1L, 10L, () -> false);
+        buffer.scheduledFlush();
+        assertThat(buffer.depth()).isEqualTo(2);
+
+        buffer.scheduledFlush();
+        assertThat(buffer.depth()).isZero();
+        assertThat(flushedLikes).containsExactly(List.of(new LikeRow(1L, 10L, true)));
+    }
+
+    @Test
+    void requeuedLikeDoesNotOverrideNewerToggle() {
+        when(repo.flush(anyList(), anyList())).thenAnswer(inv -> {
+            buffer.toggleLike(1L, 10L, () -> false); // flush 도중 unlike
+            throw new RuntimeException("db down");
+        });
+
+        buffer.toggleLike(1L, 10L, () -> false);
+        buffer.scheduledFlush();
+
+        recordFlushes();
+        buffer.scheduledFlush();
+        assertThat(flushedLikes).containsExactly(List.of(new LikeRow(1L, 10L, false)));
+    }
+
+    @Test
+    void repeatedFailuresKeepEventsUntilDbRecovers() {
+        when(repo.flush(anyList(), anyList())).thenThrow(new RuntimeException("db down"));
+
+        buffer.recordView(1L, 10L, DAY);
+        buffer.toggleLike(1L, 10L, () -> false);
+        for (int i = 0; i < 10; i++) {
+            buffer.scheduledFlush();
+        }
+        assertThat(buffer.depth()).isEqualTo(2); // 이미 성공으로 응답한 이벤트: 버리지 않는다
+        assertThat(dropped("view") + dropped("like")).isZero();
+
+        recordFlushes();
+        buffer.scheduledFlush();
+        assertThat(buffer.depth()).isZero();
+        assertThat(flushedViews.stream().flatMap(List::stream)).containsExactly(new ViewRow(1L, 10L, DAY));
+        assertThat(flushedLikes.stream().flatMap(List::stream)).containsExactly(new LikeRow(1L, 10L, true));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void poisonEventIsIsolatedFromUnrelatedWrites() {
+        var poison = new ViewRow(1L, 10L, DAY);
+        doAnswer(inv -> {
+            List<ViewRow> views = inv.getArgument(0);
+            if (views.contains(poison)) throw new RuntimeException("bad row");
+            flushedViews.add(new ArrayList<>(views));
+            flushedLikes.add(new ArrayList<>((List<LikeRow>) inv.getArgument(1)));
+            return new FlushResult(0, 0, 0);
+        }).when(repo).flush(anyList(), anyList());
+
+        buffer.recordView(1L, 10L, DAY);
+        for (int i = 0; i < 3; i++) {
+            buffer.scheduledFlush();
+        }
+
+        // 세 번 실패한 뒤로는 배치에서 빠지므로 새 이벤트는 바로 반영된다
+        buffer.recordView(2L, 10L, DAY);
+        buffer.toggleLike(2L, 10L, () -> false);
+        buffer.scheduledFlush();
+
+        assertThat(flushedViews.stream().flatMap(List::stream)).containsExactly(new ViewRow(2L, 10L, DAY));
+        assertThat(flushedLikes.stream().flatMap(List::stream)).containsExactly(new LikeRow(2L, 10L, true));
+        assertThat(buffer.depth()).isEqualTo(1); // poison 은 남아서 하나씩 재시도
+    }
+
+    @Test
+    void retainedLimitDropsMostFailedEventsAndCountsThem() {
+        var small = new EngagementBuffer(repo, registry, 5000, 2);
+        when(repo.flush(anyList(), anyList())).thenThrow(new RuntimeException("db down"));
+
+        small.recordView(1L, 10L, DAY);
+        small.scheduledFlush(); // 1번 실패 1회
+        small.scheduledFlush(); // 1번 실패 2회
+        small.recordView(2L, 10L, DAY);
+        small.toggleLike(3L, 10L, () -> false);
+        small.scheduledFlush(); // 3개 > 상한 2: 실패가 가장 많은 1번 조회를 버린다
+
+        assertThat(small.depth()).isEqualTo(2);
+        assertThat(dropped("view")).isEqualTo(1);
+        assertThat(dropped("like")).isZero();
+
+        recordFlushes();
+        small.scheduledFlush();
+        assertThat(flushedViews.stream().flatMap(List::stream)).containsExactly(new ViewRow(2L, 10L, DAY));
+        assertThat(flushedLikes.stream().flatMap(List::stream)).containsExactly(new LikeRow(3L, 10L, true));
+    }
+
+    @Test
+    void sameDayViewsAreDeduplicated() {
+        recordFlushes();
+
+        buffer.recordView(1L, 10L, DAY);
+        buffer.recordView(1L, 10L, DAY);
+        buffer.recordView(1L, 10L, DAY.plusDays(1));
+        buffer.recordView(2L, 10L, DAY);
+        buffer.scheduledFlush();
+
+        assertThat(flushedViews).hasSize(1);
+        assertThat(flushedViews.get(0)).containsExactlyInAnyOrder(
+                new ViewRow(1L, 10L, DAY), new ViewRow(1L, 10L, DAY.plusDays(1)), new ViewRow(2L, 10L, DAY));
+    }
+
+    private double dropped(String type) {
+        return registry.get("community.engagement.dropped").tag("type", type).counter().count();
+    }
+}
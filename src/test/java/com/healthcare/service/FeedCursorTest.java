@@ -0,0 +1,108 @@
+package com.healthcare.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 커서 인코딩 왕복, 형식이 틀리거나 변조된 커서 거절(400), 다른 정렬의 커서 거절(400), size+1 조회 결과 자르기.
+ */
+class FeedCursorTest {
+
+    private static final LocalDateTime AT = LocalDateTime.of(2026, 3, 1, 12, 30, 15, 123_000_000);
+
+    @Test
+    void encodeDecodeRoundTrip() {
+        var cursor = new FeedCursor(42, AT, 1001);
+
+        String encoded = cursor.encode("likes");
+
+        assertThat(encoded).doesNotContain("|").doesNotContain("=");
+        assertThat(FeedCursor.decode(encoded, "likes", FeedCursor.DESC_START)).isEqualTo(cursor);
+        assertThat(FeedCursor.decode(FeedCursor.DESC_START.encode("hot"), "hot", null)).isEqualTo(FeedCursor.DESC_START);
+        assertThat(FeedCursor.decode(FeedCursor.ASC_START.encode(FeedCursor.COMMENTS), FeedCursor.COMMENTS, null))
+                .isEqualTo(FeedCursor.ASC_START);
+    }
+
+    @Test
+    void blankCursorMeansFirstPage() {
+        assertThat(FeedCursor.decode(null, "latest", FeedCursor.DESC_START)).isSameAs(FeedCursor.DESC_START);
+        assertThat(FeedCursor.decode("  ", FeedCursor.COMMENTS, FeedCursor.ASC_START)).isSameAs(FeedCursor.ASC_START);
+    }
+
+    @Test
+    void malformedCursorsAreRejected() {
+        for (String bad : List.of(
+                "not base64!",
+                raw("hot|1|2026-03-01T12:00"),            // 필드 부족
+                raw("1|2026-03-01T12:00|3"),              // 정렬 모드 없는 (이전 형식) 커서
+                raw("hot|1|2026-03-01T12:00|3|4"),        // 필드 초과
+                raw("hot|x|2026-03-01T12:00|3"),          // 숫자 아님
+                raw("hot|1|yesterday|3"),                 // 날짜 아님
+                raw("hot|1|2026-03-01T12:00|99999999999999999999"))) { // long 범위 초과
+            assertThatThrownBy(() -> FeedCursor.decode(bad, "hot", FeedCursor.DESC_START))
+                    .as(bad)
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("invalid cursor");
+        }
+    }
+
+    @Test
+    void cursorFromAnotherSortIsRejected() {
+        String likes = new FeedCursor(42, AT, 1001).encode("likes");
+
+        for (String sort : List.of("views", "hot", "latest", FeedCursor.COMMENTS)) {
+            assertThatThrownBy(() -> FeedCursor.decode(likes, sort, FeedCursor.DESC_START))
+                    .as(sort)
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("cursor sort mismatch");
+        }
+    }
+
+    @Test
+    void tamperedCursorIsRejected() {
+        String encoded = new FeedCursor(42, AT, 1001).encode("likes");
+        // 구분자 위치의 바이트를 바꾸면 구조가 깨진다
+        byte[] raw = Base64.getUrlDecoder().decode(encoded);
+        for (int i = 0; i < raw.length; i++) {
+            if (raw[i] == '|') raw[i] = ':';
+        }
+        String tampered = Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+        // 잘린 커서
+        String truncated = encoded.substring(0, encoded.length() / 2);
+
+        assertThatThrownBy(() -> FeedCursor.decode(tampered, "likes", FeedCursor.DESC_START))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> FeedCursor.decode(truncated, "likes", FeedCursor.DESC_START))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void sliceUsesExtraRowOnlyToDetectNextPage() {
+        var rows = List.of(5L, 4L, 3L);
+
+        var full = FeedCursor.slice(rows, 2, "latest", id -> new FeedCursor(0, AT, id));
+        assertThat(full.content()).containsExactly(5L, 4L);
+        assertThat(full.hasNext()).isTrue();
+        assertThat(FeedCursor.decode(full.nextCursor(), "latest", null).id()).isEqualTo(4L); // 마지막으로 보여 준 행
+
+        var last = FeedCursor.slice(rows, 3, "latest", id -> new FeedCursor(0, AT, id));
+        assertThat(last.content()).containsExactly(5L, 4L, 3L);
+        assertThat(last.hasNext()).isFalse();
+        assertThat(last.nextCursor()).isNull();
+
+        var empty = FeedCursor.slice(List.<Long>of(), 3, "latest", id -> new FeedCursor(0, AT, id));
+        assertThat(empty.content()).isEmpty();
+        assertThat(empty.hasNext()).isFalse();
+    }
+
+    private static String raw(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
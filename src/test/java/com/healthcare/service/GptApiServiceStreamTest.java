@@ -0,0 +1,134 @@
+package com.healthcare.service;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 로컬 HttpServer 스텁이 OpenAI 스트리밍 형식(SSE chunk)을 시간차를 두고 내보낼 때
+ * 토큰이 도착 순서대로, 전체 응답을 기다리지 않고 흘러나오는지 확인.
+ * 블로킹 호출에서 게이트 포화가 500 용 RuntimeException 으로 감싸지지 않고 AiBusyException 으로 나오는지도 확인.
+ */
+class GptApiServiceStreamTest {
+
+    private static final long CHUNK_DELAY_MS = 300;
+
+    private HttpServer server;
+    private final AtomicReference<String> lastRequestBody = new AtomicReference<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/v1/chat/completions", exchange -> {
+            lastRequestBody.set(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+            exchange.sendResponseHeaders(200, 0); // chunked
+            try (OutputStream out = exchange.getResponseBody()) {
+                send(out, "{\"choices\":[{\"delta\":{\"role\":\"assistant\"}}]}");
+                for (String token : List.of("스쿼트는 ", "주 3회", " 권장합니다.")) {
+                    send(out, "{\"choices\":[{\"delta\":{\"content\":\"" + token + "\"}}]}");
+                    sleep(CHUNK_DELAY_MS);
+                }
+                send(out, "{\"choices\":[{\"delta\":{},\"finish_reason\":\"stop\"}]}");
+                send(out, "[DONE]");
+            }
+        });
+        server.createContext("/v1/error", exchange -> {
+            byte[] body = "{\"error\":\"rate limited\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(429, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void relaysTokensAsTheyArriveAndStopsAtDone() {
+        var service = service("/v1/chat/completions");
+        var arrivals = Collections.synchronizedList(new ArrayList<Long>());
+        long start = System.nanoTime();
+
+        List<String> tokens = service.streamChat(List.of(), "스쿼트 몇 번?")
+                .doOnNext(t -> arrivals.add(System.nanoTime() - start))
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        assertThat(tokens).containsExactly("스쿼트는 ", "주 3회", " 권장합니다.");
+        assertThat(lastRequestBody.get()).contains("\"stream\":true");
+        // 첫 토큰은 마지막 토큰보다 chunk 간격 2번만큼 먼저 도착해야 한다 (버퍼링 없음)
+        long firstMs = arrivals.get(0) / 1_000_000;
+        long lastMs = arrivals.get(arrivals.size() - 1) / 1_000_000;
+        assertThat(lastMs - firstMs).isGreaterThanOrEqualTo(CHUNK_DELAY_MS * 2 - 50);
+    }
+
+    @Test
+    void surfacesUpstreamErrorStatus() {
+        var service = service("/v1/error");
+
+        assertThatThrownBy(() -> service.streamChat(List.of(), "hi").collectList().block(Duration.ofSeconds(10)))
+                .hasMessageContaining("429");
+    }
+
+    @Test
+    void blockingCallSurfacesSaturatedGateAsBusy() {
+        var gate = new OpenAiGate(new SimpleMeterRegistry(), 1, 0, 10_000, 10_000, 10_000_000);
+        var breaker = new OpenAiCircuitBreaker(new SimpleMeterRegistry(), 20, 5, 50, 30_000);
+        var service = service("/v1/chat/completions", gate, breaker);
+
+        try (var holder = gate.acquire(10)) { // 슬롯 1개 점유, 대기열 0 → 즉시 거절
+            assertThatThrownBy(() -> service.chatWithGpt(List.of(), "hi"))
+                    .isExactlyInstanceOf(AiBusyException.class);
+            assertThatThrownBy(() -> service.summarizeConversation(null, List.of(), 100))
+                    .isExactlyInstanceOf(AiBusyException.class);
+            assertThatThrownBy(() -> service.generatePlan(Map.of("goal", "체중 감량"), "2026-10-19"))
+                    .isExactlyInstanceOf(AiBusyException.class);
+        }
+
+        assertThat(lastRequestBody.get()).isNull();                          // OpenAI 로 나가지 않음
+        assertThat(breaker.state()).isEqualTo(OpenAiCircuitBreaker.State.CLOSED); // 실패로 세지 않음
+    }
+
+    private GptApiService service(String path) {
+        return service(path,
+                new OpenAiGate(new SimpleMeterRegistry(), 8, 32, 10_000, 10_000, 10_000_000),
+                new OpenAiCircuitBreaker(new SimpleMeterRegistry(), 20, 5, 50, 30_000));
+    }
+
+    private GptApiService service(String path, OpenAiGate gate, OpenAiCircuitBreaker breaker) {
+        String url = "http://127.0.0.1:" + server.getAddress().getPort() + path;
+        return new GptApiService("test-key", url, "test-model", new SimpleMeterRegistry(), gate, breaker);
+    }
+
+    private static void send(OutputStream out, String data) throws java.io.IOException {
+        out.write(("data: " + data + "\n\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.healthcare.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * V8 이후 기존 태그의 tag_norm 을 Java 정규화(NFKC 포함)로 채우고,
+ * 정규화 결과가 겹치는 태그는 게시글 연결을 옮겨 하나로 합치는지 확인 (H2, MySQL 모드).
+ */
+class HashtagNormBackfillTest {
+
+    private JdbcTemplate jdbc;
+    private HashtagNormBackfill backfill;
+
+    @BeforeEach
+    void setUp() {
+        var ds = new DriverManagerDataSource("jdbc:h2:mem:tagnorm" + System.nanoTime() + ";MODE=MySQL;DB_CLOSE_DELAY=-1",
+                "sa", "");
+        jdbc = new JdbcTemplate(ds);
+        jdbc.execute("create table hashtag (id bigint auto_increment primary key, tag varchar(100) not null unique, "
+                + "tag_norm varchar(100) null)");
+        jdbc.execute("create unique index uk_hashtag_tag_norm on hashtag(tag_norm)");
+        jdbc.execute("create table post_hashtag (post_id bigint not null, hashtag_id bigint not null, "
+                + "primary key (post_id, hashtag_id))");
+        backfill = new HashtagNormBackfill(jdbc, new DataSourceTransactionManager(ds));
+    }
+
+    @Test
+    void fillsNormWithJavaNormalizationIncludingNfkc() {
+        tag(1, "Leg Day ");
+        tag(2, "ＰＴ"); // 전각
+        tag(3, "##double");
+
+        backfill.backfill();
+
+        assertThat(norms()).containsExactly(
+                Map.entry(1L, "leg day"),
+                Map.entry(2L, "pt"),
+                Map.entry(3L, "#double")); // '#' 는 1개만 제거
+        for (var e : norms().entrySet()) {
+            assertThat(HashtagDictionary.normalize(tagOf(e.getKey()))).isEqualTo(e.getValue());
+        }
+    }
+
+    @Test
+    void mergesCollidingLegacyTagsIntoLowestId() {
+        tag(1, "diet");
+        tag(2, "#Diet");
+        tag(3, "ｄｉｅｔ");
+        tag(4, "squat");
+        link(100, 1);
+        link(100, 2); // 같은 글에 두 변형 → 합치면 연결 1개
+        link(101, 2);
+        link(102, 3);
+        link(102, 4);
+
+        backfill.backfill();
+
+        assertThat(norms()).containsExactly(Map.entry(1L, "diet"), Map.entry(4L, "squat"));
+        assertThat(jdbc.queryForList("select post_id from post_hashtag where hashtag_id = 1 order by post_id", Long.class))
+                .containsExactly(100L, 101L, 102L);
+        assertThat(jdbc.queryForObject("select count(*) from post_hashtag", Integer.class)).isEqualTo(4);
+    }
+
+    @Test
+    void fixesWrongNormThatBlocksAnotherTagAndIsIdempotent() {
+        tag(1, "Cardio");
+        tag(2, "  # cardio2");
+        // 예전 방식 백필로 잘못 들어간 값: 1번이 2번의 정규화 값을 점유
+        jdbc.update("update hashtag set tag_norm = 'cardio2' where id = 1");
+
+        assertThat(backfill.backfill()).isPositive();
+        assertThat(norms()).containsExactly(Map.entry(1L, "cardio"), Map.entry(2L, "cardio2"));
+
+        assertThat(backfill.backfill()).isZero();
+    }
+
+    private void tag(long id, String tag) {
+        jdbc.update("insert into hashtag (id, tag) values (?, ?)", id, tag);
+    }
+
+    private void link(long postId, long tagId) {
+        jdbc.update("insert into post_hashtag (post_id, hashtag_id) values (?, ?)", postId, tagId);
+    }
+
+    private String tagOf(long id) {
+        return jdbc.queryForObject("select tag from hashtag where id = ?", String.class, id);
+    }
+
+    private Map<Long, String> norms() {
+        var result = new LinkedHashMap<Long, String>();
+        List<Map<String, Object>> rows = jdbc.queryForList("select id, tag_norm from hashtag order by id");
+        for (var row : rows) {
+            result.put(((Number) row.get("ID")).longValue(), (String) row.get("TAG_NORM"));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,114 @@
+package com.healthcare.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 해시태그 비트맵 인덱스: DB 에서 chunk 단위 재구성, any/all 매칭과 숨김 제외,
+ * 커밋 후 이벤트(작성/수정/숨김)로의 증분 갱신 (H2, MySQL 모드).
+ */
+class HashtagPostIndexTest {
+
+    private static final long DIET = 1, SQUAT = 2, CARDIO = 3;
+
+    private JdbcTemplate jdbc;
+    private HashtagPostIndex index;
+
+    @BeforeEach
+    void setUp() {
+        jdbc = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:tagindex" + System.nanoTime() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", ""));
+        jdbc.execute("create table post (id bigint primary key, is_hidden boolean not null)");
+        jdbc.execute("create table post_hashtag (post_id bigint not null, hashtag_id bigint not null, "
+                + "primary key (post_id, hashtag_id))");
+        for (long id = 1; id <= 7; id++) {
+            jdbc.update("insert into post (id, is_hidden) values (?, ?)", id, id == 4);
+        }
+        // diet: 1,2,3,4  squat: 2,4,5  cardio: 6
+        link(1, DIET);
+        link(2, DIET);
+        link(2, SQUAT);
+        link(3, DIET);
+        link(4, DIET);
+        link(4, SQUAT);
+        link(5, SQUAT);
+        link(6, CARDIO);
+        index = new HashtagPostIndex(jdbc, 2); // chunk 2: 여러 chunk 에 걸쳐 읽도록
+    }
+
+    @Test
+    void notReadyUntilRebuiltSoCallersFallBackToDb() {
+        assertThat(index.isReady()).isFalse();
+        assertThat(index.match(List.of(DIET), false)).isEmpty();
+
+        index.rebuild();
+
+        assertThat(index.isReady()).isTrue();
+    }
+
+    @Test
+    void rebuildMatchesAnyAndAllExcludingHiddenPosts() {
+        index.rebuild();
+
+        assertThat(ids(List.of(DIET), false)).containsExactly(1, 2, 3);       // 4 는 숨김
+        assertThat(ids(List.of(DIET, SQUAT), false)).containsExactly(1, 2, 3, 5);
+        assertThat(ids(List.of(DIET, SQUAT), true)).containsExactly(2);
+        assertThat(ids(List.of(DIET, 99L), false)).containsExactly(1, 2, 3);  // 모르는 태그: any 는 무시
+        assertThat(ids(List.of(DIET, 99L), true)).isEmpty();                  // all 은 결과 없음
+        assertThat(ids(List.of(), false)).isEmpty();
+    }
+
+    @Test
+    void postEventsUpdateIndexIncrementally() {
+        index.rebuild();
+
+        // 새 글
+        index.onPostSaved(new CommunityEvents.PostSaved(8L, false, Set.of(DIET, CARDIO), Set.of()));
+        assertThat(ids(List.of(DIET, CARDIO), true)).containsExactly(8);
+
+        // 수정: diet 제거, squat 추가
+        index.onPostSaved(new CommunityEvents.PostSaved(1L, false, Set.of(SQUAT), Set.of(DIET)));
+        assertThat(ids(List.of(DIET), false)).containsExactly(2, 3, 8);
+        assertThat(ids(List.of(SQUAT), false)).containsExactly(1, 2, 5);
+
+        // 숨김/해제
+        index.onPostHidden(new CommunityEvents.PostHidden(2L, true));
+        assertThat(ids(List.of(DIET), false)).containsExactly(3, 8);
+        index.onPostHidden(new CommunityEvents.PostHidden(4L, false));
+        assertThat(ids(List.of(DIET), false)).containsExactly(3, 4, 8);
+
+        // 숨김 상태로 저장된 글은 태그는 갖되 노출되지 않는다
+        index.onPostSaved(new CommunityEvents.PostSaved(9L, true, Set.of(CARDIO), Set.of()));
+        assertThat(ids(List.of(CARDIO), false)).containsExactly(6, 8);
+        index.onPostHidden(new CommunityEvents.PostHidden(9L, false));
+        assertThat(ids(List.of(CARDIO), false)).containsExactly(6, 8, 9);
+    }
+
+    @Test
+    void rebuildReflectsDbChangesMadeSinceLastBuild() {
+        index.rebuild();
+        jdbc.update("update post set is_hidden = true where id = 1");
+        jdbc.update("delete from post_hashtag where post_id = 2 and hashtag_id = ?", DIET);
+
+        index.rebuild();
+
+        assertThat(ids(List.of(DIET), false)).containsExactly(3);
+    }
+
+    private List<Integer> ids(List<Long> tags, boolean all) {
+        RoaringBitmap matched = index.match(tags, all).orElseThrow();
+        return matched.stream().boxed().toList();
+    }
+
+    private void link(long postId, long tagId) {
+        jdbc.update("insert into post_hashtag (post_id, hashtag_id) values (?, ?)", postId, tagId);
+    }
+}
@@ -0,0 +1,91 @@
+package com.healthcare.service;
+
+import com.healthcare.repository.PostHotScoreRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * hot_score 배치 벤치마크 (게시글 100만 건, H2 인메모리 MySQL 모드).
+ * 기본 test 태스크에서는 제외되며 ./gradlew benchmark 로 실행한다.
+ */
+@Tag("benchmark")
+class HotRankingJobBenchmarkTest {
+
+    private static final int POSTS = 1_000_000;
+
+    private static JdbcTemplate jdbc;
+    private static HotRankingJob job;
+
+    @BeforeAll
+    static void setUp() {
+        var ds = new DriverManagerDataSource("jdbc:h2:mem:hotbench;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbc = new JdbcTemplate(ds);
+        jdbc.execute("""
+                create table post (
+                  id            bigint primary key,
+                  is_hidden     boolean   not null default false,
+                  like_count    bigint    not null default 0,
+                  view_count    bigint    not null default 0,
+                  comment_count bigint    not null default 0,
+                  hot_score     bigint    not null default 0,
+                  hot_dirty     boolean   not null default true,
+                  created_at    timestamp not null,
+                  updated_at    timestamp not null
+                )
+                """);
+        jdbc.execute("create index idx_post_hot_dirty on post(hot_dirty, id)");
+        jdbc.execute("create index idx_post_hidden_hot on post(is_hidden, hot_score desc, created_at desc)");
+        jdbc.update("""
+                insert into post (id, like_count, view_count, comment_count, created_at, updated_at)
+                select x, mod(x * 7, 500), mod(x * 13, 5000), mod(x * 3, 50),
+                       dateadd('SECOND', -mod(x * 37, 31536000), timestamp '2026-01-01 00:00:00'),
+                       timestamp '2026-01-01 00:00:00'
+                from system_range(1, ?)
+                """, POSTS);
+
+        var calculator = new HotScoreCalculator(1.0, 2.0, 0.1, 45000);
+        job = new HotRankingJob(new PostHotScoreRepository(jdbc), calculator, 1000);
+    }
+
+    @Test
+    void fullThenIncrementalRefresh() {
+        long t0 = System.nanoTime();
+        int full = job.refreshDirty();
+        long fullMs = (System.nanoTime() - t0) / 1_000_000;
+
+        assertThat(full).isEqualTo(POSTS);
+        assertThat(countDirty()).isZero();
+
+        // 1% 게시글에 참여도 변화 (카운터 증가 경로와 동일하게 dirty 표시)
+        int changed = jdbc.update(
+                "update post set like_count = like_count + 1, hot_dirty = true where mod(id, 100) = 0");
+
+        long t1 = System.nanoTime();
+        int incremental = job.refreshDirty();
+        long incMs = (System.nanoTime() - t1) / 1_000_000;
+
+        assertThat(incremental).isEqualTo(changed);
+        assertThat(countDirty()).isZero();
+
+        // 인덱스 기반 hot 상위 페이지
+        long t2 = System.nanoTime();
+        var top = jdbc.queryForList("""
+                select id from post where is_hidden = false
+                order by hot_score desc, created_at desc limit 20
+                """, Long.class);
+        long topMs = (System.nanoTime() - t2) / 1_000_000;
+        assertThat(top).hasSize(20);
+
+        System.out.printf("[HotRankingJobBenchmark] posts=%d full=%dms incremental(%d)=%dms top20=%dms%n",
+                POSTS, fullMs, changed, incMs, topMs);
+    }
+
+    private long countDirty() {
+        return jdbc.queryForObject("select count(*) from post where hot_dirty = true", Long.class);
+    }
+}
@@ -0,0 +1,85 @@
+package com.healthcare.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 실패율 초과 시 OPEN(즉시 거절), 대기 후 시험 호출 1건만 통과(HALF_OPEN), 결과에 따른 복귀/재오픈,
+ * 게이트 포화·취소는 실패로 세지 않는지 확인.
+ */
+class OpenAiCircuitBreakerTest {
+
+    private static final long OPEN_MS = 100;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final OpenAiCircuitBreaker breaker = new OpenAiCircuitBreaker(registry, 10, 4, 50, OPEN_MS);
+
+    @Test
+    void opensWhenFailureRateReachesThresholdAndRejectsImmediately() {
+        breaker.acquire().success();
+        breaker.acquire().failure(new RuntimeException("timeout"));
+        breaker.acquire().success();
+        assertThat(breaker.state()).isEqualTo(OpenAiCircuitBreaker.State.CLOSED); // 최소 호출 수 미만
+
+        breaker.acquire().failure(new RuntimeException("500"));
+        assertThat(breaker.state()).isEqualTo(OpenAiCircuitBreaker.State.OPEN);
+
+        long start = System.nanoTime();
+        assertThatThrownBy(breaker::acquire)
+                .isInstanceOf(AiUnavailableException.class)
+                .satisfies(e -> assertThat(((AiUnavailableException) e).getRetryAfterSeconds()).isPositive());
+        assertThat((System.nanoTime() - start) / 1_000_000).isLessThan(50);
+        assertThat(registry.get("ai.circuit.rejected").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void halfOpenLetsOneTrialThroughAndClosesOnSuccess() throws Exception {
+        tripOpen();
+        Thread.sleep(OPEN_MS + 20);
+
+        var trial = breaker.acquire();
+        assertThat(breaker.state()).isEqualTo(OpenAiCircuitBreaker.State.HALF_OPEN);
+        assertThatThrownBy(breaker::acquire).isInstanceOf(AiUnavailableException.class);
+
+        trial.success();
+        assertThat(breaker.state()).isEqualTo(OpenAiCircuitBreaker.State.CLOSED);
+        breaker.acquire().success();
+    }
+
+    @Test
+    void failedTrialReopens() throws Exception {
+        tripOpen();
+        Thread.sleep(OPEN_MS + 20);
+
+        breaker.acquire().failure(new RuntimeException("still down"));
+        assertThat(breaker.state()).isEqualTo(OpenAiCircuitBreaker.State.OPEN);
+        assertThatThrownBy(breaker::acquire).isInstanceOf(AiUnavailableException.class);
+    }
+
+    @Test
+    void gateRejectionsAndCancellationsAreNotCounted() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            breaker.acquire().failure(new AiBusyException("busy", 1));
+            breaker.acquire().ignore();
+        }
+        assertThat(breaker.state()).isEqualTo(OpenAiCircuitBreaker.State.CLOSED);
+
+        // 취소된 시험 호출은 자리만 반납
+        tripOpen();
+        Thread.sleep(OPEN_MS + 20);
+        breaker.acquire().ignore();
+        assertThat(breaker.state()).isEqualTo(OpenAiCircuitBreaker.State.HALF_OPEN);
+        breaker.acquire().success();
+        assertThat(breaker.state()).isEqualTo(OpenAiCircuitBreaker.State.CLOSED);
+    }
+
+    private void tripOpen() {
+        for (int i = 0; i < 4; i++) {
+            breaker.acquire().failure(new RuntimeException("down"));
+        }
+        assertThat(breaker.state()).isEqualTo(OpenAiCircuitBreaker.State.OPEN);
+    }
+}
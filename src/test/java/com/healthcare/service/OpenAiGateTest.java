@@ -0,0 +1,132 @@
+package com.healthcare.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 동시 호출 상한, 대기열 가득 시 즉시 거절, 대기 마감, 분당 요청/토큰 버킷과 거절 메트릭 확인.
+ */
+class OpenAiGateTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void capsConcurrentCallsAndQueuesTheRest() throws Exception {
+        var gate = gate(2, 10, 5_000, 10_000, 10_000_000);
+        var running = new AtomicInteger();
+        var maxRunning = new AtomicInteger();
+        var pool = Executors.newFixedThreadPool(6);
+        try {
+            var futures = new ArrayList<Future<?>>();
+            for (int i = 0; i < 6; i++) {
+                futures.add(pool.submit(() -> {
+                    try (var permit = gate.acquire(10)) {
+                        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                        Thread.sleep(100);
+                        running.decrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            for (var f : futures) f.get(5, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(maxRunning.get()).isEqualTo(2);
+        assertThat(gate.inflight()).isZero();
+        assertThat(registry.get("ai.gate.queue.wait").timer().count()).isEqualTo(6);
+    }
+
+    @Test
+    void rejectsImmediatelyWhenQueueIsFull() throws Exception {
+        var gate = gate(1, 1, 5_000, 10_000, 10_000_000);
+        var holder = gate.acquire(10);
+        var waiter = CompletableFuture.runAsync(() -> gate.acquire(10).close());
+        awaitQueued(1);
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> gate.acquire(10))
+                .isInstanceOf(AiBusyException.class)
+                .satisfies(e -> assertThat(((AiBusyException) e).getRetryAfterSeconds()).isEqualTo(5));
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(500);
+
+        holder.close();
+        waiter.get(5, TimeUnit.SECONDS);
+        assertThat(registry.get("ai.gate.rejected").tag("reason", "queue_full").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void retryAfterRoundsUpToWholeSeconds() {
+        assertThat(OpenAiGate.retryAfterSeconds(0)).isEqualTo(1);
+        assertThat(OpenAiGate.retryAfterSeconds(TimeUnit.MILLISECONDS.toNanos(200))).isEqualTo(1);
+        assertThat(OpenAiGate.retryAfterSeconds(TimeUnit.SECONDS.toNanos(1))).isEqualTo(1);
+        assertThat(OpenAiGate.retryAfterSeconds(TimeUnit.MILLISECONDS.toNanos(1_001))).isEqualTo(2);
+        assertThat(OpenAiGate.retryAfterSeconds(TimeUnit.MILLISECONDS.toNanos(2_500))).isEqualTo(3);
+    }
+
+    @Test
+    void givesUpAfterMaxWait() {
+        var gate = gate(1, 5, 200, 10_000, 10_000_000);
+        var holder = gate.acquire(10);
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> gate.acquire(10))
+                .isInstanceOf(AiBusyException.class)
+                .satisfies(e -> assertThat(((AiBusyException) e).getRetryAfterSeconds()).isEqualTo(1)); // 200ms → 1초
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isBetween(150L, 2_000L);
+
+        holder.close();
+        holder.close(); // 중복 반납은 무시
+        assertThat(gate.inflight()).isZero();
+        assertThat(registry.get("ai.gate.rejected").tag("reason", "timeout").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void requestsPerMinuteBucketRejectsWithRetryAfter() {
+        var gate = gate(4, 10, 100, 2, 10_000_000);
+        gate.acquire(10).close();
+        gate.acquire(10).close();
+
+        // 다음 요청 1개가 채워지기까지 30초 → 마감(100ms) 안에 불가
+        assertThatThrownBy(() -> gate.acquire(10))
+                .isInstanceOf(AiBusyException.class)
+                .satisfies(e -> assertThat(((AiBusyException) e).getRetryAfterSeconds()).isBetween(25L, 31L));
+        assertThat(gate.inflight()).isZero();
+        assertThat(registry.get("ai.gate.rejected").tag("reason", "rate_limit").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void tokensPerMinuteBucketReservesPromptAndCompletion() {
+        var gate = gate(4, 10, 100, 1_000, 6_000);
+        gate.acquire(5_000).close();
+
+        assertThatThrownBy(() -> gate.acquire(5_000)).isInstanceOf(AiBusyException.class);
+        gate.acquire(500).close(); // 남은 1,000 안쪽은 통과
+    }
+
+    @Test
+    void estimatesHangulPerCharacterAndAsciiPerFourCharacters() {
+        assertThat(OpenAiGate.estimateTokens("스쿼트")).isEqualTo(4 + 3);
+        assertThat(OpenAiGate.estimateTokens("squat")).isEqualTo(4 + 2);
+        assertThat(OpenAiGate.estimateTokens(null)).isEqualTo(4);
+    }
+
+    private OpenAiGate gate(int maxConcurrent, int maxQueued, long maxWaitMs, long rpm, long tpm) {
+        return new OpenAiGate(registry, maxConcurrent, maxQueued, maxWaitMs, rpm, tpm);
+    }
+
+    private void awaitQueued(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (registry.get("ai.gate.queued").gauge().value() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.healthcare.service;
+
+import com.healthcare.domain.PlanItem;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * 규칙 기반 기본 플랜: BMR/TDEE 계산, 활동 수준별 운동 횟수, 목표별 칼로리 보정,
+ * 결과가 GPT 플랜과 같은 형식으로 AiPlanParser 에서 7일 모두 읽히는지 확인.
+ */
+class RuleBasedPlanGeneratorTest {
+
+    private final RuleBasedPlanGenerator generator = new RuleBasedPlanGenerator();
+    private final AiPlanParser parser = new AiPlanParser();
+
+    @Test
+    void computesMifflinStJeorBmr() {
+        assertThat(RuleBasedPlanGenerator.bmr("M", 70, 175, 30)).isCloseTo(1648.75, within(0.01));
+        assertThat(RuleBasedPlanGenerator.bmr("F", 55, 160, 25)).isCloseTo(1264.0, within(0.01));
+    }
+
+    @Test
+    void producesParseableWeekMatchingActivityLevelAndGoal() {
+        var info = Map.<String, Object>of("gender", "M", "age", 30, "heightCm", 175.0, "weightKg", 70.0,
+                "activityLevel", "LOW", "goal", "체중 감량");
+
+        var plan = parser.parse(generator.generate(info));
+
+        assertThat(plan.title()).isEqualTo(RuleBasedPlanGenerator.TITLE);
+        assertThat(plan.skipped()).isZero();
+        assertThat(plan.days()).hasSize(7);
+        // LOW: 주 3회 30분 (나머지는 20분 회복 운동)
+        long workoutDays = plan.days().stream()
+                .filter(d -> d.items().stream().anyMatch(i -> i.itemType() == PlanItem.ItemType.WORKOUT
+                        && Integer.valueOf(30).equals(i.targetMin())))
+                .count();
+        assertThat(workoutDays).isEqualTo(3);
+
+        // 감량: TDEE(1649 × 1.375 ≈ 2267) - 500 ≈ 1770 kcal
+        int dailyKcal = plan.days().get(0).items().stream()
+                .filter(i -> i.itemType() == PlanItem.ItemType.DIET)
+                .mapToInt(i -> i.targetKcal() != null ? i.targetKcal() : 0)
+                .sum();
+        assertThat(dailyKcal).isBetween(1740, 1800);
+        assertThat(plan.note()).contains("1770kcal");
+    }
+
+    @Test
+    void gainGoalAddsCaloriesAndHighActivityTrainsFiveDays() {
+        var info = Map.<String, Object>of("gender", "F", "age", 25, "heightCm", 160.0, "weightKg", 55.0,
+                "activityLevel", "HIGH", "goal", "근육 증가");
+
+        var plan = parser.parse(generator.generate(info));
+
+        long trainingDays = plan.days().stream()
+                .filter(d -> d.items().stream().anyMatch(i -> Integer.valueOf(60).equals(i.targetMin())))
+                .count();
+        assertThat(trainingDays).isEqualTo(5);
+        // 1264 × 1.725 + 300 ≈ 2480
+        assertThat(plan.note()).contains("2480kcal");
+    }
+
+    @Test
+    void isDeterministicAndHandlesMissingProfileFields() {
+        var info = Map.<String, Object>of("specialRequests", "무릎 부상");
+
+        String first = generator.generate(info);
+        assertThat(generator.generate(info)).isEqualTo(first);
+
+        var plan = parser.parse(first);
+        assertThat(plan.days()).hasSize(7);
+        assertThat(plan.note()).contains("특별 요청사항은 반영되지 않았");
+    }
+
+}